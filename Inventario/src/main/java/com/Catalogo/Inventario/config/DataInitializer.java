@@ -8,7 +8,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
 import java.util.List;
@@ -21,11 +20,18 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private SyntheticCatalogGenerator catalogGenerator;
+
     @Value("${app.data.initializer.enabled:true}")
     private boolean dataInitializerEnabled;
 
+    // Tamaño del catálogo sintético (perfil large-catalog); 0 = solo los productos precargados
+    @Value("${app.data.generator.products:0}")
+    private int generatedProducts;
+
+    // Sin @Transactional: saveAll tiene su propia transacción y el catálogo sintético se confirma por lotes
     @Override
-    @Transactional
     public void run(String... args) throws Exception {
         if (!dataInitializerEnabled) {
             logger.info("=== CARGA INICIAL DE DATOS DESHABILITADA ===");
@@ -43,6 +49,24 @@ public class DataInitializer implements CommandLineRunner {
         } else {
             logger.info("=== LA BASE DE DATOS YA CONTIENE {} PRODUCTOS. OMITIENDO CARGA INICIAL ===", productCount);
         }
+
+        if (generatedProducts > 0) {
+            seedSyntheticCatalog();
+        }
+    }
+
+    // Completa el catálogo hasta app.data.generator.products con productos sintéticos
+    private void seedSyntheticCatalog() {
+        long current = productRepository.count();
+        if (current >= generatedProducts) {
+            logger.info("=== CATÁLOGO SINTÉTICO OMITIDO: YA HAY {} PRODUCTOS ===", current);
+            return;
+        }
+        int missing = (int) (generatedProducts - current);
+        logger.info("=== INICIANDO CATÁLOGO SINTÉTICO: {} PRODUCTOS ===", missing);
+        SyntheticCatalogGenerator.SeedStats stats = catalogGenerator.generate(missing);
+        logger.info("=== CATÁLOGO SINTÉTICO INSERTADO: {} PRODUCTOS EN {} ms ({} filas/s) ===",
+                stats.rows(), stats.elapsedMs(), stats.rowsPerSecond());
     }
 
     private List<Product> createInitialProducts() {
@@ -1,5 +1,6 @@
 package com.Catalogo.Inventario.config;
 
+import com.Catalogo.Inventario.service.TokenVersionCache;
 import com.Catalogo.Inventario.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -26,6 +27,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -49,6 +53,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             path.contains("api-docs") ||
             (path.matches("/api/v1/products/\\d+") && "GET".equals(method)) || // GET producto por ID específico
             (path.equals("/api/v1/products/offers") && "GET".equals(method)) || // GET productos en oferta
+            (path.equals("/api/v1/products/search") && "GET".equals(method)) || // GET búsqueda de productos
+            (path.equals("/api/v1/products/filter") && "GET".equals(method)) || // GET filtrado por facetas
+            (path.startsWith("/api/v1/products/changes") && "GET".equals(method)) || // GET log de cambios (consulta y SSE)
             (path.startsWith("/api/v1/reports/count") && "GET".equals(method)) ||
             (path.startsWith("/api/reports/count") && "GET".equals(method))) {
             filterChain.doFilter(request, response);
@@ -76,8 +83,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Si tenemos un email y no hay autenticación actual en el contexto
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                // Validar el token
-                if (jwtUtil.validateToken(token)) {
+                // Validar el token (vencimiento y que no sea anterior al último cambio de contraseña del usuario)
+                if (jwtUtil.validateToken(token)
+                        && tokenVersionCache.isCurrent(jwtUtil.extractUserId(token), jwtUtil.extractTokenVersion(token))) {
                     // Obtener el rol del token
                     String role = jwtUtil.extractRole(token);
                     
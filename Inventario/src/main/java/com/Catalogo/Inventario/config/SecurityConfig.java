@@ -3,6 +3,7 @@ package com.Catalogo.Inventario.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -38,27 +39,35 @@ public class SecurityConfig {
             // Configurar autorización
             .authorizeHttpRequests(auth -> auth
                     // Permitir OPTIONS para CORS preflight
-                    .requestMatchers("OPTIONS", "/**").permitAll()
+                    .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                     // Endpoints públicos
                     .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
-                    .requestMatchers("GET", "/api/v1/products/{id}").permitAll() // GET de producto por ID público (para ver detalles)
-                    .requestMatchers("GET", "/api/v1/products/offers").permitAll() // GET de productos en oferta público
-                    .requestMatchers("GET", "/api/v1/reports/count/**").permitAll() // GET de conteo de reportes público
-                    .requestMatchers("GET", "/api/reports/count/**").permitAll() // GET de conteo de reportes público (ruta alternativa)
+                    .requestMatchers(HttpMethod.GET, "/api/v1/products/{id}").permitAll() // GET de producto por ID público (para ver detalles)
+                    .requestMatchers(HttpMethod.GET, "/api/v1/products/offers").permitAll() // GET de productos en oferta público
+                    .requestMatchers(HttpMethod.GET, "/api/v1/products/search").permitAll() // GET de búsqueda de productos público
+                    .requestMatchers(HttpMethod.GET, "/api/v1/products/filter").permitAll() // GET de filtrado por facetas público
+                    .requestMatchers(HttpMethod.GET, "/api/v1/products/{id}/price-history").permitAll() // GET de historial de precios público
+                    .requestMatchers(HttpMethod.GET, "/api/v1/products/changes", "/api/v1/products/changes/stream").permitAll() // GET de log de cambios público (EventSource no envía headers)
+                    .requestMatchers(HttpMethod.GET, "/api/v1/reports/count/**").permitAll() // GET de conteo de reportes público
+                    .requestMatchers(HttpMethod.GET, "/api/reports/count/**").permitAll() // GET de conteo de reportes público (ruta alternativa)
                     // Endpoints que requieren autenticación (cualquier usuario autenticado puede ver todos los productos para PC Builder)
-                    .requestMatchers("GET", "/api/v1/products").authenticated() // GET de todos los productos requiere autenticación (para PC Builder)
+                    .requestMatchers(HttpMethod.GET, "/api/v1/products").authenticated() // GET de todos los productos requiere autenticación (para PC Builder)
                     // Endpoints que requieren rol ADMIN
-                    .requestMatchers("POST", "/api/v1/products").hasRole("ADMIN") // POST crear producto requiere ADMIN
-                    .requestMatchers("PUT", "/api/v1/products/{id}/stock").authenticated() // PUT reducir stock requiere autenticación (usado por servicio de Pedidos)
-                    .requestMatchers("PUT", "/api/v1/products/**").hasRole("ADMIN") // PUT actualizar producto requiere ADMIN
-                    .requestMatchers("DELETE", "/api/v1/products/**").hasRole("ADMIN") // DELETE eliminar producto requiere ADMIN
+                    .requestMatchers(HttpMethod.POST, "/api/v1/products").hasRole("ADMIN") // POST crear producto requiere ADMIN
+                    .requestMatchers(HttpMethod.POST, "/api/v1/products/import").hasRole("ADMIN") // POST importación masiva requiere ADMIN
+                    .requestMatchers(HttpMethod.PUT, "/api/v1/products/{id}/stock").authenticated() // PUT reducir stock requiere autenticación (usado por servicio de Pedidos)
+                    .requestMatchers(HttpMethod.PUT, "/api/v1/products/**").hasRole("ADMIN") // PUT actualizar producto requiere ADMIN
+                    .requestMatchers(HttpMethod.DELETE, "/api/v1/products/**").hasRole("ADMIN") // DELETE eliminar producto requiere ADMIN
+                    .requestMatchers("/api/v1/stock/**").hasRole("ADMIN") // Libro de movimientos de stock requiere ADMIN (auditoría y conciliación con Pagos)
                     // Endpoints que requieren autenticación (cualquier rol autenticado)
-                    .requestMatchers("POST", "/api/v1/reports").authenticated() // POST de reportes requiere autenticación
-                    .requestMatchers("POST", "/api/reports").authenticated() // POST de reportes requiere autenticación (ruta alternativa)
-                    .requestMatchers("POST", "/api/products/**/reports").authenticated() // POST de reportes por producto requiere autenticación
-                    .requestMatchers("POST", "/api/products/*/reports").authenticated() // POST de reportes por producto requiere autenticación (patrón alternativo)
-                    .requestMatchers("GET", "/api/v1/reports").authenticated() // GET de todos los reportes requiere autenticación
-                    .requestMatchers("GET", "/api/reports").authenticated() // GET de todos los reportes requiere autenticación (ruta alternativa)
+                    .requestMatchers(HttpMethod.POST, "/api/v1/reports").authenticated() // POST de reportes requiere autenticación
+                    .requestMatchers(HttpMethod.POST, "/api/reports").authenticated() // POST de reportes requiere autenticación (ruta alternativa)
+                    .requestMatchers(HttpMethod.POST, "/api/products/**/reports").authenticated() // POST de reportes por producto requiere autenticación
+                    .requestMatchers(HttpMethod.POST, "/api/products/*/reports").authenticated() // POST de reportes por producto requiere autenticación (patrón alternativo)
+                    .requestMatchers(HttpMethod.GET, "/api/v1/reports").authenticated() // GET de todos los reportes requiere autenticación
+                    .requestMatchers(HttpMethod.GET, "/api/reports").authenticated() // GET de todos los reportes requiere autenticación (ruta alternativa)
+                    .requestMatchers(HttpMethod.GET, "/api/v1/reports/page", "/api/reports/page").authenticated() // GET de reportes por páginas requiere autenticación
+                    .requestMatchers(HttpMethod.GET, "/api/v1/reports/top", "/api/reports/top").authenticated() // GET de productos más reportados requiere autenticación
                     .anyRequest().authenticated()
             )
             // Agregar el filtro JWT DESPUÉS de la configuración de autorización
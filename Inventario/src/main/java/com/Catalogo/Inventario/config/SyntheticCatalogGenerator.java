@@ -0,0 +1,231 @@
+package com.Catalogo.Inventario.config;
+
+import com.Catalogo.Inventario.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.SplittableRandom;
+import java.util.TimeZone;
+
+/**
+ * Generador de un catálogo sintético grande (100k - 1M productos) para pruebas de rendimiento.
+ * Se activa con el perfil "large-catalog" (app.data.generator.products > 0) y lo invoca DataInitializer.
+ * Los productos tienen una mezcla realista de categorías, marcas, precios, stock y ofertas, y las
+ * imágenes son URLs de referencia (no base64). Se insertan con JDBC por lotes; con
+ * rewriteBatchedStatements=true el driver de MySQL los envía como INSERT de múltiples filas.
+ * Cada producto depende solo de la semilla y de su ID, así dos cargas sobre una base vacía
+ * con la misma semilla generan el mismo catálogo.
+ */
+@Component
+public class SyntheticCatalogGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticCatalogGenerator.class);
+
+    // Debe coincidir con allocationSize de la secuencia product_seq en Product
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_SQL = "INSERT INTO products (id, name, brand, model, category, price, stock, description, image, "
+            + "is_on_sale, discount, offer_start_date, offer_end_date, version, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Categoría del catálogo con su peso relativo, marcas, líneas de producto y rango de precios
+     */
+    private record CategorySpec(String category, int weight, String[] brands, String[] lines,
+                                double minPrice, double maxPrice, String description) {
+    }
+
+    private static final CategorySpec[] CATEGORIES = {
+        new CategorySpec("GPU", 12, new String[]{"MSI", "ASUS", "Gigabyte", "Zotac", "Sapphire", "PowerColor", "NVIDIA", "AMD"},
+                new String[]{"GeForce RTX 4060", "GeForce RTX 4070", "GeForce RTX 4080", "Radeon RX 7600", "Radeon RX 7800 XT", "Radeon RX 7900 XTX"},
+                199990, 2499990, "Tarjeta gráfica para gaming y creación de contenido."),
+        new CategorySpec("CPU", 8, new String[]{"Intel", "AMD"},
+                new String[]{"Core i5", "Core i7", "Core i9", "Ryzen 5", "Ryzen 7", "Ryzen 9"},
+                89990, 899990, "Procesador de escritorio de última generación."),
+        new CategorySpec("RAM", 12, new String[]{"Corsair", "Kingston", "G.Skill", "Crucial", "TeamGroup"},
+                new String[]{"DDR4 16GB", "DDR4 32GB", "DDR5 32GB", "DDR5 64GB"},
+                29990, 349990, "Kit de memoria RAM para escritorio."),
+        new CategorySpec("SSD", 12, new String[]{"Samsung", "WD", "Kingston", "Crucial", "Seagate"},
+                new String[]{"NVMe 500GB", "NVMe 1TB", "NVMe 2TB", "SATA 1TB", "NVMe 4TB"},
+                29990, 499990, "Unidad de estado sólido de alta velocidad."),
+        new CategorySpec("HDD", 4, new String[]{"Seagate", "WD", "Toshiba"},
+                new String[]{"2TB 7200RPM", "4TB 5400RPM", "8TB NAS"},
+                49990, 299990, "Disco duro para almacenamiento masivo."),
+        new CategorySpec("Motherboard", 10, new String[]{"ASUS", "MSI", "Gigabyte", "ASRock"},
+                new String[]{"B650", "X670E", "B760", "Z790", "A620"},
+                79990, 799990, "Placa madre con soporte para la última generación de procesadores."),
+        new CategorySpec("PSU", 8, new String[]{"Corsair", "Seasonic", "EVGA", "Cooler Master", "be quiet!"},
+                new String[]{"650W Bronze", "750W Gold", "850W Gold", "1000W Platinum"},
+                49990, 399990, "Fuente de poder certificada 80 Plus."),
+        new CategorySpec("Case", 8, new String[]{"NZXT", "Lian Li", "Corsair", "Fractal Design", "Cooler Master"},
+                new String[]{"Mid Tower", "Full Tower", "Mini ITX", "Airflow"},
+                39990, 349990, "Gabinete con excelente flujo de aire."),
+        new CategorySpec("Cooler", 8, new String[]{"Noctua", "Corsair", "NZXT", "Cooler Master", "Arctic"},
+                new String[]{"Air 120mm", "Air Dual Tower", "AIO 240mm", "AIO 360mm"},
+                19990, 299990, "Sistema de refrigeración para procesador."),
+        new CategorySpec("Peripheral", 18, new String[]{"Logitech", "Razer", "HyperX", "SteelSeries", "Corsair", "Redragon"},
+                new String[]{"Mouse", "Teclado mecánico", "Audífonos", "Monitor 27\"", "Webcam", "Mousepad"},
+                9990, 699990, "Periférico gaming de alto rendimiento.")
+    };
+
+    private static final int TOTAL_WEIGHT;
+
+    static {
+        int total = 0;
+        for (CategorySpec spec : CATEGORIES) {
+            total += spec.weight();
+        }
+        TOTAL_WEIGHT = total;
+    }
+
+    // Variantes de imagen por categoría (se referencian por URL, no se embeben)
+    private static final int IMAGE_VARIANTS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.data.generator.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.data.generator.seed:42}")
+    private long seed;
+
+    @Value("${app.data.generator.image-base-url:https://cdn.pconestop.cl/img}")
+    private String imageBaseUrl;
+
+    /**
+     * Inserta la cantidad indicada de productos sintéticos.
+     * Cada lote se confirma por separado (sin una transacción que abarque toda la carga).
+     * @return estadísticas de la carga (filas, duración y filas por segundo)
+     */
+    public SeedStats generate(int count) {
+        long start = System.currentTimeMillis();
+        long firstId = reserveIds(count);
+        Timestamp now = Timestamp.from(Instant.now());
+        int reportEvery = Math.max(count / 10, batchSize);
+
+        int inserted = 0;
+        while (inserted < count) {
+            int offset = inserted;
+            int size = Math.min(batchSize, count - inserted);
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                // Instant se guarda en UTC (igual que lo hace Hibernate para updatedAt)
+                private final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    long id = firstId + offset + i;
+                    bind(ps, id, buildProduct(id), now, utc);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+            int before = inserted;
+            inserted += size;
+            if (inserted / reportEvery != before / reportEvery || inserted == count) {
+                long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+                logger.info("Catálogo sintético: {}/{} productos ({} filas/s)", inserted, count, inserted * 1000L / elapsed);
+            }
+        }
+
+        long elapsedMs = Math.max(System.currentTimeMillis() - start, 1);
+        return new SeedStats(inserted, elapsedMs, inserted * 1000L / elapsedMs);
+    }
+
+    /**
+     * Construye el producto sintético para un ID (determinista según la semilla)
+     */
+    public Product buildProduct(long id) {
+        SplittableRandom random = new SplittableRandom(seed * 31 + id);
+        CategorySpec spec = pickCategory(random.nextInt(TOTAL_WEIGHT));
+        String brand = spec.brands()[random.nextInt(spec.brands().length)];
+        String line = spec.lines()[random.nextInt(spec.lines().length)];
+
+        Product product = new Product();
+        product.setName(brand + " " + line);
+        product.setBrand(brand);
+        // El ID hace único el par marca + modelo (clave de la importación masiva)
+        product.setModel(line + " SX-" + id);
+        product.setCategory(spec.category());
+        product.setPrice(randomPrice(random, spec.minPrice(), spec.maxPrice()));
+        // ~5% sin stock, el resto entre 1 y 60 unidades
+        product.setStock(random.nextInt(100) < 5 ? 0 : 1 + random.nextInt(60));
+        product.setDescription(spec.description() + " " + line + " de " + brand + ".");
+        product.setImage(imageBaseUrl + "/" + spec.category().toLowerCase() + "/" + (1 + random.nextInt(IMAGE_VARIANTS)) + ".jpg");
+        // ~8% en oferta con 5% - 30% de descuento
+        if (random.nextInt(100) < 8) {
+            product.setIsOnSale(true);
+            product.setDiscount(5 + random.nextInt(26));
+        } else {
+            product.setIsOnSale(false);
+            product.setDiscount(0);
+        }
+        return product;
+    }
+
+    private static CategorySpec pickCategory(int roll) {
+        for (CategorySpec spec : CATEGORIES) {
+            roll -= spec.weight();
+            if (roll < 0) {
+                return spec;
+            }
+        }
+        return CATEGORIES[CATEGORIES.length - 1];
+    }
+
+    // Distribución logarítmica (más productos baratos que caros), con precios terminados en 990
+    private static double randomPrice(SplittableRandom random, double min, double max) {
+        double value = Math.exp(Math.log(min) + random.nextDouble() * (Math.log(max) - Math.log(min)));
+        return Math.max(Math.round(value / 1000) * 1000 - 10, 990);
+    }
+
+    /**
+     * Reserva un rango de IDs para la carga y avanza la secuencia product_seq (tabla en MySQL)
+     * más allá del rango, con margen para el bloque que Hibernate ya tenga asignado en memoria.
+     */
+    private long reserveIds(int count) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM products", Long.class);
+        Long nextVal = jdbcTemplate.queryForObject("SELECT next_val FROM product_seq", Long.class);
+        long firstId = Math.max(maxId, nextVal != null ? nextVal : 0) + ID_ALLOCATION_SIZE + 1;
+        jdbcTemplate.update("UPDATE product_seq SET next_val = ?", firstId + count + ID_ALLOCATION_SIZE);
+        return firstId;
+    }
+
+    private void bind(PreparedStatement ps, long id, Product product, Timestamp now, Calendar utc) throws SQLException {
+        ps.setLong(1, id);
+        ps.setString(2, product.getName());
+        ps.setString(3, product.getBrand());
+        ps.setString(4, product.getModel());
+        ps.setString(5, product.getCategory());
+        ps.setDouble(6, product.getPrice());
+        ps.setInt(7, product.getStock());
+        ps.setString(8, product.getDescription());
+        ps.setString(9, product.getImage());
+        ps.setBoolean(10, product.getIsOnSale());
+        ps.setInt(11, product.getDiscount());
+        ps.setNull(12, Types.DATE);
+        ps.setNull(13, Types.DATE);
+        ps.setLong(14, 0L);
+        ps.setTimestamp(15, now, utc);
+    }
+
+    /**
+     * Resultado de una carga sintética
+     */
+    public record SeedStats(int rows, long elapsedMs, long rowsPerSecond) {
+    }
+}
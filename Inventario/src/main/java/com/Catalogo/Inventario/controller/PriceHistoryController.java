@@ -0,0 +1,71 @@
+package com.Catalogo.Inventario.controller;
+
+import com.Catalogo.Inventario.dto.ApiResponse;
+import com.Catalogo.Inventario.dto.PriceSeries;
+import com.Catalogo.Inventario.service.PriceHistory;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/v1/products")
+@Tag(name = "Historial de Precios", description = "Evolución del precio y el descuento de cada componente, para graficar tendencias y verificar si una oferta es un descuento real")
+public class PriceHistoryController {
+
+    @Autowired
+    private PriceHistory priceHistory;
+
+    @Operation(
+        summary = "Consultar el historial de precios de un componente",
+        description = "Retorna la serie de precios del producto entre from (incluido) y to (excluido), reducida a como máximo points intervalos " +
+                     "de igual duración. Cada punto trae el precio y descuento al final del intervalo y el precio mínimo y máximo dentro de él; " +
+                     "los intervalos sin cambios se omiten (el precio sigue igual al del punto anterior). Por defecto se consultan los últimos 30 días. " +
+                     "Este endpoint es público."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Historial obtenido exitosamente (lista vacía si el producto no tiene precios en el rango)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Historial de precios obtenido\", \"data\": {\"productId\": 5, \"from\": \"2024-04-01T00:00:00Z\", \"to\": \"2024-05-01T00:00:00Z\", \"bucketSeconds\": 86400, \"points\": [{\"ts\": \"2024-04-03T00:00:00Z\", \"price\": 699.99, \"minPrice\": 699.99, \"maxPrice\": 729.99, \"discount\": 0, \"changes\": 2}, {\"ts\": \"2024-04-20T00:00:00Z\", \"price\": 649.99, \"minPrice\": 649.99, \"maxPrice\": 699.99, \"discount\": 10, \"changes\": 1}]}, \"count\": 2}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Rango inválido: from debe ser anterior a to",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": false, \"statusCode\": 400, \"message\": \"La fecha from debe ser anterior a to\", \"data\": null, \"count\": 0}")
+            )
+        )
+    })
+    @Parameter(name = "id", description = "ID del componente", required = true, example = "5")
+    @Parameter(name = "from", description = "Inicio del rango en formato ISO-8601 (por defecto, 30 días antes de to)", example = "2024-04-01T00:00:00Z")
+    @Parameter(name = "to", description = "Fin del rango en formato ISO-8601 (por defecto, ahora)", example = "2024-05-01T00:00:00Z")
+    @Parameter(name = "points", description = "Cantidad máxima de intervalos (máximo 1000)", example = "100")
+    @GetMapping("/{id}/price-history")
+    public ResponseEntity<ApiResponse<PriceSeries>> getPriceHistory(@PathVariable Long id,
+                                                                    @RequestParam(required = false) Instant from,
+                                                                    @RequestParam(required = false) Instant to,
+                                                                    @RequestParam(defaultValue = "100") int points) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(30));
+        if (!start.isBefore(end)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, 400, "La fecha from debe ser anterior a to", null, 0L));
+        }
+        PriceSeries series = priceHistory.series(id, start, end, Math.max(1, Math.min(points, 1000)));
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Historial de precios obtenido", series, (long) series.getPoints().size()));
+    }
+}
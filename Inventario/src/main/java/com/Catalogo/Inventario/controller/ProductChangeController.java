@@ -0,0 +1,93 @@
+package com.Catalogo.Inventario.controller;
+
+import com.Catalogo.Inventario.dto.ApiResponse;
+import com.Catalogo.Inventario.dto.ProductChangePage;
+import com.Catalogo.Inventario.service.ProductChangeLog;
+import com.Catalogo.Inventario.service.ProductChangeStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/products/changes")
+@Tag(name = "Cambios de Productos", description = "Log de cambios del catálogo para que Pagos, Calificaciones y el frontend invaliden sus copias de productos sin volver a descargar el catálogo")
+public class ProductChangeController {
+
+    @Autowired
+    private ProductChangeLog changeLog;
+
+    @Autowired
+    private ProductChangeStream changeStream;
+
+    @Operation(
+        summary = "Consultar cambios de productos por número de secuencia",
+        description = "Retorna los cambios (CREATED, UPDATED, STOCK_CHANGED, DELETED) con seq mayor a after, en orden. " +
+                     "El consumidor guarda nextAfter y lo envía en la siguiente consulta. Si resync es true, el cursor es " +
+                     "más antiguo que los cambios retenidos y se debe recargar el catálogo completo. Este endpoint es público."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Cambios obtenidos exitosamente (lista vacía si no hay cambios nuevos)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Cambios obtenidos\", \"data\": {\"changes\": [{\"seq\": 1024, \"productId\": 5, \"changeType\": \"STOCK_CHANGED\", \"occurredAt\": \"2024-05-01T12:00:00Z\"}], \"nextAfter\": 1024, \"resync\": false}, \"count\": 1}")
+            )
+        )
+    })
+    @Parameter(name = "after", description = "Último seq procesado por el consumidor (0 para leer desde el inicio)", example = "1000")
+    @Parameter(name = "limit", description = "Cantidad máxima de cambios (máximo 1000)", example = "500")
+    @GetMapping
+    public ResponseEntity<ApiResponse<ProductChangePage>> getChanges(@RequestParam(defaultValue = "0") long after,
+                                                                     @RequestParam(defaultValue = "500") int limit) {
+        ProductChangePage page = changeLog.readAfter(after, Math.max(1, Math.min(limit, 1000)));
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Cambios obtenidos", page, (long) page.getChanges().size()));
+    }
+
+    @Operation(
+        summary = "Suscribirse a los cambios de productos (Server-Sent Events)",
+        description = "Abre una conexión SSE que recibe un evento 'product-change' por cada cambio, con el seq como id del evento. " +
+                     "Al reconectarse, EventSource envía el header Last-Event-ID y la transmisión continúa sin perder cambios. " +
+                     "Sin cursor se reciben solo los cambios futuros. Un evento 'resync' indica que se debe recargar el catálogo. " +
+                     "Este endpoint es público."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Conexión SSE abierta",
+            content = @Content(mediaType = "text/event-stream")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "503",
+            description = "Se alcanzó el máximo de suscriptores; reintentar más tarde o usar el endpoint de consulta",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(name = "after", description = "Seq desde el cual transmitir (si no se envía se usa Last-Event-ID o el último cambio)", example = "1000")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam(required = false) Long after,
+                                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        long cursor;
+        if (after != null) {
+            cursor = after;
+        } else if (lastEventId != null && lastEventId.matches("\\d+")) {
+            cursor = Long.parseLong(lastEventId);
+        } else {
+            cursor = changeLog.latestSeq();
+        }
+        SseEmitter emitter = changeStream.subscribe(cursor);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
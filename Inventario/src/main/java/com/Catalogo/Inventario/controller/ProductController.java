@@ -1,8 +1,18 @@
 package com.Catalogo.Inventario.controller;
 
 import com.Catalogo.Inventario.dto.ApiResponse;
+import com.Catalogo.Inventario.dto.BulkAdjustResult;
+import com.Catalogo.Inventario.dto.FacetedProductPage;
+import com.Catalogo.Inventario.dto.ImportResult;
+import com.Catalogo.Inventario.dto.ProductVersionView;
+import com.Catalogo.Inventario.dto.StockPriceAdjustment;
 import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.service.OffersPayload;
+import com.Catalogo.Inventario.service.ProductAdjustmentService;
+import com.Catalogo.Inventario.service.ProductFacetIndex;
+import com.Catalogo.Inventario.service.ProductImportService;
 import com.Catalogo.Inventario.service.ProductService;
+import com.Catalogo.Inventario.util.ProductValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,9 +22,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.servlet.http.HttpServletRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.BufferedReader;
@@ -23,7 +36,11 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -35,6 +52,12 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductAdjustmentService productAdjustmentService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -60,6 +83,11 @@ public class ProductController {
                 mediaType = "application/json",
                 examples = @ExampleObject(value = "{\"ok\": false, \"statusCode\": 404, \"message\": \"Producto no encontrado con ID: 1\", \"data\": null, \"count\": 0}")
             )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "304",
+            description = "El producto no ha cambiado desde la versión indicada en If-None-Match / If-Modified-Since",
+            content = @Content
         )
     })
     @Parameter(
@@ -69,10 +97,20 @@ public class ProductController {
         example = "1"
     )
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Product>> getById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<Product>> getById(@PathVariable Long id, WebRequest webRequest) {
         try {
+            // Validar If-None-Match / If-Modified-Since solo con la versión, sin cargar la entidad
+            ProductVersionView version = productService.findVersion(id);
+            String etag = "\"" + id + "-" + (version.getVersion() != null ? version.getVersion() : 0) + "\"";
+            long lastModified = version.getUpdatedAt() != null ? version.getUpdatedAt().toEpochMilli() : -1;
+            if (webRequest.checkNotModified(etag, lastModified)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+
             Product product = productService.findById(id);
-            return ResponseEntity.ok(new ApiResponse<>(true, 200, "Producto obtenido", product, 1L));
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(new ApiResponse<>(true, 200, "Producto obtenido", product, 1L));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ApiResponse<>(false, 404, "Producto no encontrado con ID: " + id, null, 0L));
@@ -117,7 +155,11 @@ public class ProductController {
     })
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Product>>> list() {
+    public ResponseEntity<ApiResponse<List<Product>>> list(WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogEtag("catalog"), productService.getCatalogLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         List<Product> products = productService.findAll();
         
         if (products.isEmpty()) {
@@ -125,7 +167,9 @@ public class ProductController {
                     .body(new ApiResponse<>(false, 204, "No hay productos registrados", null, 0L));
         }
 
-        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Productos obtenidos", products, (long) products.size()));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(new ApiResponse<>(true, 200, "Productos obtenidos", products, (long) products.size()));
     }
 
     @Operation(
@@ -150,18 +194,120 @@ public class ProductController {
                 mediaType = "application/json",
                 examples = @ExampleObject(value = "{\"ok\": false, \"statusCode\": 204, \"message\": \"No hay productos en oferta\", \"data\": null, \"count\": 0}")
             )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "304",
+            description = "Las ofertas no han cambiado desde la versión indicada en If-None-Match / If-Modified-Since",
+            content = @Content
         )
     })
     @GetMapping("/offers")
-    public ResponseEntity<ApiResponse<List<Product>>> getOffers() {
-        List<Product> offers = productService.findOnSaleProducts();
-        
-        if (offers.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NO_CONTENT)
-                    .body(new ApiResponse<>(false, 204, "No hay productos en oferta", null, 0L));
+    public ResponseEntity<byte[]> getOffers(WebRequest webRequest) {
+        // Respuesta precalculada: solo se reconstruye cuando cambia el conjunto de ofertas
+        OffersPayload.Snapshot offers = productService.getOffersPayload();
+        if (webRequest.checkNotModified("\"offers-" + offers.revision() + "\"", offers.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        return ResponseEntity.status(offers.empty() ? HttpStatus.NO_CONTENT : HttpStatus.OK)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(offers.body());
+    }
+
+    // ETag del catálogo completo: cambia con cualquier escritura en el catálogo
+    private String catalogEtag(String resource) {
+        return "\"" + resource + "-" + productService.getCatalogRevision() + "\"";
+    }
+
+    @Operation(
+        summary = "Buscar componentes por texto",
+        description = "Búsqueda de texto completo sobre nombre, marca, modelo, categoría y descripción de los componentes de PcOneStop. " +
+                     "No distingue mayúsculas ni tildes (\"grafica\" encuentra \"gráfica\") y los resultados se ordenan por relevancia. " +
+                     "Este endpoint es público, no requiere autenticación."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Búsqueda realizada exitosamente (puede retornar una lista vacía)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Resultados de búsqueda\", \"data\": [{\"id\": 1, \"name\": \"GeForce RTX 4070\", \"brand\": \"MSI\", \"model\": \"Ventus 3X\", \"category\": \"GPU\", \"price\": 699.99, \"stock\": 10}], \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "La consulta está vacía",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(name = "q", description = "Texto a buscar", required = true, example = "rtx 4070")
+    @Parameter(name = "limit", description = "Cantidad máxima de resultados (por defecto 20, máximo 100)", example = "20")
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<Product>>> search(@RequestParam String q,
+                                                             @RequestParam(defaultValue = "20") Integer limit) {
+        if (q == null || q.trim().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, 400, "El parámetro de búsqueda 'q' es obligatorio", null, 0L));
         }
+        int safeLimit = Math.max(1, Math.min(limit, 100));
+        List<Product> results = productService.search(q, safeLimit);
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Resultados de búsqueda", results, (long) results.size()));
+    }
+
+    @Operation(
+        summary = "Filtrar componentes por facetas",
+        description = "Filtra el catálogo de PcOneStop por categoría, marca, rango de precio y estado de oferta, " +
+                     "y retorna la página solicitada junto con los conteos de cada faceta en la misma respuesta. " +
+                     "Cada filtro acepta varios valores separados por coma (ej: category=GPU,CPU). " +
+                     "Rangos de precio disponibles: 0-100000, 100000-300000, 300000-600000, 600000-1000000, 1000000+. " +
+                     "Este endpoint es público, no requiere autenticación."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Productos filtrados obtenidos exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Productos filtrados\", \"data\": {\"products\": [{\"id\": 1, \"name\": \"GeForce RTX 4070\", \"brand\": \"MSI\", \"category\": \"GPU\", \"price\": 899990.0}], \"total\": 1, \"page\": 0, \"size\": 20, \"facets\": {\"category\": {\"GPU\": 5, \"CPU\": 5}, \"brand\": {\"MSI\": 1}, \"priceBand\": {\"600000-1000000\": 1}, \"onSale\": {\"false\": 1}}}, \"count\": 1}")
+            )
+        )
+    })
+    @Parameter(name = "category", description = "Categorías separadas por coma", example = "GPU,CPU")
+    @Parameter(name = "brand", description = "Marcas separadas por coma", example = "MSI,ASUS")
+    @Parameter(name = "priceBand", description = "Rangos de precio separados por coma", example = "600000-1000000")
+    @Parameter(name = "onSale", description = "true para solo productos en oferta, false para solo productos sin oferta", example = "true")
+    @Parameter(name = "page", description = "Número de página (base 0)", example = "0")
+    @Parameter(name = "size", description = "Tamaño de página (máximo 100)", example = "20")
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse<FacetedProductPage>> filter(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String priceBand,
+            @RequestParam(required = false) String onSale,
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "20") Integer size) {
+        Map<String, Set<String>> filters = new HashMap<>();
+        filters.put(ProductFacetIndex.CATEGORY, splitValues(category));
+        filters.put(ProductFacetIndex.BRAND, splitValues(brand));
+        filters.put(ProductFacetIndex.PRICE_BAND, splitValues(priceBand));
+        filters.put(ProductFacetIndex.ON_SALE, splitValues(onSale));
 
-        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Productos en oferta obtenidos", offers, (long) offers.size()));
+        int safePage = Math.max(0, page);
+        int safeSize = Math.max(1, Math.min(size, 100));
+        FacetedProductPage result = productService.filter(filters, safePage, safeSize);
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Productos filtrados", result, (long) result.getProducts().size()));
+    }
+
+    // Convierte "GPU, CPU" en {"GPU", "CPU"}
+    private Set<String> splitValues(String values) {
+        if (values == null || values.trim().isEmpty()) {
+            return Set.of();
+        }
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .collect(Collectors.toSet());
     }
 
     @Operation(
@@ -279,40 +425,11 @@ public class ProductController {
                         .body(new ApiResponse<>(false, 400, "Error al procesar el JSON: " + e.getMessage(), null, 0L));
             }
             
-            // Validaciones manuales básicas
-            if (product.getName() == null || product.getName().trim().isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse<>(false, 400, "El nombre del producto es obligatorio", null, 0L));
-            }
-            if (product.getBrand() == null || product.getBrand().trim().isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse<>(false, 400, "La marca es obligatoria", null, 0L));
-            }
-            if (product.getModel() == null || product.getModel().trim().isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse<>(false, 400, "El modelo es obligatorio", null, 0L));
-            }
-            if (product.getCategory() == null || product.getCategory().trim().isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse<>(false, 400, "La categoría es obligatoria", null, 0L));
-            }
-            if (product.getPrice() == null || product.getPrice() < 0) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse<>(false, 400, "El precio es obligatorio y debe ser mayor o igual a 0", null, 0L));
-            }
-            // Validar stock: si es null, establecer en 0; si es negativo, retornar error
-            if (product.getStock() == null) {
-                product.setStock(0);
-                logger.info("Stock no proporcionado, establecido en 0 por defecto");
-            } else if (product.getStock() < 0) {
+            // Validaciones manuales básicas (mismas reglas que la importación masiva)
+            String validationError = ProductValidator.validateNewProduct(product);
+            if (validationError != null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new ApiResponse<>(false, 400, "El stock no puede ser negativo", null, 0L));
-            }
-            
-            // Validar longitud de imagen si está presente
-            if (product.getImage() != null && product.getImage().length() > 65535) {
-                logger.warn("Imagen demasiado larga ({} caracteres), truncando a 65535", product.getImage().length());
-                product.setImage(product.getImage().substring(0, 65535));
+                        .body(new ApiResponse<>(false, 400, validationError, null, 0L));
             }
             
             logger.info("Guardando producto en la base de datos...");
@@ -331,6 +448,59 @@ public class ProductController {
         }
     }
 
+    @Operation(
+        summary = "Importación masiva de componentes",
+        description = "Permite a los administradores cargar listas de precios de proveedores con miles de componentes en una sola petición. " +
+                     "El cuerpo se procesa en streaming como NDJSON (un producto JSON por línea, Content-Type application/x-ndjson) " +
+                     "o CSV con encabezado (Content-Type text/csv; columnas: name, brand, model, category, price, stock, description, image, isOnSale, discount, offerStartDate, offerEndDate). " +
+                     "Cada fila se valida con las mismas reglas que la creación individual. Si ya existe un producto con la misma marca y modelo se actualiza; si no, se crea. " +
+                     "Las filas con error se reportan sin detener la carga. Requiere autenticación JWT con rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Importación procesada (revisar failed y errors para las filas rechazadas)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Importación finalizada\", \"data\": {\"processed\": 3, \"inserted\": 1, \"updated\": 1, \"failed\": 1, \"elapsedMs\": 120, \"errors\": [{\"line\": 3, \"message\": \"La marca es obligatoria\"}]}, \"count\": 2}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "No autenticado: token JWT faltante o inválido",
+            content = @Content(mediaType = "application/json")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Acceso denegado: se requiere rol ADMIN para importar productos",
+            content = @Content(mediaType = "application/json")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "500",
+            description = "Error al leer el cuerpo de la petición",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<ImportResult>> importProducts(HttpServletRequest request) {
+        String contentType = request.getContentType() != null ? request.getContentType().toLowerCase() : "";
+        ProductImportService.Format format = contentType.contains("csv")
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        logger.info("=== INICIO IMPORTACIÓN MASIVA ({}) ===", format);
+        try {
+            // Se lee directamente el stream del request, sin cargar el archivo completo en memoria
+            ImportResult result = productImportService.importProducts(request.getInputStream(), format);
+            long saved = result.getInserted() + result.getUpdated();
+            return ResponseEntity.ok(new ApiResponse<>(true, 200, "Importación finalizada", result, saved));
+        } catch (IOException e) {
+            logger.error("ERROR al leer el archivo de importación: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, 500, "Error al leer el archivo: " + e.getMessage(), null, 0L));
+        }
+    }
+
     @Operation(
         summary = "Actualizar componente del catálogo",
         description = "Permite a los administradores actualizar la información de un componente existente en el catálogo de PcOneStop. " +
@@ -544,11 +714,17 @@ public class ProductController {
         required = true,
         example = "2"
     )
+    @Parameter(
+        name = "orderId",
+        description = "ID del pedido de Pagos que origina la venta; queda registrado en el libro de movimientos de stock",
+        example = "120"
+    )
     @SecurityRequirement(name = "bearerAuth")
     @PutMapping("/{id}/stock")
-    public ResponseEntity<ApiResponse<Product>> reduceStock(@PathVariable Long id, @RequestParam Integer quantity) {
+    public ResponseEntity<ApiResponse<Product>> reduceStock(@PathVariable Long id, @RequestParam Integer quantity,
+                                                            @RequestParam(required = false) Long orderId) {
         try {
-            Product updatedProduct = productService.reduceStock(id, quantity);
+            Product updatedProduct = productService.reduceStock(id, quantity, orderId);
             return ResponseEntity.ok(new ApiResponse<>(true, 200, "Stock actualizado", updatedProduct, 1L));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -556,10 +732,55 @@ public class ProductController {
         }
     }
 
+    @Operation(
+        summary = "Ajuste masivo de stock y precio",
+        description = "Aplica en una sola petición ajustes de stock, precio y descuento a muchos componentes (por ejemplo, la reposición nocturna). " +
+                     "Cada ajuste trae el ID y solo los campos a cambiar: stockDelta (suma o resta al stock actual) o stock (valor absoluto), price y discount. " +
+                     "Solo se actualizan las columnas enviadas, sin cargar el producto completo. Un stockDelta que dejaría el stock negativo se rechaza. " +
+                     "Los ajustes con error se reportan sin detener el resto. Requiere autenticación JWT con rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Ajustes procesados (revisar errors para los rechazados)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Ajuste masivo finalizado\", \"data\": {\"requested\": 2, \"updated\": 1, \"elapsedMs\": 35, \"errors\": [{\"index\": 1, \"id\": 99, \"message\": \"Producto no encontrado o el stock quedaría negativo\"}]}, \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Lista de ajustes vacía",
+            content = @Content(mediaType = "application/json")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "No autenticado: token JWT faltante o inválido",
+            content = @Content(mediaType = "application/json")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Acceso denegado: se requiere rol ADMIN para ajustar productos",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PutMapping("/bulk-adjust")
+    public ResponseEntity<ApiResponse<BulkAdjustResult>> bulkAdjust(@RequestBody List<StockPriceAdjustment> adjustments) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, 400, "Debe enviar al menos un ajuste", null, 0L));
+        }
+        logger.info("=== INICIO AJUSTE MASIVO: {} ajustes ===", adjustments.size());
+        BulkAdjustResult result = productAdjustmentService.adjust(adjustments);
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Ajuste masivo finalizado", result, (long) result.getUpdated()));
+    }
+
     @Operation(
         summary = "Eliminar componente del catálogo",
         description = "Elimina permanentemente un componente del catálogo de PcOneStop. También elimina automáticamente " +
-                     "todos los reportes asociados al producto. Esta acción no se puede deshacer. " +
+                     "todos los reportes asociados al producto. Esta acción no se puede deshacer " +
+                     "(con borrado lógico habilitado el componente deja de verse de inmediato y se purga más tarde). " +
                      "Requiere autenticación JWT con rol ADMIN."
     )
     @ApiResponses(value = {
@@ -604,4 +825,56 @@ public class ProductController {
                     .body(new ApiResponse<>(false, 500, "Error al eliminar: " + e.getMessage(), null, 0L));
         }
     }
+
+    @Operation(
+        summary = "Eliminar varios componentes del catálogo",
+        description = "Elimina en una sola operación los componentes indicados (máximo 1000 IDs) junto con sus reportes. " +
+                     "Los IDs inexistentes se ignoran. Requiere autenticación JWT con rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Componentes eliminados (count indica cuántos existían)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Productos eliminados\", \"data\": null, \"count\": 3}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Lista de IDs vacía o con más de 1000 elementos",
+            content = @Content(mediaType = "application/json")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "No autenticado: token JWT faltante o inválido",
+            content = @Content(mediaType = "application/json")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Acceso denegado: se requiere rol ADMIN para eliminar productos",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(
+        name = "ids",
+        description = "IDs de los componentes a eliminar, separados por coma",
+        required = true,
+        example = "1,2,3"
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Void>> deleteMany(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > 1000) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, 400, "Debe indicar entre 1 y 1000 IDs", null, 0L));
+        }
+        try {
+            int deleted = productService.deleteProducts(ids);
+            return ResponseEntity.ok(new ApiResponse<>(true, 200, "Productos eliminados", null, (long) deleted));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, 500, "Error al eliminar: " + e.getMessage(), null, 0L));
+        }
+    }
 }
\ No newline at end of file
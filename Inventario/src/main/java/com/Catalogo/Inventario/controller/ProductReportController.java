@@ -2,7 +2,7 @@ package com.Catalogo.Inventario.controller;
 
 import com.Catalogo.Inventario.dto.ApiResponse;
 import com.Catalogo.Inventario.model.ProductReport;
-import com.Catalogo.Inventario.repository.ReportRepository;
+import com.Catalogo.Inventario.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -30,7 +30,7 @@ public class ProductReportController {
     private static final Logger logger = LoggerFactory.getLogger(ProductReportController.class);
 
     @Autowired
-    private ReportRepository reportRepository;
+    private ReportService reportService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -140,7 +140,7 @@ public class ProductReportController {
             // Asegurar que el productId en el body coincida con el de la URL
             report.setProductId(productId);
             logger.info("Guardando reporte en la base de datos...");
-            ProductReport saved = reportRepository.save(report);
+            ProductReport saved = reportService.create(report);
             logger.info("Reporte guardado con ID: {}", saved.getId());
             logger.info("=== REPORTE CREADO EXITOSAMENTE - ID: {} ===", saved.getId());
             
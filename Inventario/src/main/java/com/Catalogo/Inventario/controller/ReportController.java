@@ -1,8 +1,11 @@
 package com.Catalogo.Inventario.controller;
 
 import com.Catalogo.Inventario.dto.ApiResponse;
+import com.Catalogo.Inventario.dto.ReportPage;
+import com.Catalogo.Inventario.dto.TopReportedProduct;
 import com.Catalogo.Inventario.model.ProductReport;
 import com.Catalogo.Inventario.repository.ReportRepository;
+import com.Catalogo.Inventario.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -24,6 +27,9 @@ public class ReportController {
     @Autowired
     private ReportRepository reportRepository;
 
+    @Autowired
+    private ReportService reportService;
+
     @Operation(
         summary = "Reportar un componente con problemas",
         description = "Permite a los clientes de PcOneStop reportar componentes que tienen problemas, información incorrecta, " +
@@ -47,7 +53,7 @@ public class ReportController {
     })
     @PostMapping
     public ResponseEntity<ApiResponse<ProductReport>> createReport(@RequestBody ProductReport report) {
-        ProductReport saved = reportRepository.save(report);
+        ProductReport saved = reportService.create(report);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new ApiResponse<>(true, 201, "Reporte enviado", saved, 1L));
     }
@@ -75,7 +81,8 @@ public class ReportController {
     )
     @GetMapping("/count/{productId}")
     public ResponseEntity<ApiResponse<Long>> getReportCount(@PathVariable Long productId) {
-        long count = reportRepository.countByProductId(productId);
+        // Lectura por clave primaria del contador materializado (sin COUNT(*))
+        long count = reportService.countForProduct(productId);
         return ResponseEntity.ok(new ApiResponse<>(true, 200, "Conteo obtenido", count, count));
     }
     
@@ -107,4 +114,63 @@ public class ReportController {
         List<ProductReport> list = reportRepository.findAll();
         return ResponseEntity.ok(new ApiResponse<>(true, 200, "Lista de reportes", list, (long)list.size()));
     }
-}
\ No newline at end of file
+
+    @Operation(
+        summary = "Listar reportes por páginas (Solo Administradores)",
+        description = "Obtiene los reportes ordenados por ID usando paginación por cursor: la primera página se pide sin afterId " +
+                     "y las siguientes con el nextAfterId de la respuesta anterior (null cuando no hay más). " +
+                     "A diferencia del listado completo, el costo de cada página no crece con la cantidad de reportes. " +
+                     "Requiere autenticación JWT."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Página de reportes obtenida exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Página de reportes\", \"data\": {\"reports\": [{\"id\": 101, \"productId\": 5, \"userId\": 10, \"reason\": \"Precio incorrecto\", \"date\": \"2024-05-01\"}], \"nextAfterId\": 101}, \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "No autenticado: token JWT faltante o inválido",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(name = "afterId", description = "ID del último reporte recibido (se omite para la primera página)", example = "100")
+    @Parameter(name = "size", description = "Cantidad de reportes por página (máximo 500)", example = "100")
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<ReportPage>> getReportPage(@RequestParam(required = false) Long afterId,
+                                                                 @RequestParam(defaultValue = "100") int size) {
+        ReportPage page = reportService.findPage(afterId, Math.max(1, Math.min(size, 500)));
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Página de reportes", page, (long) page.getReports().size()));
+    }
+
+    @Operation(
+        summary = "Productos más reportados",
+        description = "Obtiene el ranking de los componentes con más reportes, de mayor a menor. " +
+                     "Se responde desde memoria, sin consultar la base de datos, para los paneles de moderación. " +
+                     "Requiere autenticación JWT."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Ranking obtenido exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Productos más reportados\", \"data\": [{\"productId\": 5, \"reportCount\": 12}, {\"productId\": 9, \"reportCount\": 7}], \"count\": 2}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "No autenticado: token JWT faltante o inválido",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(name = "limit", description = "Cantidad de productos del ranking (máximo 100)", example = "10")
+    @GetMapping("/top")
+    public ResponseEntity<ApiResponse<List<TopReportedProduct>>> getTopReported(@RequestParam(defaultValue = "10") int limit) {
+        List<TopReportedProduct> top = reportService.topReported(Math.max(1, Math.min(limit, 100)));
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Productos más reportados", top, (long) top.size()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.Catalogo.Inventario.controller;
+
+import com.Catalogo.Inventario.dto.ApiResponse;
+import com.Catalogo.Inventario.dto.StockAlert;
+import com.Catalogo.Inventario.model.LowStockThreshold;
+import com.Catalogo.Inventario.service.LowStockThresholds;
+import com.Catalogo.Inventario.service.StockAlertDispatcher;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/stock")
+@Tag(name = "Alertas de Stock", description = "Umbrales de stock bajo por producto o categoría y alertas emitidas al cruzarlos")
+public class StockAlertController {
+
+    @Autowired
+    private StockAlertDispatcher dispatcher;
+
+    @Autowired
+    private LowStockThresholds thresholds;
+
+    @Operation(
+        summary = "Consultar alertas de stock bajo recientes",
+        description = "Retorna las alertas (LOW_STOCK, OUT_OF_STOCK, RESTOCKED) con ID mayor a afterId, en orden. Se emite una alerta solo cuando " +
+                     "el stock de un producto cruza su umbral, no en cada venta. Se conservan las últimas app.stock.alerts.recent-capacity alertas " +
+                     "en memoria; las mismas alertas se envían a los webhooks configurados. Requiere rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Alertas obtenidas exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Alertas obtenidas\", \"data\": [{\"id\": 42, \"productId\": 5, \"category\": \"GPU\", \"alertType\": \"LOW_STOCK\", \"threshold\": 3, \"previousStock\": 4, \"stock\": 2, \"occurredAt\": \"2024-05-01T12:00:00Z\"}], \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Acceso denegado: se requiere rol ADMIN",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(name = "afterId", description = "ID de la última alerta recibida (0 para todas las recientes)", example = "0")
+    @Parameter(name = "limit", description = "Cantidad máxima de alertas (máximo 500)", example = "100")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/alerts")
+    public ResponseEntity<ApiResponse<List<StockAlert>>> getAlerts(@RequestParam(defaultValue = "0") long afterId,
+                                                                   @RequestParam(defaultValue = "100") int limit) {
+        List<StockAlert> alerts = dispatcher.recent(afterId, Math.max(1, Math.min(limit, 500)));
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Alertas obtenidas", alerts, (long) alerts.size()));
+    }
+
+    @Operation(
+        summary = "Listar umbrales de stock bajo",
+        description = "Retorna los umbrales configurados por producto y por categoría. Los productos sin umbral propio ni de su categoría " +
+                     "usan app.stock.alerts.default-threshold. Requiere rol ADMIN."
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/thresholds")
+    public ResponseEntity<ApiResponse<List<LowStockThreshold>>> getThresholds() {
+        List<LowStockThreshold> list = thresholds.findAll();
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Umbrales obtenidos", list, (long) list.size()));
+    }
+
+    @Operation(
+        summary = "Definir el umbral de stock bajo de un componente",
+        description = "Crea o reemplaza el umbral del producto; tiene prioridad sobre el de su categoría. Requiere rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Umbral guardado",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Umbral guardado\", \"data\": {\"id\": 1, \"productId\": 5, \"category\": null, \"threshold\": 3}, \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Umbral negativo",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(name = "productId", description = "ID del componente", required = true, example = "5")
+    @Parameter(name = "threshold", description = "Umbral (0 o mayor)", required = true, example = "3")
+    @SecurityRequirement(name = "bearerAuth")
+    @PutMapping("/thresholds/products/{productId}")
+    public ResponseEntity<ApiResponse<LowStockThreshold>> setProductThreshold(@PathVariable Long productId, @RequestParam int threshold) {
+        if (threshold < 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, 400, "El umbral no puede ser negativo", null, 0L));
+        }
+        LowStockThreshold saved = thresholds.setForProduct(productId, threshold);
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Umbral guardado", saved, 1L));
+    }
+
+    @Operation(
+        summary = "Definir el umbral de stock bajo de una categoría",
+        description = "Crea o reemplaza el umbral de la categoría (GPU, CPU, RAM, etc.), usado por los productos sin umbral propio. Requiere rol ADMIN."
+    )
+    @Parameter(name = "category", description = "Categoría", required = true, example = "GPU")
+    @Parameter(name = "threshold", description = "Umbral (0 o mayor)", required = true, example = "5")
+    @SecurityRequirement(name = "bearerAuth")
+    @PutMapping("/thresholds/categories/{category}")
+    public ResponseEntity<ApiResponse<LowStockThreshold>> setCategoryThreshold(@PathVariable String category, @RequestParam int threshold) {
+        if (threshold < 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, 400, "El umbral no puede ser negativo", null, 0L));
+        }
+        LowStockThreshold saved = thresholds.setForCategory(category, threshold);
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Umbral guardado", saved, 1L));
+    }
+}
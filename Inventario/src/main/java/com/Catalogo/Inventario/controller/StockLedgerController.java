@@ -0,0 +1,123 @@
+package com.Catalogo.Inventario.controller;
+
+import com.Catalogo.Inventario.dto.ApiResponse;
+import com.Catalogo.Inventario.dto.OrderStockPage;
+import com.Catalogo.Inventario.dto.StockAtTime;
+import com.Catalogo.Inventario.dto.StockMovementPage;
+import com.Catalogo.Inventario.service.StockLedger;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/v1/stock")
+@Tag(name = "Movimientos de Stock", description = "Libro de movimientos de stock: auditoría de ventas, reposiciones y ajustes, stock en una fecha y conciliación con los pedidos de Pagos")
+public class StockLedgerController {
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Operation(
+        summary = "Listar movimientos de stock de un componente",
+        description = "Retorna los movimientos (INITIAL, SALE, RESTOCK, ADJUSTMENT) del producto con ID mayor a afterId, en orden. " +
+                     "Las ventas incluyen el ID del pedido de Pagos. Para la siguiente página se envía nextAfterId. Requiere rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Movimientos obtenidos exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Movimientos obtenidos\", \"data\": {\"movements\": [{\"id\": 2048, \"productId\": 5, \"delta\": -2, \"movementType\": \"SALE\", \"orderId\": 120, \"occurredAt\": \"2024-05-01T12:00:00Z\"}], \"nextAfterId\": null}, \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Acceso denegado: se requiere rol ADMIN",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(name = "productId", description = "ID del componente", required = true, example = "5")
+    @Parameter(name = "afterId", description = "ID del último movimiento recibido (se omite en la primera página)", example = "2000")
+    @Parameter(name = "size", description = "Cantidad de movimientos por página (máximo 500)", example = "100")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/movements")
+    public ResponseEntity<ApiResponse<StockMovementPage>> getMovements(@RequestParam Long productId,
+                                                                       @RequestParam(required = false) Long afterId,
+                                                                       @RequestParam(defaultValue = "100") int size) {
+        StockMovementPage page = stockLedger.findMovements(productId, afterId, Math.max(1, Math.min(size, 500)));
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Movimientos obtenidos", page, (long) page.getMovements().size()));
+    }
+
+    @Operation(
+        summary = "Consultar el stock de un componente en una fecha",
+        description = "Reconstruye el stock del producto en la fecha indicada a partir de la última foto de stock anterior " +
+                     "y los movimientos posteriores a ella (como máximo los de un intervalo entre fotos). Requiere rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Stock calculado exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Stock en la fecha\", \"data\": {\"productId\": 5, \"at\": \"2024-05-01T12:00:00Z\", \"stock\": 12, \"snapshotTakenAt\": \"2024-05-01T11:00:00Z\", \"tailMovements\": 3}, \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Acceso denegado: se requiere rol ADMIN",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(name = "productId", description = "ID del componente", required = true, example = "5")
+    @Parameter(name = "at", description = "Fecha en formato ISO-8601 (UTC)", required = true, example = "2024-05-01T12:00:00Z")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/at")
+    public ResponseEntity<ApiResponse<StockAtTime>> getStockAt(@RequestParam Long productId, @RequestParam Instant at) {
+        StockAtTime stock = stockLedger.stockAt(productId, at);
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Stock en la fecha", stock, 1L));
+    }
+
+    @Operation(
+        summary = "Listar ventas del libro agrupadas por pedido",
+        description = "Retorna las unidades descontadas por cada pedido de Pagos y producto, para los pedidos con ID mayor a afterOrderId, " +
+                     "ordenadas por pedido. Cada página contiene pedidos completos. Lo usa el proceso de conciliación de Pagos, que recorre " +
+                     "estas páginas junto con sus pedidos sin cargar ninguna de las dos bases completas. Requiere rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Ventas obtenidas exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Ventas por pedido obtenidas\", \"data\": {\"lines\": [{\"orderId\": 120, \"productId\": 5, \"quantity\": 2}], \"nextAfterOrderId\": null}, \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Acceso denegado: se requiere rol ADMIN",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(name = "afterOrderId", description = "ID del último pedido recibido (0 en la primera página)", example = "0")
+    @Parameter(name = "before", description = "Solo incluir ventas anteriores a esta fecha ISO-8601 (por defecto, ahora)", example = "2024-05-01T12:00:00Z")
+    @Parameter(name = "limit", description = "Cantidad máxima de pedidos por página (máximo 1000)", example = "500")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/orders")
+    public ResponseEntity<ApiResponse<OrderStockPage>> getOrderSales(@RequestParam(defaultValue = "0") Long afterOrderId,
+                                                                     @RequestParam(required = false) Instant before,
+                                                                     @RequestParam(defaultValue = "500") int limit) {
+        OrderStockPage page = stockLedger.findOrderSales(afterOrderId, before != null ? before : Instant.now(),
+                Math.max(1, Math.min(limit, 1000)));
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Ventas por pedido obtenidas", page, (long) page.getLines().size()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.Catalogo.Inventario.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resultado de un ajuste masivo de stock y precios")
+public class BulkAdjustResult {
+    @Schema(description = "Ajustes recibidos", example = "5000")
+    private int requested;
+
+    @Schema(description = "Productos actualizados", example = "4998")
+    private int updated;
+
+    @Schema(description = "Duración en milisegundos", example = "850")
+    private long elapsedMs;
+
+    @Schema(description = "Ajustes rechazados con su motivo")
+    private List<ItemError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Error en un ajuste")
+    public static class ItemError {
+        @Schema(description = "Posición del ajuste en la lista (base 0)", example = "3")
+        private int index;
+
+        @Schema(description = "ID del producto", example = "999")
+        private Long id;
+
+        @Schema(description = "Motivo del error", example = "El stock quedaría negativo (stock actual: 2)")
+        private String message;
+    }
+}
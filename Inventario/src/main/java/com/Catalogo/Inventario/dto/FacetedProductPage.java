@@ -0,0 +1,32 @@
+package com.Catalogo.Inventario.dto;
+
+import com.Catalogo.Inventario.model.Product;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Página de productos filtrados junto con los conteos de cada faceta")
+public class FacetedProductPage {
+    @Schema(description = "Productos de la página solicitada")
+    private List<Product> products;
+
+    @Schema(description = "Total de productos que cumplen los filtros", example = "42")
+    private Long total;
+
+    @Schema(description = "Número de página (base 0)", example = "0")
+    private Integer page;
+
+    @Schema(description = "Tamaño de página", example = "20")
+    private Integer size;
+
+    @Schema(description = "Conteos por faceta: dimensión -> (valor -> cantidad de productos)",
+            example = "{\"category\": {\"GPU\": 5, \"CPU\": 5}, \"brand\": {\"MSI\": 2}, \"priceBand\": {\"600000-1000000\": 3}, \"onSale\": {\"true\": 1, \"false\": 4}}")
+    private Map<String, Map<String, Long>> facets;
+}
@@ -0,0 +1,44 @@
+package com.Catalogo.Inventario.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resultado de una importación masiva de productos")
+public class ImportResult {
+    @Schema(description = "Filas procesadas (sin contar encabezado ni líneas vacías)", example = "5000")
+    private long processed;
+
+    @Schema(description = "Productos nuevos insertados", example = "4200")
+    private long inserted;
+
+    @Schema(description = "Productos existentes actualizados (misma marca y modelo)", example = "790")
+    private long updated;
+
+    @Schema(description = "Filas con error (no se guardaron)", example = "10")
+    private long failed;
+
+    @Schema(description = "Duración de la importación en milisegundos", example = "3150")
+    private long elapsedMs;
+
+    @Schema(description = "Detalle de las filas con error (se reportan como máximo las primeras app.import.max-reported-errors)")
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Error en una fila del archivo")
+    public static class RowError {
+        @Schema(description = "Número de línea en el archivo (base 1)", example = "42")
+        private long line;
+
+        @Schema(description = "Motivo del error", example = "La marca es obligatoria")
+        private String message;
+    }
+}
@@ -0,0 +1,10 @@
+package com.Catalogo.Inventario.dto;
+
+/**
+ * Unidades descontadas por un pedido de Pagos para un producto, según el libro de movimientos
+ */
+public interface OrderStockLine {
+    Long getOrderId();
+    Long getProductId();
+    Long getQuantity();
+}
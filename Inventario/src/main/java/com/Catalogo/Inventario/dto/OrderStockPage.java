@@ -0,0 +1,20 @@
+package com.Catalogo.Inventario.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Página de ventas del libro de movimientos agrupadas por pedido, con el cursor para pedir la siguiente")
+public class OrderStockPage {
+    @Schema(description = "Unidades vendidas por pedido y producto, ordenadas por pedido")
+    private List<OrderStockLine> lines;
+
+    @Schema(description = "Valor de afterOrderId para la siguiente página (null si no hay más pedidos)", example = "1500")
+    private Long nextAfterOrderId;
+}
@@ -0,0 +1,10 @@
+package com.Catalogo.Inventario.dto;
+
+/**
+ * Precio y descuento acumulados de un producto hasta una fecha (suma de las diferencias anteriores)
+ */
+public interface PriceBaseView {
+    Long getPriceCents();
+    Long getDiscount();
+    Long getChanges();
+}
@@ -0,0 +1,32 @@
+package com.Catalogo.Inventario.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Punto de la serie de precios: valores de un intervalo de la serie reducida")
+public class PricePoint {
+    @Schema(description = "Inicio del intervalo")
+    private Instant ts;
+
+    @Schema(description = "Precio al final del intervalo", example = "649.99")
+    private Double price;
+
+    @Schema(description = "Precio mínimo dentro del intervalo", example = "599.99")
+    private Double minPrice;
+
+    @Schema(description = "Precio máximo dentro del intervalo", example = "699.99")
+    private Double maxPrice;
+
+    @Schema(description = "Porcentaje de descuento al final del intervalo", example = "10")
+    private Integer discount;
+
+    @Schema(description = "Cantidad de cambios registrados dentro del intervalo (0 solo en el primer punto, cuando lleva el precio vigente al inicio del rango)", example = "2")
+    private Integer changes;
+}
@@ -0,0 +1,30 @@
+package com.Catalogo.Inventario.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Historial de precios de un producto en un rango de fechas, reducido a intervalos de igual duración")
+public class PriceSeries {
+    @Schema(description = "ID del producto", example = "5")
+    private Long productId;
+
+    @Schema(description = "Inicio del rango")
+    private Instant from;
+
+    @Schema(description = "Fin del rango (excluido)")
+    private Instant to;
+
+    @Schema(description = "Duración de cada intervalo en segundos", example = "86400")
+    private Long bucketSeconds;
+
+    @Schema(description = "Un punto por intervalo con cambios (más el valor vigente al inicio del rango); entre puntos el precio no cambió")
+    private List<PricePoint> points;
+}
@@ -0,0 +1,24 @@
+package com.Catalogo.Inventario.dto;
+
+import com.Catalogo.Inventario.model.ProductChange;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Cambios de productos posteriores a un número de secuencia")
+public class ProductChangePage {
+    @Schema(description = "Cambios en orden de secuencia")
+    private List<ProductChange> changes;
+
+    @Schema(description = "Valor de after para la siguiente consulta (el último seq entregado, o el mismo after si no hubo cambios)", example = "1024")
+    private Long nextAfter;
+
+    @Schema(description = "true si el cursor es más antiguo que los cambios retenidos: el consumidor debe recargar el catálogo completo", example = "false")
+    private boolean resync;
+}
@@ -0,0 +1,12 @@
+package com.Catalogo.Inventario.dto;
+
+/**
+ * Proyección con solo los campos que usa el índice de facetas (sin descripción ni imagen)
+ */
+public interface ProductFacetView {
+    Long getId();
+    String getCategory();
+    String getBrand();
+    Double getPrice();
+    Boolean getIsOnSale();
+}
@@ -0,0 +1,13 @@
+package com.Catalogo.Inventario.dto;
+
+/**
+ * Proyección con solo los campos que indexa la búsqueda de texto (sin imagen, precio ni stock)
+ */
+public interface ProductSearchView {
+    Long getId();
+    String getName();
+    String getBrand();
+    String getModel();
+    String getCategory();
+    String getDescription();
+}
@@ -0,0 +1,35 @@
+package com.Catalogo.Inventario.dto;
+
+import com.Catalogo.Inventario.model.Product;
+
+import java.time.Instant;
+
+/**
+ * Proyección liviana de un producto con solo los datos necesarios para validar
+ * peticiones condicionales (ETag / Last-Modified) sin cargar la entidad completa.
+ */
+public interface ProductVersionView {
+    Long getId();
+    Long getVersion();
+    Instant getUpdatedAt();
+
+    // Vista a partir de un producto ya cargado (ej: desde la caché)
+    static ProductVersionView of(Product product) {
+        return new ProductVersionView() {
+            @Override
+            public Long getId() {
+                return product.getId();
+            }
+
+            @Override
+            public Long getVersion() {
+                return product.getVersion();
+            }
+
+            @Override
+            public Instant getUpdatedAt() {
+                return product.getUpdatedAt();
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.Catalogo.Inventario.dto;
+
+import com.Catalogo.Inventario.model.ProductReport;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Página de reportes ordenados por ID, con el cursor para pedir la siguiente")
+public class ReportPage {
+    @Schema(description = "Reportes de la página")
+    private List<ProductReport> reports;
+
+    @Schema(description = "Valor de afterId para la siguiente página (null si no hay más reportes)", example = "150")
+    private Long nextAfterId;
+}
@@ -0,0 +1,41 @@
+package com.Catalogo.Inventario.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Alerta emitida cuando el stock de un producto cruza su umbral de stock bajo")
+public class StockAlert {
+
+    public enum AlertType { LOW_STOCK, OUT_OF_STOCK, RESTOCKED }
+
+    @Schema(description = "Número de la alerta (creciente desde el inicio de la aplicación); se usa como cursor", example = "42")
+    private Long id;
+
+    @Schema(description = "ID del producto", example = "5")
+    private Long productId;
+
+    @Schema(description = "Categoría del producto", example = "GPU")
+    private String category;
+
+    @Schema(description = "LOW_STOCK (bajó al umbral), OUT_OF_STOCK (se agotó) o RESTOCKED (volvió a superar el umbral)", example = "LOW_STOCK")
+    private AlertType alertType;
+
+    @Schema(description = "Umbral aplicado", example = "3")
+    private Integer threshold;
+
+    @Schema(description = "Stock antes del cambio", example = "4")
+    private Integer previousStock;
+
+    @Schema(description = "Stock después del cambio", example = "2")
+    private Integer stock;
+
+    @Schema(description = "Fecha del cambio")
+    private Instant occurredAt;
+}
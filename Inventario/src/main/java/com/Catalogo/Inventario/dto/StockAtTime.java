@@ -0,0 +1,29 @@
+package com.Catalogo.Inventario.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Stock de un producto en una fecha, reconstruido desde el libro de movimientos")
+public class StockAtTime {
+    @Schema(description = "ID del producto", example = "5")
+    private Long productId;
+
+    @Schema(description = "Fecha consultada")
+    private Instant at;
+
+    @Schema(description = "Stock del producto en esa fecha", example = "12")
+    private Integer stock;
+
+    @Schema(description = "Fecha de la foto usada como punto de partida (null si se leyó el libro desde el inicio)")
+    private Instant snapshotTakenAt;
+
+    @Schema(description = "Cantidad de movimientos leídos después de la foto", example = "3")
+    private Long tailMovements;
+}
@@ -0,0 +1,21 @@
+package com.Catalogo.Inventario.dto;
+
+import com.Catalogo.Inventario.model.StockMovement;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Página de movimientos de stock de un producto, con el cursor para pedir la siguiente")
+public class StockMovementPage {
+    @Schema(description = "Movimientos de la página, en orden")
+    private List<StockMovement> movements;
+
+    @Schema(description = "Valor de afterId para la siguiente página (null si no hay más movimientos)", example = "2048")
+    private Long nextAfterId;
+}
@@ -0,0 +1,27 @@
+package com.Catalogo.Inventario.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ajuste de stock y/o precio de un producto. Solo se modifican los campos enviados; stockDelta y stock son excluyentes.")
+public class StockPriceAdjustment {
+    @Schema(description = "ID del producto (obligatorio)", example = "1")
+    private Long id;
+
+    @Schema(description = "Unidades a sumar (positivo, ej: reposición) o restar (negativo) del stock actual", example = "25")
+    private Integer stockDelta;
+
+    @Schema(description = "Nuevo stock absoluto (reemplaza el actual)", example = "40")
+    private Integer stock;
+
+    @Schema(description = "Nuevo precio unitario", example = "649990.0")
+    private Double price;
+
+    @Schema(description = "Nuevo porcentaje de descuento (0-100). Con 0 la oferta se desactiva.", example = "10")
+    private Integer discount;
+}
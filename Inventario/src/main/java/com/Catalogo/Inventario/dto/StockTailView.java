@@ -0,0 +1,9 @@
+package com.Catalogo.Inventario.dto;
+
+/**
+ * Suma y cantidad de los movimientos leídos después de una foto de stock
+ */
+public interface StockTailView {
+    Long getDelta();
+    Long getMovements();
+}
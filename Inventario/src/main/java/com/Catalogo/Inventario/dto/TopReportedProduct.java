@@ -0,0 +1,18 @@
+package com.Catalogo.Inventario.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Producto y su cantidad de reportes en el ranking de más reportados")
+public class TopReportedProduct {
+    @Schema(description = "ID del producto", example = "5")
+    private Long productId;
+
+    @Schema(description = "Cantidad de reportes", example = "12")
+    private Long reportCount;
+}
@@ -0,0 +1,34 @@
+package com.Catalogo.Inventario.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "low_stock_thresholds", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_low_stock_thresholds_product", columnNames = "product_id"),
+    @UniqueConstraint(name = "uk_low_stock_thresholds_category", columnNames = "category")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Umbral de stock bajo de un producto o de una categoría (el del producto tiene prioridad)")
+public class LowStockThreshold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Schema(description = "ID del producto (null si el umbral es de una categoría)", example = "5")
+    private Long productId;
+
+    @Column(length = 50)
+    @Schema(description = "Categoría (null si el umbral es de un producto)", example = "GPU")
+    private String category;
+
+    @Column(nullable = false)
+    @Schema(description = "Se alerta cuando el stock baja de más de este valor a este valor o menos", example = "3")
+    private Integer threshold;
+}
@@ -0,0 +1,42 @@
+package com.Catalogo.Inventario.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+@Entity
+@Table(name = "price_history", indexes = {
+    @Index(name = "idx_price_history_product_ts", columnList = "product_id, ts")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cambio de precio o descuento de un producto, codificado como diferencia respecto del cambio anterior " +
+                     "(el primer cambio de cada producto guarda el valor completo)")
+public class PriceChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "ID del cambio (creciente)", example = "310")
+    private Long id;
+
+    @Column(nullable = false)
+    @Schema(description = "ID del producto", example = "5")
+    private Long productId;
+
+    @Column(nullable = false)
+    @Schema(description = "Fecha del cambio")
+    private Instant ts;
+
+    // BIGINT: un precio (o un salto de precio) de más de 21.474.836,47 no entra en un INT de centavos
+    @Column(nullable = false)
+    @Schema(description = "Variación del precio en centavos", example = "-5000")
+    private Long priceDeltaCents;
+
+    @Column(nullable = false)
+    @Schema(description = "Variación del porcentaje de descuento", example = "10")
+    private Byte discountDelta;
+}
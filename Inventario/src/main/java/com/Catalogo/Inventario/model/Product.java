@@ -1,5 +1,6 @@
 package com.Catalogo.Inventario.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -8,10 +9,22 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_on_sale", columnList = "is_on_sale"),
+    @Index(name = "idx_products_brand_model", columnList = "brand, model"),
+    @Index(name = "idx_products_offer_start", columnList = "offer_start_date"),
+    @Index(name = "idx_products_offer_end", columnList = "offer_end_date"),
+    @Index(name = "idx_products_deleted_at", columnList = "deleted_at")
+})
+// Los productos eliminados con borrado lógico (deleted_at) quedan fuera de todas las consultas JPA
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,7 +35,9 @@ import java.util.Map;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con asignación por bloques (pooled): a diferencia de IDENTITY permite inserts por lotes en JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     @Schema(description = "ID autogenerado (no se envía en el request)", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
@@ -73,12 +88,58 @@ public class Product {
     private Integer discount = 0;
 
     @Column
-    @Schema(description = "Fecha de inicio de la oferta en formato YYYY-MM-DD (opcional)", example = "2024-01-01")
-    private String offerStartDate;
+    @Schema(description = "Fecha de inicio de la oferta en formato YYYY-MM-DD (opcional). La oferta se activa automáticamente ese día.", example = "2024-01-01", type = "string", format = "date")
+    private LocalDate offerStartDate;
 
     @Column
-    @Schema(description = "Fecha de fin de la oferta en formato YYYY-MM-DD (opcional)", example = "2024-12-31")
-    private String offerEndDate;
+    @Schema(description = "Fecha de fin de la oferta en formato YYYY-MM-DD (opcional, inclusive). La oferta se desactiva automáticamente al día siguiente.", example = "2024-12-31", type = "string", format = "date")
+    private LocalDate offerEndDate;
+
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Versión del producto, se incrementa en cada modificación (no se envía en el request)", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Fecha de la última modificación (se asigna automáticamente, no se envía en el request)", accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant updatedAt;
+
+    // Marca de borrado lógico; ProductPurgeJob elimina la fila definitivamente más tarde
+    @JsonIgnore
+    @Schema(hidden = true)
+    private Instant deletedAt;
+
+    // Constructor con los campos editables (versión y fecha de modificación las asigna JPA)
+    public Product(Long id, String name, String brand, String model, String category, Double price, Integer stock,
+                   String description, String image, Boolean isOnSale, Integer discount,
+                   String offerStartDate, String offerEndDate) {
+        this(id, name, brand, model, category, price, stock, description, image, isOnSale, discount,
+                parseOfferDate(offerStartDate), parseOfferDate(offerEndDate), null, null, null);
+    }
+
+    /**
+     * Convierte una fecha de oferta recibida como texto a LocalDate.
+     * Acepta "YYYY-MM-DD" o un timestamp ISO (se toma solo la fecha); vacío o null retorna null.
+     * @throws IllegalArgumentException si la fecha no es válida (la petición se rechaza con 400)
+     */
+    public static LocalDate parseOfferDate(Object value) {
+        if (value == null || value.toString().trim().isEmpty()) {
+            return null;
+        }
+        String text = value.toString().trim();
+        try {
+            return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+        } catch (DateTimeParseException e) {
+            // Sin la causa: Jackson informa el mensaje de la excepción raíz y este es el que ve el cliente
+            throw new IllegalArgumentException("Fecha de oferta inválida: '" + text + "' (formato esperado YYYY-MM-DD)");
+        }
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = Instant.now();
+    }
 
     // Setter personalizado para manejar el objeto 'offer' del frontend
     @JsonProperty("offer")
@@ -103,14 +164,14 @@ public class Product {
             
             Object startDateObj = offer.get("startDate");
             if (startDateObj != null) {
-                this.offerStartDate = startDateObj.toString();
+                this.offerStartDate = parseOfferDate(startDateObj);
                 // Si hay fecha de inicio, activar la oferta
                 this.isOnSale = true;
             }
             
             Object endDateObj = offer.get("endDate");
             if (endDateObj != null) {
-                this.offerEndDate = endDateObj.toString();
+                this.offerEndDate = parseOfferDate(endDateObj);
                 // Si hay fecha de fin, activar la oferta
                 this.isOnSale = true;
             }
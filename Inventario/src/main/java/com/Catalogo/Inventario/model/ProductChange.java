@@ -0,0 +1,39 @@
+package com.Catalogo.Inventario.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+@Entity
+@Table(name = "product_changes", indexes = {
+    @Index(name = "idx_product_changes_occurred_at", columnList = "occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cambio de un producto registrado en el log de cambios (solo se agregan filas, nunca se modifican)")
+public class ProductChange {
+
+    public enum ChangeType { CREATED, UPDATED, STOCK_CHANGED, DELETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Número de secuencia del cambio (creciente); se usa como cursor para reanudar", example = "1024")
+    private Long seq;
+
+    @Column(nullable = false)
+    @Schema(description = "ID del producto modificado", example = "5")
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Schema(description = "Tipo de cambio", example = "STOCK_CHANGED")
+    private ChangeType changeType;
+
+    @Column(nullable = false)
+    @Schema(description = "Fecha del cambio")
+    private Instant occurredAt;
+}
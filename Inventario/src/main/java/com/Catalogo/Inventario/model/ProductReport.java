@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "product_reports")
+@Table(name = "product_reports", indexes = {
+    @Index(name = "idx_product_reports_product", columnList = "product_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,30 @@
+package com.Catalogo.Inventario.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+@Entity
+@Table(name = "product_report_counters", indexes = {
+    @Index(name = "idx_report_counters_count", columnList = "report_count, product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cantidad de reportes de un producto, mantenida al crear cada reporte (evita un COUNT(*) por consulta)")
+public class ProductReportCounter {
+    // La clave primaria ya es el índice por product_id (búsquedas y borrados por producto)
+    @Id
+    @Schema(description = "ID del producto reportado", example = "5")
+    private Long productId;
+
+    @Column(nullable = false)
+    @Schema(description = "Cantidad total de reportes del producto", example = "3")
+    private Long reportCount = 0L;
+
+    @Schema(description = "Fecha del último reporte recibido")
+    private Instant lastReportedAt;
+}
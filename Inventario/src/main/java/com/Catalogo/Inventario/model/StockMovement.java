@@ -0,0 +1,48 @@
+package com.Catalogo.Inventario.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+@Entity
+@Table(name = "stock_movements", indexes = {
+    @Index(name = "idx_stock_movements_product", columnList = "product_id, id"),
+    @Index(name = "idx_stock_movements_order", columnList = "order_id"),
+    @Index(name = "idx_stock_movements_occurred_at", columnList = "occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Movimiento de stock de un producto (libro de movimientos: solo se agregan filas, nunca se modifican)")
+public class StockMovement {
+
+    public enum MovementType { INITIAL, SALE, RESTOCK, ADJUSTMENT }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "ID del movimiento (creciente)", example = "2048")
+    private Long id;
+
+    @Column(nullable = false)
+    @Schema(description = "ID del producto", example = "5")
+    private Long productId;
+
+    @Column(nullable = false)
+    @Schema(description = "Variación del stock (negativa para ventas y bajas)", example = "-2")
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    @Schema(description = "Tipo de movimiento", example = "SALE")
+    private MovementType movementType;
+
+    @Schema(description = "ID del pedido de Pagos que originó la venta (null si no es una venta)", example = "120")
+    private Long orderId;
+
+    @Column(nullable = false)
+    @Schema(description = "Fecha del movimiento")
+    private Instant occurredAt;
+}
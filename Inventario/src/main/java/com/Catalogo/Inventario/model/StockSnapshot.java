@@ -0,0 +1,40 @@
+package com.Catalogo.Inventario.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+@Entity
+@Table(name = "stock_snapshots", indexes = {
+    @Index(name = "idx_stock_snapshots_product", columnList = "product_id, taken_at"),
+    @Index(name = "idx_stock_snapshots_taken_at", columnList = "taken_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Stock acumulado de un producto hasta un movimiento del libro (punto de partida para consultar el stock en una fecha)")
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @Schema(description = "ID del producto", example = "5")
+    private Long productId;
+
+    @Column(nullable = false)
+    @Schema(description = "Stock resultante de todos los movimientos hasta lastMovementId", example = "12")
+    private Integer stock;
+
+    @Column(nullable = false)
+    @Schema(description = "Último movimiento incluido en la foto", example = "2048")
+    private Long lastMovementId;
+
+    @Column(nullable = false)
+    @Schema(description = "Fecha hasta la cual la foto incluye movimientos")
+    private Instant takenAt;
+}
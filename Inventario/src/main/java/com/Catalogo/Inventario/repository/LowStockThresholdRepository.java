@@ -0,0 +1,15 @@
+package com.Catalogo.Inventario.repository;
+
+import com.Catalogo.Inventario.model.LowStockThreshold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LowStockThresholdRepository extends JpaRepository<LowStockThreshold, Long> {
+
+    Optional<LowStockThreshold> findByProductId(Long productId);
+
+    Optional<LowStockThreshold> findByCategory(String category);
+}
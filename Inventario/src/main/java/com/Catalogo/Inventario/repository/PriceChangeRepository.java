@@ -0,0 +1,32 @@
+package com.Catalogo.Inventario.repository;
+
+import com.Catalogo.Inventario.dto.PriceBaseView;
+import com.Catalogo.Inventario.model.PriceChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PriceChangeRepository extends JpaRepository<PriceChange, Long> {
+
+    // Valor vigente al inicio del rango: suma de las diferencias anteriores (recorre el índice (product_id, ts))
+    @Query("SELECT COALESCE(SUM(c.priceDeltaCents), 0) AS priceCents, COALESCE(SUM(c.discountDelta), 0) AS discount, " +
+           "COUNT(c) AS changes FROM PriceChange c WHERE c.productId = :productId AND c.ts < :before")
+    PriceBaseView sumBefore(@Param("productId") Long productId, @Param("before") Instant before);
+
+    // Cambios de un producto dentro del rango, en orden
+    List<PriceChange> findByProductIdAndTsGreaterThanEqualAndTsLessThanOrderByTsAscIdAsc(Long productId, Instant from, Instant to);
+
+    // Valor inicial para los productos que todavía no tienen historial (por ejemplo, cargados por JDBC)
+    @Modifying
+    @Query(value = "INSERT INTO price_history (product_id, ts, price_delta_cents, discount_delta) " +
+                   "SELECT p.id, :now, ROUND(p.price * 100), COALESCE(p.discount, 0) FROM products p " +
+                   "WHERE p.deleted_at IS NULL " +
+                   "AND NOT EXISTS (SELECT 1 FROM price_history h WHERE h.product_id = p.id)", nativeQuery = true)
+    int backfillInitial(@Param("now") Instant now);
+}
@@ -0,0 +1,30 @@
+package com.Catalogo.Inventario.repository;
+
+import com.Catalogo.Inventario.model.ProductChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    // Cambios entre un cursor y la marca de agua (ambos inclusive), anteriores al horizonte de asentamiento
+    List<ProductChange> findBySeqBetweenAndOccurredAtBeforeOrderBySeqAsc(Long fromSeq, Long toSeq, Instant before, Pageable pageable);
+
+    @Query("SELECT MIN(c.seq) FROM ProductChange c")
+    Long findMinSeq();
+
+    @Query("SELECT MAX(c.seq) FROM ProductChange c")
+    Long findMaxSeq();
+
+    // Retención: borra en lotes los cambios más antiguos, sin llegar a keepSeq (el último cambio nunca se borra)
+    @Modifying
+    @Query(value = "DELETE FROM product_changes WHERE occurred_at < :cutoff AND seq < :keepSeq LIMIT :limit", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") Instant cutoff, @Param("keepSeq") long keepSeq, @Param("limit") int limit);
+}
@@ -1,12 +1,64 @@
 package com.Catalogo.Inventario.repository;
 
+import com.Catalogo.Inventario.dto.ProductFacetView;
+import com.Catalogo.Inventario.dto.ProductSearchView;
+import com.Catalogo.Inventario.dto.ProductVersionView;
 import com.Catalogo.Inventario.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     // Buscar productos que están en oferta
     List<Product> findByIsOnSaleTrue();
-}
\ No newline at end of file
+
+    // Productos con oferta programada (usa los índices de fechas)
+    List<Product> findByOfferStartDateIsNotNullOrOfferEndDateIsNotNull();
+
+    // Candidatos para el upsert de la importación masiva (marca + modelo identifican el producto).
+    // La collation por defecto de MySQL no distingue mayúsculas, así que se usa el índice y se compara en memoria
+    List<Product> findByBrandInAndModelIn(Collection<String> brands, Collection<String> models);
+
+    // Campos de facetas de varios productos, sin cargar descripción ni imagen
+    List<ProductFacetView> findFacetViewsByIdIn(Collection<Long> ids);
+
+    // Campos de facetas por páginas (cursor por ID), para reconstruir el índice sin cargar el catálogo completo
+    List<ProductFacetView> findFacetViewsByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    // Campos de texto por páginas (cursor por ID), para reconstruir el índice de búsqueda
+    List<ProductSearchView> findSearchViewsByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    // Solo versión y fecha de modificación, para peticiones condicionales
+    Optional<ProductVersionView> findVersionById(Long id);
+
+    // Borrado por conjunto: una sola sentencia, sin cargar los productos
+    @Modifying
+    @Query(value = "DELETE FROM products WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Productos vigentes entre los indicados, bloqueados hasta el fin de la transacción que los elimina
+    @Query(value = "SELECT id FROM products WHERE id IN (:ids) AND deleted_at IS NULL ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockLiveIds(@Param("ids") Collection<Long> ids);
+
+    // Borrado lógico (tombstone): los productos dejan de verse y se purgan después
+    @Modifying
+    @Query("UPDATE Product p SET p.deletedAt = :now, p.updatedAt = :now, p.version = COALESCE(p.version, 0) + 1 "
+            + "WHERE p.id IN :ids AND p.deletedAt IS NULL")
+    int markDeleted(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // Consultas nativas: las consultas JPA no ven los productos marcados
+    @Query(value = "SELECT id FROM products WHERE deleted_at IS NOT NULL AND deleted_at < :cutoff ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findTombstonedIds(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM products WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeTombstoned(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,36 @@
+package com.Catalogo.Inventario.repository;
+
+import com.Catalogo.Inventario.model.ProductReportCounter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReportCounterRepository extends JpaRepository<ProductReportCounter, Long> {
+
+    // Incremento atómico: crea el contador con 1 o suma 1 al existente en una sola sentencia
+    @Modifying
+    @Query(value = "INSERT INTO product_report_counters (product_id, report_count, last_reported_at) VALUES (:productId, 1, :now) "
+            + "ON DUPLICATE KEY UPDATE report_count = report_count + 1, last_reported_at = :now", nativeQuery = true)
+    int increment(@Param("productId") Long productId, @Param("now") Instant now);
+
+    // Productos más reportados (usa el índice report_count, product_id)
+    List<ProductReportCounter> findByOrderByReportCountDescProductIdAsc(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ProductReportCounter c WHERE c.productId IN :productIds")
+    int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    // Reconstruye los contadores a partir de los reportes existentes (bases creadas antes de los contadores)
+    @Modifying
+    @Query(value = "INSERT INTO product_report_counters (product_id, report_count, last_reported_at) "
+            + "SELECT product_id, COUNT(*), NULL FROM product_reports GROUP BY product_id", nativeQuery = true)
+    int backfillFromReports();
+}
@@ -1,8 +1,13 @@
 package com.Catalogo.Inventario.repository;
 
 import com.Catalogo.Inventario.model.ProductReport;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -10,6 +15,16 @@ public interface ReportRepository extends JpaRepository<ProductReport, Long> {
     List<ProductReport> findByProductId(Long productId);
     long countByProductId(Long productId);
 
+    // Paginación por cursor (keyset): reportes con ID mayor al último recibido
+    List<ProductReport> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
     // --- NUEVO: Borrar reportes por ID de producto ---
-    void deleteByProductId(Long productId);
+    // Una sola sentencia DELETE (el método derivado cargaba y borraba cada reporte por separado)
+    @Modifying
+    @Query("DELETE FROM ProductReport r WHERE r.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM ProductReport r WHERE r.productId IN :productIds")
+    int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.Catalogo.Inventario.repository;
+
+import com.Catalogo.Inventario.dto.OrderStockLine;
+import com.Catalogo.Inventario.dto.StockTailView;
+import com.Catalogo.Inventario.model.StockMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // Movimientos de un producto posteriores a un cursor (auditoría)
+    List<StockMovement> findByProductIdAndIdGreaterThanOrderByIdAsc(Long productId, Long id, Pageable pageable);
+
+    // Último movimiento anterior a una fecha (usa el índice por occurred_at, sin recorrer la tabla)
+    @Query(value = "SELECT id FROM stock_movements WHERE occurred_at < :before ORDER BY occurred_at DESC, id DESC LIMIT 1", nativeQuery = true)
+    Long findLastIdBefore(@Param("before") Instant before);
+
+    // Cola acotada de movimientos de un producto entre dos fotos, hasta la fecha consultada
+    @Query("SELECT COALESCE(SUM(m.delta), 0) AS delta, COUNT(m) AS movements FROM StockMovement m " +
+           "WHERE m.productId = :productId AND m.id > :fromId AND m.id <= :toId AND m.occurredAt <= :at")
+    StockTailView sumTail(@Param("productId") Long productId, @Param("fromId") Long fromId,
+                          @Param("toId") Long toId, @Param("at") Instant at);
+
+    // Pedidos con ventas registradas, en orden de ID (paginación por cursor para la conciliación)
+    @Query(value = "SELECT DISTINCT order_id FROM stock_movements WHERE order_id > :afterOrderId AND occurred_at < :before " +
+                   "ORDER BY order_id LIMIT :limit", nativeQuery = true)
+    List<Long> findOrderIdsAfter(@Param("afterOrderId") Long afterOrderId, @Param("before") Instant before, @Param("limit") int limit);
+
+    // Unidades vendidas por pedido y producto dentro de un rango de pedidos
+    @Query(value = "SELECT order_id AS orderId, product_id AS productId, -SUM(delta) AS quantity FROM stock_movements " +
+                   "WHERE order_id > :afterOrderId AND order_id <= :lastOrderId AND occurred_at < :before " +
+                   "GROUP BY order_id, product_id ORDER BY order_id, product_id", nativeQuery = true)
+    List<OrderStockLine> sumByOrder(@Param("afterOrderId") Long afterOrderId, @Param("lastOrderId") Long lastOrderId,
+                                    @Param("before") Instant before);
+
+    // Saldo inicial para los productos que todavía no tienen movimientos (por ejemplo, cargados por JDBC)
+    @Modifying
+    @Query(value = "INSERT INTO stock_movements (product_id, delta, movement_type, order_id, occurred_at) " +
+                   "SELECT p.id, p.stock, 'INITIAL', NULL, :now FROM products p " +
+                   "WHERE p.deleted_at IS NULL AND p.stock IS NOT NULL AND p.stock <> 0 " +
+                   "AND NOT EXISTS (SELECT 1 FROM stock_movements m WHERE m.product_id = p.id)", nativeQuery = true)
+    int backfillInitial(@Param("now") Instant now);
+}
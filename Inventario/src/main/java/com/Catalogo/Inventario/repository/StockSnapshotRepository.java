@@ -0,0 +1,32 @@
+package com.Catalogo.Inventario.repository;
+
+import com.Catalogo.Inventario.model.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    // Foto más reciente de un producto tomada hasta la fecha consultada
+    Optional<StockSnapshot> findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Long productId, Instant at);
+
+    // Primera foto (de cualquier producto) posterior a la fecha: acota la cola de movimientos a leer
+    Optional<StockSnapshot> findFirstByTakenAtGreaterThanOrderByTakenAtAsc(Instant at);
+
+    // Foto más reciente de todas: su lastMovementId es el punto de partida de la siguiente
+    Optional<StockSnapshot> findFirstByOrderByTakenAtDesc();
+
+    // Una foto por producto con movimientos nuevos: stock de su foto anterior más la suma de los movimientos del rango
+    @Modifying
+    @Query(value = "INSERT INTO stock_snapshots (product_id, stock, last_movement_id, taken_at) " +
+                   "SELECT m.product_id, COALESCE((SELECT s.stock FROM stock_snapshots s WHERE s.product_id = m.product_id " +
+                   "ORDER BY s.taken_at DESC LIMIT 1), 0) + SUM(m.delta), :toId, :takenAt " +
+                   "FROM stock_movements m WHERE m.id > :fromId AND m.id <= :toId GROUP BY m.product_id", nativeQuery = true)
+    int insertSnapshots(@Param("fromId") Long fromId, @Param("toId") Long toId, @Param("takenAt") Instant takenAt);
+}
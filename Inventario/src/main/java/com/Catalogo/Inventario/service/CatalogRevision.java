@@ -0,0 +1,30 @@
+package com.Catalogo.Inventario.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de revisión de todo el catálogo. Se incrementa en cada escritura de productos
+ * y permite responder 304 Not Modified en los listados sin consultar la base de datos.
+ * Arranca con la hora actual para que un reinicio no reutilice ETags emitidos antes.
+ */
+@Component
+public class CatalogRevision {
+
+    private final AtomicLong revision = new AtomicLong(System.currentTimeMillis());
+    private volatile long lastModified = System.currentTimeMillis();
+
+    public long current() {
+        return revision.get();
+    }
+
+    public long lastModified() {
+        return lastModified;
+    }
+
+    public void bump() {
+        lastModified = System.currentTimeMillis();
+        revision.incrementAndGet();
+    }
+}
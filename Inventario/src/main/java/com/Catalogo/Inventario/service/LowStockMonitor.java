@@ -0,0 +1,53 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.StockAlert;
+import com.Catalogo.Inventario.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Detecta cruces del umbral de stock bajo en el mismo camino que modifica el stock.
+ * Solo compara el stock anterior y el nuevo del producto modificado (sin recorrer la tabla) y
+ * emite una alerta únicamente al cruzar el umbral, no en cada venta posterior por debajo de él.
+ * La alerta se publica al confirmar la transacción, así un descuento revertido no alerta.
+ */
+@Component
+public class LowStockMonitor {
+
+    @Autowired
+    private LowStockThresholds thresholds;
+
+    @Autowired
+    private StockAlertDispatcher dispatcher;
+
+    public void check(Long productId, String category, int previousStock, int stock) {
+        if (previousStock == stock) {
+            return;
+        }
+        int threshold = thresholds.thresholdFor(productId, category);
+        StockAlert.AlertType type = crossing(threshold, previousStock, stock);
+        if (type == null) {
+            return;
+        }
+        StockAlert alert = new StockAlert(null, productId, category, type, threshold, previousStock, stock, Instant.now());
+        TransactionHooks.afterCommit(() -> dispatcher.publish(alert));
+    }
+
+    /**
+     * Tipo de cruce entre el stock anterior y el nuevo, o null si no cruza el umbral ni se agota
+     */
+    static StockAlert.AlertType crossing(int threshold, int previousStock, int stock) {
+        if (stock <= 0 && previousStock > 0) {
+            return StockAlert.AlertType.OUT_OF_STOCK;
+        }
+        if (stock <= threshold && previousStock > threshold) {
+            return StockAlert.AlertType.LOW_STOCK;
+        }
+        if (stock > threshold && previousStock <= threshold) {
+            return StockAlert.AlertType.RESTOCKED;
+        }
+        return null;
+    }
+}
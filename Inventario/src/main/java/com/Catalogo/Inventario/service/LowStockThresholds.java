@@ -0,0 +1,88 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.model.LowStockThreshold;
+import com.Catalogo.Inventario.repository.LowStockThresholdRepository;
+import com.Catalogo.Inventario.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Umbrales de stock bajo en memoria, para evaluarlos en cada descuento de stock sin consultar la BD.
+ * Prioridad: umbral del producto, luego el de su categoría y por último app.stock.alerts.default-threshold.
+ */
+@Component
+public class LowStockThresholds {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockThresholds.class);
+
+    @Autowired
+    private LowStockThresholdRepository repository;
+
+    @Value("${app.stock.alerts.default-threshold:5}")
+    private int defaultThreshold;
+
+    private final Map<Long, Integer> byProduct = new ConcurrentHashMap<>();
+    private final Map<String, Integer> byCategory = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<LowStockThreshold> thresholds = repository.findAll();
+        for (LowStockThreshold threshold : thresholds) {
+            if (threshold.getProductId() != null) {
+                byProduct.put(threshold.getProductId(), threshold.getThreshold());
+            } else if (threshold.getCategory() != null) {
+                byCategory.put(categoryKey(threshold.getCategory()), threshold.getThreshold());
+            }
+        }
+        logger.info("=== UMBRALES DE STOCK BAJO CARGADOS: {} ===", thresholds.size());
+    }
+
+    public int thresholdFor(Long productId, String category) {
+        Integer threshold = byProduct.get(productId);
+        if (threshold == null && category != null) {
+            threshold = byCategory.get(categoryKey(category));
+        }
+        return threshold != null ? threshold : defaultThreshold;
+    }
+
+    @Transactional
+    public LowStockThreshold setForProduct(Long productId, int threshold) {
+        LowStockThreshold saved = repository.findByProductId(productId)
+                .orElseGet(() -> new LowStockThreshold(null, productId, null, null));
+        saved.setThreshold(threshold);
+        saved = repository.save(saved);
+        TransactionHooks.afterCommit(() -> byProduct.put(productId, threshold));
+        return saved;
+    }
+
+    @Transactional
+    public LowStockThreshold setForCategory(String category, int threshold) {
+        String name = category.trim();
+        LowStockThreshold saved = repository.findByCategory(name)
+                .orElseGet(() -> new LowStockThreshold(null, null, name, null));
+        saved.setThreshold(threshold);
+        saved = repository.save(saved);
+        TransactionHooks.afterCommit(() -> byCategory.put(categoryKey(name), threshold));
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<LowStockThreshold> findAll() {
+        return repository.findAll();
+    }
+
+    private static String categoryKey(String category) {
+        return category.trim().toUpperCase(Locale.ROOT);
+    }
+}
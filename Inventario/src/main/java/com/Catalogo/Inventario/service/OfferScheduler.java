@@ -0,0 +1,140 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.repository.ProductRepository;
+import com.Catalogo.Inventario.util.HashedTimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Activa y desactiva las ofertas automáticamente según offerStartDate / offerEndDate.
+ * Cada producto con fechas programa sus próximos límites (inicio y día siguiente al fin)
+ * en una rueda de tiempo; al vencer, ProductService vuelve a evaluar el producto.
+ * Los eventos son idempotentes: si el producto cambió mientras tanto, la reevaluación
+ * usa los datos actuales y un evento obsoleto no tiene efecto.
+ */
+@Component
+public class OfferScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferScheduler.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Se obtiene de forma diferida porque ProductService también usa este componente
+    @Autowired
+    private ObjectProvider<ProductService> productServiceProvider;
+
+    @Value("${app.offers.zone:America/Santiago}")
+    private String zone;
+
+    @Value("${app.offers.wheel.tick-seconds:60}")
+    private long tickSeconds;
+
+    @Value("${app.offers.wheel.slots:512}")
+    private int slots;
+
+    private ZoneId zoneId;
+    private HashedTimingWheel wheel;
+    // Límites ya programados ("id@fecha"), para no duplicarlos si un producto se guarda varias veces
+    private final Set<String> scheduledKeys = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        zoneId = ZoneId.of(zone);
+        wheel = new HashedTimingWheel("offer-scheduler", tickSeconds * 1000, slots);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+    }
+
+    /**
+     * Al iniciar corrige las ofertas que debieron empezar o terminar mientras la aplicación
+     * estaba detenida y programa los próximos límites de todas las ofertas con fechas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleAll() {
+        LocalDate today = today();
+        List<Product> scheduled = productRepository.findByOfferStartDateIsNotNullOrOfferEndDateIsNotNull();
+        ProductService productService = productServiceProvider.getObject();
+        int corrected = 0;
+        for (Product product : scheduled) {
+            if (isOfferActive(product, today) != Boolean.TRUE.equals(product.getIsOnSale())) {
+                productService.refreshOfferState(product.getId());
+                corrected++;
+            }
+            schedule(product);
+        }
+        logger.info("=== OFERTAS PROGRAMADAS: {} PRODUCTOS CON FECHAS, {} CORREGIDOS AL INICIAR ===", scheduled.size(), corrected);
+    }
+
+    /**
+     * Programa los próximos límites (inicio / fin) de la oferta de un producto
+     */
+    public void schedule(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        LocalDate today = today();
+        Long productId = product.getId();
+        if (product.getOfferStartDate() != null && product.getOfferStartDate().isAfter(today)) {
+            scheduleAt(product.getOfferStartDate(), productId);
+        }
+        if (product.getOfferEndDate() != null && !product.getOfferEndDate().isBefore(today)) {
+            // La fecha de fin es inclusive: la oferta termina al comenzar el día siguiente
+            scheduleAt(product.getOfferEndDate().plusDays(1), productId);
+        }
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(zoneId);
+    }
+
+    public int pending() {
+        return wheel.pending();
+    }
+
+    /**
+     * Indica si la oferta de un producto con fechas debe estar activa en el día indicado.
+     * Requiere un descuento mayor a 0; las fechas nulas se consideran abiertas.
+     */
+    public static boolean isOfferActive(Product product, LocalDate day) {
+        boolean hasDiscount = product.getDiscount() != null && product.getDiscount() > 0;
+        boolean started = product.getOfferStartDate() == null || !day.isBefore(product.getOfferStartDate());
+        boolean notEnded = product.getOfferEndDate() == null || !day.isAfter(product.getOfferEndDate());
+        return hasDiscount && started && notEnded;
+    }
+
+    public static boolean hasSchedule(Product product) {
+        return product.getOfferStartDate() != null || product.getOfferEndDate() != null;
+    }
+
+    private void scheduleAt(LocalDate day, Long productId) {
+        String key = productId + "@" + day;
+        if (!scheduledKeys.add(key)) {
+            return;
+        }
+        long deadline = day.atStartOfDay(zoneId).toInstant().toEpochMilli();
+        wheel.schedule(deadline, () -> {
+            scheduledKeys.remove(key);
+            logger.info("Límite de oferta alcanzado para producto ID: {}", productId);
+            productServiceProvider.getObject().refreshOfferState(productId);
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.ApiResponse;
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Respuesta de GET /api/v1/products/offers ya serializada a JSON.
+ * Se reconstruye (una sola vez, en la siguiente lectura) solo cuando cambia algún producto
+ * que está o estaba en oferta; mientras tanto todas las peticiones reciben los mismos bytes.
+ * La reconstrucción lee del primario: la invalidación llega justo después del commit y la réplica
+ * podría no tener todavía la escritura, y el snapshot no expira por tiempo.
+ */
+@Component
+public class OffersPayload {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Arranca con la hora actual para que un reinicio no reutilice ETags emitidos antes
+    private final AtomicLong generation = new AtomicLong(System.currentTimeMillis());
+    // Momento de la última invalidación, para Last-Modified / If-Modified-Since
+    private volatile long lastModified = System.currentTimeMillis();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Retorna la respuesta vigente, reconstruyéndola si fue invalidada
+     */
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                long startedAt = generation.get();
+                Snapshot rebuilt = build(startedAt, lastModified);
+                // Si hubo una invalidación durante la construcción, no se guarda (se reconstruirá)
+                if (generation.get() == startedAt) {
+                    snapshot = rebuilt;
+                }
+                return rebuilt;
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Invalida la respuesta si el producto está en oferta ahora o aparecía en la respuesta actual
+     */
+    public void invalidateIfAffected(Long productId, boolean onSaleNow) {
+        Snapshot current = snapshot;
+        if (onSaleNow || current == null || current.productIds().contains(productId)) {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        lastModified = System.currentTimeMillis();
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot build(long revision, long modifiedAt) {
+        // Transacción nueva de lectura-escritura: LazyConnectionDataSourceProxy la envía al primario
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<Product> offers = template.execute(status -> productRepository.findByIsOnSaleTrue());
+        ApiResponse<List<Product>> response = offers.isEmpty()
+                ? new ApiResponse<>(false, 204, "No hay productos en oferta", null, 0L)
+                : new ApiResponse<>(true, 200, "Productos en oferta obtenidos", offers, (long) offers.size());
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            Set<Long> ids = offers.stream().map(Product::getId).collect(Collectors.toUnmodifiableSet());
+            return new Snapshot(body, offers.isEmpty(), revision, modifiedAt, ids);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error al serializar las ofertas: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Respuesta serializada (no se debe modificar el arreglo de bytes), si está vacía,
+     * número de revisión (para el ETag), fecha de modificación (para Last-Modified) y los IDs incluidos
+     */
+    public record Snapshot(byte[] body, boolean empty, long revision, long lastModified, Set<Long> productIds) {
+    }
+}
@@ -0,0 +1,198 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.PriceBaseView;
+import com.Catalogo.Inventario.dto.PricePoint;
+import com.Catalogo.Inventario.dto.PriceSeries;
+import com.Catalogo.Inventario.model.PriceChange;
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.repository.PriceChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Historial de precios de productos (price_history).
+ * Cada cambio de precio o descuento agrega una fila con la diferencia respecto del valor anterior
+ * (precio en centavos y puntos de descuento), dentro de la misma transacción que modifica el producto.
+ * Las filas son angostas y la tabla products no gana columnas, así las lecturas del catálogo no cambian.
+ *
+ * Para consultar un rango se suma lo anterior al inicio (el valor vigente) y se recorren solo los
+ * cambios del rango con el índice (product_id, ts), agrupándolos en intervalos de igual duración.
+ */
+@Component
+public class PriceHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistory.class);
+
+    private static final String INSERT_SQL = "INSERT INTO price_history (product_id, ts, price_delta_cents, discount_delta) VALUES (?, ?, ?, ?)";
+    // Tamaño de los IN (...) al leer el precio de muchos productos
+    private static final int LOOKUP_CHUNK = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PriceChangeRepository priceChangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Precio en centavos y porcentaje de descuento de un producto
+     */
+    public record Price(long cents, int discount) {
+
+        public static Price of(Double price, Integer discount) {
+            return new Price(price != null ? Math.round(price * 100) : 0L, discount != null ? discount : 0);
+        }
+
+        public static Price of(Product product) {
+            return of(product.getPrice(), product.getDiscount());
+        }
+    }
+
+    /**
+     * Registra el cambio de un producto; before null indica un producto nuevo (se guarda el valor completo)
+     */
+    public void record(Long productId, Price before, Price after) {
+        recordChanges(before != null ? Map.of(productId, before) : Map.of(), Map.of(productId, after));
+    }
+
+    /**
+     * Registra una fila por cada producto cuyo precio o descuento cambió entre las dos lecturas.
+     * Los productos ausentes en before se registran con su valor completo. Debe llamarse dentro
+     * de la transacción que modifica los productos.
+     */
+    public void recordChanges(Map<Long, Price> before, Map<Long, Price> after) {
+        List<PriceChange> changes = new ArrayList<>();
+        for (Map.Entry<Long, Price> entry : after.entrySet()) {
+            Price previous = before.getOrDefault(entry.getKey(), new Price(0L, 0));
+            long priceDelta = entry.getValue().cents() - previous.cents();
+            int discountDelta = entry.getValue().discount() - previous.discount();
+            if (priceDelta != 0 || discountDelta != 0 || !before.containsKey(entry.getKey())) {
+                changes.add(new PriceChange(null, entry.getKey(), null, priceDelta, (byte) discountDelta));
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        // Instant se guarda en UTC (igual que lo hace Hibernate)
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.getProductId());
+            ps.setTimestamp(2, now, utc);
+            ps.setLong(3, change.getPriceDeltaCents());
+            ps.setByte(4, change.getDiscountDelta());
+        });
+    }
+
+    /**
+     * Precio y descuento actuales de varios productos leídos con JDBC (sin cargar las entidades)
+     */
+    public Map<Long, Price> currentPrices(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> distinct = ids.stream().distinct().toList();
+        Map<Long, Price> prices = new HashMap<>(distinct.size() * 2);
+        for (int from = 0; from < distinct.size(); from += LOOKUP_CHUNK) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + LOOKUP_CHUNK, distinct.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT id, price, discount FROM products WHERE deleted_at IS NULL AND id IN (" + placeholders + ")", rs -> {
+                prices.put(rs.getLong(1), Price.of(rs.getDouble(2), rs.getInt(3)));
+            }, chunk.toArray());
+        }
+        return prices;
+    }
+
+    /**
+     * Serie de precios de un producto entre from (incluido) y to (excluido), reducida a como máximo
+     * points intervalos. Cada punto lleva el precio al final del intervalo y el mínimo y máximo
+     * alcanzados (incluido el valor con el que empezó); los intervalos sin cambios se omiten.
+     */
+    public PriceSeries series(Long productId, Instant from, Instant to, int points) {
+        long widthMillis = Math.max(1L, Duration.between(from, to).toMillis() / points);
+        PriceBaseView base = priceChangeRepository.sumBefore(productId, from);
+        List<PriceChange> changes = priceChangeRepository
+                .findByProductIdAndTsGreaterThanEqualAndTsLessThanOrderByTsAscIdAsc(productId, from, to);
+
+        List<PricePoint> result = new ArrayList<>();
+        long cents = base.getPriceCents();
+        int discount = base.getDiscount().intValue();
+        boolean known = base.getChanges() > 0;
+        long bucket = 0;
+        Bucket current = known ? new Bucket(cents) : null;
+        for (PriceChange change : changes) {
+            long index = Duration.between(from, change.getTs()).toMillis() / widthMillis;
+            if (current != null && index != bucket) {
+                result.add(current.toPoint(from.plusMillis(bucket * widthMillis), cents, discount));
+                current = null;
+            }
+            if (current == null) {
+                // El intervalo empieza con el valor vigente (si el producto ya tenía precio)
+                current = known ? new Bucket(cents) : new Bucket(cents + change.getPriceDeltaCents());
+                bucket = index;
+            }
+            cents += change.getPriceDeltaCents();
+            discount += change.getDiscountDelta();
+            known = true;
+            current.add(cents);
+        }
+        if (current != null) {
+            result.add(current.toPoint(from.plusMillis(bucket * widthMillis), cents, discount));
+        }
+        return new PriceSeries(productId, from, to, widthMillis / 1000, result);
+    }
+
+    /**
+     * Valor inicial de los productos sin historial (base creada antes del historial o carga sintética por JDBC)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillInitialPrices() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer rows = transactionTemplate.execute(status -> priceChangeRepository.backfillInitial(Instant.now()));
+        if (rows != null && rows > 0) {
+            logger.info("=== HISTORIAL DE PRECIOS: VALOR INICIAL REGISTRADO PARA {} PRODUCTOS ===", rows);
+        }
+    }
+
+    private static final class Bucket {
+        private long min;
+        private long max;
+        private int changes;
+
+        private Bucket(long opening) {
+            this.min = opening;
+            this.max = opening;
+        }
+
+        private void add(long cents) {
+            min = Math.min(min, cents);
+            max = Math.max(max, cents);
+            changes++;
+        }
+
+        private PricePoint toPoint(Instant ts, long cents, int discount) {
+            return new PricePoint(ts, cents / 100.0, min / 100.0, max / 100.0, discount, changes);
+        }
+    }
+}
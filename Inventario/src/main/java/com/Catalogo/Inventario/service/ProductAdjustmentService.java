@@ -0,0 +1,298 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.BulkAdjustResult;
+import com.Catalogo.Inventario.dto.ProductFacetView;
+import com.Catalogo.Inventario.dto.StockPriceAdjustment;
+import com.Catalogo.Inventario.model.ProductChange;
+import com.Catalogo.Inventario.repository.ProductRepository;
+import com.Catalogo.Inventario.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Ajuste masivo de stock, precio y descuento con sentencias UPDATE por lotes en JDBC.
+ * Solo se tocan las columnas que cambian (no se carga la entidad ni la imagen): los ajustes
+ * se agrupan por combinación de columnas y cada grupo se ejecuta como un único batch.
+ * Las cachés e índices se invalidan una sola vez para todo el lote al confirmar la transacción.
+ * Con rewriteBatchedStatements el driver puede informar SUCCESS_NO_INFO (-2) en vez de las filas afectadas,
+ * así que qué ajustes se aplican se decide antes de ejecutar: con las filas ya bloqueadas se simula cada
+ * ajuste en el mismo orden del batch y solo se envían los que encuentran el producto y no dejan stock negativo.
+ */
+@Service
+@Transactional
+public class ProductAdjustmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductAdjustmentService.class);
+
+    // Tamaño de los IN (...) al releer las facetas de los productos ajustados
+    private static final int LOOKUP_CHUNK = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductFacetIndex facetIndex;
+
+    @Autowired
+    private OffersPayload offersPayload;
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private ProductChangeLog changeLog;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private PriceHistory priceHistory;
+
+    public BulkAdjustResult adjust(List<StockPriceAdjustment> adjustments) {
+        long start = System.currentTimeMillis();
+        BulkAdjustResult result = new BulkAdjustResult();
+        result.setRequested(adjustments.size());
+
+        // Agrupar por columnas modificadas: cada grupo comparte la misma sentencia SQL
+        Map<String, List<Item>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < adjustments.size(); i++) {
+            StockPriceAdjustment adjustment = adjustments.get(i);
+            String error = validate(adjustment);
+            if (error != null) {
+                result.getErrors().add(new BulkAdjustResult.ItemError(i, adjustment != null ? adjustment.getId() : null, error));
+                continue;
+            }
+            groups.computeIfAbsent(buildSql(adjustment), k -> new ArrayList<>()).add(new Item(i, adjustment));
+        }
+
+        // Stock y precio de partida de los productos ajustados, para registrar sus movimientos y su historial de precios.
+        // Se bloquean todas las filas en una sola lectura ordenada por ID, así lotes concurrentes no se cruzan.
+        List<Long> stockIds = groups.values().stream()
+                .flatMap(List::stream)
+                .map(Item::adjustment)
+                .filter(adjustment -> adjustment.getStockDelta() != null || adjustment.getStock() != null)
+                .map(StockPriceAdjustment::getId)
+                .distinct()
+                .toList();
+        List<Long> priceIds = groups.values().stream()
+                .flatMap(List::stream)
+                .map(Item::adjustment)
+                .filter(adjustment -> !isStockOnly(adjustment))
+                .map(StockPriceAdjustment::getId)
+                .distinct()
+                .toList();
+        List<Long> lockIds = new ArrayList<>(stockIds);
+        lockIds.addAll(priceIds);
+        Map<Long, Integer> stockBefore = stockLedger.currentStock(lockIds, true);
+        Map<Long, PriceHistory.Price> priceBefore = priceHistory.currentPrices(priceIds);
+
+        // Verificación por fila con las filas bloqueadas: el resultado de la guarda del UPDATE se conoce de antemano
+        Map<Long, Integer> simulatedStock = new HashMap<>(stockBefore);
+        Map<String, List<Item>> applicable = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Item>> group : groups.entrySet()) {
+            List<Item> items = group.getValue();
+            // Orden por ID para que lotes concurrentes bloqueen filas en el mismo orden
+            items.sort(Comparator.comparing(item -> item.adjustment().getId()));
+            for (Item item : items) {
+                String error = check(item.adjustment(), simulatedStock);
+                if (error != null) {
+                    result.getErrors().add(new BulkAdjustResult.ItemError(item.index(), item.adjustment().getId(), error));
+                } else {
+                    applicable.computeIfAbsent(group.getKey(), k -> new ArrayList<>()).add(item);
+                }
+            }
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Long> updatedIds = new ArrayList<>();
+        List<Long> stockOnlyIds = new ArrayList<>();
+        for (Map.Entry<String, List<Item>> group : applicable.entrySet()) {
+            List<Item> items = group.getValue();
+            int[][] counts = jdbcTemplate.batchUpdate(group.getKey(), items, items.size(),
+                    (ps, item) -> bind(ps, item.adjustment(), now));
+            int position = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    Item item = items.get(position++);
+                    // SUCCESS_NO_INFO (-2) es confiable aquí: el ajuste ya se verificó con la fila bloqueada
+                    if (count > 0 || count == java.sql.Statement.SUCCESS_NO_INFO) {
+                        updatedIds.add(item.adjustment().getId());
+                        if (isStockOnly(item.adjustment())) {
+                            stockOnlyIds.add(item.adjustment().getId());
+                        }
+                    } else {
+                        result.getErrors().add(new BulkAdjustResult.ItemError(item.index(), item.adjustment().getId(),
+                                "Producto no encontrado o el stock quedaría negativo"));
+                    }
+                }
+            }
+        }
+
+        result.setUpdated(updatedIds.size());
+        result.getErrors().sort(Comparator.comparingInt(BulkAdjustResult.ItemError::getIndex));
+        if (!updatedIds.isEmpty()) {
+            List<Long> otherIds = new ArrayList<>(updatedIds);
+            otherIds.removeAll(stockOnlyIds);
+            changeLog.recordAll(ProductChange.ChangeType.STOCK_CHANGED, stockOnlyIds);
+            changeLog.recordAll(ProductChange.ChangeType.UPDATED, otherIds);
+            // Un movimiento por producto con la variación neta (un producto puede venir en varios ajustes)
+            Map<Long, Integer> stockAfter = stockLedger.currentStock(stockIds, false);
+            // Relectura de control: el stock final debe coincidir con la simulación, si no se revierte todo el lote
+            for (Long id : stockIds) {
+                Integer expected = simulatedStock.get(id);
+                if (expected != null && !expected.equals(stockAfter.get(id))) {
+                    throw new IllegalStateException("El stock del producto " + id + " no coincide tras el ajuste (esperado: "
+                            + expected + ", actual: " + stockAfter.get(id) + ")");
+                }
+            }
+            stockLedger.recordDifferences(stockBefore, stockAfter);
+            priceHistory.recordChanges(priceBefore, priceHistory.currentPrices(priceIds));
+            List<ProductFacetView> views = refreshAfterCommit(updatedIds);
+            for (ProductFacetView view : views) {
+                Integer stock = stockAfter.get(view.getId());
+                if (stock != null && stockBefore.containsKey(view.getId())) {
+                    lowStockMonitor.check(view.getId(), view.getCategory(), stockBefore.get(view.getId()), stock);
+                }
+            }
+        }
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        logger.info("=== AJUSTE MASIVO: {} solicitados, {} actualizados, {} con error en {} ms ===",
+                result.getRequested(), result.getUpdated(), result.getErrors().size(), result.getElapsedMs());
+        return result;
+    }
+
+    private String validate(StockPriceAdjustment adjustment) {
+        if (adjustment == null || adjustment.getId() == null) {
+            return "El ID del producto es obligatorio";
+        }
+        if (adjustment.getStockDelta() != null && adjustment.getStock() != null) {
+            return "No se puede enviar stockDelta y stock en el mismo ajuste";
+        }
+        if (adjustment.getStockDelta() == null && adjustment.getStock() == null
+                && adjustment.getPrice() == null && adjustment.getDiscount() == null) {
+            return "El ajuste no modifica ningún campo";
+        }
+        if (adjustment.getStock() != null && adjustment.getStock() < 0) {
+            return "El stock no puede ser negativo";
+        }
+        if (adjustment.getPrice() != null && adjustment.getPrice() < 0) {
+            return "El precio no puede ser negativo";
+        }
+        if (adjustment.getDiscount() != null && (adjustment.getDiscount() < 0 || adjustment.getDiscount() > 100)) {
+            return "El descuento debe estar entre 0 y 100";
+        }
+        return null;
+    }
+
+    // Aplica el ajuste sobre el stock simulado; retorna el error si el UPDATE no encontraría la fila
+    private static String check(StockPriceAdjustment adjustment, Map<Long, Integer> simulatedStock) {
+        Integer stock = simulatedStock.get(adjustment.getId());
+        if (stock == null) {
+            return "Producto no encontrado con ID: " + adjustment.getId();
+        }
+        if (adjustment.getStockDelta() != null) {
+            if (stock + adjustment.getStockDelta() < 0) {
+                return "El stock quedaría negativo (stock actual: " + stock + ")";
+            }
+            simulatedStock.put(adjustment.getId(), stock + adjustment.getStockDelta());
+        } else if (adjustment.getStock() != null) {
+            simulatedStock.put(adjustment.getId(), adjustment.getStock());
+        }
+        return null;
+    }
+
+    private static boolean isStockOnly(StockPriceAdjustment adjustment) {
+        return adjustment.getPrice() == null && adjustment.getDiscount() == null;
+    }
+
+    // La sentencia depende solo de qué campos trae el ajuste (los valores van como parámetros)
+    private String buildSql(StockPriceAdjustment adjustment) {
+        StringBuilder sql = new StringBuilder("UPDATE products SET ");
+        if (adjustment.getStockDelta() != null) {
+            sql.append("stock = stock + ?, ");
+        }
+        if (adjustment.getStock() != null) {
+            sql.append("stock = ?, ");
+        }
+        if (adjustment.getPrice() != null) {
+            sql.append("price = ?, ");
+        }
+        if (adjustment.getDiscount() != null) {
+            // Sin descuento no puede haber oferta activa
+            sql.append("discount = ?, is_on_sale = CASE WHEN ? > 0 THEN is_on_sale ELSE FALSE END, ");
+        }
+        sql.append("version = COALESCE(version, 0) + 1, updated_at = ? WHERE id = ? AND deleted_at IS NULL");
+        if (adjustment.getStockDelta() != null) {
+            sql.append(" AND stock + ? >= 0");
+        }
+        return sql.toString();
+    }
+
+    private void bind(PreparedStatement ps, StockPriceAdjustment adjustment, Timestamp now) throws SQLException {
+        int index = 1;
+        if (adjustment.getStockDelta() != null) {
+            ps.setInt(index++, adjustment.getStockDelta());
+        }
+        if (adjustment.getStock() != null) {
+            ps.setInt(index++, adjustment.getStock());
+        }
+        if (adjustment.getPrice() != null) {
+            ps.setDouble(index++, adjustment.getPrice());
+        }
+        if (adjustment.getDiscount() != null) {
+            ps.setInt(index++, adjustment.getDiscount());
+            ps.setInt(index++, adjustment.getDiscount());
+        }
+        // Instant se guarda en UTC (igual que lo hace Hibernate para updatedAt)
+        ps.setTimestamp(index++, now, Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+        ps.setLong(index++, adjustment.getId());
+        if (adjustment.getStockDelta() != null) {
+            ps.setObject(index, adjustment.getStockDelta(), Types.INTEGER);
+        }
+    }
+
+    // Una sola relectura liviana (dentro de la transacción) y una sola invalidación para todo el lote
+    private List<ProductFacetView> refreshAfterCommit(List<Long> ids) {
+        List<ProductFacetView> views = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            views.addAll(productRepository.findFacetViewsByIdIn(ids.subList(from, Math.min(from + LOOKUP_CHUNK, ids.size()))));
+        }
+        TransactionHooks.afterCommit(() -> {
+            productCache.invalidateProducts(ids);
+            facetIndex.indexViews(views);
+            offersPayload.invalidate();
+            catalogRevision.bump();
+        });
+        return views;
+    }
+
+    private record Item(int index, StockPriceAdjustment adjustment) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caché de lectura para productos individuales y para el listado de ofertas.
+ * Limitada por tamaño y con expiración por tiempo; ProductService la invalida
+ * de forma precisa después de cada escritura.
+ * Las lecturas concurrentes de una misma clave que no está en caché se agrupan:
+ * solo una consulta llega a la base de datos y el resto espera su resultado.
+ * Las tasas de acierto se publican en /actuator/metrics/cache.gets.
+ *
+ * Con réplica de lectura, una lectura justo después de invalidar puede llegar a la réplica antes
+ * que la escritura: durante app.datasource.replica.max-lag-ms los productos invalidados (y las
+ * ofertas) se leen sin guardarse, para no dejar un valor atrasado en caché hasta que expire.
+ */
+@Component
+public class ProductCache {
+
+    private static final String OFFERS_KEY = "offers";
+
+    private final Cache<Long, Product> products;
+    private final Cache<String, List<Product>> offers;
+    // Productos invalidados hace menos de holdMillis (null si no hay réplica)
+    private final Cache<Long, Boolean> recentlyInvalidated;
+    private final long holdMillis;
+    private volatile long offersHoldUntil;
+
+    public ProductCache(long maxSize, long ttlSeconds, MeterRegistry meterRegistry) {
+        this(maxSize, ttlSeconds, 0, meterRegistry);
+    }
+
+    @Autowired
+    public ProductCache(@Value("${app.cache.products.max-size:10000}") long maxSize,
+                        @Value("${app.cache.products.ttl-seconds:600}") long ttlSeconds,
+                        @Value("${app.datasource.replica.max-lag-ms:0}") long holdMillis,
+                        MeterRegistry meterRegistry) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.offers = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.holdMillis = holdMillis;
+        this.recentlyInvalidated = holdMillis > 0
+                ? Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(Duration.ofMillis(holdMillis)).<Long, Boolean>build()
+                : null;
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, offers, "offers");
+    }
+
+    /**
+     * Obtiene un producto de la caché o lo carga con el loader
+     * @return el producto, o null si el loader no lo encuentra (los inexistentes no se guardan)
+     */
+    public Product getProduct(Long id, Function<Long, Product> loader) {
+        if (recentlyInvalidated != null && recentlyInvalidated.getIfPresent(id) != null) {
+            return loader.apply(id);
+        }
+        return products.get(id, loader);
+    }
+
+    public Product getIfPresent(Long id) {
+        return products.getIfPresent(id);
+    }
+
+    public List<Product> getOffers(Supplier<List<Product>> loader) {
+        if (System.currentTimeMillis() < offersHoldUntil) {
+            return List.copyOf(loader.get());
+        }
+        return offers.get(OFFERS_KEY, k -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Invalida un producto y el listado de ofertas (donde también puede aparecer)
+     */
+    public void invalidateProduct(Long id) {
+        invalidateProducts(List.of(id));
+    }
+
+    public void invalidateProducts(Collection<Long> ids) {
+        if (recentlyInvalidated != null) {
+            for (Long id : ids) {
+                recentlyInvalidated.put(id, Boolean.TRUE);
+            }
+        }
+        products.invalidateAll(ids);
+        invalidateOffers();
+    }
+
+    public void invalidateAll() {
+        products.invalidateAll();
+        invalidateOffers();
+    }
+
+    private void invalidateOffers() {
+        if (holdMillis > 0) {
+            offersHoldUntil = System.currentTimeMillis() + holdMillis;
+        }
+        offers.invalidateAll();
+    }
+}
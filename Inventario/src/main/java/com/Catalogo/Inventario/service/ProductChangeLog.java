@@ -0,0 +1,188 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.ProductChangePage;
+import com.Catalogo.Inventario.model.ProductChange;
+import com.Catalogo.Inventario.repository.ProductChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Log de cambios de productos (outbox transaccional).
+ * Cada alta, modificación, cambio de stock y eliminación agrega una fila a product_changes dentro de
+ * la misma transacción que el cambio, así el log nunca contiene cambios revertidos ni pierde cambios
+ * confirmados. Los consumidores leen por número de secuencia (polling o SSE) e invalidan sus copias.
+ *
+ * Como la secuencia se asigna al insertar y no al confirmar, una transacción lenta (un lote de importación,
+ * un ajuste masivo) puede confirmar un seq menor después de que otro mayor ya fue leído. Por eso cada
+ * transacción que registra cambios se anota como en curso con el último seq confirmado al empezar, y
+ * las lecturas no entregan seqs por encima del menor de esas marcas hasta que la transacción termina.
+ *
+ * Ese seguimiento solo ve las transacciones de esta instancia: para escrituras de otras instancias o
+ * hechas fuera de la aplicación queda app.changes.settle-ms, que solo entrega cambios con esa antigüedad
+ * y por lo tanto debe cubrir la transacción más larga que registra cambios fuera de esta instancia.
+ */
+@Component
+public class ProductChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeLog.class);
+
+    private static final String INSERT_SQL = "INSERT INTO product_changes (product_id, change_type, occurred_at) VALUES (?, ?, ?)";
+    private static final int PURGE_BATCH = 10000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.changes.settle-ms:1000}")
+    private long settleMillis;
+
+    @Value("${app.changes.retention-days:7}")
+    private int retentionDays;
+
+    // Transacciones en curso que registraron cambios -> último seq confirmado cuando empezaron a registrar
+    private final Map<Object, Long> inFlight = new ConcurrentHashMap<>();
+    // Clave del recurso ligado a la transacción que indica que ya está anotada
+    private final Object inFlightKey = new Object();
+
+    public void record(ProductChange.ChangeType type, Long productId) {
+        recordAll(type, List.of(productId));
+    }
+
+    /**
+     * Agrega un cambio por producto en un solo batch; debe llamarse dentro de la transacción del cambio
+     */
+    public void recordAll(ProductChange.ChangeType type, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        trackInFlight();
+        Timestamp now = Timestamp.from(Instant.now());
+        // Instant se guarda en UTC (igual que lo hace Hibernate)
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(INSERT_SQL, productIds, productIds.size(), (ps, productId) -> {
+            ps.setLong(1, productId);
+            ps.setString(2, type.name());
+            ps.setTimestamp(3, now, utc);
+        });
+    }
+
+    /**
+     * Cambios con seq mayor a after (como máximo limit), en orden de secuencia
+     */
+    public ProductChangePage readAfter(long after, int limit) {
+        Instant horizon = Instant.now().minusMillis(settleMillis);
+        long watermark = watermark();
+        if (watermark <= after) {
+            return new ProductChangePage(List.of(), after, isExpired(after));
+        }
+        List<ProductChange> changes = productChangeRepository
+                .findBySeqBetweenAndOccurredAtBeforeOrderBySeqAsc(after + 1, watermark, horizon, PageRequest.of(0, limit));
+        long nextAfter = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSeq();
+        return new ProductChangePage(changes, nextAfter, isExpired(after));
+    }
+
+    /**
+     * Último seq registrado (0 si el log está vacío), para suscribirse solo a cambios futuros.
+     * No pasa de la marca de agua: un seq menor todavía sin confirmar no se salta.
+     */
+    public long latestSeq() {
+        Long maxSeq = productChangeRepository.findMaxSeq();
+        return Math.min(maxSeq != null ? maxSeq : 0L, watermark());
+    }
+
+    // Mayor seq que se puede entregar: todo lo que confirme una transacción en curso quedará por encima de su marca
+    private long watermark() {
+        return inFlight.values().stream().mapToLong(Long::longValue).min().orElse(Long.MAX_VALUE);
+    }
+
+    // La primera vez que la transacción registra cambios se anota como en curso hasta que termine (commit o rollback)
+    private void trackInFlight() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || TransactionSynchronizationManager.hasResource(inFlightKey)) {
+            return;
+        }
+        Object token = new Object();
+        // Se anota antes de insertar: los seqs que reciba esta transacción serán mayores que el máximo confirmado ahora
+        inFlight.put(token, latestCommittedSeq());
+        TransactionSynchronizationManager.bindResource(inFlightKey, token);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(inFlightKey);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(inFlightKey, token);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(inFlightKey);
+                inFlight.remove(token);
+            }
+        });
+    }
+
+    private long latestCommittedSeq() {
+        Long maxSeq = productChangeRepository.findMaxSeq();
+        return maxSeq != null ? maxSeq : 0L;
+    }
+
+    /**
+     * Indica si el cursor apunta a cambios ya borrados por la retención
+     */
+    public boolean isExpired(long after) {
+        if (after <= 0) {
+            return false;
+        }
+        Long minSeq = productChangeRepository.findMinSeq();
+        return minSeq != null && after < minSeq - 1;
+    }
+
+    /**
+     * Borra los cambios más antiguos que app.changes.retention-days, en lotes.
+     * El último cambio se conserva aunque sea antiguo: es la marca que permite a isExpired detectar
+     * un cursor atrasado cuando la retención borró todo lo demás (con la tabla vacía no habría min ni max).
+     */
+    @Scheduled(cron = "${app.changes.retention-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        Long maxSeq = productChangeRepository.findMaxSeq();
+        if (maxSeq == null) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> productChangeRepository.deleteOlderThan(cutoff, maxSeq, PURGE_BATCH));
+            total += deleted;
+        } while (deleted == PURGE_BATCH);
+        logger.info("=== LOG DE CAMBIOS DEPURADO: {} CAMBIOS ANTERIORES A {} ===", total, cutoff);
+    }
+}
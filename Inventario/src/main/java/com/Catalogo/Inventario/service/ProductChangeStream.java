@@ -0,0 +1,135 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.ProductChangePage;
+import com.Catalogo.Inventario.model.ProductChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Transmisión de los cambios de productos por Server-Sent Events.
+ * Un solo proceso periódico lee el log de cambios desde el cursor más atrasado entre los
+ * suscriptores y reparte cada cambio a quienes aún no lo recibieron, así la cantidad de
+ * consultas no depende de la cantidad de conexiones abiertas. Cada evento lleva el seq como id:
+ * al reconectarse, EventSource envía Last-Event-ID y la transmisión continúa desde ahí.
+ */
+@Component
+public class ProductChangeStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeStream.class);
+
+    private static final int READ_BATCH = 500;
+    private static final long HEARTBEAT_MILLIS = 15000;
+
+    @Autowired
+    private ProductChangeLog changeLog;
+
+    @Value("${app.changes.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.changes.stream.max-subscribers:200}")
+    private int maxSubscribers;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Abre una suscripción que recibirá los cambios con seq mayor a after
+     * @return el emisor SSE, o null si se alcanzó el máximo de suscriptores
+     */
+    public SseEmitter subscribe(long after) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, after);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        if (changeLog.isExpired(after)) {
+            // El cursor es más antiguo que la retención: el consumidor debe recargar todo
+            send(subscriber, SseEmitter.event().name("resync").data(""));
+        }
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.changes.stream.poll-ms:1000}")
+    public void poll() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long cursor = Long.MAX_VALUE;
+        for (Subscriber subscriber : subscribers) {
+            cursor = Math.min(cursor, subscriber.cursor);
+        }
+
+        ProductChangePage page;
+        do {
+            page = changeLog.readAfter(cursor, READ_BATCH);
+            for (Subscriber subscriber : subscribers) {
+                deliver(subscriber, page);
+            }
+            cursor = page.getNextAfter();
+        } while (page.getChanges().size() == READ_BATCH);
+
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (now - subscriber.lastSentAt >= HEARTBEAT_MILLIS) {
+                send(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private void deliver(Subscriber subscriber, ProductChangePage page) {
+        for (ProductChange change : page.getChanges()) {
+            if (change.getSeq() <= subscriber.cursor) {
+                continue;
+            }
+            boolean sent = send(subscriber, SseEmitter.event()
+                    .id(String.valueOf(change.getSeq()))
+                    .name("product-change")
+                    .data(change));
+            if (!sent) {
+                return;
+            }
+            subscriber.cursor = change.getSeq();
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            subscriber.lastSentAt = System.currentTimeMillis();
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Conexión cerrada por el cliente
+            logger.debug("Suscriptor de cambios desconectado: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private volatile long cursor;
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.ProductFacetView;
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Motor de facetas en memoria para filtrar el catálogo por categoría, marca,
+ * rango de precio y estado de oferta.
+ * Cada producto recibe un ordinal (posición en los bitsets) y cada valor de faceta
+ * mantiene un BitSet con los ordinales que lo tienen, así un filtro es una intersección
+ * de bitsets y los conteos de cada faceta se calculan sin consultar la base de datos.
+ * Los ordinales de productos eliminados se reutilizan, así los bitsets no crecen con las altas y bajas.
+ * Categoría y marca se comparan sin distinguir mayúsculas ni espacios ("MSI", "msi " y "Msi" son la misma
+ * faceta, igual que en la importación); los conteos muestran la primera forma recibida.
+ */
+@Component
+public class ProductFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    public static final String CATEGORY = "category";
+    public static final String BRAND = "brand";
+    public static final String PRICE_BAND = "priceBand";
+    public static final String ON_SALE = "onSale";
+
+    private static final List<String> DIMENSIONS = List.of(CATEGORY, BRAND, PRICE_BAND, ON_SALE);
+
+    // Límites superiores (exclusivos) de los rangos de precio, en pesos
+    private static final double[] PRICE_BAND_LIMITS = {100000, 300000, 600000, 1000000};
+    private static final String[] PRICE_BAND_NAMES = {"0-100000", "100000-300000", "300000-600000", "600000-1000000", "1000000+"};
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Productos por consulta al reconstruir el índice
+    @Value("${app.facets.rebuild-page-size:1000}")
+    private int rebuildPageSize = 1000;
+
+    // dimensión -> (valor -> ordinales que lo tienen)
+    private final Map<String, Map<String, BitSet>> bitmaps = new HashMap<>();
+    // dimensión -> (valor normalizado -> valor que se muestra en los conteos)
+    private final Map<String, Map<String, String>> labels = new HashMap<>();
+    // ordinal -> (dimensión -> valor), para poder limpiar los bits al actualizar
+    private final List<Map<String, String>> ordinalValues = new ArrayList<>();
+    private final List<Long> ordinalToId = new ArrayList<>();
+    private final Map<Long, Integer> idToOrdinal = new HashMap<>();
+    // ordinales que corresponden a productos vigentes (no eliminados)
+    private final BitSet live = new BitSet();
+    // ordinales liberados por remove(), se asignan primero los más bajos
+    private final BitSet freeOrdinals = new BitSet();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductFacetIndex() {
+        for (String dimension : DIMENSIONS) {
+            bitmaps.put(dimension, new HashMap<>());
+            labels.put(dimension, new HashMap<>());
+        }
+    }
+
+    /**
+     * Reconstruye el índice leyendo el catálogo por páginas con la proyección de facetas
+     * (sin descripción ni imagen), así la memoria usada no depende del tamaño del catálogo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            bitmaps.values().forEach(Map::clear);
+            labels.values().forEach(Map::clear);
+            ordinalValues.clear();
+            ordinalToId.clear();
+            idToOrdinal.clear();
+            live.clear();
+            freeOrdinals.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long total = 0;
+        long afterId = 0;
+        List<ProductFacetView> page;
+        do {
+            page = productRepository.findFacetViewsByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, rebuildPageSize));
+            if (!page.isEmpty()) {
+                indexViews(page);
+                total += page.size();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == rebuildPageSize);
+        logger.info("=== ÍNDICE DE FACETAS CONSTRUIDO: {} PRODUCTOS ===", total);
+    }
+
+    /**
+     * Agrega o actualiza los bits de un producto
+     */
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            indexUnlocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Actualiza los bits de varios productos a partir de una proyección liviana
+     */
+    public void indexViews(Collection<ProductFacetView> views) {
+        lock.writeLock().lock();
+        try {
+            for (ProductFacetView view : views) {
+                indexUnlocked(view.getId(), view.getCategory(), view.getBrand(), view.getPrice(), view.getIsOnSale());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un producto de todas las facetas
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = idToOrdinal.remove(productId);
+            if (ordinal != null) {
+                clearUnlocked(ordinal);
+                live.clear(ordinal);
+                ordinalToId.set(ordinal, null);
+                freeOrdinals.set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filtra el catálogo y calcula los conteos de facetas en una sola pasada.
+     * Dentro de una misma dimensión los valores se combinan con OR y entre dimensiones con AND.
+     * El conteo de cada faceta aplica los filtros de las demás dimensiones pero no el propio,
+     * así el usuario ve cuántos productos obtendría al cambiar esa selección.
+     * @param filters dimensión -> valores seleccionados (dimensiones ausentes o vacías no filtran)
+     * @param page página (base 0)
+     * @param size tamaño de página
+     * @return IDs de la página, total de coincidencias y conteos por faceta
+     */
+    public FacetResult filter(Map<String, Set<String>> filters, int page, int size) {
+        lock.readLock().lock();
+        try {
+            Map<String, BitSet> perDimension = new HashMap<>();
+            for (String dimension : DIMENSIONS) {
+                Set<String> values = filters.get(dimension);
+                if (values != null && !values.isEmpty()) {
+                    perDimension.put(dimension, union(dimension, values));
+                }
+            }
+
+            BitSet matches = intersectExcept(perDimension, null);
+
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            for (String dimension : DIMENSIONS) {
+                BitSet base = intersectExcept(perDimension, dimension);
+                Map<String, Long> counts = new TreeMap<>();
+                Map<String, String> dimensionLabels = labels.get(dimension);
+                for (Map.Entry<String, BitSet> entry : bitmaps.get(dimension).entrySet()) {
+                    BitSet bits = (BitSet) entry.getValue().clone();
+                    bits.and(base);
+                    if (!bits.isEmpty()) {
+                        counts.put(dimensionLabels.getOrDefault(entry.getKey(), entry.getKey()), (long) bits.cardinality());
+                    }
+                }
+                facets.put(dimension, counts);
+            }
+
+            List<Long> pageIds = new ArrayList<>();
+            // En long y sin negativos: page * size puede desbordar un int con páginas grandes
+            long skip = Math.max(0L, (long) page * size);
+            for (int i = matches.nextSetBit(0); i >= 0 && pageIds.size() < size; i = matches.nextSetBit(i + 1)) {
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                pageIds.add(ordinalToId.get(i));
+            }
+
+            return new FacetResult(pageIds, matches.cardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rango de precio al que pertenece un precio
+     */
+    public static String priceBand(Double price) {
+        double value = price != null ? price : 0;
+        for (int i = 0; i < PRICE_BAND_LIMITS.length; i++) {
+            if (value < PRICE_BAND_LIMITS[i]) {
+                return PRICE_BAND_NAMES[i];
+            }
+        }
+        return PRICE_BAND_NAMES[PRICE_BAND_NAMES.length - 1];
+    }
+
+    private BitSet union(String dimension, Set<String> values) {
+        BitSet result = new BitSet();
+        Map<String, BitSet> byValue = bitmaps.get(dimension);
+        for (String value : values) {
+            BitSet bits = byValue.get(normalize(value));
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    private BitSet intersectExcept(Map<String, BitSet> perDimension, String excluded) {
+        BitSet result = (BitSet) live.clone();
+        for (Map.Entry<String, BitSet> entry : perDimension.entrySet()) {
+            if (!entry.getKey().equals(excluded)) {
+                result.and(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private void indexUnlocked(Product product) {
+        indexUnlocked(product.getId(), product.getCategory(), product.getBrand(), product.getPrice(), product.getIsOnSale());
+    }
+
+    private void indexUnlocked(Long id, String category, String brand, Double price, Boolean onSale) {
+        Integer ordinal = idToOrdinal.get(id);
+        if (ordinal == null) {
+            int free = freeOrdinals.nextSetBit(0);
+            if (free >= 0) {
+                // Reutiliza el ordinal de un producto eliminado (sus bits y valores ya se limpiaron)
+                freeOrdinals.clear(free);
+                ordinal = free;
+                ordinalToId.set(ordinal, id);
+            } else {
+                ordinal = ordinalToId.size();
+                ordinalToId.add(id);
+                ordinalValues.add(new HashMap<>());
+            }
+            idToOrdinal.put(id, ordinal);
+        } else {
+            clearUnlocked(ordinal);
+        }
+
+        Map<String, String> values = ordinalValues.get(ordinal);
+        putValue(values, CATEGORY, valueOf(category));
+        putValue(values, BRAND, valueOf(brand));
+        putValue(values, PRICE_BAND, priceBand(price));
+        putValue(values, ON_SALE, String.valueOf(Boolean.TRUE.equals(onSale)));
+
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            bitmaps.get(entry.getKey()).computeIfAbsent(entry.getValue(), k -> new BitSet()).set(ordinal);
+        }
+        live.set(ordinal);
+    }
+
+    // Guarda el valor normalizado del ordinal y recuerda cómo mostrarlo si es el primero con esa forma
+    private void putValue(Map<String, String> values, String dimension, String label) {
+        String key = normalize(label);
+        values.put(dimension, key);
+        labels.get(dimension).putIfAbsent(key, label);
+    }
+
+    private void clearUnlocked(int ordinal) {
+        Map<String, String> values = ordinalValues.get(ordinal);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            Map<String, BitSet> byValue = bitmaps.get(entry.getKey());
+            BitSet bits = byValue.get(entry.getValue());
+            if (bits != null) {
+                bits.clear(ordinal);
+                if (bits.isEmpty()) {
+                    byValue.remove(entry.getValue());
+                    labels.get(entry.getKey()).remove(entry.getValue());
+                }
+            }
+        }
+        values.clear();
+    }
+
+    // Ordinales asignados (vigentes + libres); usado en los tests
+    int ordinalCount() {
+        lock.readLock().lock();
+        try {
+            return ordinalToId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String valueOf(String field) {
+        return field == null || field.trim().isEmpty() ? "Sin especificar" : field.trim();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Resultado de un filtrado: IDs de la página, total de coincidencias y conteos por faceta
+     */
+    public record FacetResult(List<Long> ids, long total, Map<String, Map<String, Long>> facets) {
+    }
+}
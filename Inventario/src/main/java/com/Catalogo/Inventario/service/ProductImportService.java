@@ -0,0 +1,288 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.ImportResult;
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.model.ProductChange;
+import com.Catalogo.Inventario.model.StockMovement;
+import com.Catalogo.Inventario.repository.ProductRepository;
+import com.Catalogo.Inventario.util.CsvLineParser;
+import com.Catalogo.Inventario.util.ProductValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importación masiva de productos desde NDJSON (un producto JSON por línea) o CSV con encabezado.
+ * El archivo se lee línea a línea y se guarda en lotes de app.import.batch-size filas, cada lote
+ * en su propia transacción y con el contexto de persistencia limpio al terminar, así la memoria
+ * usada no crece con el tamaño del archivo. Los productos se identifican por marca + modelo
+ * (sin distinguir mayúsculas ni espacios al inicio o al final): si ya existen se actualizan, si no se insertan.
+ * Si un lote falla al guardarse se reintentan sus filas una a una, cada una en su propia transacción,
+ * para reportar solo las filas que realmente fallan.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    public enum Format { NDJSON, CSV }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductChangeLog changeLog;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private PriceHistory priceHistory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ImportResult importProducts(InputStream input, Format format) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportResult result = new ImportResult();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> csvHeader = null;
+            List<Row> batch = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && csvHeader == null) {
+                    csvHeader = CsvLineParser.parse(line).stream().map(String::trim).toList();
+                    continue;
+                }
+
+                result.setProcessed(result.getProcessed() + 1);
+                try {
+                    Product product = format == Format.CSV ? parseCsv(csvHeader, line) : objectMapper.readValue(line, Product.class);
+                    String error = ProductValidator.validateNewProduct(product);
+                    if (error != null) {
+                        addError(result, lineNumber, error);
+                        continue;
+                    }
+                    product.setName(product.getName().trim());
+                    product.setBrand(product.getBrand().trim());
+                    product.setModel(product.getModel().trim());
+                    product.setCategory(product.getCategory().trim());
+                    batch.add(new Row(lineNumber, product));
+                } catch (Exception e) {
+                    addError(result, lineNumber, "Fila inválida: " + e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    writeBatch(transactionTemplate, batch, result);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(transactionTemplate, batch, result);
+            }
+        }
+
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        logger.info("=== IMPORTACIÓN FINALIZADA: {} filas, {} insertadas, {} actualizadas, {} con error en {} ms ===",
+                result.getProcessed(), result.getInserted(), result.getUpdated(), result.getFailed(), result.getElapsedMs());
+        return result;
+    }
+
+    private void writeBatch(TransactionTemplate transactionTemplate, List<Row> batch, ImportResult result) {
+        try {
+            int[] counts = transactionTemplate.execute(status -> upsert(batch));
+            result.setInserted(result.getInserted() + counts[0]);
+            result.setUpdated(result.getUpdated() + counts[1]);
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                logger.error("Error al guardar la fila {} de la importación: {}", batch.get(0).line(), e.getMessage(), e);
+                addError(result, batch.get(0).line(), "Error al guardar la fila: " + e.getMessage());
+                return;
+            }
+            // El lote completo se revirtió: se reintenta fila por fila para reportar solo las que fallan
+            logger.warn("=== LOTE DE IMPORTACIÓN REVERTIDO ({} filas), reintentando fila por fila: {} ===", batch.size(), e.getMessage());
+            for (Row row : batch) {
+                writeBatch(transactionTemplate, List.of(row), result);
+            }
+        }
+    }
+
+    // Inserta o actualiza un lote dentro de la transacción actual; retorna {insertados, actualizados}
+    private int[] upsert(List<Row> batch) {
+        Set<String> brands = new HashSet<>();
+        Set<String> models = new HashSet<>();
+        for (Row row : batch) {
+            brands.add(row.product().getBrand());
+            models.add(row.product().getModel());
+        }
+        // Una sola consulta para todos los productos existentes del lote
+        Map<String, Product> existing = new HashMap<>();
+        for (Product product : productRepository.findByBrandInAndModelIn(brands, models)) {
+            existing.put(key(product), product);
+        }
+
+        int inserted = 0;
+        int updated = 0;
+        Map<String, Product> written = new LinkedHashMap<>();
+        List<Product> created = new ArrayList<>();
+        List<Product> changed = new ArrayList<>();
+        // Stock y precio previos de los productos existentes, para registrar sus movimientos y su historial de precios
+        Map<Long, Integer> stockBefore = new HashMap<>();
+        Map<Long, PriceHistory.Price> priceBefore = new HashMap<>();
+        for (Row row : batch) {
+            Product incoming = row.product();
+            String key = key(incoming);
+            Product target = existing.get(key);
+            if (target == null) {
+                incoming.setId(null);
+                incoming.setVersion(null);
+                productService.applyOfferSchedule(incoming);
+                entityManager.persist(incoming);
+                existing.put(key, incoming);
+                created.add(incoming);
+                inserted++;
+            } else {
+                if (target.getId() != null) {
+                    stockBefore.putIfAbsent(target.getId(), target.getStock() != null ? target.getStock() : 0);
+                    priceBefore.putIfAbsent(target.getId(), PriceHistory.Price.of(target));
+                }
+                copyFields(incoming, target);
+                productService.applyOfferSchedule(target);
+                changed.add(target);
+                updated++;
+            }
+            written.put(key, existing.get(key));
+        }
+
+        entityManager.flush();
+        // Los IDs de los nuevos ya están asignados (secuencia) después del flush
+        changeLog.recordAll(ProductChange.ChangeType.CREATED, created.stream().map(Product::getId).distinct().toList());
+        changeLog.recordAll(ProductChange.ChangeType.UPDATED, changed.stream().map(Product::getId).distinct().toList());
+        List<StockMovement> movements = new ArrayList<>();
+        Map<Long, PriceHistory.Price> priceAfter = new HashMap<>();
+        for (Product product : written.values()) {
+            priceAfter.put(product.getId(), PriceHistory.Price.of(product));
+            int stock = product.getStock() != null ? product.getStock() : 0;
+            Integer previous = stockBefore.get(product.getId());
+            int delta = stock - (previous != null ? previous : 0);
+            if (delta != 0) {
+                StockMovement.MovementType type = previous == null ? StockMovement.MovementType.INITIAL : StockLedger.adjustmentType(delta);
+                movements.add(new StockMovement(null, product.getId(), delta, type, null, null));
+                if (previous != null) {
+                    lowStockMonitor.check(product.getId(), product.getCategory(), previous, stock);
+                }
+            }
+        }
+        stockLedger.recordAll(movements);
+        priceHistory.recordChanges(priceBefore, priceAfter);
+        productService.onProductsWritten(written.values());
+        entityManager.clear();
+        return new int[]{inserted, updated};
+    }
+
+    // Solo se sobrescriben los campos que vienen en la fila
+    private void copyFields(Product source, Product target) {
+        target.setName(source.getName());
+        target.setCategory(source.getCategory());
+        target.setPrice(source.getPrice());
+        target.setStock(source.getStock());
+        if (source.getDescription() != null) {
+            target.setDescription(source.getDescription());
+        }
+        if (source.getImage() != null) {
+            target.setImage(source.getImage());
+        }
+        if (source.getDiscount() != null) {
+            target.setDiscount(source.getDiscount());
+        }
+        if (source.getIsOnSale() != null) {
+            target.setIsOnSale(source.getIsOnSale());
+        }
+        if (source.getOfferStartDate() != null) {
+            target.setOfferStartDate(source.getOfferStartDate());
+        }
+        if (source.getOfferEndDate() != null) {
+            target.setOfferEndDate(source.getOfferEndDate());
+        }
+    }
+
+    private Product parseCsv(List<String> header, String line) {
+        List<String> values = CsvLineParser.parse(line);
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("La fila tiene " + values.size() + " columnas y el encabezado " + header.size());
+        }
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (!value.isEmpty()) {
+                fields.put(header.get(i), value);
+            }
+        }
+        return objectMapper.convertValue(fields, Product.class);
+    }
+
+    private void addError(ImportResult result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ImportResult.RowError(line, message));
+        }
+    }
+
+    // "MSI" / "Ventus 3X" y "msi" / "ventus 3x " son el mismo producto, igual que para la collation de MySQL
+    private static String key(Product product) {
+        return normalize(product.getBrand()) + "\u0000" + normalize(product.getModel());
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Row(long line, Product product) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.repository.ProductRepository;
+import com.Catalogo.Inventario.repository.ReportCounterRepository;
+import com.Catalogo.Inventario.repository.ReportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Purga en segundo plano los productos con borrado lógico (app.products.soft-delete=true).
+ * Pasado el período de gracia, borra en lotes de app.products.purge.batch-size productos sus
+ * reportes, contadores y filas, cada lote en su propia transacción para no bloquear la tabla.
+ */
+@Component
+public class ProductPurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductPurgeJob.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private ReportCounterRepository reportCounterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.products.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.products.purge.grace-seconds:3600}")
+    private long graceSeconds;
+
+    @Scheduled(initialDelayString = "${app.products.purge.interval-ms:300000}",
+               fixedDelayString = "${app.products.purge.interval-ms:300000}")
+    public void purge() {
+        Instant cutoff = Instant.now().minusSeconds(graceSeconds);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int purged;
+        do {
+            purged = transactionTemplate.execute(status -> purgeBatch(cutoff));
+            total += purged;
+        } while (purged == batchSize);
+
+        if (total > 0) {
+            logger.info("=== PURGA DE PRODUCTOS ELIMINADOS: {} PRODUCTOS ===", total);
+        }
+    }
+
+    private int purgeBatch(Instant cutoff) {
+        List<Long> ids = productRepository.findTombstonedIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Puede haber reportes creados después del borrado lógico
+        reportRepository.deleteByProductIdIn(ids);
+        reportCounterRepository.deleteByProductIdIn(ids);
+        productRepository.purgeTombstoned(ids);
+        return ids.size();
+    }
+}
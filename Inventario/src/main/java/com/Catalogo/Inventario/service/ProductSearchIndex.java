@@ -0,0 +1,246 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.ProductSearchView;
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria para la búsqueda de texto completo del catálogo.
+ * Indexa nombre, marca, modelo, categoría y descripción, normalizando acentos
+ * (ej: "gráfica" == "grafica") y ordena los resultados con BM25.
+ * Se construye al iniciar la aplicación y luego se actualiza de forma incremental
+ * desde ProductService, así las búsquedas nunca consultan MySQL con LIKE '%...%'.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // Parámetros estándar de BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // El nombre pesa más que la descripción: sus términos se cuentan dos veces
+    private static final int NAME_WEIGHT = 2;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Productos por consulta al reconstruir el índice
+    @Value("${app.search.rebuild-page-size:1000}")
+    private int rebuildPageSize = 1000;
+
+    // término -> (id de producto -> frecuencia del término en el producto)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    // id de producto -> frecuencias de sus términos (para poder des-indexarlo)
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private long totalLength = 0;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Reconstruye el índice leyendo el catálogo por páginas con solo los campos de texto
+     * (sin imagen), así la memoria usada no depende del tamaño del catálogo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long afterId = 0;
+        List<ProductSearchView> page;
+        do {
+            page = productRepository.findSearchViewsByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, rebuildPageSize));
+            lock.writeLock().lock();
+            try {
+                for (ProductSearchView view : page) {
+                    removeUnlocked(view.getId());
+                    addUnlocked(view.getId(), view.getName(), view.getBrand(), view.getModel(), view.getCategory(), view.getDescription());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == rebuildPageSize);
+        logger.info("=== ÍNDICE DE BÚSQUEDA CONSTRUIDO: {} PRODUCTOS, {} TÉRMINOS ===", size(), postings.size());
+    }
+
+    /**
+     * Agrega o reemplaza un producto en el índice
+     */
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(product.getId());
+            addUnlocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un producto del índice
+     */
+    public void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca productos que contengan alguno de los términos de la consulta
+     * @param query texto libre ingresado por el usuario
+     * @param limit cantidad máxima de resultados
+     * @return IDs de productos ordenados por relevancia (BM25) de mayor a menor
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            if (docCount == 0) {
+                return List.of();
+            }
+            double avgLength = (double) totalLength / docCount;
+
+            for (String term : terms.stream().distinct().toList()) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    int tf = entry.getValue();
+                    int length = documentLength(documents.get(entry.getKey()));
+                    double score = idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * length / avgLength));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        return ranked.stream()
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza el texto (minúsculas, sin tildes ni diéresis) y lo separa en términos
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void addUnlocked(Product product) {
+        addUnlocked(product.getId(), product.getName(), product.getBrand(), product.getModel(), product.getCategory(), product.getDescription());
+    }
+
+    private void addUnlocked(Long id, String name, String brand, String model, String category, String description) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String token : tokenize(name)) {
+            termFrequencies.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String field : new String[]{brand, model, category, description}) {
+            for (String token : tokenize(field)) {
+                termFrequencies.merge(token, 1, Integer::sum);
+            }
+        }
+
+        documents.put(id, termFrequencies);
+        totalLength += documentLength(termFrequencies);
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(id, entry.getValue());
+        }
+    }
+
+    private void removeUnlocked(Long productId) {
+        Map<String, Integer> termFrequencies = documents.remove(productId);
+        if (termFrequencies == null) {
+            return;
+        }
+        totalLength -= documentLength(termFrequencies);
+        for (String term : termFrequencies.keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static int documentLength(Map<String, Integer> termFrequencies) {
+        int length = 0;
+        for (int tf : termFrequencies.values()) {
+            length += tf;
+        }
+        return length;
+    }
+}
@@ -1,12 +1,29 @@
 package com.Catalogo.Inventario.service;
 
+import com.Catalogo.Inventario.dto.FacetedProductPage;
+import com.Catalogo.Inventario.dto.ProductVersionView;
 import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.model.ProductChange;
+import com.Catalogo.Inventario.model.StockMovement;
 import com.Catalogo.Inventario.repository.ProductRepository;
+import com.Catalogo.Inventario.repository.ReportCounterRepository;
 import com.Catalogo.Inventario.repository.ReportRepository; // Importar esto
-import jakarta.transaction.Transactional;
+import com.Catalogo.Inventario.util.TransactionHooks;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -18,23 +35,166 @@ public class ProductService {
     @Autowired
     private ReportRepository reportRepository;
 
+    @Autowired
+    private ReportCounterRepository reportCounterRepository;
+
+    @Autowired
+    private TopReportedProducts topReportedProducts;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductFacetIndex facetIndex;
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private OfferScheduler offerScheduler;
+
+    @Autowired
+    private OffersPayload offersPayload;
+
+    @Autowired
+    private ProductChangeLog changeLog;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private PriceHistory priceHistory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Borrado lógico: los productos se marcan y se purgan en segundo plano
+    @Value("${app.products.soft-delete:false}")
+    private boolean softDelete;
+
+    // Atraso máximo de la réplica de lectura (0 si no hay réplica)
+    @Value("${app.datasource.replica.max-lag-ms:0}")
+    private long replicaMaxLagMs;
+
+    /**
+     * Catálogo completo. Normalmente se lee de la réplica; durante max-lag-ms después de una escritura
+     * se lee del primario, porque el ETag ya corresponde a la revisión nueva y la réplica puede no tenerla
+     * (el cliente guardaría una copia atrasada y recibiría 304 sobre ella).
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Product> findAll() {
-        return productRepository.findAll();
+        boolean recentWrite = System.currentTimeMillis() - catalogRevision.lastModified() < replicaMaxLagMs;
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(!recentWrite);
+        return template.execute(status -> productRepository.findAll());
     }
 
     public Product save(Product product) {
-        return productRepository.save(product);
+        boolean isNew = product.getId() == null;
+        Map<Long, Integer> stockBefore = isNew ? Map.of() : stockLedger.currentStock(List.of(product.getId()), true);
+        Map<Long, PriceHistory.Price> priceBefore = isNew ? Map.of() : priceHistory.currentPrices(List.of(product.getId()));
+        applyOfferSchedule(product);
+        Product saved = productRepository.save(product);
+        changeLog.record(isNew ? ProductChange.ChangeType.CREATED : ProductChange.ChangeType.UPDATED, saved.getId());
+        int stock = saved.getStock() != null ? saved.getStock() : 0;
+        if (isNew) {
+            stockLedger.record(saved.getId(), stock, StockMovement.MovementType.INITIAL, null);
+        } else {
+            stockLedger.recordDifferences(stockBefore, Map.of(saved.getId(), stock));
+        }
+        priceHistory.recordChanges(priceBefore, Map.of(saved.getId(), PriceHistory.Price.of(saved)));
+        reindexAfterCommit(saved);
+        return saved;
+    }
+
+    /**
+     * Búsqueda de texto completo usando el índice en memoria
+     * @param query texto a buscar (nombre, marca, modelo, categoría o descripción)
+     * @param limit cantidad máxima de resultados
+     * @return Productos ordenados por relevancia
+     */
+    @Transactional(readOnly = true)
+    public List<Product> search(String query, int limit) {
+        List<Long> ids = searchIndex.search(query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Una sola consulta por ID y luego se respeta el orden de relevancia del índice
+        List<Product> products = new ArrayList<>(productRepository.findAllById(ids));
+        products.sort(Comparator.comparingInt(p -> ids.indexOf(p.getId())));
+        return products;
     }
 
+    /**
+     * Filtra el catálogo por facetas usando los bitsets en memoria
+     * @param filters dimensión (category, brand, priceBand, onSale) -> valores seleccionados
+     * @param page página (base 0)
+     * @param size tamaño de página
+     * @return Página de productos con el total y los conteos de cada faceta
+     */
+    @Transactional(readOnly = true)
+    public FacetedProductPage filter(Map<String, Set<String>> filters, int page, int size) {
+        ProductFacetIndex.FacetResult result = facetIndex.filter(filters, page, size);
+        List<Product> products = new ArrayList<>();
+        if (!result.ids().isEmpty()) {
+            products.addAll(productRepository.findAllById(result.ids()));
+            products.sort(Comparator.comparingInt(p -> result.ids().indexOf(p.getId())));
+        }
+        return new FacetedProductPage(products, result.total(), page, size, result.facets());
+    }
+
+    @Transactional(readOnly = true)
     public Product findById(Long id) {
+        // Lectura a través de la caché: solo va a la BD si el producto no está cacheado
+        Product product = productCache.getProduct(id, key -> productRepository.findById(key).orElse(null));
+        if (product == null) {
+            throw new RuntimeException("Producto no encontrado con ID: " + id);
+        }
+        return product;
+    }
+
+    // Las escrituras trabajan sobre una instancia recién leída, nunca sobre la compartida por la caché
+    private Product findByIdForUpdate(Long id) {
         return productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado con ID: " + id));
     }
 
+    /**
+     * Obtiene solo la versión y fecha de modificación de un producto (sin cargar la entidad)
+     */
+    @Transactional(readOnly = true)
+    public ProductVersionView findVersion(Long id) {
+        Product cached = productCache.getIfPresent(id);
+        if (cached != null) {
+            return ProductVersionView.of(cached);
+        }
+        return productRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Producto no encontrado con ID: " + id));
+    }
+
+    public long getCatalogRevision() {
+        return catalogRevision.current();
+    }
+
+    public long getCatalogLastModified() {
+        return catalogRevision.lastModified();
+    }
+
+    public Product reduceStock(Long id, Integer quantity) {
+        return reduceStock(id, quantity, null);
+    }
+
     // Lógica para descontar stock
     // IMPORTANTE: Valida y reduce el stock de forma atómica dentro de una transacción
-    public Product reduceStock(Long id, Integer quantity) {
-        Product product = findById(id);
+    // orderId es el pedido de Pagos que origina la venta (queda en el libro de movimientos)
+    public Product reduceStock(Long id, Integer quantity, Long orderId) {
+        Product product = findByIdForUpdate(id);
         
         int currentStock = product.getStock() != null ? product.getStock() : 0;
 
@@ -49,19 +209,99 @@ public class ProductService {
 
         // Reducir el stock
         product.setStock(currentStock - quantity);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        changeLog.record(ProductChange.ChangeType.STOCK_CHANGED, id);
+        stockLedger.record(id, -quantity, StockMovement.MovementType.SALE, orderId);
+        lowStockMonitor.check(id, saved.getCategory(), currentStock, saved.getStock());
+        TransactionHooks.afterCommit(() -> {
+            productCache.invalidateProduct(id);
+            offersPayload.invalidateIfAffected(id, Boolean.TRUE.equals(saved.getIsOnSale()));
+            catalogRevision.bump();
+        });
+        return saved;
     }
 
     public void deleteProduct(Long id) {
-        // 1. Primero borramos los reportes asociados (para evitar error de Foreign Key)
-        reportRepository.deleteByProductId(id);
-        
-        // 2. Ahora sí, borramos el producto
-        productRepository.deleteById(id);
+        deleteProducts(List.of(id));
+    }
+
+    /**
+     * Elimina varios productos con sentencias por conjunto, sin cargar productos ni reportes:
+     * el costo no depende de cuántos reportes tenga cada producto.
+     * Con app.products.soft-delete=true solo se marcan como eliminados (dejan de verse de inmediato)
+     * y ProductPurgeJob borra las filas y sus reportes en lotes más tarde.
+     * @return cantidad de productos eliminados
+     */
+    public int deleteProducts(Collection<Long> ids) {
+        List<Long> requestedIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (requestedIds.isEmpty()) {
+            return 0;
+        }
+        // Solo los que existen: el log de cambios no debe anunciar eliminaciones de IDs inexistentes o ya eliminados
+        List<Long> distinctIds = productRepository.lockLiveIds(requestedIds);
+        if (distinctIds.isEmpty()) {
+            return 0;
+        }
+        int deleted;
+        if (softDelete) {
+            deleted = productRepository.markDeleted(distinctIds, Instant.now());
+            reportCounterRepository.deleteByProductIdIn(distinctIds);
+        } else {
+            // 1. Primero borramos los reportes asociados (para evitar error de Foreign Key)
+            if (distinctIds.size() == 1) {
+                reportRepository.deleteByProductId(distinctIds.get(0));
+            } else {
+                reportRepository.deleteByProductIdIn(distinctIds);
+            }
+            reportCounterRepository.deleteByProductIdIn(distinctIds);
+
+            // 2. Ahora sí, borramos los productos
+            deleted = productRepository.deleteByIds(distinctIds);
+        }
+        changeLog.recordAll(ProductChange.ChangeType.DELETED, distinctIds);
+        TransactionHooks.afterCommit(() -> {
+            productCache.invalidateProducts(distinctIds);
+            for (Long id : distinctIds) {
+                searchIndex.remove(id);
+                facetIndex.remove(id);
+                offersPayload.invalidateIfAffected(id, false);
+                topReportedProducts.remove(id);
+            }
+            catalogRevision.bump();
+        });
+        return deleted;
     }
 
+    @Transactional(readOnly = true)
     public List<Product> findOnSaleProducts() {
-        return productRepository.findByIsOnSaleTrue();
+        return productCache.getOffers(productRepository::findByIsOnSaleTrue);
+    }
+
+    /**
+     * Respuesta de ofertas ya serializada; solo se reconstruye cuando cambian las ofertas
+     * (la reconstrucción lee del primario en su propia transacción, ver OffersPayload)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OffersPayload.Snapshot getOffersPayload() {
+        return offersPayload.get();
+    }
+
+    /**
+     * Reevalúa si la oferta de un producto debe estar activa hoy según sus fechas.
+     * Lo invoca OfferScheduler al llegar la fecha de inicio o el día siguiente a la de fin.
+     */
+    public void refreshOfferState(Long id) {
+        Product product = productRepository.findById(id).orElse(null);
+        if (product == null || !OfferScheduler.hasSchedule(product)) {
+            return;
+        }
+        boolean active = OfferScheduler.isOfferActive(product, offerScheduler.today());
+        if (active != Boolean.TRUE.equals(product.getIsOnSale())) {
+            product.setIsOnSale(active);
+            Product saved = productRepository.save(product);
+            changeLog.record(ProductChange.ChangeType.UPDATED, id);
+            reindexAfterCommit(saved);
+        }
     }
     
     /**
@@ -71,7 +311,9 @@ public class ProductService {
      * @return Producto actualizado
      */
     public Product updateProduct(Long id, Product updatedProduct) {
-        Product existingProduct = findById(id);
+        Product existingProduct = findByIdForUpdate(id);
+        int stockBefore = existingProduct.getStock() != null ? existingProduct.getStock() : 0;
+        PriceHistory.Price priceBefore = PriceHistory.Price.of(existingProduct);
         
         // Actualizar campos (mantener el ID y solo actualizar si no son null)
         if (updatedProduct.getName() != null && !updatedProduct.getName().trim().isEmpty()) {
@@ -110,6 +352,7 @@ public class ProductService {
         // Fechas de oferta pueden ser null (para limpiar ofertas)
         existingProduct.setOfferStartDate(updatedProduct.getOfferStartDate());
         existingProduct.setOfferEndDate(updatedProduct.getOfferEndDate());
+        applyOfferSchedule(existingProduct);
         
         // Validar que si isOnSale es true, haya un descuento válido
         if (existingProduct.getIsOnSale() != null && existingProduct.getIsOnSale() && 
@@ -117,6 +360,52 @@ public class ProductService {
             throw new RuntimeException("No se puede activar una oferta sin un descuento válido (mayor a 0)");
         }
         
-        return productRepository.save(existingProduct);
+        Product saved = productRepository.save(existingProduct);
+        changeLog.record(ProductChange.ChangeType.UPDATED, id);
+        int stockDelta = (saved.getStock() != null ? saved.getStock() : 0) - stockBefore;
+        stockLedger.record(id, stockDelta, StockLedger.adjustmentType(stockDelta), null);
+        lowStockMonitor.check(id, saved.getCategory(), stockBefore, stockBefore + stockDelta);
+        priceHistory.record(id, priceBefore, PriceHistory.Price.of(saved));
+        reindexAfterCommit(saved);
+        return saved;
+    }
+
+    // Mantiene los índices en memoria (búsqueda y facetas), la caché y la revisión del catálogo al día una vez confirmada la transacción
+    private void reindexAfterCommit(Product product) {
+        TransactionHooks.afterCommit(() -> {
+            productCache.invalidateProduct(product.getId());
+            searchIndex.index(product);
+            facetIndex.index(product);
+            offersPayload.invalidateIfAffected(product.getId(), Boolean.TRUE.equals(product.getIsOnSale()));
+            offerScheduler.schedule(product);
+            catalogRevision.bump();
+        });
+    }
+
+    /**
+     * Registra la actualización de índices, cachés y ofertas para productos escritos en lote
+     * (importación masiva); se aplica una vez confirmada la transacción del lote.
+     */
+    public void onProductsWritten(Collection<Product> products) {
+        List<Product> written = List.copyOf(products);
+        TransactionHooks.afterCommit(() -> {
+            for (Product product : written) {
+                productCache.invalidateProduct(product.getId());
+                searchIndex.index(product);
+                facetIndex.index(product);
+                offersPayload.invalidateIfAffected(product.getId(), Boolean.TRUE.equals(product.getIsOnSale()));
+                offerScheduler.schedule(product);
+            }
+            catalogRevision.bump();
+        });
+    }
+
+    /**
+     * Si la oferta tiene fechas, su estado lo determinan las fechas (y no el flag enviado)
+     */
+    public void applyOfferSchedule(Product product) {
+        if (OfferScheduler.hasSchedule(product)) {
+            product.setIsOnSale(OfferScheduler.isOfferActive(product, offerScheduler.today()));
+        }
     }
 }
\ No newline at end of file
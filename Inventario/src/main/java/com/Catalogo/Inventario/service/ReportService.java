@@ -0,0 +1,86 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.ReportPage;
+import com.Catalogo.Inventario.dto.TopReportedProduct;
+import com.Catalogo.Inventario.model.ProductReport;
+import com.Catalogo.Inventario.model.ProductReportCounter;
+import com.Catalogo.Inventario.repository.ReportCounterRepository;
+import com.Catalogo.Inventario.repository.ReportRepository;
+import com.Catalogo.Inventario.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reportes de productos. Cada reporte nuevo incrementa en la misma transacción el contador
+ * del producto (product_report_counters), así los conteos se leen por clave primaria en vez de
+ * un COUNT(*), y al confirmar se actualiza el ranking en memoria de los más reportados.
+ */
+@Service
+@Transactional
+public class ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private ReportCounterRepository reportCounterRepository;
+
+    @Autowired
+    private TopReportedProducts topReportedProducts;
+
+    /**
+     * Si hay reportes sin contadores (base creada antes de los contadores), los reconstruye al iniciar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillCounters() {
+        if (reportCounterRepository.count() == 0 && reportRepository.count() > 0) {
+            int rows = reportCounterRepository.backfillFromReports();
+            logger.info("=== CONTADORES DE REPORTES RECONSTRUIDOS: {} PRODUCTOS ===", rows);
+        }
+    }
+
+    public ProductReport create(ProductReport report) {
+        ProductReport saved = reportRepository.save(report);
+        Long productId = saved.getProductId();
+        reportCounterRepository.increment(productId, Instant.now());
+        long reportCount = reportCounterRepository.findById(productId)
+                .map(ProductReportCounter::getReportCount)
+                .orElse(1L);
+        TransactionHooks.afterCommit(() -> topReportedProducts.record(productId, reportCount));
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public long countForProduct(Long productId) {
+        return reportCounterRepository.findById(productId)
+                .map(ProductReportCounter::getReportCount)
+                .orElse(0L);
+    }
+
+    /**
+     * Página de reportes con ID mayor a afterId (paginación por cursor, sin OFFSET)
+     */
+    @Transactional(readOnly = true)
+    public ReportPage findPage(Long afterId, int size) {
+        List<ProductReport> reports = reportRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId != null ? afterId : 0L, PageRequest.of(0, size));
+        Long nextAfterId = reports.size() < size ? null : reports.get(reports.size() - 1).getId();
+        return new ReportPage(reports, nextAfterId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TopReportedProduct> topReported(int limit) {
+        return topReportedProducts.top(limit);
+    }
+}
@@ -0,0 +1,170 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.StockAlert;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola en memoria de alertas de stock bajo.
+ * LowStockMonitor publica sin bloquear (el descuento de stock nunca espera a los webhooks): la alerta
+ * entra de inmediato al buffer de alertas recientes que se consulta en /api/v1/stock/alerts y se encola
+ * para los webhooks. Un hilo dedicado toma las alertas en orden y las envía por POST a cada URL de
+ * app.stock.alerts.webhook-urls sin esperar la respuesta; cada receptor tiene como máximo
+ * app.stock.alerts.webhook-max-in-flight envíos en curso, así un receptor lento no demora a los demás
+ * ni llena la cola. Si la cola está llena, o el receptor no tiene lugar, el envío se descarta y se cuenta.
+ */
+@Component
+public class StockAlertDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockAlertDispatcher.class);
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Value("${app.stock.alerts.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.stock.alerts.recent-capacity:1000}")
+    private int recentCapacity;
+
+    @Value("${app.stock.alerts.webhook-urls:}")
+    private String[] webhookUrls;
+
+    @Value("${app.stock.alerts.webhook-timeout-ms:5000}")
+    private long webhookTimeoutMillis;
+
+    @Value("${app.stock.alerts.webhook-retries:2}")
+    private int webhookRetries;
+
+    @Value("${app.stock.alerts.webhook-max-in-flight:16}")
+    private int webhookMaxInFlight;
+
+    private long sequence;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Map<String, Semaphore> inFlight = new HashMap<>();
+    private final Deque<StockAlert> recent = new ArrayDeque<>();
+    private BlockingQueue<StockAlert> queue;
+    private List<String> targets;
+    private WebClient webClient;
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        targets = Arrays.stream(webhookUrls).map(String::trim).filter(url -> !url.isEmpty()).distinct().toList();
+        targets.forEach(url -> inFlight.put(url, new Semaphore(webhookMaxInFlight)));
+        webClient = webClientBuilder.build();
+        worker = new Thread(this::run, "stock-alerts");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.interrupt();
+    }
+
+    /**
+     * Agrega la alerta a las recientes y la encola para los webhooks sin bloquear; retorna false si la
+     * cola está llena y la alerta no se enviará a los webhooks (igual queda en las recientes)
+     */
+    public boolean publish(StockAlert alert) {
+        synchronized (recent) {
+            // El ID se asigna junto con el agregado para que las recientes queden en orden de ID
+            alert.setId(++sequence);
+            recent.addLast(alert);
+            while (recent.size() > recentCapacity) {
+                recent.removeFirst();
+            }
+        }
+        logger.info("=== ALERTA DE STOCK: {} producto {} (stock {} -> {}, umbral {}) ===",
+                alert.getAlertType(), alert.getProductId(), alert.getPreviousStock(), alert.getStock(), alert.getThreshold());
+        if (targets.isEmpty()) {
+            return true;
+        }
+        if (!queue.offer(alert)) {
+            long total = dropped.incrementAndGet();
+            logger.warn("Cola de alertas de stock llena: alerta del producto {} descartada ({} en total)", alert.getProductId(), total);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Alertas recientes con ID mayor a afterId (como máximo limit), en orden
+     */
+    public List<StockAlert> recent(long afterId, int limit) {
+        List<StockAlert> result = new ArrayList<>();
+        synchronized (recent) {
+            for (StockAlert alert : recent) {
+                if (alert.getId() > afterId) {
+                    result.add(alert);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                deliver(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Error al procesar una alerta de stock: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void deliver(StockAlert alert) {
+        for (String url : targets) {
+            Semaphore permits = inFlight.get(url);
+            if (!permits.tryAcquire()) {
+                // El receptor ya tiene el máximo de envíos en curso: se descarta solo para él
+                long total = dropped.incrementAndGet();
+                logger.warn("Receptor {} sin capacidad: alerta {} descartada ({} en total)", url, alert.getId(), total);
+                continue;
+            }
+            // Sin block(): el hilo sigue con el siguiente receptor y la siguiente alerta mientras esta se envía
+            webClient.post()
+                    .uri(url)
+                    .bodyValue(alert)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(Duration.ofMillis(webhookTimeoutMillis))
+                    .retryWhen(Retry.backoff(webhookRetries, Duration.ofMillis(200)))
+                    .doFinally(signal -> permits.release())
+                    .subscribe(response -> { },
+                            // Un receptor caído no detiene las alertas ni al resto de los receptores
+                            e -> logger.error("No se pudo enviar la alerta {} a {}: {}", alert.getId(), url, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.OrderStockLine;
+import com.Catalogo.Inventario.dto.OrderStockPage;
+import com.Catalogo.Inventario.dto.StockAtTime;
+import com.Catalogo.Inventario.dto.StockMovementPage;
+import com.Catalogo.Inventario.dto.StockTailView;
+import com.Catalogo.Inventario.model.StockMovement;
+import com.Catalogo.Inventario.model.StockSnapshot;
+import com.Catalogo.Inventario.repository.StockMovementRepository;
+import com.Catalogo.Inventario.repository.StockSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Libro de movimientos de stock (stock_movements).
+ * Cada venta, reposición y ajuste agrega una fila con la variación y, en las ventas, el ID del pedido
+ * de Pagos, dentro de la misma transacción que modifica Product.stock. Así se puede auditar por qué
+ * cambió el stock y conciliar las ventas con los pedidos sin recorrer las dos bases completas.
+ *
+ * Para consultar el stock en una fecha sin sumar todo el libro, un proceso periódico guarda fotos
+ * (stock_snapshots) con el stock acumulado de cada producto que tuvo movimientos; una consulta lee
+ * la última foto anterior a la fecha y solo los movimientos posteriores hasta la foto siguiente.
+ */
+@Component
+public class StockLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final String INSERT_SQL = "INSERT INTO stock_movements (product_id, delta, movement_type, order_id, occurred_at) VALUES (?, ?, ?, ?, ?)";
+    // Tamaño de los IN (...) al leer el stock de muchos productos
+    private static final int LOOKUP_CHUNK = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Margen para que las transacciones en curso confirmen sus movimientos antes de incluirlos en una foto
+    @Value("${app.stock.snapshot.settle-ms:60000}")
+    private long settleMillis;
+
+    public void record(Long productId, int delta, StockMovement.MovementType type, Long orderId) {
+        if (delta == 0) {
+            return;
+        }
+        recordAll(List.of(new StockMovement(null, productId, delta, type, orderId, null)));
+    }
+
+    /**
+     * Agrega los movimientos en un solo batch; debe llamarse dentro de la transacción que cambia el stock
+     */
+    public void recordAll(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        // Instant se guarda en UTC (igual que lo hace Hibernate)
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(INSERT_SQL, movements, movements.size(), (ps, movement) -> {
+            ps.setLong(1, movement.getProductId());
+            ps.setInt(2, movement.getDelta());
+            ps.setString(3, movement.getMovementType().name());
+            ps.setObject(4, movement.getOrderId(), java.sql.Types.BIGINT);
+            ps.setTimestamp(5, now, utc);
+        });
+    }
+
+    /**
+     * Registra un movimiento por cada producto cuyo stock cambió entre las dos lecturas
+     * (RESTOCK si aumentó, ADJUSTMENT si disminuyó)
+     */
+    public void recordDifferences(Map<Long, Integer> before, Map<Long, Integer> after) {
+        List<StockMovement> movements = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : after.entrySet()) {
+            int previous = before.getOrDefault(entry.getKey(), 0);
+            int delta = entry.getValue() - previous;
+            if (delta != 0) {
+                movements.add(new StockMovement(null, entry.getKey(), delta, adjustmentType(delta), null, null));
+            }
+        }
+        recordAll(movements);
+    }
+
+    public static StockMovement.MovementType adjustmentType(int delta) {
+        return delta > 0 ? StockMovement.MovementType.RESTOCK : StockMovement.MovementType.ADJUSTMENT;
+    }
+
+    /**
+     * Stock actual de varios productos leído con JDBC (sin cargar las entidades).
+     * Con lock=true bloquea las filas hasta el fin de la transacción, para que el valor leído
+     * siga siendo el de partida cuando luego se actualizan por lotes.
+     */
+    public Map<Long, Integer> currentStock(Collection<Long> ids, boolean lock) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> sorted = ids.stream().distinct().sorted().toList();
+        Map<Long, Integer> stock = new HashMap<>(sorted.size() * 2);
+        for (int from = 0; from < sorted.size(); from += LOOKUP_CHUNK) {
+            List<Long> chunk = sorted.subList(from, Math.min(from + LOOKUP_CHUNK, sorted.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT id, stock FROM products WHERE deleted_at IS NULL AND id IN (" + placeholders + ")"
+                    + (lock ? " ORDER BY id FOR UPDATE" : "");
+            jdbcTemplate.query(sql, rs -> {
+                stock.put(rs.getLong(1), rs.getInt(2));
+            }, chunk.toArray());
+        }
+        return stock;
+    }
+
+    /**
+     * Stock de un producto en una fecha: última foto anterior más la cola de movimientos hasta la foto siguiente
+     */
+    public StockAtTime stockAt(Long productId, Instant at) {
+        StockSnapshot snapshot = snapshotRepository
+                .findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(productId, at)
+                .orElse(null);
+        long fromId = snapshot != null ? snapshot.getLastMovementId() : 0L;
+        long toId = snapshotRepository.findFirstByTakenAtGreaterThanOrderByTakenAtAsc(at)
+                .map(StockSnapshot::getLastMovementId)
+                .orElse(Long.MAX_VALUE);
+        StockTailView tail = movementRepository.sumTail(productId, fromId, toId, at);
+        int base = snapshot != null ? snapshot.getStock() : 0;
+        return new StockAtTime(productId, at, base + tail.getDelta().intValue(),
+                snapshot != null ? snapshot.getTakenAt() : null, tail.getMovements());
+    }
+
+    /**
+     * Movimientos de un producto con ID mayor a afterId (paginación por cursor)
+     */
+    public StockMovementPage findMovements(Long productId, Long afterId, int size) {
+        List<StockMovement> movements = movementRepository.findByProductIdAndIdGreaterThanOrderByIdAsc(
+                productId, afterId != null ? afterId : 0L, PageRequest.of(0, size));
+        Long nextAfterId = movements.size() < size ? null : movements.get(movements.size() - 1).getId();
+        return new StockMovementPage(movements, nextAfterId);
+    }
+
+    /**
+     * Ventas del libro agrupadas por pedido, para hasta limit pedidos con ID mayor a afterOrderId.
+     * Las páginas siempre contienen pedidos completos. Solo se incluyen movimientos anteriores a before,
+     * así la conciliación no compara pedidos que todavía se están confirmando.
+     */
+    public OrderStockPage findOrderSales(Long afterOrderId, Instant before, int limit) {
+        long after = afterOrderId != null ? afterOrderId : 0L;
+        List<Long> orderIds = movementRepository.findOrderIdsAfter(after, before, limit);
+        if (orderIds.isEmpty()) {
+            return new OrderStockPage(List.of(), null);
+        }
+        Long lastOrderId = orderIds.get(orderIds.size() - 1);
+        List<OrderStockLine> lines = movementRepository.sumByOrder(after, lastOrderId, before);
+        return new OrderStockPage(lines, orderIds.size() < limit ? null : lastOrderId);
+    }
+
+    /**
+     * Saldo inicial de los productos sin movimientos (base creada antes del libro o carga sintética por JDBC)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillInitialStock() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer rows = transactionTemplate.execute(status -> movementRepository.backfillInitial(Instant.now()));
+        if (rows != null && rows > 0) {
+            logger.info("=== LIBRO DE STOCK: SALDO INICIAL REGISTRADO PARA {} PRODUCTOS ===", rows);
+        }
+    }
+
+    /**
+     * Guarda una foto por cada producto con movimientos desde la foto anterior.
+     * Solo incluye movimientos con más de app.stock.snapshot.settle-ms de antigüedad.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.snapshot.interval-ms:3600000}", initialDelayString = "${app.stock.snapshot.interval-ms:3600000}")
+    public void takeSnapshot() {
+        long start = System.currentTimeMillis();
+        Instant horizon = Instant.now().minusMillis(settleMillis);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer rows = transactionTemplate.execute(status -> {
+            Long toId = movementRepository.findLastIdBefore(horizon);
+            long fromId = snapshotRepository.findFirstByOrderByTakenAtDesc()
+                    .map(StockSnapshot::getLastMovementId)
+                    .orElse(0L);
+            if (toId == null || toId <= fromId) {
+                return 0;
+            }
+            return snapshotRepository.insertSnapshots(fromId, toId, horizon);
+        });
+        logger.info("=== FOTO DE STOCK: {} PRODUCTOS HASTA {} EN {} ms ===", rows, horizon, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,152 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versión de tokens vigente de los usuarios con cambios recientes, leída del log de Usuarios
+ * (GET /api/v1/auth/token-versions). Usuarios incrementa la versión al cambiar la contraseña y la
+ * marca como borrada al eliminar el usuario; el filtro JWT compara el claim tokenVersion con este
+ * mapa en memoria, sin llamar a Usuarios en cada petición.
+ *
+ * Pasado app.auth.token-versions.max-token-age-ms (la duración de los tokens que emite Usuarios)
+ * los tokens anteriores a un cambio ya vencieron, así que la entrada se descarta y el mapa solo
+ * guarda los usuarios con cambios recientes. Si Usuarios no responde se conserva lo ya leído y
+ * se reintenta en la siguiente consulta.
+ *
+ * Hasta la primera lectura completa no se sabe qué tokens fueron revocados, así que se rechazan
+ * todos (falla cerrado) y cada consulta fallida se registra como error.
+ */
+@Component
+public class TokenVersionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionCache.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Value("${app.auth.token-versions.url:http://localhost:8081}")
+    private String usersUrl;
+
+    @Value("${app.auth.token-versions.max-token-age-ms:900000}")
+    private long maxTokenAgeMillis;
+
+    @Value("${app.auth.token-versions.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    // userId -> versión mínima aceptada y fecha del cambio
+    private final Map<Long, Entry> minVersions = new ConcurrentHashMap<>();
+    private long after;
+    private WebClient webClient;
+    // true después de leer el log completo al menos una vez
+    private volatile boolean loaded;
+
+    private record Entry(int minVersion, long changedAtMillis) {
+    }
+
+    /**
+     * Cambio de versión tal como lo entrega Usuarios (deleted: ningún token del usuario es válido)
+     */
+    public record Change(Long userId, int tokenVersion, boolean deleted, Instant changedAt) {
+    }
+
+    public record Page(List<Change> changes, Long nextAfter) {
+    }
+
+    @PostConstruct
+    public void init() {
+        webClient = webClientBuilder.build();
+    }
+
+    /**
+     * Indica si el token no es anterior al último cambio de contraseña del usuario (ni el usuario fue eliminado)
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        if (userId == null) {
+            return true;
+        }
+        if (!loaded) {
+            return false;
+        }
+        Entry entry = minVersions.get(userId);
+        return entry == null || tokenVersion >= entry.minVersion();
+    }
+
+    public int size() {
+        return minVersions.size();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Lee los cambios nuevos (en páginas mientras vengan llenas) y descarta los que ya no afectan a tokens vigentes
+     */
+    @Scheduled(fixedDelayString = "${app.auth.token-versions.poll-ms:5000}")
+    public void poll() {
+        try {
+            Page page;
+            do {
+                page = fetch(after);
+                apply(page.changes());
+                after = page.nextAfter();
+            } while (page.changes().size() == PAGE_SIZE);
+            if (!loaded) {
+                loaded = true;
+                logger.info("=== VERSIONES DE TOKENS CARGADAS: {} USUARIOS EN MEMORIA ===", minVersions.size());
+            }
+        } catch (Exception e) {
+            if (loaded) {
+                logger.warn("No se pudieron leer las versiones de tokens de Usuarios: {}", e.getMessage());
+            } else {
+                logger.error("=== VERSIONES DE TOKENS SIN CARGAR: SE RECHAZAN TODOS LOS TOKENS HASTA LEER USUARIOS ({}) ===", e.getMessage());
+            }
+        }
+        evictOlderThan(Instant.now().toEpochMilli() - maxTokenAgeMillis);
+    }
+
+    void apply(List<Change> changes) {
+        for (Change change : changes) {
+            int minVersion = change.deleted() ? Integer.MAX_VALUE : change.tokenVersion();
+            // Las versiones solo crecen: si llega un cambio repetido o atrasado se conserva la mayor
+            minVersions.merge(change.userId(), new Entry(minVersion, change.changedAt().toEpochMilli()),
+                    (current, next) -> next.minVersion() >= current.minVersion() ? next : current);
+        }
+        if (!changes.isEmpty()) {
+            logger.info("=== VERSIONES DE TOKENS ACTUALIZADAS: {} CAMBIOS, {} USUARIOS EN MEMORIA ===", changes.size(), minVersions.size());
+        }
+    }
+
+    void evictOlderThan(long cutoffMillis) {
+        minVersions.values().removeIf(entry -> entry.changedAtMillis() < cutoffMillis);
+    }
+
+    private Page fetch(long after) {
+        ApiResponse<Page> response = webClient.get()
+                .uri(usersUrl + "/api/v1/auth/token-versions?after={after}&limit={limit}", after, PAGE_SIZE)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ApiResponse<Page>>() {})
+                .block(Duration.ofMillis(timeoutMillis));
+        if (response == null || response.getData() == null) {
+            throw new IllegalStateException("Respuesta vacía de Usuarios");
+        }
+        return response.getData();
+    }
+}
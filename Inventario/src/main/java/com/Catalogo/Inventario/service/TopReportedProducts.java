@@ -0,0 +1,123 @@
+package com.Catalogo.Inventario.service;
+
+import com.Catalogo.Inventario.dto.TopReportedProduct;
+import com.Catalogo.Inventario.model.ProductReportCounter;
+import com.Catalogo.Inventario.repository.ReportCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Ranking en memoria de los productos más reportados (los app.reports.top-capacity primeros).
+ * Como los contadores solo crecen, basta comparar cada incremento con el último del ranking:
+ * si lo supera entra y sale el menor, sin recorrer todos los contadores.
+ * Al eliminar un producto del ranking queda un hueco que no se puede llenar con lo que hay
+ * en memoria; en ese caso se recarga desde la tabla de contadores en la siguiente consulta.
+ */
+@Component
+public class TopReportedProducts {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopReportedProducts.class);
+
+    // Mayor cantidad de reportes primero; a igual cantidad, el ID menor
+    private static final Comparator<Entry> RANKING_ORDER = Comparator
+            .comparingLong(Entry::reportCount).reversed()
+            .thenComparing(Entry::productId);
+
+    @Autowired
+    private ReportCounterRepository reportCounterRepository;
+
+    @Value("${app.reports.top-capacity:100}")
+    private int capacity;
+
+    private final TreeSet<Entry> ranking = new TreeSet<>(RANKING_ORDER);
+    private final Map<Long, Entry> byProduct = new HashMap<>();
+    private boolean stale = true;
+
+    /**
+     * Recarga el ranking desde la tabla de contadores
+     */
+    public synchronized void rebuild() {
+        ranking.clear();
+        byProduct.clear();
+        List<ProductReportCounter> counters = reportCounterRepository
+                .findByOrderByReportCountDescProductIdAsc(PageRequest.of(0, capacity));
+        for (ProductReportCounter counter : counters) {
+            Entry entry = new Entry(counter.getProductId(), counter.getReportCount());
+            ranking.add(entry);
+            byProduct.put(entry.productId(), entry);
+        }
+        stale = false;
+        logger.info("=== RANKING DE PRODUCTOS REPORTADOS CARGADO: {} PRODUCTOS ===", ranking.size());
+    }
+
+    /**
+     * Registra la cantidad actual de reportes de un producto (ya confirmada en la base de datos)
+     */
+    public synchronized void record(Long productId, long reportCount) {
+        if (stale) {
+            return;
+        }
+        Entry current = byProduct.get(productId);
+        if (current != null) {
+            // Las confirmaciones pueden llegar desordenadas: nunca se retrocede un contador
+            if (reportCount <= current.reportCount()) {
+                return;
+            }
+            ranking.remove(current);
+        } else if (ranking.size() >= capacity && RANKING_ORDER.compare(new Entry(productId, reportCount), ranking.last()) > 0) {
+            return;
+        }
+        Entry updated = new Entry(productId, reportCount);
+        ranking.add(updated);
+        byProduct.put(productId, updated);
+        if (ranking.size() > capacity) {
+            Entry evicted = ranking.pollLast();
+            byProduct.remove(evicted.productId());
+        }
+    }
+
+    /**
+     * Quita un producto eliminado; si estaba en el ranking se recarga en la siguiente consulta
+     */
+    public synchronized void remove(Long productId) {
+        if (byProduct.containsKey(productId)) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Los productos más reportados, de mayor a menor
+     * @param limit cantidad máxima (se limita a app.reports.top-capacity)
+     */
+    public synchronized List<TopReportedProduct> top(int limit) {
+        if (stale) {
+            rebuild();
+        }
+        List<TopReportedProduct> result = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (Entry entry : ranking) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(new TopReportedProduct(entry.productId(), entry.reportCount()));
+        }
+        return result;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private record Entry(Long productId, long reportCount) {
+    }
+}
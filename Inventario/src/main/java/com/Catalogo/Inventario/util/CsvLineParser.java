@@ -0,0 +1,47 @@
+package com.Catalogo.Inventario.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser mínimo de líneas CSV (separador coma, comillas dobles para campos con comas
+ * y "" para escapar comillas). No soporta saltos de línea dentro de un campo.
+ */
+public final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    public static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("Comillas sin cerrar en la línea CSV");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,106 @@
+package com.Catalogo.Inventario.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rueda de tiempo con hash (hashed timing wheel) para programar muchas tareas a futuro
+ * con costo O(1) al agregarlas. Cada tick avanza una ranura y solo revisa las tareas
+ * de esa ranura; las que vencen más allá de una vuelta completa esperan "rounds" vueltas.
+ * La precisión es de un tick, suficiente para eventos con granularidad de días u horas.
+ */
+public class HashedTimingWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    private final long tickMillis;
+    private final List<List<Timeout>> wheel;
+    private final ScheduledExecutorService ticker;
+    private final long startMillis;
+    private long currentTick = 0;
+
+    public HashedTimingWheel(String name, long tickMillis, int slots) {
+        this.tickMillis = tickMillis;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.startMillis = System.currentTimeMillis();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Programa una tarea para ejecutarse en (o poco después de) la hora indicada.
+     * Si la hora ya pasó, se ejecuta en el próximo tick.
+     */
+    public synchronized void schedule(long deadlineMillis, Runnable task) {
+        long deadlineTick = Math.max(currentTick + 1, ceilDiv(deadlineMillis - startMillis, tickMillis));
+        long ticksAway = deadlineTick - currentTick;
+        int slot = (int) (deadlineTick % wheel.size());
+        long rounds = (ticksAway - 1) / wheel.size();
+        wheel.get(slot).add(new Timeout(rounds, task));
+    }
+
+    public synchronized int pending() {
+        int count = 0;
+        for (List<Timeout> bucket : wheel) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        List<Runnable> expired = new ArrayList<>();
+        synchronized (this) {
+            currentTick++;
+            Iterator<Timeout> iterator = wheel.get((int) (currentTick % wheel.size())).iterator();
+            while (iterator.hasNext()) {
+                Timeout timeout = iterator.next();
+                if (timeout.rounds <= 0) {
+                    iterator.remove();
+                    expired.add(timeout.task);
+                } else {
+                    timeout.rounds--;
+                }
+            }
+        }
+        // Las tareas se ejecutan fuera del lock para que puedan reprogramarse
+        for (Runnable task : expired) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.error("Error al ejecutar tarea programada: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return value <= 0 ? 0 : (value + divisor - 1) / divisor;
+    }
+
+    private static final class Timeout {
+        private long rounds;
+        private final Runnable task;
+
+        private Timeout(long rounds, Runnable task) {
+            this.rounds = rounds;
+            this.task = task;
+        }
+    }
+}
@@ -41,6 +41,14 @@ public class JwtUtil {
         });
     }
 
+    // Versión de tokens del usuario al emitir el token (0 si el token no trae el claim)
+    public int extractTokenVersion(String token) {
+        return extractClaim(token, claims -> {
+            Object version = claims.get("tokenVersion");
+            return version instanceof Number ? ((Number) version).intValue() : 0;
+        });
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
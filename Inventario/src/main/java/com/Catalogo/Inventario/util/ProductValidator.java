@@ -0,0 +1,58 @@
+package com.Catalogo.Inventario.util;
+
+import com.Catalogo.Inventario.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reglas de validación para crear productos, compartidas por POST /api/v1/products
+ * y la importación masiva.
+ */
+public final class ProductValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductValidator.class);
+
+    public static final int MAX_IMAGE_LENGTH = 65535;
+
+    private ProductValidator() {
+    }
+
+    /**
+     * Valida un producto nuevo y aplica los valores por defecto (stock 0, imagen truncada)
+     * @return mensaje de error, o null si el producto es válido
+     */
+    public static String validateNewProduct(Product product) {
+        if (product.getName() == null || product.getName().trim().isEmpty()) {
+            return "El nombre del producto es obligatorio";
+        }
+        if (product.getBrand() == null || product.getBrand().trim().isEmpty()) {
+            return "La marca es obligatoria";
+        }
+        if (product.getModel() == null || product.getModel().trim().isEmpty()) {
+            return "El modelo es obligatorio";
+        }
+        if (product.getCategory() == null || product.getCategory().trim().isEmpty()) {
+            return "La categoría es obligatoria";
+        }
+        if (product.getPrice() == null || product.getPrice() < 0) {
+            return "El precio es obligatorio y debe ser mayor o igual a 0";
+        }
+        // Validar stock: si es null, establecer en 0; si es negativo, retornar error
+        if (product.getStock() == null) {
+            product.setStock(0);
+            logger.info("Stock no proporcionado, establecido en 0 por defecto");
+        } else if (product.getStock() < 0) {
+            return "El stock no puede ser negativo";
+        }
+        if (product.getDiscount() != null && (product.getDiscount() < 0 || product.getDiscount() > 100)) {
+            return "El descuento debe estar entre 0 y 100";
+        }
+
+        // Validar longitud de imagen si está presente
+        if (product.getImage() != null && product.getImage().length() > MAX_IMAGE_LENGTH) {
+            logger.warn("Imagen demasiado larga ({} caracteres), truncando a {}", product.getImage().length(), MAX_IMAGE_LENGTH);
+            product.setImage(product.getImage().substring(0, MAX_IMAGE_LENGTH));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.Catalogo.Inventario.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades para ejecutar acciones en memoria (índices, cachés) solo cuando la
+ * transacción en curso hace commit, así un rollback no deja estructuras desincronizadas.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Ejecuta la acción después del commit; si no hay transacción activa la ejecuta de inmediato
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
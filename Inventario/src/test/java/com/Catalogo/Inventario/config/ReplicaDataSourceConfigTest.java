@@ -0,0 +1,159 @@
+package com.Catalogo.Inventario.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Dos bases H2 en memoria hacen de primario y réplica: cada una tiene una fila que la identifica.
+ * Se prueba con JDBC (DataSourceTransactionManager) y con Hibernate (JpaTransactionManager), que es
+ * como corren los servicios de la aplicación.
+ */
+public class ReplicaDataSourceConfigTest {
+
+    private static DataSource routing;
+    private static JdbcTemplate jdbcTemplate;
+    private static DataSourceTransactionManager transactionManager;
+
+    @BeforeAll
+    public static void setUp() {
+        DataSource primary = h2("inventario_primario", "primary");
+        DataSource replica = h2("inventario_replica", "replica");
+        routing = ReplicaDataSourceConfig.routing(primary, replica);
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @Test
+    public void testTransaccionDeSoloLectura_UsaLaReplica() {
+        // DADO: una transacción readOnly
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+
+        // CUANDO: se consulta dentro de la transacción
+        String origen = template.execute(status -> whoAnswers());
+
+        // ENTONCES: responde la réplica
+        assertEquals("replica", origen);
+    }
+
+    @Test
+    public void testTransaccionDeEscritura_UsaElPrimario() {
+        // DADO: una transacción de lectura/escritura (como el descuento de stock)
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        // CUANDO: se consulta y escribe dentro de la transacción
+        String origen = template.execute(status -> {
+            jdbcTemplate.update("UPDATE marker SET hits = hits + 1");
+            return whoAnswers();
+        });
+
+        // ENTONCES: responde el primario
+        assertEquals("primary", origen);
+    }
+
+    @Test
+    public void testSinTransaccion_UsaElPrimario() {
+        // CUANDO: se consulta sin transacción
+        String origen = whoAnswers();
+
+        // ENTONCES: responde el primario
+        assertEquals("primary", origen);
+    }
+
+    @Test
+    public void testServicioJpaDeSoloLectura_UsaLaReplica() {
+        // DADO: Hibernate con JpaTransactionManager sobre el mismo ruteo, como en la aplicación
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(JpaConfig.class)) {
+            MarkerService service = context.getBean(MarkerService.class);
+
+            // CUANDO / ENTONCES: el método @Transactional(readOnly = true) lee de la réplica y el de escritura del primario
+            assertEquals("replica", service.readOnlyName());
+            assertEquals("primary", service.touchAndReadName());
+        }
+    }
+
+    private static String whoAnswers() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource h2(String database, String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE marker (name VARCHAR(16), hits INT)");
+        template.update("INSERT INTO marker (name, hits) VALUES (?, 0)", name);
+        return dataSource;
+    }
+
+    @Entity(name = "Marker")
+    @Table(name = "marker")
+    public static class Marker {
+        @Id
+        private String name;
+
+        private Integer hits;
+    }
+
+    public static class MarkerService {
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Transactional(readOnly = true)
+        public String readOnlyName() {
+            return entityManager.createQuery("SELECT m.name FROM Marker m", String.class).getSingleResult();
+        }
+
+        @Transactional
+        public String touchAndReadName() {
+            entityManager.createQuery("UPDATE Marker m SET m.hits = m.hits + 1").executeUpdate();
+            return entityManager.createQuery("SELECT m.name FROM Marker m", String.class).getSingleResult();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class JpaConfig {
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(routing);
+            factory.setManagedTypes(PersistenceManagedTypes.of(Marker.class.getName()));
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            return factory;
+        }
+
+        @Bean
+        public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public MarkerService markerService() {
+            return new MarkerService();
+        }
+    }
+}
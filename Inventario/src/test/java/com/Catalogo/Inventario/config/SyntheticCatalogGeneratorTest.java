@@ -0,0 +1,53 @@
+package com.Catalogo.Inventario.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.util.ProductValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class SyntheticCatalogGeneratorTest {
+
+    private SyntheticCatalogGenerator crearGenerador(long semilla) {
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator();
+        ReflectionTestUtils.setField(generator, "seed", semilla);
+        ReflectionTestUtils.setField(generator, "imageBaseUrl", "https://cdn.test/img");
+        return generator;
+    }
+
+    @Test
+    public void testBuildProduct_ProductosValidosYUnicos() {
+        // DADO: un generador con semilla fija
+        SyntheticCatalogGenerator generator = crearGenerador(42);
+
+        // CUANDO: generamos 10.000 productos
+        Set<String> claves = new HashSet<>();
+        Set<String> categorias = new HashSet<>();
+        for (long id = 1; id <= 10000; id++) {
+            Product product = generator.buildProduct(id);
+
+            // ENTONCES: todos pasan las validaciones de creación, con imagen por URL y marca + modelo únicos
+            assertNull(ProductValidator.validateNewProduct(product));
+            assertTrue(product.getImage().startsWith("https://cdn.test/img/"));
+            assertTrue(claves.add(product.getBrand() + "|" + product.getModel()));
+            categorias.add(product.getCategory());
+        }
+        assertEquals(10, categorias.size());
+    }
+
+    @Test
+    public void testBuildProduct_DeterministaSegunSemilla() {
+        // DADO: dos generadores con la misma semilla
+        Product a = crearGenerador(7).buildProduct(123);
+        Product b = crearGenerador(7).buildProduct(123);
+
+        // ENTONCES: generan el mismo producto
+        assertEquals(a.getName(), b.getName());
+        assertEquals(a.getPrice(), b.getPrice());
+        assertEquals(a.getStock(), b.getStock());
+    }
+}
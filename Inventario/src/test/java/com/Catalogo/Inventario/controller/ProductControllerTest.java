@@ -0,0 +1,228 @@
+package com.Catalogo.Inventario.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.Catalogo.Inventario.dto.ProductVersionView;
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.service.OffersPayload;
+import com.Catalogo.Inventario.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductControllerTest {
+
+    private static final Instant MODIFICADO = Instant.parse("2024-05-01T10:00:00Z");
+
+    @InjectMocks
+    private ProductController productController;
+
+    @Mock
+    private ProductService productService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
+    }
+
+    // ==================== TESTS PARA GET /{id} ====================
+
+    @Test
+    public void testGetById_ETagIgualRetorna304SinCargarElProducto() throws Exception {
+        // DADO: el producto 5 en la versión 3
+        when(productService.findVersion(5L)).thenReturn(version(5L, 3L));
+
+        // CUANDO: el cliente envía el ETag de esa versión
+        MvcResult result = mockMvc.perform(get("/api/v1/products/5")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5-3\""))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        // ENTONCES: 304 sin cuerpo y sin cargar la entidad
+        assertEquals(0, result.getResponse().getContentLength());
+        verify(productService, never()).findById(any());
+    }
+
+    @Test
+    public void testGetById_ETagDebilRetorna304() throws Exception {
+        // DADO: el producto 5 en la versión 3
+        when(productService.findVersion(5L)).thenReturn(version(5L, 3L));
+
+        // CUANDO: el cliente (o un proxy) envía el ETag como débil
+        MvcResult result = mockMvc.perform(get("/api/v1/products/5")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"5-3\""))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        // ENTONCES: la comparación débil de GET lo acepta
+        assertEquals(0, result.getResponse().getContentLength());
+        verify(productService, never()).findById(any());
+    }
+
+    @Test
+    public void testGetById_IfModifiedSinceVigenteRetorna304() throws Exception {
+        // DADO: el producto 5 modificado por última vez en MODIFICADO
+        when(productService.findVersion(5L)).thenReturn(version(5L, 3L));
+
+        // CUANDO: el cliente envía solo If-Modified-Since con esa fecha
+        MvcResult result = mockMvc.perform(get("/api/v1/products/5")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, httpDate(MODIFICADO)))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        // ENTONCES: 304 sin cuerpo
+        assertEquals(0, result.getResponse().getContentLength());
+        verify(productService, never()).findById(any());
+    }
+
+    @Test
+    public void testGetById_ETagDistintoRetornaElProducto() throws Exception {
+        // DADO: el producto 5 pasó a la versión 4
+        Product producto = new Product(5L, "GPU", "Asus", "X", "GPU", 100.0, 10, null, null, false, 0, null, null);
+        when(productService.findVersion(5L)).thenReturn(version(5L, 4L));
+        when(productService.findById(5L)).thenReturn(producto);
+
+        // CUANDO: el cliente envía el ETag de la versión 3
+        MvcResult result = mockMvc.perform(get("/api/v1/products/5")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5-3\""))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // ENTONCES: se retorna el producto con el nuevo ETag
+        assertEquals("\"5-4\"", result.getResponse().getHeader(HttpHeaders.ETAG));
+        assertTrue(result.getResponse().getContentAsString().contains("Producto obtenido"));
+    }
+
+    // ==================== TESTS PARA GET (catálogo) ====================
+
+    @Test
+    public void testList_ETagDelCatalogoRetorna304SinConsultarProductos() throws Exception {
+        // DADO: el catálogo en la revisión 12
+        when(productService.getCatalogRevision()).thenReturn(12L);
+        when(productService.getCatalogLastModified()).thenReturn(MODIFICADO.toEpochMilli());
+
+        // CUANDO: el cliente envía el ETag de esa revisión
+        MvcResult result = mockMvc.perform(get("/api/v1/products")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"catalog-12\""))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        // ENTONCES: 304 sin cuerpo y sin leer el catálogo
+        assertEquals(0, result.getResponse().getContentLength());
+        verify(productService, never()).findAll();
+    }
+
+    @Test
+    public void testList_IfModifiedSinceVigenteRetorna304() throws Exception {
+        // DADO: el catálogo modificado por última vez en MODIFICADO
+        when(productService.getCatalogRevision()).thenReturn(12L);
+        when(productService.getCatalogLastModified()).thenReturn(MODIFICADO.toEpochMilli());
+
+        // CUANDO: el cliente envía una fecha posterior
+        MvcResult result = mockMvc.perform(get("/api/v1/products")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, httpDate(MODIFICADO.plusSeconds(30))))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        // ENTONCES: 304 sin cuerpo
+        assertEquals(0, result.getResponse().getContentLength());
+        verify(productService, never()).findAll();
+    }
+
+    // ==================== TESTS PARA GET /offers ====================
+
+    @Test
+    public void testGetOffers_IfModifiedSinceVigenteRetorna304() throws Exception {
+        // DADO: ofertas sin cambios desde la fecha que envía el cliente (sin ETag)
+        when(productService.getOffersPayload()).thenReturn(offers());
+
+        // CUANDO: se consultan con If-Modified-Since igual a la última modificación
+        MvcResult result = mockMvc.perform(get("/api/v1/products/offers")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, httpDate(MODIFICADO)))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        // ENTONCES: se responde 304 sin cuerpo
+        assertEquals(0, result.getResponse().getContentLength());
+    }
+
+    @Test
+    public void testGetOffers_IfModifiedSinceAnteriorRetornaLasOfertas() throws Exception {
+        // DADO: ofertas modificadas después de la fecha que envía el cliente
+        when(productService.getOffersPayload()).thenReturn(offers());
+
+        // CUANDO: se consultan con una fecha anterior a la modificación
+        MvcResult result = mockMvc.perform(get("/api/v1/products/offers")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, httpDate(MODIFICADO.minusSeconds(60))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // ENTONCES: se retorna el cuerpo completo con Last-Modified
+        assertTrue(result.getResponse().getContentAsString().contains("Productos en oferta obtenidos"));
+        assertEquals(MODIFICADO.toEpochMilli(), result.getResponse().getDateHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    // ==================== TESTS PARA POST (fechas de oferta) ====================
+
+    @Test
+    public void testSave_FechaDeOfertaInvalidaRetorna400() throws Exception {
+        // DADO: un producto con una fecha de oferta mal escrita
+        String body = "{\"name\":\"GPU\",\"brand\":\"Asus\",\"model\":\"X\",\"category\":\"GPU\",\"price\":100.0,"
+                + "\"offer\":{\"discount\":10,\"startDate\":\"31/12/2024\"}}";
+
+        // CUANDO: se intenta crear
+        MvcResult result = mockMvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        // ENTONCES: se rechaza indicando la fecha y no se guarda nada
+        assertTrue(result.getResponse().getContentAsString(StandardCharsets.UTF_8).contains("Fecha de oferta inválida"));
+        verify(productService, never()).save(any());
+    }
+
+    private static ProductVersionView version(Long id, Long version) {
+        Product product = new Product(id, "GPU", "Asus", "X", "GPU", 100.0, 10, null, null, false, 0, null, null);
+        product.setVersion(version);
+        product.setUpdatedAt(MODIFICADO);
+        return ProductVersionView.of(product);
+    }
+
+    private static OffersPayload.Snapshot offers() {
+        byte[] body = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Productos en oferta obtenidos\", \"data\": [], \"count\": 1}"
+                .getBytes(StandardCharsets.UTF_8);
+        return new OffersPayload.Snapshot(body, false, 5L, MODIFICADO.toEpochMilli(), Set.of(1L));
+    }
+
+    private static String httpDate(Instant instant) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(instant.atZone(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,73 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.Catalogo.Inventario.dto.StockAlert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockMonitorTest {
+
+    @InjectMocks
+    private LowStockMonitor lowStockMonitor;
+
+    @Mock
+    private LowStockThresholds thresholds;
+
+    @Mock
+    private StockAlertDispatcher dispatcher;
+
+    @Test
+    public void testCheck_CruceHaciaAbajoEmiteAlerta() {
+        // DADO: un producto con umbral 3
+        when(thresholds.thresholdFor(5L, "GPU")).thenReturn(3);
+
+        // CUANDO: el stock baja de 4 a 2 (sin transacción, la alerta se publica de inmediato)
+        lowStockMonitor.check(5L, "GPU", 4, 2);
+
+        // ENTONCES: se publica una alerta LOW_STOCK con el stock anterior y el nuevo
+        ArgumentCaptor<StockAlert> captor = ArgumentCaptor.forClass(StockAlert.class);
+        verify(dispatcher).publish(captor.capture());
+        assertEquals(StockAlert.AlertType.LOW_STOCK, captor.getValue().getAlertType());
+        assertEquals(4, captor.getValue().getPreviousStock());
+        assertEquals(2, captor.getValue().getStock());
+    }
+
+    @Test
+    public void testCheck_VentaBajoElUmbralNoRepiteLaAlerta() {
+        // DADO: un producto con umbral 3 que ya está por debajo
+        when(thresholds.thresholdFor(5L, "GPU")).thenReturn(3);
+
+        // CUANDO: el stock baja de 2 a 1
+        lowStockMonitor.check(5L, "GPU", 2, 1);
+
+        // ENTONCES: no se publica nada (solo se alertan los cruces)
+        verifyNoInteractions(dispatcher);
+    }
+
+    @Test
+    public void testCrossing_TiposDeCruce() {
+        // ENTONCES: agotarse, bajar al umbral y volver a superarlo se distinguen; sin cruce no hay alerta
+        assertEquals(StockAlert.AlertType.OUT_OF_STOCK, LowStockMonitor.crossing(3, 2, 0));
+        assertEquals(StockAlert.AlertType.OUT_OF_STOCK, LowStockMonitor.crossing(3, 10, 0));
+        assertEquals(StockAlert.AlertType.LOW_STOCK, LowStockMonitor.crossing(3, 10, 3));
+        assertEquals(StockAlert.AlertType.RESTOCKED, LowStockMonitor.crossing(3, 0, 20));
+        assertNull(LowStockMonitor.crossing(3, 10, 8));
+        assertNull(LowStockMonitor.crossing(3, 0, 0));
+    }
+
+    @Test
+    public void testCheck_SinCambioDeStockNoConsultaUmbral() {
+        // CUANDO: el stock no cambia
+        lowStockMonitor.check(5L, "GPU", 4, 4);
+
+        // ENTONCES: ni siquiera se busca el umbral
+        verifyNoInteractions(thresholds, dispatcher);
+    }
+}
@@ -0,0 +1,158 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.Catalogo.Inventario.dto.PriceBaseView;
+import com.Catalogo.Inventario.dto.PricePoint;
+import com.Catalogo.Inventario.dto.PriceSeries;
+import com.Catalogo.Inventario.model.PriceChange;
+import com.Catalogo.Inventario.repository.PriceChangeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class PriceHistoryTest {
+
+    @InjectMocks
+    private PriceHistory priceHistory;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PriceChangeRepository priceChangeRepository;
+
+    private static final Instant FROM = Instant.parse("2024-04-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2024-04-11T00:00:00Z");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordChanges_GuardaDiferenciasYValorCompletoDeNuevos() {
+        // DADO: un producto que baja de precio, uno sin cambios y uno nuevo
+        Map<Long, PriceHistory.Price> antes = Map.of(
+                1L, PriceHistory.Price.of(699.99, 0),
+                2L, PriceHistory.Price.of(100.0, 5));
+        Map<Long, PriceHistory.Price> despues = Map.of(
+                1L, PriceHistory.Price.of(649.99, 10),
+                2L, PriceHistory.Price.of(100.0, 5),
+                3L, PriceHistory.Price.of(50.0, null));
+
+        // CUANDO: se registran los cambios
+        priceHistory.recordChanges(antes, despues);
+
+        // ENTONCES: se escriben dos filas; la del existente es la diferencia y la del nuevo el valor completo
+        ArgumentCaptor<Collection<PriceChange>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        for (PriceChange cambio : captor.getValue()) {
+            if (cambio.getProductId() == 1L) {
+                assertEquals(-5000L, cambio.getPriceDeltaCents().longValue());
+                assertEquals((byte) 10, cambio.getDiscountDelta());
+            } else {
+                assertEquals(3L, cambio.getProductId());
+                assertEquals(5000L, cambio.getPriceDeltaCents().longValue());
+                assertEquals((byte) 0, cambio.getDiscountDelta());
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecord_PrecioQueNoEntraEnUnInt() {
+        // CUANDO: un producto de 5.00 pasa a costar 30.000.000,00 (más de 2^31 centavos de diferencia)
+        priceHistory.record(1L, PriceHistory.Price.of(5.0, 0), PriceHistory.Price.of(30_000_000.0, 0));
+
+        // ENTONCES: la diferencia se guarda completa, sin desbordar ni anular el guardado del producto
+        ArgumentCaptor<Collection<PriceChange>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2_999_999_500L, captor.getValue().iterator().next().getPriceDeltaCents().longValue());
+    }
+
+    @Test
+    public void testRecord_SinCambioNoRegistra() {
+        // CUANDO: se guarda un producto sin cambiar precio ni descuento
+        priceHistory.record(1L, PriceHistory.Price.of(10.0, 0), PriceHistory.Price.of(10.0, 0));
+
+        // ENTONCES: no se escribe nada en el historial
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void testSeries_AgrupaCambiosPorIntervalo() {
+        // DADO: un producto a 700.00 antes del rango, que cambia dos veces el día 3 y una vez el día 8
+        when(priceChangeRepository.sumBefore(5L, FROM)).thenReturn(base(70000L, 0L, 1L));
+        when(priceChangeRepository.findByProductIdAndTsGreaterThanEqualAndTsLessThanOrderByTsAscIdAsc(5L, FROM, TO)).thenReturn(List.of(
+                change("2024-04-03T10:00:00Z", -10000, 0),
+                change("2024-04-03T18:00:00Z", 5000, 10),
+                change("2024-04-08T09:00:00Z", 5000, -10)));
+
+        // CUANDO: se pide la serie reducida a 10 intervalos de un día
+        PriceSeries serie = priceHistory.series(5L, FROM, TO, 10);
+
+        // ENTONCES: el valor vigente al inicio y un punto por cada día con cambios
+        assertEquals(86400L, serie.getBucketSeconds());
+        List<PricePoint> puntos = serie.getPoints();
+        assertEquals(3, puntos.size());
+        assertPoint(puntos.get(0), "2024-04-01T00:00:00Z", 700.0, 700.0, 700.0, 0, 0);
+        assertPoint(puntos.get(1), "2024-04-03T00:00:00Z", 650.0, 600.0, 700.0, 10, 2);
+        assertPoint(puntos.get(2), "2024-04-08T00:00:00Z", 700.0, 650.0, 700.0, 0, 1);
+    }
+
+    @Test
+    public void testSeries_ProductoCreadoDentroDelRango() {
+        // DADO: un producto sin historial previo, creado el día 5 a 120.00
+        when(priceChangeRepository.sumBefore(5L, FROM)).thenReturn(base(0L, 0L, 0L));
+        when(priceChangeRepository.findByProductIdAndTsGreaterThanEqualAndTsLessThanOrderByTsAscIdAsc(5L, FROM, TO)).thenReturn(List.of(
+                change("2024-04-05T12:00:00Z", 12000, 0)));
+
+        // CUANDO: se pide la serie
+        PriceSeries serie = priceHistory.series(5L, FROM, TO, 10);
+
+        // ENTONCES: la serie empieza en el alta, sin un precio 0 inventado
+        assertEquals(1, serie.getPoints().size());
+        assertPoint(serie.getPoints().get(0), "2024-04-05T00:00:00Z", 120.0, 120.0, 120.0, 0, 1);
+    }
+
+    private static void assertPoint(PricePoint point, String ts, double price, double min, double max, int discount, int changes) {
+        assertEquals(Instant.parse(ts), point.getTs());
+        assertEquals(price, point.getPrice(), 0.001);
+        assertEquals(min, point.getMinPrice(), 0.001);
+        assertEquals(max, point.getMaxPrice(), 0.001);
+        assertEquals(discount, point.getDiscount());
+        assertEquals(changes, point.getChanges());
+    }
+
+    private static PriceChange change(String ts, long priceDeltaCents, int discountDelta) {
+        return new PriceChange(null, 5L, Instant.parse(ts), priceDeltaCents, (byte) discountDelta);
+    }
+
+    private static PriceBaseView base(long priceCents, long discount, long changes) {
+        return new PriceBaseView() {
+            @Override
+            public Long getPriceCents() {
+                return priceCents;
+            }
+
+            @Override
+            public Long getDiscount() {
+                return discount;
+            }
+
+            @Override
+            public Long getChanges() {
+                return changes;
+            }
+        };
+    }
+}
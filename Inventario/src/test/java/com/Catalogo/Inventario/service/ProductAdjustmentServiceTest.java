@@ -0,0 +1,152 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.Catalogo.Inventario.dto.BulkAdjustResult;
+import com.Catalogo.Inventario.dto.StockPriceAdjustment;
+import com.Catalogo.Inventario.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductAdjustmentServiceTest {
+
+    @InjectMocks
+    private ProductAdjustmentService productAdjustmentService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductFacetIndex facetIndex;
+
+    @Mock
+    private OffersPayload offersPayload;
+
+    @Mock
+    private CatalogRevision catalogRevision;
+
+    @Mock
+    private ProductChangeLog changeLog;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private LowStockMonitor lowStockMonitor;
+
+    @Mock
+    private PriceHistory priceHistory;
+
+    @SuppressWarnings("unchecked")
+    private void batchSinInformacionDeFilas() {
+        // Con rewriteBatchedStatements el driver informa SUCCESS_NO_INFO (-2) para cada sentencia
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<?> items = invocation.getArgument(1);
+                    int[] counts = new int[items.size()];
+                    Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                    return new int[][]{counts};
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAdjust_AgrupaPorColumnasEInvalidaUnaVez() {
+        // DADO: dos reposiciones (mismo SQL), un cambio de precio y un producto inexistente
+        batchSinInformacionDeFilas();
+        when(stockLedger.currentStock(anyCollection(), eq(true))).thenReturn(Map.of(1L, 0, 2L, 0, 3L, 7));
+        when(stockLedger.currentStock(anyCollection(), eq(false))).thenReturn(Map.of(1L, 5, 2L, 10));
+        List<StockPriceAdjustment> ajustes = List.of(
+                new StockPriceAdjustment(2L, 10, null, null, null),
+                new StockPriceAdjustment(1L, 5, null, null, null),
+                new StockPriceAdjustment(3L, null, null, 499990.0, null),
+                new StockPriceAdjustment(99L, null, null, 1.0, null));
+
+        // CUANDO: aplicamos el ajuste masivo
+        BulkAdjustResult resultado = productAdjustmentService.adjust(ajustes);
+
+        // ENTONCES: se ejecutan 2 batches, se reporta el inexistente y la caché se invalida una sola vez
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(4, resultado.getRequested());
+        assertEquals(3, resultado.getUpdated());
+        assertEquals(1, resultado.getErrors().size());
+        assertEquals(99L, resultado.getErrors().get(0).getId());
+        verify(productCache, times(1)).invalidateProducts(anyCollection());
+        verify(catalogRevision, times(1)).bump();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAdjust_NoConfiaEnSuccessNoInfoParaStockNegativo() {
+        // DADO: el producto 1 tiene stock 3 y llegan dos retiros de 2 (el segundo lo dejaría en -1)
+        batchSinInformacionDeFilas();
+        when(stockLedger.currentStock(anyCollection(), eq(true))).thenReturn(Map.of(1L, 3));
+        when(stockLedger.currentStock(anyCollection(), eq(false))).thenReturn(Map.of(1L, 1));
+        List<StockPriceAdjustment> ajustes = List.of(
+                new StockPriceAdjustment(1L, -2, null, null, null),
+                new StockPriceAdjustment(1L, -2, null, null, null));
+
+        // CUANDO: aplicamos el ajuste masivo aunque el driver responda -2 para todo
+        BulkAdjustResult resultado = productAdjustmentService.adjust(ajustes);
+
+        // ENTONCES: solo se envía y cuenta el primer retiro; el segundo se reporta como error
+        ArgumentCaptor<Collection<?>> enviados = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), enviados.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, enviados.getValue().size());
+        assertEquals(1, resultado.getUpdated());
+        assertEquals(1, resultado.getErrors().size());
+        assertEquals(1, resultado.getErrors().get(0).getIndex());
+        assertTrue(resultado.getErrors().get(0).getMessage().contains("negativo"));
+    }
+
+    @Test
+    public void testAdjust_RevierteSiElStockFinalNoCoincide() {
+        // DADO: la relectura de control devuelve un stock distinto al esperado
+        batchSinInformacionDeFilas();
+        when(stockLedger.currentStock(anyCollection(), eq(true))).thenReturn(Map.of(1L, 3));
+        when(stockLedger.currentStock(anyCollection(), eq(false))).thenReturn(Map.of(1L, 3));
+
+        // CUANDO / ENTONCES: se lanza la excepción para revertir el lote y no se invalidan cachés
+        assertThrows(IllegalStateException.class,
+                () -> productAdjustmentService.adjust(List.of(new StockPriceAdjustment(1L, 2, null, null, null))));
+        verifyNoInteractions(productCache, catalogRevision);
+    }
+
+    @Test
+    public void testAdjust_RechazaAjustesInvalidosSinTocarLaBD() {
+        // DADO: ajustes sin ID, con stock y stockDelta a la vez y con descuento fuera de rango
+        List<StockPriceAdjustment> ajustes = List.of(
+                new StockPriceAdjustment(null, 1, null, null, null),
+                new StockPriceAdjustment(1L, 1, 5, null, null),
+                new StockPriceAdjustment(2L, null, null, null, 150));
+
+        // CUANDO: aplicamos el ajuste masivo
+        BulkAdjustResult resultado = productAdjustmentService.adjust(ajustes);
+
+        // ENTONCES: todos se rechazan y no se ejecuta SQL ni se invalidan cachés
+        assertEquals(0, resultado.getUpdated());
+        assertEquals(3, resultado.getErrors().size());
+        verifyNoInteractions(jdbcTemplate, productCache, catalogRevision);
+    }
+}
@@ -0,0 +1,108 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.Catalogo.Inventario.model.ProductChange;
+import com.Catalogo.Inventario.repository.ProductChangeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductChangeLogTest {
+
+    @InjectMocks
+    private ProductChangeLog changeLog;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testPurgeExpired_ConservaElUltimoCambio() {
+        // DADO: todos los cambios son más antiguos que la retención y el último es el 100
+        ReflectionTestUtils.setField(changeLog, "retentionDays", 7);
+        when(productChangeRepository.findMaxSeq()).thenReturn(100L);
+        when(productChangeRepository.deleteOlderThan(any(Instant.class), eq(100L), anyInt())).thenReturn(99);
+
+        // CUANDO: se aplica la retención
+        changeLog.purgeExpired();
+
+        // ENTONCES: se borra hasta el 99; el 100 queda como marca para detectar cursores atrasados
+        verify(productChangeRepository).deleteOlderThan(any(Instant.class), eq(100L), anyInt());
+    }
+
+    @Test
+    public void testPurgeExpired_LogVacioNoBorraNada() {
+        // DADO: todavía no hubo cambios
+        when(productChangeRepository.findMaxSeq()).thenReturn(null);
+
+        // CUANDO: se aplica la retención
+        changeLog.purgeExpired();
+
+        // ENTONCES: no se ejecuta ningún borrado
+        verify(productChangeRepository, never()).deleteOlderThan(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void testIsExpired_CursorAnteriorALoRetenido() {
+        // DADO: la retención dejó solo el cambio 100
+        when(productChangeRepository.findMinSeq()).thenReturn(100L);
+
+        // CUANDO / ENTONCES: un cursor que no leyó el 99 debe resincronizar; uno al día no
+        assertTrue(changeLog.isExpired(50L));
+        assertFalse(changeLog.isExpired(99L));
+        assertFalse(changeLog.isExpired(0L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReadAfter_NoEntregaSeqsPorEncimaDeUnaTransaccionEnCurso() {
+        // DADO: una transacción empieza a registrar cambios cuando el último seq confirmado es el 10
+        when(productChangeRepository.findMaxSeq()).thenReturn(10L);
+        when(productChangeRepository.findBySeqBetweenAndOccurredAtBeforeOrderBySeqAsc(anyLong(), anyLong(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeLog.recordAll(ProductChange.ChangeType.UPDATED, List.of(1L, 2L));
+            changeLog.recordAll(ProductChange.ChangeType.CREATED, List.of(3L));
+
+            // CUANDO: un consumidor lee mientras la transacción sigue abierta (otra ya confirmó el 11)
+            when(productChangeRepository.findMaxSeq()).thenReturn(11L);
+            changeLog.readAfter(5L, 100);
+
+            // ENTONCES: solo se leen hasta el 10, el cursor al día no avanza y la suscripción nueva empieza en 10
+            verify(productChangeRepository).findBySeqBetweenAndOccurredAtBeforeOrderBySeqAsc(eq(6L), eq(10L), any(Instant.class), any(Pageable.class));
+            assertEquals(10L, changeLog.readAfter(10L, 100).getNextAfter());
+            assertEquals(10L, changeLog.latestSeq());
+
+            // Y al terminar la transacción la marca de agua desaparece
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertFalse(TransactionSynchronizationManager.hasResource(ReflectionTestUtils.getField(changeLog, "inFlightKey")));
+        changeLog.readAfter(10L, 100);
+        verify(productChangeRepository).findBySeqBetweenAndOccurredAtBeforeOrderBySeqAsc(eq(11L), eq(Long.MAX_VALUE), any(Instant.class), any(Pageable.class));
+        assertEquals(11L, changeLog.latestSeq());
+    }
+}
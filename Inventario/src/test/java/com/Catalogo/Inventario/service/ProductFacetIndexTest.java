@@ -0,0 +1,154 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.Catalogo.Inventario.dto.ProductFacetView;
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ProductFacetIndexTest {
+
+    private ProductFacetIndex crearIndice() {
+        ProductFacetIndex index = new ProductFacetIndex();
+        index.index(new Product(1L, "RTX 4070", "MSI", "X", "GPU", 899990.0, 8, null, null, false, 0, null, null));
+        index.index(new Product(2L, "RX 7600", "Sapphire", "X", "GPU", 449990.0, 7, null, null, true, 10, null, null));
+        index.index(new Product(3L, "Ryzen 5", "AMD", "X", "CPU", 299990.0, 8, null, null, true, 15, null, null));
+        return index;
+    }
+
+    @Test
+    public void testFilter_InterseccionDeFacetas() {
+        // DADO: tres productos indexados
+        ProductFacetIndex index = crearIndice();
+
+        // CUANDO: filtramos GPUs en oferta
+        ProductFacetIndex.FacetResult resultado = index.filter(
+                Map.of(ProductFacetIndex.CATEGORY, Set.of("GPU"), ProductFacetIndex.ON_SALE, Set.of("true")), 0, 20);
+
+        // ENTONCES: solo el producto 2 cumple ambos filtros
+        assertEquals(List.of(2L), resultado.ids());
+        assertEquals(1, resultado.total());
+        // Los conteos de categoría ignoran el filtro de categoría pero respetan el de oferta
+        assertEquals(1L, resultado.facets().get(ProductFacetIndex.CATEGORY).get("GPU"));
+        assertEquals(1L, resultado.facets().get(ProductFacetIndex.CATEGORY).get("CPU"));
+        // Los conteos de oferta respetan el filtro de categoría
+        assertEquals(1L, resultado.facets().get(ProductFacetIndex.ON_SALE).get("false"));
+    }
+
+    @Test
+    public void testIndex_ActualizaYEliminaBits() {
+        // DADO: el producto 1 deja de ser GPU y el producto 3 se elimina
+        ProductFacetIndex index = crearIndice();
+        index.index(new Product(1L, "RTX 4070", "MSI", "X", "Peripheral", 899990.0, 8, null, null, false, 0, null, null));
+        index.remove(3L);
+
+        // CUANDO: consultamos sin filtros
+        ProductFacetIndex.FacetResult resultado = index.filter(Map.of(), 0, 20);
+
+        // ENTONCES: quedan 2 productos y los conteos reflejan los cambios
+        assertEquals(2, resultado.total());
+        assertEquals(1L, resultado.facets().get(ProductFacetIndex.CATEGORY).get("GPU"));
+        assertEquals(1L, resultado.facets().get(ProductFacetIndex.CATEGORY).get("Peripheral"));
+        assertNull(resultado.facets().get(ProductFacetIndex.CATEGORY).get("CPU"));
+    }
+
+    @Test
+    public void testRemove_ReutilizaOrdinalesLiberados() {
+        // DADO: tres productos indexados
+        ProductFacetIndex index = crearIndice();
+
+        // CUANDO: se eliminan y se crean productos nuevos muchas veces
+        for (long id = 4; id < 1004; id++) {
+            index.remove(id - 1);
+            index.index(new Product(id, "SSD", "Samsung", "X", "Storage", 99990.0, 5, null, null, false, 0, null, null));
+        }
+
+        // ENTONCES: no se asignan ordinales nuevos y las facetas solo cuentan los vigentes
+        assertEquals(3, index.ordinalCount());
+        ProductFacetIndex.FacetResult resultado = index.filter(Map.of(), 0, 20);
+        assertEquals(3, resultado.total());
+        assertEquals(Set.of(1L, 2L, 1003L), Set.copyOf(resultado.ids()));
+        assertEquals(1L, resultado.facets().get(ProductFacetIndex.CATEGORY).get("Storage"));
+        assertNull(resultado.facets().get(ProductFacetIndex.CATEGORY).get("CPU"));
+    }
+
+    @Test
+    public void testFilter_NoDistingueMayusculasEnCategoriaYMarca() {
+        // DADO: la misma marca escrita de tres formas
+        ProductFacetIndex index = crearIndice();
+        index.index(new Product(4L, "RTX 4060", "msi ", "X", "gpu", 399990.0, 3, null, null, false, 0, null, null));
+        index.index(new Product(5L, "Mouse", "Msi", "X", "Peripheral", 29990.0, 3, null, null, false, 0, null, null));
+
+        // CUANDO: filtramos por "MSI" escrito en minúsculas
+        ProductFacetIndex.FacetResult resultado = index.filter(Map.of(ProductFacetIndex.BRAND, Set.of("msi")), 0, 20);
+
+        // ENTONCES: coinciden los tres productos y cada faceta aparece una sola vez con la primera forma recibida
+        assertEquals(Set.of(1L, 4L, 5L), Set.copyOf(resultado.ids()));
+        assertEquals(Map.of("MSI", 3L, "Sapphire", 1L, "AMD", 1L), resultado.facets().get(ProductFacetIndex.BRAND));
+        assertEquals(2L, resultado.facets().get(ProductFacetIndex.CATEGORY).get("GPU"));
+        assertNull(resultado.facets().get(ProductFacetIndex.CATEGORY).get("gpu"));
+    }
+
+    @Test
+    public void testFilter_PaginaMuyGrandeNoDesborda() {
+        // DADO: tres productos indexados
+        ProductFacetIndex index = crearIndice();
+
+        // CUANDO: se pide una página cuyo desplazamiento no entra en un int
+        ProductFacetIndex.FacetResult resultado = index.filter(Map.of(), Integer.MAX_VALUE / 2, 20);
+
+        // ENTONCES: la página viene vacía (no se salta a los primeros productos) y el total es correcto
+        assertTrue(resultado.ids().isEmpty());
+        assertEquals(3, resultado.total());
+    }
+
+    @Test
+    public void testRebuild_LeeElCatalogoPorPaginas() {
+        // DADO: 5 productos en la BD y páginas de 2
+        ProductRepository repository = mock(ProductRepository.class);
+        ProductFacetIndex index = new ProductFacetIndex();
+        ReflectionTestUtils.setField(index, "productRepository", repository);
+        ReflectionTestUtils.setField(index, "rebuildPageSize", 2);
+        List<ProductFacetView> pagina1 = List.of(view(1L, "GPU"), view(2L, "CPU"));
+        List<ProductFacetView> pagina2 = List.of(view(3L, "GPU"), view(4L, "RAM"));
+        List<ProductFacetView> pagina3 = List.of(view(5L, "gpu"));
+        when(repository.findFacetViewsByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(pagina1);
+        when(repository.findFacetViewsByIdGreaterThanOrderByIdAsc(eq(2L), any())).thenReturn(pagina2);
+        when(repository.findFacetViewsByIdGreaterThanOrderByIdAsc(eq(4L), any())).thenReturn(pagina3);
+
+        // CUANDO: se reconstruye el índice
+        index.rebuild();
+
+        // ENTONCES: se indexan las tres páginas sin cargar entidades completas
+        ProductFacetIndex.FacetResult resultado = index.filter(Map.of(), 0, 20);
+        assertEquals(5, resultado.total());
+        assertEquals(3L, resultado.facets().get(ProductFacetIndex.CATEGORY).get("GPU"));
+        verify(repository, times(3)).findFacetViewsByIdGreaterThanOrderByIdAsc(anyLong(), any());
+        verify(repository, never()).findAll();
+    }
+
+    private static ProductFacetView view(Long id, String category) {
+        ProductFacetView view = mock(ProductFacetView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getCategory()).thenReturn(category);
+        when(view.getBrand()).thenReturn("Marca");
+        when(view.getPrice()).thenReturn(100.0);
+        when(view.getIsOnSale()).thenReturn(false);
+        return view;
+    }
+
+    @Test
+    public void testPriceBand() {
+        assertEquals("0-100000", ProductFacetIndex.priceBand(49990.0));
+        assertEquals("300000-600000", ProductFacetIndex.priceBand(449990.0));
+        assertEquals("1000000+", ProductFacetIndex.priceBand(1999990.0));
+    }
+}
@@ -0,0 +1,206 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.Catalogo.Inventario.dto.ImportResult;
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+
+    private static final String HEADER = "name,brand,model,category,price,stock,description";
+
+    @InjectMocks
+    private ProductImportService importService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductChangeLog changeLog;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private LowStockMonitor lowStockMonitor;
+
+    @Mock
+    private PriceHistory priceHistory;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(importService, "batchSize", 500);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 1000);
+        // persist asigna el ID como lo haría la secuencia (no todos los tests insertan)
+        AtomicLong ids = new AtomicLong(100);
+        lenient().doAnswer(inv -> {
+            ((Product) inv.getArgument(0)).setId(ids.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(Product.class));
+        when(productRepository.findByBrandInAndModelIn(anyCollection(), anyCollection())).thenReturn(List.of());
+    }
+
+    @Test
+    public void testImport_CsvConComillasYComillasEscapadas() throws Exception {
+        // DADO: un CSV con una descripción entre comillas que tiene comas y comillas escapadas
+        String csv = HEADER + "\n"
+                + "Monitor,LG,27GP850,Monitor,399.99,3,\"Panel IPS, 27\"\" y 165 Hz\"\n";
+
+        // CUANDO: se importa
+        ImportResult result = importService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        // ENTONCES: se inserta con la descripción completa
+        assertEquals(1, result.getInserted());
+        assertEquals(0, result.getFailed());
+        ArgumentCaptor<Product> captor = ArgumentCaptor.forClass(Product.class);
+        verify(entityManager).persist(captor.capture());
+        assertEquals("Panel IPS, 27\" y 165 Hz", captor.getValue().getDescription());
+        assertEquals(399.99, captor.getValue().getPrice());
+    }
+
+    @Test
+    public void testImport_SeGuardaEnLotesDelTamanoConfigurado() throws Exception {
+        // DADO: lotes de 2 filas y 5 productos distintos
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (int i = 1; i <= 5; i++) {
+            csv.append("SSD ").append(i).append(",Samsung,M").append(i).append(",Storage,100,1,\n");
+        }
+
+        // CUANDO: se importa
+        ImportResult result = importService.importProducts(stream(csv.toString()), ProductImportService.Format.CSV);
+
+        // ENTONCES: se escriben 3 lotes (2 + 2 + 1), cada uno con su consulta y su limpieza del contexto
+        assertEquals(5, result.getProcessed());
+        assertEquals(5, result.getInserted());
+        verify(productRepository, times(3)).findByBrandInAndModelIn(anyCollection(), anyCollection());
+        verify(entityManager, times(3)).clear();
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    public void testImport_ActualizaExistenteSinDistinguirMayusculas() throws Exception {
+        // DADO: un producto existente "MSI" / "Ventus 3X"
+        Product existente = new Product(7L, "RTX 4070", "MSI", "Ventus 3X", "GPU", 700.0, 10, null, null, false, 0, null, null);
+        when(productRepository.findByBrandInAndModelIn(anyCollection(), anyCollection())).thenReturn(List.of(existente));
+        String ndjson = "{\"name\":\"RTX 4070 OC\",\"brand\":\"msi\",\"model\":\" ventus 3x \",\"category\":\"GPU\",\"price\":650.0,\"stock\":4}\n";
+
+        // CUANDO: se importa la misma marca y modelo con otras mayúsculas y espacios
+        ImportResult result = importService.importProducts(stream(ndjson), ProductImportService.Format.NDJSON);
+
+        // ENTONCES: se actualiza el existente en vez de crear un duplicado
+        assertEquals(0, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        verify(entityManager, never()).persist(any());
+        assertEquals("RTX 4070 OC", existente.getName());
+        assertEquals(650.0, existente.getPrice());
+        assertEquals(4, existente.getStock());
+    }
+
+    @Test
+    public void testImport_MismoProductoDosVecesEnElLoteSeInsertaUnaVez() throws Exception {
+        // DADO: dos filas del mismo producto nuevo escritas con distintas mayúsculas
+        String csv = HEADER + "\n"
+                + "RAM,Corsair,Vengeance,RAM,150,20,\n"
+                + "RAM,CORSAIR,VENGEANCE,RAM,140,25,\n";
+
+        // CUANDO: se importa
+        ImportResult result = importService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        // ENTONCES: la segunda fila actualiza al producto creado por la primera
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        ArgumentCaptor<Product> captor = ArgumentCaptor.forClass(Product.class);
+        verify(entityManager).persist(captor.capture());
+        assertEquals(140.0, captor.getValue().getPrice());
+        assertEquals(25, captor.getValue().getStock());
+    }
+
+    @Test
+    public void testImport_FilaInvalidaSeReportaYNoDetieneLaCarga() throws Exception {
+        // DADO: una fila sin marca entre dos válidas
+        String csv = HEADER + "\n"
+                + "CPU,AMD,Ryzen 5,CPU,200,5,\n"
+                + "CPU,,Ryzen 7,CPU,300,5,\n"
+                + "CPU,Intel,i5,CPU,220,5,\n";
+
+        // CUANDO: se importa
+        ImportResult result = importService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        // ENTONCES: se reporta la línea 3 y se guardan las otras dos
+        assertEquals(3, result.getProcessed());
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertEquals("La marca es obligatoria", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    public void testImport_LoteFallidoSeReintentaFilaPorFila() throws Exception {
+        // DADO: un lote de 3 filas donde guardar la del medio falla en la base de datos
+        AtomicLong ids = new AtomicLong(100);
+        doAnswer(inv -> {
+            Product product = inv.getArgument(0);
+            if ("Malo".equals(product.getModel())) {
+                throw new IllegalStateException("Data truncation: name");
+            }
+            product.setId(ids.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(Product.class));
+        String csv = HEADER + "\n"
+                + "Mouse,Logitech,G305,Periféricos,50,10,\n"
+                + "Mouse,Logitech,Malo,Periféricos,50,10,\n"
+                + "Teclado,Logitech,G915,Periféricos,200,3,\n";
+
+        // CUANDO: se importa
+        ImportResult result = importService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        // ENTONCES: el lote se revierte, se reintentan las filas y solo la línea 3 se reporta con su propio error
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertTrue(result.getErrors().get(0).getMessage().contains("Data truncation"));
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
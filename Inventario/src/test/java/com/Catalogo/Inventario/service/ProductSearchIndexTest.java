@@ -0,0 +1,96 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.Catalogo.Inventario.dto.ProductSearchView;
+import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+public class ProductSearchIndexTest {
+
+    private Product producto(Long id, String name, String brand, String category, String description) {
+        return new Product(id, name, brand, name, category, 100.0, 1, description, null, false, 0, null, null);
+    }
+
+    @Test
+    public void testSearch_IgnoraTildesYMayusculas() {
+        // DADO: un producto con tildes en la descripción
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.index(producto(1L, "GeForce RTX 4070", "MSI", "GPU", "Tarjeta gráfica de alto rendimiento"));
+
+        // CUANDO/ENTONCES: se encuentra sin tildes y en mayúsculas
+        assertEquals(List.of(1L), index.search("GRAFICA", 10));
+    }
+
+    @Test
+    public void testSearch_OrdenaPorRelevancia() {
+        // DADO: dos productos, solo uno con "4070" en el nombre
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.index(producto(1L, "Radeon RX 7800 XT", "AMD", "GPU", "Compite con la RTX 4070"));
+        index.index(producto(2L, "GeForce RTX 4070", "MSI", "GPU", "Tarjeta gráfica"));
+
+        // CUANDO: buscamos "rtx 4070"
+        List<Long> resultado = index.search("rtx 4070", 10);
+
+        // ENTONCES: el que lo tiene en el nombre aparece primero
+        assertEquals(List.of(2L, 1L), resultado);
+    }
+
+    @Test
+    public void testIndex_ActualizarYEliminar() {
+        // DADO: un producto indexado
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.index(producto(1L, "Corsair Vengeance", "Corsair", "RAM", null));
+
+        // CUANDO: se actualiza el nombre
+        index.index(producto(1L, "Kingston Fury", "Kingston", "RAM", null));
+
+        // ENTONCES: los términos antiguos ya no existen
+        assertTrue(index.search("corsair", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("fury", 10));
+
+        // CUANDO: se elimina
+        index.remove(1L);
+
+        // ENTONCES: el índice queda vacío
+        assertEquals(0, index.size());
+        assertTrue(index.search("ram", 10).isEmpty());
+    }
+
+    @Test
+    public void testRebuild_LeeSoloLosCamposDeTextoPorPaginas() {
+        // DADO: 3 productos en la BD y páginas de 2
+        ProductRepository repository = mock(ProductRepository.class);
+        ProductSearchIndex index = new ProductSearchIndex();
+        ReflectionTestUtils.setField(index, "productRepository", repository);
+        ReflectionTestUtils.setField(index, "rebuildPageSize", 2);
+        List<ProductSearchView> pagina1 = List.of(view(1L, "GeForce RTX 4070"), view(2L, "Radeon RX 7600"));
+        List<ProductSearchView> pagina2 = List.of(view(3L, "Ryzen 5 7600"));
+        when(repository.findSearchViewsByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(pagina1);
+        when(repository.findSearchViewsByIdGreaterThanOrderByIdAsc(eq(2L), any())).thenReturn(pagina2);
+
+        // CUANDO: se reconstruye el índice
+        index.rebuild();
+
+        // ENTONCES: se indexan las dos páginas sin cargar entidades completas
+        assertEquals(3, index.size());
+        assertEquals(List.of(2L, 3L), index.search("7600", 10));
+        verify(repository, times(2)).findSearchViewsByIdGreaterThanOrderByIdAsc(anyLong(), any());
+        verify(repository, never()).findAll();
+    }
+
+    private static ProductSearchView view(Long id, String name) {
+        ProductSearchView view = mock(ProductSearchView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getName()).thenReturn(name);
+        when(view.getBrand()).thenReturn("Marca");
+        when(view.getCategory()).thenReturn("Componente");
+        return view;
+    }
+}
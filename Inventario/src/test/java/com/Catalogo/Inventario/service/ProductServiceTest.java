@@ -4,14 +4,22 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.Catalogo.Inventario.model.Product;
+import com.Catalogo.Inventario.model.ProductChange;
+import com.Catalogo.Inventario.model.StockMovement;
 import com.Catalogo.Inventario.repository.ProductRepository;
+import com.Catalogo.Inventario.repository.ReportCounterRepository;
 import com.Catalogo.Inventario.repository.ReportRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +36,45 @@ public class ProductServiceTest {
     @Mock
     private ReportRepository reportRepository;
 
+    @Mock
+    private ReportCounterRepository reportCounterRepository;
+
+    @Mock
+    private TopReportedProducts topReportedProducts;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ProductFacetIndex facetIndex;
+
+    @Mock
+    private CatalogRevision catalogRevision;
+
+    @Mock
+    private OfferScheduler offerScheduler;
+
+    @Mock
+    private OffersPayload offersPayload;
+
+    @Mock
+    private ProductChangeLog changeLog;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private LowStockMonitor lowStockMonitor;
+
+    @Mock
+    private PriceHistory priceHistory;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, 60, new SimpleMeterRegistry());
+
     // ==================== TESTS PARA findAll() ====================
 
     @Test
@@ -56,6 +103,34 @@ public class ProductServiceTest {
         assertTrue(resultado.isEmpty());
     }
 
+    @Test
+    public void testFindAll_DespuesDeUnaEscrituraLeeDelPrimario() {
+        // DADO: réplica con hasta 5 s de atraso y una escritura en el catálogo hace un instante
+        ReflectionTestUtils.setField(productService, "replicaMaxLagMs", 5000L);
+        when(catalogRevision.lastModified()).thenReturn(System.currentTimeMillis());
+        when(productRepository.findAll()).thenReturn(List.of());
+
+        // CUANDO: obtenemos todos
+        productService.findAll();
+
+        // ENTONCES: la lectura va en una transacción de lectura-escritura (primario)
+        verify(transactionManager).getTransaction(argThat(def -> !def.isReadOnly()));
+    }
+
+    @Test
+    public void testFindAll_FueraDeLaVentanaDeAtrasoLeeDeLaReplica() {
+        // DADO: la última escritura fue hace más que el atraso máximo de la réplica
+        ReflectionTestUtils.setField(productService, "replicaMaxLagMs", 5000L);
+        when(catalogRevision.lastModified()).thenReturn(System.currentTimeMillis() - 60000);
+        when(productRepository.findAll()).thenReturn(List.of());
+
+        // CUANDO: obtenemos todos
+        productService.findAll();
+
+        // ENTONCES: la lectura es de solo lectura (réplica)
+        verify(transactionManager).getTransaction(argThat(def -> def.isReadOnly()));
+    }
+
     // ==================== TESTS PARA save() ====================
 
     @Test
@@ -75,6 +150,26 @@ public class ProductServiceTest {
         assertNotNull(resultado.getId());
         assertEquals("RAM", resultado.getName());
         verify(productRepository).save(nuevo);
+        verify(searchIndex).index(resultado);
+        verify(facetIndex).index(resultado);
+    }
+
+    // ==================== TESTS PARA search() ====================
+
+    @Test
+    public void testSearch_RespetaOrdenDeRelevancia() {
+        // DADO: el índice retorna IDs ordenados por relevancia
+        Product p1 = new Product(1L, "GPU", "Nvidia", "RTX 4070", "GPU", 700.0, 10, null, null, false, 0, null, null);
+        Product p2 = new Product(2L, "GPU", "AMD", "RX 7800", "GPU", 600.0, 5, null, null, false, 0, null, null);
+        when(searchIndex.search("gpu", 10)).thenReturn(List.of(2L, 1L));
+        when(productRepository.findAllById(List.of(2L, 1L))).thenReturn(Arrays.asList(p1, p2));
+
+        // CUANDO: buscamos
+        List<Product> resultado = productService.search("gpu", 10);
+
+        // ENTONCES: se mantiene el orden del índice
+        assertEquals(2L, resultado.get(0).getId());
+        assertEquals(1L, resultado.get(1).getId());
     }
 
     // ==================== TESTS PARA findById() ====================
@@ -105,6 +200,35 @@ public class ProductServiceTest {
         assertTrue(ex.getMessage().contains("Producto no encontrado"));
     }
 
+    @Test
+    public void testFindById_SegundaLecturaUsaCache() {
+        // DADO: un producto con ID 1
+        Product producto = new Product(1L, "SSD", "Samsung", "980 Pro", "Storage", 200.0, 15, null, null, false, 0, null, null);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(producto));
+
+        // CUANDO: lo buscamos dos veces
+        productService.findById(1L);
+        productService.findById(1L);
+
+        // ENTONCES: solo se consulta la BD una vez
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void testReduceStock_InvalidaCache() {
+        // DADO: un producto ya cacheado
+        Product producto = new Product(1L, "GPU", "Asus", "X", "GPU", 100.0, 10, null, null, false, 0, null, null);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productRepository.save(any(Product.class))).thenAnswer(i -> i.getArguments()[0]);
+        productService.findById(1L);
+
+        // CUANDO: se descuenta stock
+        productService.reduceStock(1L, 1);
+
+        // ENTONCES: la entrada se invalida y la siguiente lectura vuelve a la BD
+        assertNull(productCache.getIfPresent(1L));
+    }
+
     // ==================== TESTS PARA reduceStock() ====================
 
     @Test
@@ -120,6 +244,7 @@ public class ProductServiceTest {
         // ENTONCES: stock queda en 7
         assertEquals(7, resultado.getStock());
         verify(productRepository).save(producto);
+        verify(catalogRevision).bump();
     }
 
     @Test
@@ -162,16 +287,170 @@ public class ProductServiceTest {
         assertTrue(ex.getMessage().contains("Producto agotado") || ex.getMessage().contains("agotado"));
     }
 
+    // ==================== TESTS PARA ofertas programadas ====================
+
+    @Test
+    public void testRefreshOfferState_OfertaVencidaSeDesactiva() {
+        // DADO: una oferta activa que terminó ayer
+        Product producto = new Product(1L, "GPU", "Asus", "X", "GPU", 100.0, 10, null, null, true, 15, "2024-01-01", "2024-12-31");
+        when(productRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productRepository.save(any(Product.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(offerScheduler.today()).thenReturn(LocalDate.of(2025, 1, 1));
+
+        // CUANDO: el scheduler reevalúa el producto
+        productService.refreshOfferState(1L);
+
+        // ENTONCES: la oferta queda desactivada y se invalida la respuesta de ofertas
+        assertFalse(producto.getIsOnSale());
+        verify(offersPayload).invalidateIfAffected(1L, false);
+    }
+
+    @Test
+    public void testSave_OfertaFuturaNoSeActivaTodavia() {
+        // DADO: un producto con una oferta que empieza mañana
+        Product nuevo = new Product(null, "RAM", "Corsair", "X", "RAM", 150.0, 20, null, null, true, 20, "2025-06-02", "2025-06-30");
+        when(offerScheduler.today()).thenReturn(LocalDate.of(2025, 6, 1));
+        when(productRepository.save(any(Product.class))).thenAnswer(i -> {
+            Product p = (Product) i.getArguments()[0];
+            p.setId(7L); // Simular ID generado
+            return p;
+        });
+
+        // CUANDO: guardamos
+        Product resultado = productService.save(nuevo);
+
+        // ENTONCES: la oferta queda inactiva y se programa su inicio
+        assertFalse(resultado.getIsOnSale());
+        verify(offerScheduler).schedule(resultado);
+    }
+
     // ==================== TESTS PARA deleteProduct() ====================
 
     @Test
     public void testDeleteProduct_BorraReportesPrimeroLuegoProducto() {
+        // DADO: el producto existe
+        when(productRepository.lockLiveIds(List.of(50L))).thenReturn(List.of(50L));
+
         // CUANDO: eliminamos producto
         productService.deleteProduct(50L);
 
         // ENTONCES: primero borra reportes, luego producto (orden importante)
         var inOrder = inOrder(reportRepository, productRepository);
         inOrder.verify(reportRepository).deleteByProductId(50L);
-        inOrder.verify(productRepository).deleteById(50L);
+        inOrder.verify(productRepository).deleteByIds(List.of(50L));
+        verify(reportCounterRepository).deleteByProductIdIn(List.of(50L));
+        verify(searchIndex).remove(50L);
+        verify(topReportedProducts).remove(50L);
+    }
+
+    @Test
+    public void testDeleteProducts_VariosIdsConSentenciasPorConjunto() {
+        // DADO: dos productos existentes (uno repetido en la petición)
+        when(productRepository.lockLiveIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(productRepository.deleteByIds(List.of(1L, 2L))).thenReturn(2);
+
+        // CUANDO: eliminamos varios productos
+        int eliminados = productService.deleteProducts(Arrays.asList(1L, 2L, 1L));
+
+        // ENTONCES: se borran reportes, contadores y productos con una sentencia cada uno
+        assertEquals(2, eliminados);
+        verify(reportRepository).deleteByProductIdIn(List.of(1L, 2L));
+        verify(reportCounterRepository).deleteByProductIdIn(List.of(1L, 2L));
+        verify(productCache).invalidateProducts(List.of(1L, 2L));
+        verify(facetIndex).remove(2L);
+    }
+
+    @Test
+    public void testDeleteProducts_SoloRegistraLosIdsQueExistian() {
+        // DADO: de tres IDs pedidos solo existe el 2
+        when(productRepository.lockLiveIds(List.of(1L, 2L, 3L))).thenReturn(List.of(2L));
+        when(productRepository.deleteByIds(List.of(2L))).thenReturn(1);
+
+        // CUANDO: eliminamos los tres
+        int eliminados = productService.deleteProducts(List.of(1L, 2L, 3L));
+
+        // ENTONCES: el borrado y el log de cambios solo incluyen el producto existente
+        assertEquals(1, eliminados);
+        verify(changeLog).recordAll(ProductChange.ChangeType.DELETED, List.of(2L));
+        verify(reportCounterRepository).deleteByProductIdIn(List.of(2L));
+    }
+
+    @Test
+    public void testDeleteProducts_NingunIdExistenteNoRegistraNada() {
+        // DADO: ninguno de los IDs existe
+        when(productRepository.lockLiveIds(List.of(8L, 9L))).thenReturn(List.of());
+
+        // CUANDO: eliminamos
+        int eliminados = productService.deleteProducts(List.of(8L, 9L));
+
+        // ENTONCES: no se borra nada ni se anuncian eliminaciones
+        assertEquals(0, eliminados);
+        verify(productRepository, never()).deleteByIds(any());
+        verifyNoInteractions(changeLog);
+    }
+
+    @Test
+    public void testDeleteProducts_BorradoLogicoSoloMarcaLosProductos() {
+        // DADO: borrado lógico habilitado
+        ReflectionTestUtils.setField(productService, "softDelete", true);
+        when(productRepository.lockLiveIds(List.of(7L))).thenReturn(List.of(7L));
+        when(productRepository.markDeleted(eq(List.of(7L)), any())).thenReturn(1);
+
+        // CUANDO: eliminamos el producto
+        productService.deleteProduct(7L);
+
+        // ENTONCES: se marca y se quita de los índices, pero reportes y fila quedan para la purga
+        verify(productRepository).markDeleted(eq(List.of(7L)), any());
+        verify(reportRepository, never()).deleteByProductId(any());
+        verify(productRepository, never()).deleteByIds(any());
+        verify(searchIndex).remove(7L);
+    }
+
+    @Test
+    public void testSaveYReduceStock_RegistranCambiosEnElLog() {
+        // DADO: un producto nuevo y luego una venta del mismo producto
+        Product nuevo = new Product(null, "RTX 4070", "MSI", "X", "GPU", 899990.0, 5, null, null, false, 0, null, null);
+        Product guardado = new Product(8L, "RTX 4070", "MSI", "X", "GPU", 899990.0, 5, null, null, false, 0, null, null);
+        when(productRepository.save(nuevo)).thenReturn(guardado);
+        when(productRepository.findById(8L)).thenReturn(Optional.of(guardado));
+        when(productRepository.save(guardado)).thenReturn(guardado);
+
+        // CUANDO: se crea el producto y se descuenta stock
+        productService.save(nuevo);
+        productService.reduceStock(8L, 2);
+
+        // ENTONCES: el log de cambios recibe un alta y un cambio de stock del producto 8
+        verify(changeLog).record(ProductChange.ChangeType.CREATED, 8L);
+        verify(changeLog).record(ProductChange.ChangeType.STOCK_CHANGED, 8L);
+    }
+
+    @Test
+    public void testReduceStock_RegistraVentaConPedidoEnElLibro() {
+        // DADO: un producto con stock 10
+        Product producto = new Product(1L, "GPU", "Asus", "X", "GPU", 100.0, 10, null, null, false, 0, null, null);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productRepository.save(any(Product.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        // CUANDO: Pagos descuenta 3 unidades para el pedido 120
+        productService.reduceStock(1L, 3, 120L);
+
+        // ENTONCES: el libro de movimientos recibe una venta de -3 con la referencia del pedido
+        verify(stockLedger).record(1L, -3, StockMovement.MovementType.SALE, 120L);
+    }
+
+    @Test
+    public void testUpdateProduct_RegistraReposicionEnElLibro() {
+        // DADO: un producto con stock 4 que se actualiza a 10
+        Product producto = new Product(1L, "GPU", "Asus", "X", "GPU", 100.0, 4, null, null, false, 0, null, null);
+        Product cambios = new Product();
+        cambios.setStock(10);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productRepository.save(any(Product.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        // CUANDO: se actualiza el producto
+        productService.updateProduct(1L, cambios);
+
+        // ENTONCES: el libro recibe una reposición de +6 sin pedido
+        verify(stockLedger).record(1L, 6, StockMovement.MovementType.RESTOCK, null);
     }
 }
@@ -0,0 +1,125 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.Catalogo.Inventario.dto.StockAlert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Instant;
+import java.util.List;
+
+public class StockAlertDispatcherTest {
+
+    private StubWebhookReceiver receiver;
+    private StockAlertDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        receiver = new StubWebhookReceiver();
+        dispatcher = new StockAlertDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "webClientBuilder", WebClient.builder());
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 10);
+        ReflectionTestUtils.setField(dispatcher, "recentCapacity", 2);
+        ReflectionTestUtils.setField(dispatcher, "webhookUrls", new String[]{receiver.url()});
+        ReflectionTestUtils.setField(dispatcher, "webhookTimeoutMillis", 2000L);
+        ReflectionTestUtils.setField(dispatcher, "webhookRetries", 0);
+        ReflectionTestUtils.setField(dispatcher, "webhookMaxInFlight", 16);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dispatcher.stop();
+        receiver.close();
+    }
+
+    @Test
+    public void testPublish_EnviaLaAlertaAlWebhook() throws Exception {
+        // DADO: una alerta de stock bajo del producto 5
+        StockAlert alerta = alert(5L, StockAlert.AlertType.LOW_STOCK);
+
+        // CUANDO: se publica en la cola
+        assertTrue(dispatcher.publish(alerta));
+
+        // ENTONCES: el receptor recibe el JSON de la alerta
+        String body = receiver.next(5000);
+        assertNotNull(body);
+        assertTrue(body.contains("\"productId\":5"));
+        assertTrue(body.contains("\"alertType\":\"LOW_STOCK\""));
+    }
+
+    @Test
+    public void testRecent_ConservaLasUltimasEnOrden() throws Exception {
+        // DADO: tres alertas publicadas con capacidad de 2 alertas recientes
+        dispatcher.publish(alert(1L, StockAlert.AlertType.LOW_STOCK));
+        dispatcher.publish(alert(2L, StockAlert.AlertType.OUT_OF_STOCK));
+        dispatcher.publish(alert(3L, StockAlert.AlertType.RESTOCKED));
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(receiver.next(5000));
+        }
+
+        // CUANDO: se consultan las alertas recientes
+        List<StockAlert> recientes = dispatcher.recent(0, 10);
+
+        // ENTONCES: quedan las dos últimas, en orden, y el cursor filtra las ya leídas
+        assertEquals(List.of(2L, 3L), recientes.stream().map(StockAlert::getProductId).toList());
+        assertEquals(1, dispatcher.recent(recientes.get(0).getId(), 10).size());
+    }
+
+    @Test
+    public void testReceptorConError_NoDetieneLasAlertas() throws Exception {
+        // DADO: un receptor que responde 500
+        receiver.respondWith(500);
+
+        // CUANDO: se publican dos alertas
+        dispatcher.publish(alert(1L, StockAlert.AlertType.LOW_STOCK));
+        dispatcher.publish(alert(2L, StockAlert.AlertType.LOW_STOCK));
+
+        // ENTONCES: ambas se intentan enviar y quedan disponibles en el endpoint
+        assertNotNull(receiver.next(5000));
+        assertNotNull(receiver.next(5000));
+        assertEquals(2, dispatcher.recent(0, 10).size());
+    }
+
+    @Test
+    public void testReceptorLento_NoDemoraLasRecientesNiAOtrosReceptores() throws Exception {
+        // DADO: un receptor que tarda 3 segundos en responder y otro rápido
+        receiver.respondAfter(3000);
+        StubWebhookReceiver rapido = new StubWebhookReceiver();
+        dispatcher.stop();
+        dispatcher = new StockAlertDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "webClientBuilder", WebClient.builder());
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 10);
+        ReflectionTestUtils.setField(dispatcher, "recentCapacity", 10);
+        ReflectionTestUtils.setField(dispatcher, "webhookUrls", new String[]{receiver.url(), rapido.url()});
+        ReflectionTestUtils.setField(dispatcher, "webhookTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(dispatcher, "webhookRetries", 0);
+        ReflectionTestUtils.setField(dispatcher, "webhookMaxInFlight", 16);
+        dispatcher.start();
+        try {
+            // CUANDO: se publican tres alertas
+            for (long id = 1; id <= 3; id++) {
+                dispatcher.publish(alert(id, StockAlert.AlertType.LOW_STOCK));
+            }
+
+            // ENTONCES: las tres se ven de inmediato en las recientes
+            assertEquals(3, dispatcher.recent(0, 10).size());
+            // Y el receptor rápido las recibe sin esperar al lento
+            long inicio = System.currentTimeMillis();
+            for (int i = 0; i < 3; i++) {
+                assertNotNull(rapido.next(2000));
+            }
+            assertTrue(System.currentTimeMillis() - inicio < 2500);
+        } finally {
+            rapido.close();
+        }
+    }
+
+    private static StockAlert alert(Long productId, StockAlert.AlertType type) {
+        return new StockAlert(null, productId, "GPU", type, 3, 4, 2, Instant.now());
+    }
+}
@@ -0,0 +1,126 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.Catalogo.Inventario.dto.StockAtTime;
+import com.Catalogo.Inventario.dto.StockTailView;
+import com.Catalogo.Inventario.model.StockMovement;
+import com.Catalogo.Inventario.model.StockSnapshot;
+import com.Catalogo.Inventario.repository.StockMovementRepository;
+import com.Catalogo.Inventario.repository.StockSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class StockLedgerTest {
+
+    @InjectMocks
+    private StockLedger stockLedger;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StockMovementRepository movementRepository;
+
+    @Mock
+    private StockSnapshotRepository snapshotRepository;
+
+    private static final Instant AT = Instant.parse("2024-05-01T12:00:00Z");
+
+    @Test
+    public void testStockAt_FotoMasColaAcotada() {
+        // DADO: una foto con stock 10 hasta el movimiento 500 y la foto siguiente hasta el movimiento 900
+        StockSnapshot anterior = new StockSnapshot(1L, 5L, 10, 500L, Instant.parse("2024-05-01T11:00:00Z"));
+        StockSnapshot siguiente = new StockSnapshot(2L, 7L, 3, 900L, Instant.parse("2024-05-01T13:00:00Z"));
+        when(snapshotRepository.findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(5L, AT)).thenReturn(Optional.of(anterior));
+        when(snapshotRepository.findFirstByTakenAtGreaterThanOrderByTakenAtAsc(AT)).thenReturn(Optional.of(siguiente));
+        when(movementRepository.sumTail(5L, 500L, 900L, AT)).thenReturn(tail(-4L, 2L));
+
+        // CUANDO: se consulta el stock en la fecha
+        StockAtTime resultado = stockLedger.stockAt(5L, AT);
+
+        // ENTONCES: stock = foto + cola, leyendo solo los movimientos entre las dos fotos
+        assertEquals(6, resultado.getStock());
+        assertEquals(2L, resultado.getTailMovements());
+        assertEquals(anterior.getTakenAt(), resultado.getSnapshotTakenAt());
+    }
+
+    @Test
+    public void testStockAt_SinFotosLeeElLibroDesdeElInicio() {
+        // DADO: todavía no hay fotos
+        when(snapshotRepository.findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(5L, AT)).thenReturn(Optional.empty());
+        when(snapshotRepository.findFirstByTakenAtGreaterThanOrderByTakenAtAsc(AT)).thenReturn(Optional.empty());
+        when(movementRepository.sumTail(5L, 0L, Long.MAX_VALUE, AT)).thenReturn(tail(8L, 3L));
+
+        // CUANDO: se consulta el stock en la fecha
+        StockAtTime resultado = stockLedger.stockAt(5L, AT);
+
+        // ENTONCES: el stock es la suma de todos los movimientos hasta la fecha
+        assertEquals(8, resultado.getStock());
+        assertNull(resultado.getSnapshotTakenAt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordDifferences_SoloProductosConCambio() {
+        // DADO: stock antes y después de un ajuste masivo
+        Map<Long, Integer> antes = Map.of(1L, 5, 2L, 8, 3L, 4);
+        Map<Long, Integer> despues = Map.of(1L, 9, 2L, 8, 3L, 1);
+
+        // CUANDO: se registran las diferencias
+        stockLedger.recordDifferences(antes, despues);
+
+        // ENTONCES: se registran una reposición (+4) y un ajuste (-3); el producto sin cambio se omite
+        ArgumentCaptor<Collection<StockMovement>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        List<StockMovement> movimientos = List.copyOf(captor.getValue());
+        assertEquals(2, movimientos.size());
+        for (StockMovement movimiento : movimientos) {
+            if (movimiento.getProductId() == 1L) {
+                assertEquals(4, movimiento.getDelta());
+                assertEquals(StockMovement.MovementType.RESTOCK, movimiento.getMovementType());
+            } else {
+                assertEquals(3L, movimiento.getProductId());
+                assertEquals(-3, movimiento.getDelta());
+                assertEquals(StockMovement.MovementType.ADJUSTMENT, movimiento.getMovementType());
+            }
+        }
+    }
+
+    @Test
+    public void testRecord_DeltaCeroNoRegistra() {
+        // CUANDO: se registra un movimiento sin variación
+        stockLedger.record(1L, 0, StockMovement.MovementType.ADJUSTMENT, null);
+
+        // ENTONCES: no se escribe nada en el libro
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static StockTailView tail(long delta, long movements) {
+        return new StockTailView() {
+            @Override
+            public Long getDelta() {
+                return delta;
+            }
+
+            @Override
+            public Long getMovements() {
+                return movements;
+            }
+        };
+    }
+}
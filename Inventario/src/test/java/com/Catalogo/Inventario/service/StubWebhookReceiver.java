@@ -0,0 +1,70 @@
+package com.Catalogo.Inventario.service;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receptor de webhooks local para las pruebas: guarda el cuerpo de cada POST recibido
+ */
+public class StubWebhookReceiver implements AutoCloseable {
+
+    private final HttpServer server;
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private volatile int status = 204;
+    private volatile long delayMillis;
+
+    public StubWebhookReceiver() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/alerts", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                received.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/alerts";
+    }
+
+    public void respondWith(int status) {
+        this.status = status;
+    }
+
+    // Demora cada respuesta, para simular un receptor lento
+    public void respondAfter(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Espera el siguiente POST recibido (null si no llega a tiempo)
+     */
+    public String next(long timeoutMillis) throws InterruptedException {
+        return received.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int receivedCount() {
+        return received.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
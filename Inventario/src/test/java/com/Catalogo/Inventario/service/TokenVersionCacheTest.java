@@ -0,0 +1,75 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+public class TokenVersionCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    private final TokenVersionCache cache = new TokenVersionCache();
+
+    @BeforeEach
+    public void setUp() {
+        // Como después de la primera lectura completa del log de Usuarios
+        ReflectionTestUtils.setField(cache, "loaded", true);
+    }
+
+    @Test
+    public void testIsCurrent_SinCargarRechazaTodosLosTokens() {
+        // DADO: todavía no se pudo leer el log de Usuarios
+        ReflectionTestUtils.setField(cache, "loaded", false);
+
+        // CUANDO / ENTONCES: no se sabe qué tokens fueron revocados, así que ninguno se acepta
+        assertFalse(cache.isLoaded());
+        assertFalse(cache.isCurrent(2L, 0));
+        assertFalse(cache.isCurrent(2L, 7));
+    }
+
+    @Test
+    public void testIsCurrent_RechazaVersionesAnterioresAlCambio() {
+        // DADO: el usuario 1 cambió la contraseña dos veces y el cambio a la versión 2 llega repetido
+        cache.apply(List.of(
+                new TokenVersionCache.Change(1L, 1, false, NOW),
+                new TokenVersionCache.Change(1L, 2, false, NOW.plusSeconds(10)),
+                new TokenVersionCache.Change(1L, 1, false, NOW)));
+
+        // CUANDO / ENTONCES: solo valen los tokens con la versión vigente; los demás usuarios no se ven afectados
+        assertFalse(cache.isCurrent(1L, 0));
+        assertFalse(cache.isCurrent(1L, 1));
+        assertTrue(cache.isCurrent(1L, 2));
+        assertTrue(cache.isCurrent(2L, 0));
+    }
+
+    @Test
+    public void testIsCurrent_UsuarioEliminadoRechazaTodosSusTokens() {
+        // DADO: el usuario 3 fue eliminado
+        cache.apply(List.of(new TokenVersionCache.Change(3L, Integer.MAX_VALUE, true, NOW)));
+
+        // CUANDO / ENTONCES: ningún token suyo es válido
+        assertFalse(cache.isCurrent(3L, 0));
+        assertFalse(cache.isCurrent(3L, 5));
+    }
+
+    @Test
+    public void testEvictOlderThan_DescartaCambiosQueYaNoAfectanTokensVigentes() {
+        // DADO: un cambio antiguo y uno reciente
+        cache.apply(List.of(
+                new TokenVersionCache.Change(1L, 1, false, NOW.minusSeconds(3600)),
+                new TokenVersionCache.Change(2L, 1, false, NOW)));
+
+        // CUANDO: se descartan los cambios anteriores a la duración máxima de un token
+        cache.evictOlderThan(NOW.minusSeconds(900).toEpochMilli());
+
+        // ENTONCES: solo queda el reciente (los tokens anteriores al cambio antiguo ya vencieron)
+        assertEquals(1, cache.size());
+        assertTrue(cache.isCurrent(1L, 0));
+        assertFalse(cache.isCurrent(2L, 0));
+    }
+}
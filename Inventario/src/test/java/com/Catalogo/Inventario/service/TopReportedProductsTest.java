@@ -0,0 +1,70 @@
+package com.Catalogo.Inventario.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.Catalogo.Inventario.dto.TopReportedProduct;
+import com.Catalogo.Inventario.model.ProductReportCounter;
+import com.Catalogo.Inventario.repository.ReportCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class TopReportedProductsTest {
+
+    @InjectMocks
+    private TopReportedProducts topReportedProducts;
+
+    @Mock
+    private ReportCounterRepository reportCounterRepository;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(topReportedProducts, "capacity", 2);
+    }
+
+    @Test
+    public void testRecord_ReemplazaAlUltimoDelRanking() {
+        // DADO: un ranking de capacidad 2 cargado con los productos 1 (5 reportes) y 2 (3 reportes)
+        when(reportCounterRepository.findByOrderByReportCountDescProductIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(new ProductReportCounter(1L, 5L, null), new ProductReportCounter(2L, 3L, null)));
+        topReportedProducts.rebuild();
+
+        // CUANDO: el producto 3 llega a 4 reportes y el 2 recibe una confirmación atrasada
+        topReportedProducts.record(3L, 4);
+        topReportedProducts.record(2L, 2);
+
+        // ENTONCES: el producto 3 desplaza al 2 sin volver a consultar la base de datos
+        List<TopReportedProduct> top = topReportedProducts.top(10);
+        assertEquals(2, top.size());
+        assertEquals(1L, top.get(0).getProductId());
+        assertEquals(3L, top.get(1).getProductId());
+        assertEquals(4L, top.get(1).getReportCount());
+        verify(reportCounterRepository, times(1)).findByOrderByReportCountDescProductIdAsc(any(Pageable.class));
+    }
+
+    @Test
+    public void testRemove_RecargaDesdeLaBaseDeDatos() {
+        // DADO: un ranking cargado con el producto 1
+        when(reportCounterRepository.findByOrderByReportCountDescProductIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(new ProductReportCounter(1L, 5L, null)))
+                .thenReturn(List.of(new ProductReportCounter(7L, 1L, null)));
+        topReportedProducts.rebuild();
+
+        // CUANDO: se elimina el producto 1
+        topReportedProducts.remove(1L);
+        List<TopReportedProduct> top = topReportedProducts.top(10);
+
+        // ENTONCES: el ranking se recarga y muestra el siguiente más reportado
+        assertEquals(1, top.size());
+        assertEquals(7L, top.get(0).getProductId());
+    }
+}
@@ -0,0 +1,54 @@
+package com.Catalogo.Inventario.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class CsvLineParserTest {
+
+    @Test
+    public void testParse_CamposSimples() {
+        // DADO / CUANDO: una línea sin comillas
+        List<String> fields = CsvLineParser.parse("RTX 4070,MSI,699.99");
+
+        // ENTONCES: se separa por comas
+        assertEquals(List.of("RTX 4070", "MSI", "699.99"), fields);
+    }
+
+    @Test
+    public void testParse_ComaDentroDeComillas() {
+        // DADO / CUANDO: un campo entre comillas que contiene comas
+        List<String> fields = CsvLineParser.parse("GPU,\"Tarjeta gráfica, 12 GB\",10");
+
+        // ENTONCES: la coma no separa el campo y las comillas no se incluyen
+        assertEquals(List.of("GPU", "Tarjeta gráfica, 12 GB", "10"), fields);
+    }
+
+    @Test
+    public void testParse_ComillasEscapadas() {
+        // DADO / CUANDO: comillas dobles escapadas como ""
+        List<String> fields = CsvLineParser.parse("\"Monitor 27\"\" IPS\",\"\"\"\"");
+
+        // ENTONCES: cada "" se convierte en una comilla
+        assertEquals(List.of("Monitor 27\" IPS", "\""), fields);
+    }
+
+    @Test
+    public void testParse_CamposVacios() {
+        // DADO / CUANDO: campos vacíos al medio y al final
+        List<String> fields = CsvLineParser.parse("a,,c,");
+
+        // ENTONCES: se conservan como cadenas vacías
+        assertEquals(List.of("a", "", "c", ""), fields);
+    }
+
+    @Test
+    public void testParse_ComillasSinCerrarLanzaExcepcion() {
+        // DADO / CUANDO / ENTONCES: una comilla sin cerrar se rechaza
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> CsvLineParser.parse("GPU,\"sin cerrar,10"));
+        assertTrue(ex.getMessage().contains("Comillas sin cerrar"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.Pedidos.Pagos.config;
 
+import com.Pedidos.Pagos.service.TokenVersionCache;
 import com.Pedidos.Pagos.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -27,6 +28,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
@@ -73,8 +77,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Si tenemos un email y no hay autenticación actual en el contexto
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                // Validar el token
-                if (jwtUtil.validateToken(token)) {
+                // Validar el token (vencimiento y que no sea anterior al último cambio de contraseña del usuario)
+                if (jwtUtil.validateToken(token)
+                        && tokenVersionCache.isCurrent(jwtUtil.extractUserId(token), jwtUtil.extractTokenVersion(token))) {
                     // Obtener el rol del token
                     String role = jwtUtil.extractRole(token);
                     
@@ -1,8 +1,10 @@
 package com.Pedidos.Pagos.controller;
 
 import com.Pedidos.Pagos.dto.ApiResponse;
+import com.Pedidos.Pagos.dto.ReconciliationReport;
 import com.Pedidos.Pagos.model.Order;
 import com.Pedidos.Pagos.service.OrderService;
+import com.Pedidos.Pagos.service.StockReconciliationService;
 import com.Pedidos.Pagos.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -34,6 +36,9 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private StockReconciliationService stockReconciliationService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -443,4 +448,44 @@ public class OrderController {
                     .body(new ApiResponse<>(false, 500, e.getMessage(), null, 0L));
         }
     }
-}
\ No newline at end of file
+
+    @Operation(
+        summary = "Conciliar pedidos con el stock descontado en Inventario",
+        description = "Compara los pedidos con las ventas registradas en el libro de movimientos de stock de Inventario, recorriendo " +
+                     "ambos por páginas ordenadas por ID de pedido. Informa pedidos sin stock descontado, ventas de pedidos inexistentes " +
+                     "y pedidos con productos distintos a los descontados. Los pedidos de los últimos minutos (app.reconciliation.grace-minutes) " +
+                     "se omiten porque pueden estar confirmándose. También se ejecuta automáticamente cada día. Requiere autenticación JWT."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Conciliación finalizada",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Conciliación finalizada\", \"data\": {\"ordersChecked\": 1200, \"ledgerOrdersChecked\": 1199, \"missingMovements\": 0, \"orphanMovements\": 1, \"productMismatches\": 0, \"orphanOrderIds\": [845], \"consistent\": false}, \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "No autenticado: token JWT faltante o inválido",
+            content = @Content(mediaType = "application/json")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "502",
+            description = "No se pudo consultar el libro de movimientos de Inventario",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @PostMapping("/reconciliation")
+    public ResponseEntity<ApiResponse<ReconciliationReport>> reconcileStock() {
+        try {
+            ReconciliationReport report = stockReconciliationService.reconcile();
+            return ResponseEntity.ok(new ApiResponse<>(
+                    true, HttpStatus.OK.value(), "Conciliación finalizada", report, 1L));
+        } catch (Exception e) {
+            logger.error("Error en la conciliación de stock: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body(new ApiResponse<>(false, 502, e.getMessage(), null, 0L));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.Pedidos.Pagos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStockLineDTO {
+    private Long orderId;
+    private Long productId;
+    private Long quantity; // Unidades descontadas en Inventario para el pedido
+}
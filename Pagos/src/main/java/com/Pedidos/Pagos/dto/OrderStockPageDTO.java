@@ -0,0 +1,16 @@
+package com.Pedidos.Pagos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStockPageDTO {
+    private List<OrderStockLineDTO> lines = new ArrayList<>();
+    private Long nextAfterOrderId; // null cuando no hay más pedidos en el libro
+}
@@ -0,0 +1,48 @@
+package com.Pedidos.Pagos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resultado de conciliar los pedidos con las ventas registradas en el libro de stock de Inventario")
+public class ReconciliationReport {
+    @Schema(description = "Solo se compararon pedidos y ventas anteriores a esta fecha")
+    private Instant cutoff;
+
+    @Schema(description = "Pedidos de Pagos revisados", example = "1200")
+    private long ordersChecked;
+
+    @Schema(description = "Pedidos con ventas en el libro de Inventario revisados", example = "1198")
+    private long ledgerOrdersChecked;
+
+    @Schema(description = "Pedidos con productos pero sin ventas en el libro (stock no descontado)", example = "1")
+    private long missingMovements;
+
+    @Schema(description = "Ventas del libro cuyo pedido no existe en Pagos (por ejemplo, pedido revertido después de descontar stock)", example = "1")
+    private long orphanMovements;
+
+    @Schema(description = "Pedidos cuyos productos no coinciden con los productos descontados en el libro", example = "0")
+    private long productMismatches;
+
+    @Schema(description = "IDs de ejemplo de pedidos sin ventas en el libro (como máximo app.reconciliation.max-listed)")
+    private List<Long> missingOrderIds = new ArrayList<>();
+
+    @Schema(description = "IDs de ejemplo de pedidos que solo existen en el libro")
+    private List<Long> orphanOrderIds = new ArrayList<>();
+
+    @Schema(description = "IDs de ejemplo de pedidos con productos distintos")
+    private List<Long> mismatchedOrderIds = new ArrayList<>();
+
+    @Schema(description = "Duración de la conciliación en milisegundos", example = "850")
+    private long elapsedMs;
+
+    public boolean isConsistent() {
+        return missingMovements == 0 && orphanMovements == 0 && productMismatches == 0;
+    }
+}
@@ -1,12 +1,17 @@
 package com.Pedidos.Pagos.repository;
 
 import com.Pedidos.Pagos.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     // Buscar todos los pedidos de un usuario específico
     List<Order> findByUserId(Long userId);
+
+    // Pedidos con ID mayor a un cursor creados antes de una fecha (recorrido por páginas para la conciliación)
+    List<Order> findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(Long id, LocalDateTime before, Pageable pageable);
 }
\ No newline at end of file
@@ -29,9 +29,8 @@ public class OrderService {
     public Order createOrder(Order order) {
         logger.info("=== INICIO CREAR PEDIDO EN SERVICE ===");
         
-        // IMPORTANTE: Reducir stock ANTES de guardar el pedido
-        // Esto previene condiciones de carrera donde dos usuarios compran el mismo producto
-        // La reducción de stock valida automáticamente que haya stock suficiente
+        // La reducción de stock en Inventario valida y descuenta de forma atómica (bloqueando el producto),
+        // lo que previene condiciones de carrera donde dos usuarios compran el mismo producto
         
         // Convertir productIds a lista de items (formato antiguo: "1,2,3" → items con cantidad 1)
         List<OrderItemDTO> items = parseOrderItems(order.getProductIds());
@@ -39,21 +38,22 @@ public class OrderService {
         if (!items.isEmpty()) {
             // Validar que los productos existan y tengan stock suficiente
             validateProductsAndStock(items);
-            
-            // Reducir stock ANTES de guardar el pedido
-            // reduceStockForItems valida el stock y lo reduce de forma atómica
-            // Si falla aquí (stock insuficiente), lanza excepción y hace rollback automático
-            reduceStockForItems(items);
         }
         
-        // Solo si la reducción de stock fue exitosa, guardar el pedido
         // Lógica de negocio: Al crear, el estado inicial siempre es PENDIENTE
         order.setStatus("PENDIENTE");
         
-        // Guardar el pedido
+        // Guardar el pedido dentro de la transacción para obtener su ID: Inventario registra cada venta
+        // con la referencia del pedido en su libro de movimientos de stock
         Order savedOrder = orderRepository.save(order);
         logger.info("Pedido guardado con ID: {}", savedOrder.getId());
         
+        if (!items.isEmpty()) {
+            // reduceStockForItems valida el stock y lo reduce de forma atómica
+            // Si falla aquí (stock insuficiente), lanza excepción y el pedido se revierte (rollback)
+            reduceStockForItems(items, savedOrder.getId());
+        }
+        
         return savedOrder;
     }
     
@@ -74,9 +74,6 @@ public class OrderService {
             // Validar que los productos existan y tengan stock suficiente
             validateProductsAndStock(items);
             
-            // Reducir stock ANTES de guardar el pedido
-            reduceStockForItems(items);
-            
             // Convertir items a productIds para almacenar (formato: "1,5,8")
             String productIds = items.stream()
                     .map(item -> item.getProductId().toString())
@@ -90,10 +87,15 @@ public class OrderService {
         // Lógica de negocio: Al crear, el estado inicial siempre es PENDIENTE
         order.setStatus("PENDIENTE");
         
-        // Guardar el pedido
+        // Guardar el pedido (su ID es la referencia de la venta en el libro de stock de Inventario)
         Order savedOrder = orderRepository.save(order);
         logger.info("Pedido guardado con ID: {}", savedOrder.getId());
         
+        if (requestDTO.hasItems()) {
+            // Reducir stock; si falla, lanza excepción y el pedido se revierte (rollback)
+            reduceStockForItems(requestDTO.getItems(), savedOrder.getId());
+        }
+        
         return savedOrder;
     }
     
@@ -166,13 +168,14 @@ public class OrderService {
 
 
     /**
-     * Reduce el stock de los productos ANTES de crear el pedido
+     * Reduce el stock de los productos del pedido recién guardado
      * IMPORTANTE: Este método valida y reduce el stock de forma atómica
-     * Si falla, lanza excepción y hace rollback de toda la transacción
+     * Si falla, lanza excepción y hace rollback de toda la transacción (incluido el pedido)
      * @param items Lista de items con productId y quantity
+     * @param orderId ID del pedido, que Inventario guarda como referencia de la venta
      * @throws RuntimeException si no se puede reducir el stock (producto agotado, no existe, etc.)
      */
-    private void reduceStockForItems(List<OrderItemDTO> items) {
+    private void reduceStockForItems(List<OrderItemDTO> items, Long orderId) {
         logger.info("Reduciendo stock para {} items", items.size());
         
         // Reducir stock para cada item con su cantidad específica
@@ -183,7 +186,7 @@ public class OrderService {
             try {
                 // IMPORTANTE: reduceProductStock valida el stock antes de reducirlo
                 // Si el stock es insuficiente, lanza RuntimeException
-                boolean success = productClientService.reduceProductStock(productId, quantity);
+                boolean success = productClientService.reduceProductStock(productId, quantity, orderId);
                 
                 if (!success) {
                     // Si no se pudo reducir (aunque no lanzó excepción), obtener info del producto
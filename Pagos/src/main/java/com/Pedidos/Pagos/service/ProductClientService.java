@@ -1,7 +1,9 @@
 package com.Pedidos.Pagos.service;
 
+import com.Pedidos.Pagos.dto.OrderStockPageDTO;
 import com.Pedidos.Pagos.dto.ProductDTO;
 import com.Pedidos.Pagos.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.time.Instant;
+
 @Service
 public class ProductClientService {
 
@@ -20,6 +24,9 @@ public class ProductClientService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Obtiene un producto por su ID desde el servicio de Productos
      * @param productId ID del producto
@@ -82,10 +89,11 @@ public class ProductClientService {
      * Reduce el stock de un producto
      * @param productId ID del producto
      * @param quantity Cantidad a descontar
+     * @param orderId ID del pedido que origina la venta (referencia en el libro de movimientos de Inventario)
      * @return true si se pudo reducir, false en caso contrario
      */
     @SuppressWarnings("unchecked")
-    public boolean reduceProductStock(Long productId, Integer quantity) {
+    public boolean reduceProductStock(Long productId, Integer quantity, Long orderId) {
         try {
             logger.info("Reduciendo stock del producto ID: {} en cantidad: {}", productId, quantity);
             
@@ -98,6 +106,7 @@ public class ProductClientService {
                     .uri(uriBuilder -> uriBuilder
                             .path("/api/v1/products/{id}/stock")
                             .queryParam("quantity", quantity)
+                            .queryParamIfPresent("orderId", java.util.Optional.ofNullable(orderId))
                             .build(productId))
                     .header("Authorization", "Bearer " + systemToken)
                     .retrieve()
@@ -124,4 +133,45 @@ public class ProductClientService {
             throw new RuntimeException("Error al reducir stock: " + e.getMessage());
         }
     }
+
+    /**
+     * Obtiene una página de ventas del libro de movimientos de stock de Inventario, agrupadas por pedido
+     * @param afterOrderId ID del último pedido ya recibido (0 para la primera página)
+     * @param before Solo ventas anteriores a esta fecha
+     * @param limit Cantidad máxima de pedidos de la página
+     * @return Página con las unidades por pedido y producto, y el cursor de la siguiente
+     */
+    @SuppressWarnings("unchecked")
+    public OrderStockPageDTO getOrderStockPage(Long afterOrderId, Instant before, int limit) {
+        try {
+            // El libro de movimientos requiere rol ADMIN: se usa el usuario "system" de operaciones internas
+            String systemToken = jwtUtil.generateToken("system@pconestop.com", "ADMIN", 0L);
+
+            Object responseObj = productServiceWebClient
+                    .get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/stock/orders")
+                            .queryParam("afterOrderId", afterOrderId)
+                            .queryParam("before", before.toString())
+                            .queryParam("limit", limit)
+                            .build())
+                    .header("Authorization", "Bearer " + systemToken)
+                    .retrieve()
+                    .bodyToMono(Object.class)
+                    .block();
+
+            if (responseObj != null) {
+                java.util.Map<String, Object> responseMap = (java.util.Map<String, Object>) responseObj;
+                Boolean ok = responseMap.get("ok") != null ? (Boolean) responseMap.get("ok") : false;
+                Object dataObj = responseMap.get("data");
+                if (ok && dataObj != null) {
+                    return objectMapper.convertValue(dataObj, OrderStockPageDTO.class);
+                }
+            }
+            throw new RuntimeException("Respuesta inválida del libro de movimientos de stock");
+        } catch (WebClientResponseException e) {
+            logger.error("Error al consultar el libro de stock (afterOrderId: {}): {}", afterOrderId, e.getResponseBodyAsString());
+            throw new RuntimeException("Error al consultar el libro de stock: " + e.getStatusCode());
+        }
+    }
 }
@@ -0,0 +1,186 @@
+package com.Pedidos.Pagos.service;
+
+import com.Pedidos.Pagos.dto.OrderStockLineDTO;
+import com.Pedidos.Pagos.dto.OrderStockPageDTO;
+import com.Pedidos.Pagos.dto.ReconciliationReport;
+import com.Pedidos.Pagos.model.Order;
+import com.Pedidos.Pagos.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Concilia los pedidos de Pagos con las ventas del libro de movimientos de stock de Inventario.
+ * Recorre ambos lados por páginas ordenadas por ID de pedido y los compara como un merge de dos
+ * listas ordenadas, así la memoria usada no depende de la cantidad de pedidos. Detecta pedidos sin
+ * stock descontado, ventas de pedidos que no existen (por ejemplo, revertidos después de descontar)
+ * y pedidos cuyos productos no coinciden con los descontados.
+ *
+ * Los pedidos solo guardan los IDs de sus productos (sin cantidades), por eso se comparan los
+ * conjuntos de productos y no las unidades.
+ */
+@Service
+public class StockReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReconciliationService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductClientService productClientService;
+
+    @Value("${app.reconciliation.page-size:500}")
+    private int pageSize;
+
+    // Los pedidos más recientes pueden estar confirmándose todavía en alguno de los dos servicios
+    @Value("${app.reconciliation.grace-minutes:10}")
+    private long graceMinutes;
+
+    @Value("${app.reconciliation.max-listed:100}")
+    private int maxListed;
+
+    @Scheduled(cron = "${app.reconciliation.cron:0 0 4 * * *}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.error("Error en la conciliación de stock: {}", e.getMessage(), e);
+        }
+    }
+
+    public ReconciliationReport reconcile() {
+        long start = System.currentTimeMillis();
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(graceMinutes));
+        ReconciliationReport report = new ReconciliationReport();
+        report.setCutoff(cutoff);
+
+        OrderCursor orders = new OrderCursor(LocalDateTime.ofInstant(cutoff, ZoneId.systemDefault()));
+        LedgerCursor ledger = new LedgerCursor(cutoff);
+        Order order = orders.next();
+        LedgerOrder sold = ledger.next();
+        while (order != null || sold != null) {
+            if (sold == null || (order != null && order.getId() < sold.orderId())) {
+                report.setOrdersChecked(report.getOrdersChecked() + 1);
+                if (!parseProductIds(order.getProductIds()).isEmpty()) {
+                    report.setMissingMovements(report.getMissingMovements() + 1);
+                    addSample(report.getMissingOrderIds(), order.getId());
+                }
+                order = orders.next();
+            } else if (order == null || sold.orderId() < order.getId()) {
+                report.setLedgerOrdersChecked(report.getLedgerOrdersChecked() + 1);
+                report.setOrphanMovements(report.getOrphanMovements() + 1);
+                addSample(report.getOrphanOrderIds(), sold.orderId());
+                sold = ledger.next();
+            } else {
+                report.setOrdersChecked(report.getOrdersChecked() + 1);
+                report.setLedgerOrdersChecked(report.getLedgerOrdersChecked() + 1);
+                if (!parseProductIds(order.getProductIds()).equals(sold.productIds())) {
+                    report.setProductMismatches(report.getProductMismatches() + 1);
+                    addSample(report.getMismatchedOrderIds(), order.getId());
+                }
+                order = orders.next();
+                sold = ledger.next();
+            }
+        }
+
+        report.setElapsedMs(System.currentTimeMillis() - start);
+        logger.info("=== CONCILIACIÓN DE STOCK: {} pedidos, {} pedidos en el libro, {} sin descuento, {} huérfanos, {} con productos distintos en {} ms ===",
+                report.getOrdersChecked(), report.getLedgerOrdersChecked(), report.getMissingMovements(),
+                report.getOrphanMovements(), report.getProductMismatches(), report.getElapsedMs());
+        return report;
+    }
+
+    private void addSample(List<Long> samples, Long orderId) {
+        if (samples.size() < maxListed) {
+            samples.add(orderId);
+        }
+    }
+
+    // IDs de productos del pedido (formato "1,5,8"); se ignoran los valores inválidos
+    private static Set<Long> parseProductIds(String productIds) {
+        Set<Long> ids = new HashSet<>();
+        if (productIds != null) {
+            for (String id : productIds.split(",")) {
+                try {
+                    if (!id.trim().isEmpty()) {
+                        ids.add(Long.parseLong(id.trim()));
+                    }
+                } catch (NumberFormatException e) {
+                    // El pedido se guardó con un ID inválido: se ignora igual que al crearlo
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Recorre los pedidos de Pagos por páginas ordenadas por ID
+    private class OrderCursor {
+        private final LocalDateTime before;
+        private final Deque<Order> buffer = new ArrayDeque<>();
+        private long afterId = 0L;
+        private boolean exhausted = false;
+
+        private OrderCursor(LocalDateTime before) {
+            this.before = before;
+        }
+
+        private Order next() {
+            if (buffer.isEmpty() && !exhausted) {
+                List<Order> page = orderRepository.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(
+                        afterId, before, PageRequest.of(0, pageSize));
+                buffer.addAll(page);
+                exhausted = page.size() < pageSize;
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            }
+            return buffer.poll();
+        }
+    }
+
+    // Recorre las ventas del libro de Inventario por páginas de pedidos completos
+    private class LedgerCursor {
+        private final Instant before;
+        private final Deque<LedgerOrder> buffer = new ArrayDeque<>();
+        private Long afterOrderId = 0L;
+
+        private LedgerCursor(Instant before) {
+            this.before = before;
+        }
+
+        private LedgerOrder next() {
+            if (buffer.isEmpty() && afterOrderId != null) {
+                OrderStockPageDTO page = productClientService.getOrderStockPage(afterOrderId, before, pageSize);
+                // Las líneas vienen ordenadas por pedido: se agrupan las de un mismo pedido
+                LedgerOrder current = null;
+                for (OrderStockLineDTO line : page.getLines()) {
+                    if (current == null || !current.orderId().equals(line.getOrderId())) {
+                        current = new LedgerOrder(line.getOrderId(), new HashSet<>());
+                        buffer.add(current);
+                    }
+                    current.productIds().add(line.getProductId());
+                }
+                afterOrderId = page.getNextAfterOrderId();
+            }
+            return buffer.poll();
+        }
+    }
+
+    private record LedgerOrder(Long orderId, Set<Long> productIds) {
+    }
+}
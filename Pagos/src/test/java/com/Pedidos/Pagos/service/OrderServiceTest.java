@@ -46,7 +46,7 @@ public class OrderServiceTest {
         when(productClientService.getProductById(1L)).thenReturn(product1);
         when(productClientService.getProductById(2L)).thenReturn(product2);
         when(productClientService.getProductById(3L)).thenReturn(product3);
-        when(productClientService.reduceProductStock(anyLong(), anyInt())).thenReturn(true);
+        when(productClientService.reduceProductStock(anyLong(), anyInt(), any())).thenReturn(true);
 
         // CUANDO: creamos el pedido
         Order resultado = orderService.createOrder(pedido);
@@ -68,7 +68,7 @@ public class OrderServiceTest {
         
         when(productClientService.getProductById(1L)).thenReturn(product1);
         when(productClientService.getProductById(2L)).thenReturn(product2);
-        when(productClientService.reduceProductStock(anyLong(), anyInt())).thenReturn(true);
+        when(productClientService.reduceProductStock(anyLong(), anyInt(), any())).thenReturn(true);
 
         // CUANDO: creamos el pedido
         Order resultado = orderService.createOrder(pedido);
@@ -77,6 +77,26 @@ public class OrderServiceTest {
         assertEquals("PENDIENTE", resultado.getStatus());
     }
 
+    @Test
+    public void testCreateOrder_EnviaElIdDelPedidoAlReducirStock() {
+        // DADO: un pedido que al guardarse recibe el ID 77
+        Order pedido = new Order(null, 1L, 100.0, null, "1", LocalDateTime.now());
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> {
+            Order guardado = (Order) i.getArguments()[0];
+            guardado.setId(77L);
+            return guardado;
+        });
+        ProductDTO product1 = new ProductDTO(1L, "Producto 1", "Brand", "Model", "Category", 100.0, 10, null, null, false, null, null, null);
+        when(productClientService.getProductById(1L)).thenReturn(product1);
+        when(productClientService.reduceProductStock(anyLong(), anyInt(), any())).thenReturn(true);
+
+        // CUANDO: creamos el pedido
+        orderService.createOrder(pedido);
+
+        // ENTONCES: el stock se reduce con la referencia del pedido (queda en el libro de movimientos de Inventario)
+        verify(productClientService).reduceProductStock(1L, 1, 77L);
+    }
+
     @Test
     public void testCreateOrder_SinProductos() {
         // DADO: un pedido sin productIds (null o vacío)
@@ -0,0 +1,114 @@
+package com.Pedidos.Pagos.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.Pedidos.Pagos.dto.OrderStockLineDTO;
+import com.Pedidos.Pagos.dto.OrderStockPageDTO;
+import com.Pedidos.Pagos.dto.ReconciliationReport;
+import com.Pedidos.Pagos.model.Order;
+import com.Pedidos.Pagos.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class StockReconciliationServiceTest {
+
+    @InjectMocks
+    private StockReconciliationService stockReconciliationService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductClientService productClientService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(stockReconciliationService, "pageSize", 2);
+        ReflectionTestUtils.setField(stockReconciliationService, "graceMinutes", 10L);
+        ReflectionTestUtils.setField(stockReconciliationService, "maxListed", 100);
+    }
+
+    @Test
+    public void testReconcile_TodoCoincide() {
+        // DADO: dos pedidos y sus ventas en el libro de Inventario
+        when(orderRepository.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(eq(0L), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(order(1L, "1,2"), order(2L, "3")));
+        when(orderRepository.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(eq(2L), any(LocalDateTime.class), any()))
+                .thenReturn(List.of());
+        when(productClientService.getOrderStockPage(eq(0L), any(Instant.class), eq(2)))
+                .thenReturn(page(null, line(1L, 1L), line(1L, 2L), line(2L, 3L)));
+
+        // CUANDO: se concilia
+        ReconciliationReport report = stockReconciliationService.reconcile();
+
+        // ENTONCES: no hay diferencias
+        assertTrue(report.isConsistent());
+        assertEquals(2, report.getOrdersChecked());
+        assertEquals(2, report.getLedgerOrdersChecked());
+    }
+
+    @Test
+    public void testReconcile_DetectaFaltantesHuerfanosYDiferencias() {
+        // DADO: el pedido 1 sin ventas, la venta del pedido 2 sin pedido y el pedido 3 con otro producto,
+        //       repartidos en varias páginas de ambos lados
+        when(orderRepository.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(eq(0L), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(order(1L, "5"), order(3L, "7")));
+        when(orderRepository.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(eq(3L), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(order(4L, "9")));
+        when(productClientService.getOrderStockPage(eq(0L), any(Instant.class), eq(2)))
+                .thenReturn(page(3L, line(2L, 6L), line(3L, 8L)));
+        when(productClientService.getOrderStockPage(eq(3L), any(Instant.class), eq(2)))
+                .thenReturn(page(null, line(4L, 9L)));
+
+        // CUANDO: se concilia
+        ReconciliationReport report = stockReconciliationService.reconcile();
+
+        // ENTONCES: se informa cada tipo de diferencia con el ID del pedido
+        assertFalse(report.isConsistent());
+        assertEquals(List.of(1L), report.getMissingOrderIds());
+        assertEquals(List.of(2L), report.getOrphanOrderIds());
+        assertEquals(List.of(3L), report.getMismatchedOrderIds());
+        assertEquals(3, report.getOrdersChecked());
+        assertEquals(3, report.getLedgerOrdersChecked());
+    }
+
+    @Test
+    public void testReconcile_PedidoSinProductosNoEsFaltante() {
+        // DADO: un pedido sin productos y un libro vacío
+        when(orderRepository.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(eq(0L), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(order(1L, null)));
+        when(productClientService.getOrderStockPage(eq(0L), any(Instant.class), eq(2)))
+                .thenReturn(page(null));
+
+        // CUANDO: se concilia
+        ReconciliationReport report = stockReconciliationService.reconcile();
+
+        // ENTONCES: no se informa como faltante
+        assertTrue(report.isConsistent());
+        assertEquals(1, report.getOrdersChecked());
+    }
+
+    private static Order order(Long id, String productIds) {
+        return new Order(id, 1L, 100.0, "PENDIENTE", productIds, LocalDateTime.now().minusDays(1));
+    }
+
+    private static OrderStockLineDTO line(Long orderId, Long productId) {
+        return new OrderStockLineDTO(orderId, productId, 1L);
+    }
+
+    private static OrderStockPageDTO page(Long nextAfterOrderId, OrderStockLineDTO... lines) {
+        return new OrderStockPageDTO(new ArrayList<>(List.of(lines)), nextAfterOrderId);
+    }
+}
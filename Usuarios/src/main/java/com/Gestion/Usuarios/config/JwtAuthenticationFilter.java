@@ -1,5 +1,8 @@
 package com.Gestion.Usuarios.config;
 
+import com.Gestion.Usuarios.dto.UserView;
+import com.Gestion.Usuarios.service.TokenRevocationList;
+import com.Gestion.Usuarios.service.UserService;
 import com.Gestion.Usuarios.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -15,6 +18,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.lang.NonNull;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +31,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private UserService userService;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
@@ -48,7 +58,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             path.startsWith("/api-docs") ||
             path.contains("swagger-ui") ||
             path.contains("api-docs") ||
-            path.startsWith("/api/v1/auth")) {
+            (path.startsWith("/api/v1/auth") && !Arrays.asList(SecurityConfig.ADMIN_AUTH_PATHS).contains(path))) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -74,8 +84,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Si tenemos un email y no hay autenticación actual en el contexto
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                // Validar el token
-                if (jwtUtil.validateToken(token)) {
+                // Validar el token (firma, vencimiento, que no haya sido revocado con logout y que su versión sea la vigente)
+                if (jwtUtil.validateToken(token) && !revocationList.isRevoked(jwtUtil.extractTokenId(token))
+                        && isCurrentVersion(token)) {
                     // Obtener el rol del token
                     String role = jwtUtil.extractRole(token);
                     
@@ -104,5 +115,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continuar con el siguiente filtro
         filterChain.doFilter(request, response);
     }
-}
 
+    // El usuario debe existir y el token no puede ser anterior a su último cambio de contraseña (leído de la caché de usuarios)
+    private boolean isCurrentVersion(String token) {
+        Long userId = jwtUtil.extractUserId(token);
+        UserView user = userId != null ? userService.findViewById(userId) : null;
+        return user != null && jwtUtil.extractTokenVersion(token) >= user.getTokenVersion();
+    }
+}
@@ -0,0 +1,98 @@
+package com.Gestion.Usuarios.config;
+
+import com.Gestion.Usuarios.util.BoundedPasswordEncoder;
+import com.Gestion.Usuarios.util.PasswordHashCalibrator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Codificación de contraseñas: DelegatingPasswordEncoder con el algoritmo (bcrypt o argon2) y el costo
+ * configurados. Los hashes se guardan con prefijo ({bcrypt}..., {argon2}...); los hashes antiguos sin
+ * prefijo se verifican como BCrypt. Si un hash usa otro algoritmo o un costo menor al objetivo,
+ * upgradeEncoding lo indica y el login lo vuelve a calcular con la contraseña recién verificada.
+ *
+ * Con app.auth.password.target-latency-ms mayor a 0, el costo se calibra al iniciar midiendo hashes
+ * en esta máquina (nunca por debajo del mínimo configurado).
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    @Value("${app.auth.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${app.auth.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.auth.password.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${app.auth.password.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${app.auth.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${app.auth.password.target-latency-ms:0}")
+    private long targetLatencyMillis;
+
+    @Value("${app.auth.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.auth.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    /**
+     * Encoder delegante ejecutado en un pool acotado (app.auth.hashing.*), fuera de los hilos de Tomcat
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        String idForEncode = algorithm.trim().toLowerCase();
+        if (!BCRYPT.equals(idForEncode) && !ARGON2.equals(idForEncode)) {
+            throw new IllegalStateException("Algoritmo de contraseñas no soportado: " + algorithm + " (usar bcrypt o argon2)");
+        }
+        int strength = bcryptStrength;
+        int iterations = argon2Iterations;
+        if (targetLatencyMillis > 0) {
+            long start = System.currentTimeMillis();
+            if (BCRYPT.equals(idForEncode)) {
+                strength = PasswordHashCalibrator.bcryptStrength(bcryptStrength, 16, targetLatencyMillis);
+            } else {
+                iterations = PasswordHashCalibrator.argon2Iterations(argon2MemoryKib, argon2Parallelism,
+                        argon2Iterations, 10, targetLatencyMillis);
+            }
+            logger.info("=== CALIBRACIÓN DE HASH ({} ms objetivo): bcrypt strength {}, argon2 iteraciones {} en {} ms ===",
+                    targetLatencyMillis, strength, iterations, System.currentTimeMillis() - start);
+        }
+        logger.info("=== CONTRASEÑAS: {} (bcrypt strength {}, argon2 {} KiB x {} iteraciones) ===",
+                idForEncode, strength, argon2MemoryKib, iterations);
+        PasswordEncoder delegate = delegating(idForEncode, strength, argon2MemoryKib, iterations, argon2Parallelism);
+        return new BoundedPasswordEncoder(delegate, hashingThreads, hashingQueueCapacity, meterRegistry);
+    }
+
+    static DelegatingPasswordEncoder delegating(String idForEncode, int bcryptStrength,
+                                                int argon2MemoryKib, int argon2Iterations, int argon2Parallelism) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put(ARGON2, new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2MemoryKib, argon2Iterations));
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Hashes guardados antes de usar prefijos: BCrypt con el costo por defecto
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
+    }
+}
@@ -8,8 +8,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -22,6 +20,9 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Rutas bajo /api/v1/auth que exponen datos de otros usuarios: solo ADMIN (el resto de /api/v1/auth es público)
+    static final String[] ADMIN_AUTH_PATHS = {"/api/v1/auth/page", "/api/v1/auth/users"};
+
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -41,11 +42,16 @@ public class SecurityConfig {
                     .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                     // Endpoints públicos - Swagger (formato exacto como Inventario que funciona)
                     .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
+                    // Listados de usuarios bajo /api/v1/auth - solo ADMIN (antes del permitAll de /api/v1/auth/**)
+                    .requestMatchers(ADMIN_AUTH_PATHS).hasRole("ADMIN")
                     // Endpoints de autenticación - PERMITIR TODOS LOS MÉTODOS HTTP
                     .requestMatchers(HttpMethod.POST, "/api/v1/auth/**").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/v1/auth/**").permitAll()
                     .requestMatchers("/api/v1/auth/**").permitAll()
-                    // Actuator
+                    // Importación masiva de usuarios - solo ADMIN
+                    .requestMatchers(HttpMethod.POST, "/api/v1/users/import").hasRole("ADMIN")
+                    // Actuator: las métricas (fallos de login, saturación del pool de hashing) solo para ADMIN
+                    .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
                     .requestMatchers("/actuator/**").permitAll()
                     // Todo lo demás requiere autenticación
                 .anyRequest().authenticated()
@@ -92,9 +98,4 @@ public class SecurityConfig {
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.Gestion.Usuarios.controller;
+
+import com.Gestion.Usuarios.dto.ApiResponse;
+import com.Gestion.Usuarios.dto.LoginResponse;
+import com.Gestion.Usuarios.dto.RefreshRequest;
+import com.Gestion.Usuarios.dto.TokenVersionPage;
+import com.Gestion.Usuarios.dto.UserView;
+import com.Gestion.Usuarios.service.RefreshTokenService;
+import com.Gestion.Usuarios.service.TokenRevocationList;
+import com.Gestion.Usuarios.service.TokenVersions;
+import com.Gestion.Usuarios.service.UserService;
+import com.Gestion.Usuarios.util.JwtUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/auth")
+@Tag(name = "Tokens PcOneStop", description = "Renovación del token de acceso con refresh tokens rotativos y cierre de sesión")
+public class TokenController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenController.class);
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TokenVersions tokenVersions;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Operation(
+        summary = "Renovar el token de acceso",
+        description = "Canjea un refresh token por un nuevo token de acceso y un nuevo refresh token. El refresh token enviado deja de ser válido: " +
+                     "si se vuelve a presentar (por ejemplo, porque fue copiado), se revocan todos los refresh tokens de esa sesión. " +
+                     "Este endpoint es público."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Tokens renovados",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Token renovado\", \"data\": {\"user\": {\"id\": 1, \"firstName\": \"Juan\", \"lastName\": \"Pérez\", \"email\": \"juan@example.com\", \"role\": \"CLIENTE\"}, \"token\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\", \"refreshToken\": \"Zk2m9Qx1vT7bW0cR5nH3yJ8pL4sD6gA2eU1iO9kM3fE\", \"expiresIn\": 900}, \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "Refresh token inválido, vencido, revocado o ya utilizado",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": false, \"statusCode\": 401, \"message\": \"Refresh token inválido o expirado\", \"data\": null, \"count\": 0}")
+            )
+        )
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<LoginResponse>> refresh(@RequestBody RefreshRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        if (rotation == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse<>(false, 401, "Refresh token inválido o expirado", null, 0L));
+        }
+        // Proyección sin contraseña (desde la caché de usuarios): el hash nunca llega a la respuesta
+        UserView user = userService.findViewById(rotation.userId());
+        if (user == null) {
+            // La cuenta fue eliminada después de emitir el token
+            refreshTokenService.revokeAllForUser(rotation.userId());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse<>(false, 401, "Refresh token inválido o expirado", null, 0L));
+        }
+        String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId(), user.getTokenVersion());
+        LoginResponse response = new LoginResponse(user, token, rotation.refreshToken(), jwtUtil.getExpirationSeconds());
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Token renovado", response, 1L));
+    }
+
+    @Operation(
+        summary = "Cerrar sesión",
+        description = "Revoca el refresh token enviado (y los obtenidos por rotación desde el mismo login) y, si se envía el header " +
+                     "'Authorization: Bearer <token>', también el token de acceso hasta su vencimiento. Este endpoint es público."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Sesión cerrada (también si los tokens ya no eran válidos)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Sesión cerrada\", \"data\": null, \"count\": 0}")
+            )
+        )
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestBody(required = false) RefreshRequest body, HttpServletRequest request) {
+        if (body != null) {
+            refreshTokenService.revoke(body.getRefreshToken());
+        }
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            try {
+                revocationList.revoke(jwtUtil.extractTokenId(token), jwtUtil.extractExpiration(token).toInstant());
+            } catch (Exception e) {
+                // Token inválido o ya vencido: no hace falta revocarlo
+                logger.debug("Token de acceso no revocado en logout: {}", e.getMessage());
+            }
+        }
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Sesión cerrada", null, 0L));
+    }
+
+    @Operation(
+        summary = "Consultar cambios de versión de tokens por número de secuencia",
+        description = "Retorna los cambios de versión de tokens (cambio de contraseña o usuario eliminado) con seq mayor a after, en orden. " +
+                     "Pagos e Inventario consultan este endpoint periódicamente con el último nextAfter recibido y rechazan los tokens " +
+                     "cuyo claim tokenVersion es menor a la versión vigente del usuario. Los cambios se conservan mientras puedan existir " +
+                     "tokens emitidos antes de ellos. Este endpoint es público."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Cambios obtenidos exitosamente (lista vacía si no hay cambios nuevos)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Cambios obtenidos\", \"data\": {\"changes\": [{\"seq\": 42, \"userId\": 1, \"tokenVersion\": 3, \"deleted\": false, \"changedAt\": \"2024-05-01T12:00:00Z\"}], \"nextAfter\": 42}, \"count\": 1}")
+            )
+        )
+    })
+    @Parameter(name = "after", description = "Último seq procesado por el consumidor (0 para leer desde el inicio)", example = "40")
+    @Parameter(name = "limit", description = "Cantidad máxima de cambios (máximo 1000)", example = "500")
+    @GetMapping("/token-versions")
+    public ResponseEntity<ApiResponse<TokenVersionPage>> getTokenVersions(@RequestParam(defaultValue = "0") long after,
+                                                                          @RequestParam(defaultValue = "500") int limit) {
+        TokenVersionPage page = tokenVersions.readAfter(after, Math.max(1, Math.min(limit, 1000)));
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Cambios obtenidos", page, (long) page.getChanges().size()));
+    }
+}
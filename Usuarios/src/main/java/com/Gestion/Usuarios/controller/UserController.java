@@ -2,8 +2,15 @@ package com.Gestion.Usuarios.controller;
 
 import com.Gestion.Usuarios.dto.ApiResponse;
 import com.Gestion.Usuarios.dto.LoginResponse;
+import com.Gestion.Usuarios.dto.UserPage;
+import com.Gestion.Usuarios.dto.UserView;
 import com.Gestion.Usuarios.model.User;
+import com.Gestion.Usuarios.service.LoginThrottle;
+import com.Gestion.Usuarios.service.RefreshTokenService;
+import com.Gestion.Usuarios.service.TokenRevocationList;
 import com.Gestion.Usuarios.service.UserService;
+import com.Gestion.Usuarios.util.EmailAlreadyRegisteredException;
+import com.Gestion.Usuarios.util.HashingRejectedException;
 import com.Gestion.Usuarios.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,15 +23,21 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.servlet.http.HttpServletRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -44,14 +57,29 @@ public class UserController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Value("${app.auth.users.max-batch-ids:200}")
+    private int maxBatchIds;
+
+    @Value("${app.auth.hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
     @Operation(
         summary = "Registrar nuevo usuario en PcOneStop",
         description = "Crea una nueva cuenta en la plataforma PcOneStop. Los usuarios pueden registrarse como CLIENTE (para comprar componentes de PC) o ADMIN (para gestionar el sistema). " +
                      "El sistema valida automáticamente: formato de email válido, longitud mínima de contraseña (8 caracteres), y campos obligatorios. " +
-                     "Al registrarse exitosamente, se genera un token JWT válido por 24 horas que se devuelve en la respuesta para autenticación automática. " +
+                     "Al registrarse exitosamente, se devuelven un token JWT de acceso de corta duración (15 minutos) y un refresh token para renovarlo en /refresh. " +
                      "Este endpoint es público y no requiere autenticación previa."
     )
     @ApiResponses(value = {
@@ -60,7 +88,7 @@ public class UserController {
             description = "Usuario registrado exitosamente. Se devuelve el token JWT para autenticación automática.",
             content = @Content(
                 mediaType = "application/json",
-                examples = @ExampleObject(name = "Respuesta exitosa", value = "{\"ok\": true, \"statusCode\": 201, \"message\": \"Usuario registrado\", \"data\": {\"user\": {\"id\": 1, \"firstName\": \"Juan\", \"lastName\": \"Pérez\", \"email\": \"juan@example.com\", \"role\": \"CLIENTE\"}, \"token\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\"}, \"count\": 1}")
+                examples = @ExampleObject(name = "Respuesta exitosa", value = "{\"ok\": true, \"statusCode\": 201, \"message\": \"Usuario registrado\", \"data\": {\"user\": {\"id\": 1, \"firstName\": \"Juan\", \"lastName\": \"Pérez\", \"email\": \"juan@example.com\", \"role\": \"CLIENTE\"}, \"token\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\", \"refreshToken\": \"q5Qk0v8W3nq1yXH4b2GJk7tH1d9m0Zp6cS4r2aLwE8U\", \"expiresIn\": 900}, \"count\": 1}")
             )
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -75,6 +103,14 @@ public class UserController {
                 }
             )
         ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "503",
+            description = "Servicio de autenticación saturado: la cola de hashing de contraseñas está llena. Reintentar después de los segundos indicados en el header Retry-After.",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": false, \"statusCode\": 503, \"message\": \"Servicio de autenticación saturado, reintente en unos segundos\", \"data\": null, \"count\": 0}")
+            )
+        ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "500",
             description = "Error interno del servidor durante el proceso de registro",
@@ -187,23 +223,39 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(new ApiResponse<>(false, 400, "El rol es obligatorio", null, 0L));
             }
+            if (user.getFirstName().length() > User.MAX_NAME_LENGTH) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ApiResponse<>(false, 400, "El nombre no puede superar los 100 caracteres", null, 0L));
+            }
+            if (user.getLastName().length() > User.MAX_NAME_LENGTH) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ApiResponse<>(false, 400, "El apellido no puede superar los 100 caracteres", null, 0L));
+            }
+            if (user.getEmail().length() > User.MAX_EMAIL_LENGTH) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ApiResponse<>(false, 400, "El email no puede superar los 254 caracteres", null, 0L));
+            }
             
-            // Verificar si el email ya existe
-            if (userService.findByEmail(user.getEmail()) != null) {
+            // Un solo INSERT: si el email ya existe lo rechaza el índice único (sin consulta previa)
+            logger.info("Guardando usuario en la base de datos...");
+            User newUser;
+            try {
+                newUser = userService.save(user);
+            } catch (EmailAlreadyRegisteredException e) {
                 logger.warn("Intento de registro con email ya existente: {}", user.getEmail());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(new ApiResponse<>(false, 400, "El email ya está registrado", null, 0L));
             }
-            
-            logger.info("Guardando usuario en la base de datos...");
-            User newUser = userService.save(user);
             logger.info("Usuario guardado con ID: {}", newUser.getId());
             
-            String token = jwtUtil.generateToken(newUser.getEmail(), newUser.getRole(), newUser.getId());
-            LoginResponse loginResponse = new LoginResponse(newUser, token);
+            String token = jwtUtil.generateToken(newUser.getEmail(), newUser.getRole(), newUser.getId(), newUser.getTokenVersion());
+            LoginResponse loginResponse = new LoginResponse(UserView.of(newUser), token, refreshTokenService.issue(newUser.getId()), jwtUtil.getExpirationSeconds());
             logger.info("=== REGISTRO EXITOSO - ID: {} ===", newUser.getId());
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(new ApiResponse<>(true, HttpStatus.CREATED.value(), "Usuario registrado", loginResponse, 1L));
+        } catch (HashingRejectedException e) {
+            logger.warn("=== REGISTRO RECHAZADO: COLA DE HASHING LLENA ===");
+            return hashingBusy(e);
         } catch (Exception e) {
             logger.error("=== ERROR AL REGISTRAR USUARIO ===", e);
             logger.error("Tipo de excepción: {}", e.getClass().getName());
@@ -219,7 +271,8 @@ public class UserController {
     @Operation(
         summary = "Iniciar sesión en PcOneStop",
         description = "Autentica un usuario existente en PcOneStop mediante email y contraseña. Si las credenciales son correctas, " +
-                     "se genera un token JWT válido por 24 horas que permite acceder a los recursos protegidos de la plataforma. " +
+                     "se genera un token JWT de acceso de corta duración (15 minutos) que permite acceder a los recursos protegidos de la plataforma, " +
+                     "y un refresh token opaco para obtener uno nuevo en /refresh sin volver a enviar la contraseña. " +
                      "El token incluye información del usuario (ID, email, rol) y debe incluirse en el header 'Authorization: Bearer <token>' " +
                      "en todas las peticiones que requieren autenticación. Este endpoint es público y no requiere autenticación previa."
     )
@@ -229,7 +282,7 @@ public class UserController {
             description = "Login exitoso. Credenciales válidas, se devuelve el usuario y el token JWT.",
             content = @Content(
                 mediaType = "application/json",
-                examples = @ExampleObject(name = "Login exitoso", value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Login exitoso\", \"data\": {\"user\": {\"id\": 1, \"firstName\": \"Juan\", \"lastName\": \"Pérez\", \"email\": \"juan@example.com\", \"role\": \"CLIENTE\"}, \"token\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\"}, \"count\": 1}")
+                examples = @ExampleObject(name = "Login exitoso", value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Login exitoso\", \"data\": {\"user\": {\"id\": 1, \"firstName\": \"Juan\", \"lastName\": \"Pérez\", \"email\": \"juan@example.com\", \"role\": \"CLIENTE\"}, \"token\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\", \"refreshToken\": \"q5Qk0v8W3nq1yXH4b2GJk7tH1d9m0Zp6cS4r2aLwE8U\", \"expiresIn\": 900}, \"count\": 1}")
             )
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -240,6 +293,22 @@ public class UserController {
                 examples = @ExampleObject(value = "{\"ok\": false, \"statusCode\": 401, \"message\": \"Credenciales inválidas\", \"data\": null, \"count\": 0}")
             )
         ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "429",
+            description = "Demasiados intentos de login desde la misma IP o para el mismo email en el último minuto. Reintentar después de los segundos indicados en el header Retry-After.",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": false, \"statusCode\": 429, \"message\": \"Demasiados intentos de inicio de sesión, reintente más tarde\", \"data\": null, \"count\": 0}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "503",
+            description = "Servicio de autenticación saturado: la cola de hashing de contraseñas está llena. Reintentar después de los segundos indicados en el header Retry-After.",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": false, \"statusCode\": 503, \"message\": \"Servicio de autenticación saturado, reintente en unos segundos\", \"data\": null, \"count\": 0}")
+            )
+        ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "500",
             description = "Error interno del servidor",
@@ -310,6 +379,15 @@ public class UserController {
                         .body(new ApiResponse<>(false, 400, "La contraseña es obligatoria", null, 0L));
             }
             
+            // Límite de intentos por IP y por email, antes de consultar la base de datos o calcular el hash
+            LoginThrottle.Decision throttle = loginThrottle.tryAcquire(request.getRemoteAddr(), loginData.getEmail());
+            if (!throttle.allowed()) {
+                logger.warn("=== LOGIN BLOQUEADO POR LÍMITE DE INTENTOS ({}) ===", throttle.reason());
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(throttle.retryAfterSeconds()))
+                        .body(new ApiResponse<>(false, 429, "Demasiados intentos de inicio de sesión, reintente más tarde", null, 0L));
+            }
+            
             // Buscar usuario por email
             User user = userService.findByEmail(loginData.getEmail());
             logger.info("Usuario encontrado: {}", user != null ? "SÍ (ID: " + user.getId() + ")" : "NO");
@@ -329,8 +407,10 @@ public class UserController {
             logger.info("Password matches: {}", passwordMatches);
             
             if (passwordMatches) {
-                String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
-                LoginResponse loginResponse = new LoginResponse(user, token);
+                loginThrottle.onSuccess(loginData.getEmail());
+                upgradeHashIfNeeded(user, loginData.getPassword());
+                String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId(), user.getTokenVersion());
+                LoginResponse loginResponse = new LoginResponse(UserView.of(user), token, refreshTokenService.issue(user.getId()), jwtUtil.getExpirationSeconds());
                 logger.info("=== LOGIN EXITOSO - ID: {} ===", user.getId());
                 return ResponseEntity.ok(new ApiResponse<>(true, 200, "Login exitoso", loginResponse, 1L));
             } else {
@@ -338,6 +418,9 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(new ApiResponse<>(false, 401, "Credenciales inválidas", null, 0L));
             }
+        } catch (HashingRejectedException e) {
+            logger.warn("=== LOGIN RECHAZADO: COLA DE HASHING LLENA ===");
+            return hashingBusy(e);
         } catch (Exception e) {
             logger.error("=== ERROR AL HACER LOGIN ===", e);
             logger.error("Tipo de excepción: {}", e.getClass().getName());
@@ -352,7 +435,8 @@ public class UserController {
         description = "Valida un token JWT y retorna la información del usuario asociado si el token es válido. " +
                      "Este endpoint es útil para restaurar la sesión del usuario en el frontend sin necesidad de " +
                      "volver a hacer login. El token debe enviarse en el header 'Authorization: Bearer <token>'. " +
-                     "Si el token es válido, retorna los datos del usuario. Si es inválido o expirado, retorna error 401."
+                     "Si el token es válido, retorna los datos del usuario. Si es inválido o expirado, retorna error 401. " +
+                     "Los datos del usuario (sin contraseña) se leen de una caché por ID, así la mayoría de las validaciones no consultan la base de datos."
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -360,7 +444,7 @@ public class UserController {
             description = "Token válido. Se retornan los datos del usuario.",
             content = @Content(
                 mediaType = "application/json",
-                examples = @ExampleObject(name = "Token válido", value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Token válido\", \"data\": {\"id\": 1, \"firstName\": \"Juan\", \"lastName\": \"Pérez\", \"email\": \"juan@example.com\", \"role\": \"CLIENTE\", \"phone\": null}, \"count\": 1}")
+                examples = @ExampleObject(name = "Token válido", value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Token válido\", \"data\": {\"id\": 1, \"firstName\": \"Juan\", \"lastName\": \"Pérez\", \"email\": \"juan@example.com\", \"role\": \"CLIENTE\"}, \"count\": 1}")
             )
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -381,7 +465,7 @@ public class UserController {
         )
     })
     @GetMapping("/validate")
-    public ResponseEntity<ApiResponse<User>> validateToken(jakarta.servlet.http.HttpServletRequest request) {
+    public ResponseEntity<ApiResponse<UserView>> validateToken(jakarta.servlet.http.HttpServletRequest request) {
         try {
             logger.info("=== INICIO VALIDACIÓN DE TOKEN ===");
             
@@ -399,7 +483,7 @@ public class UserController {
                     token.length() > 20 ? token.substring(0, 20) + "..." : token);
             
             // Validar que el token no haya expirado
-            if (!jwtUtil.validateToken(token)) {
+            if (!jwtUtil.validateToken(token) || revocationList.isRevoked(jwtUtil.extractTokenId(token))) {
                 logger.warn("Token inválido o expirado");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(new ApiResponse<>(false, 401, "Token inválido o expirado", null, 0L));
@@ -412,26 +496,24 @@ public class UserController {
             logger.info("Email extraído del token: {}", email);
             logger.info("UserID extraído del token: {}", userId);
             
-            // Buscar usuario en la base de datos
-            User user = userService.findByEmail(email);
+            // Buscar usuario por el ID del token en la caché (sin contraseña); solo consulta la base de datos si no está
+            UserView user = userId != null ? userService.findViewById(userId) : null;
             
-            if (user == null) {
+            if (user == null || !user.getEmail().equals(email)) {
                 logger.warn("Usuario no encontrado con email: {}", email);
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(new ApiResponse<>(false, 401, "Token inválido o expirado", null, 0L));
             }
             
-            // Retornar datos del usuario (sin password)
-            User userResponse = new User();
-            userResponse.setId(user.getId());
-            userResponse.setFirstName(user.getFirstName());
-            userResponse.setLastName(user.getLastName());
-            userResponse.setEmail(user.getEmail());
-            userResponse.setRole(user.getRole());
-            // No incluir password en la respuesta
+            // Un token emitido antes del último cambio de contraseña ya no es válido
+            if (jwtUtil.extractTokenVersion(token) < user.getTokenVersion()) {
+                logger.warn("Token con versión anterior a la vigente para el usuario ID: {}", userId);
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse<>(false, 401, "Token inválido o expirado", null, 0L));
+            }
             
             logger.info("=== VALIDACIÓN EXITOSA - Usuario ID: {} ===", user.getId());
-            return ResponseEntity.ok(new ApiResponse<>(true, 200, "Token válido", userResponse, 1L));
+            return ResponseEntity.ok(new ApiResponse<>(true, 200, "Token válido", user, 1L));
             
         } catch (Exception e) {
             logger.error("=== ERROR AL VALIDAR TOKEN ===", e);
@@ -445,7 +527,8 @@ public class UserController {
     @Operation(
         summary = "Listar todos los usuarios registrados",
         description = "Obtiene el listado completo de usuarios registrados en PcOneStop, incluyendo clientes y administradores. " +
-                     "Muestra información básica de cada usuario: ID, nombre, apellido, email y rol. " +
+                     "Muestra información básica de cada usuario: ID, nombre, apellido, email y rol (nunca la contraseña). " +
+                     "Para consolas con muchos usuarios conviene /page, que pagina por cursor y permite buscar por prefijo. " +
                      "Requiere autenticación JWT. Útil para administradores que necesitan gestionar usuarios del sistema o para generar reportes."
     )
     @ApiResponses(value = {
@@ -461,12 +544,148 @@ public class UserController {
         )
     })
     @GetMapping
-    public ResponseEntity<ApiResponse<List<User>>> getAllUsers() {
-        List<User> users = userService.findAll();
+    public ResponseEntity<ApiResponse<List<UserView>>> getAllUsers() {
+        List<UserView> users = userService.findAllViews();
         return ResponseEntity.ok(new ApiResponse<>(
                 true, HttpStatus.OK.value(), "Lista de usuarios", users, (long) users.size()));
     }
 
+    @Operation(
+        summary = "Listar usuarios por páginas con búsqueda por prefijo",
+        description = "Obtiene los usuarios ordenados por ID usando paginación por cursor: la primera página se pide sin afterId " +
+                     "y las siguientes con el nextAfterId de la respuesta anterior (null cuando no hay más). " +
+                     "Opcionalmente filtra por el inicio del email o del nombre completo (\"nombre apellido\"), sin distinguir " +
+                     "mayúsculas ni tildes, usando columnas normalizadas e indexadas. Nunca incluye la contraseña. " +
+                     "A diferencia del listado completo, el costo de cada página no crece con la cantidad de usuarios. " +
+                     "Requiere autenticación JWT con rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Página de usuarios obtenida exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Página de usuarios\", \"data\": {\"users\": [{\"id\": 101, \"firstName\": \"Juan\", \"lastName\": \"Pérez\", \"email\": \"juan@example.com\", \"role\": \"CLIENTE\"}], \"nextAfterId\": 101}, \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Acceso denegado: se requiere un token JWT con rol ADMIN",
+            content = @Content
+        )
+    })
+    @Parameter(name = "afterId", description = "ID del último usuario recibido (se omite para la primera página)", example = "100")
+    @Parameter(name = "size", description = "Cantidad de usuarios por página (máximo 200)", example = "50")
+    @Parameter(name = "name", description = "Prefijo del nombre completo (\"nombre apellido\")", example = "juan p")
+    @Parameter(name = "email", description = "Prefijo del email (tiene prioridad sobre name)", example = "juan")
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<UserPage>> getUserPage(@RequestParam(required = false) Long afterId,
+                                                             @RequestParam(defaultValue = "50") int size,
+                                                             @RequestParam(required = false) String name,
+                                                             @RequestParam(required = false) String email) {
+        UserPage page = userService.findPage(afterId, Math.max(1, Math.min(size, 200)), name, email);
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Página de usuarios", page, (long) page.getUsers().size()));
+    }
+
+    @Operation(
+        summary = "Consultar si un email está disponible",
+        description = "Indica si todavía no existe una cuenta con el email (sin distinguir mayúsculas), para avisar en el formulario " +
+                     "de registro antes de enviarlo. La mayoría de los emails nuevos se responden desde un filtro en memoria, sin " +
+                     "consultar la base de datos. Es solo informativo: el registro vuelve a verificarlo. Este endpoint es público."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Consulta realizada; data es true si el email está disponible",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Email disponible\", \"data\": true, \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "No se indicó el email",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @Parameter(name = "email", description = "Email a consultar", required = true, example = "juan.perez@example.com")
+    @GetMapping("/email-available")
+    public ResponseEntity<ApiResponse<Boolean>> isEmailAvailable(@RequestParam String email) {
+        if (email.trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, 400, "El email es obligatorio", null, 0L));
+        }
+        boolean available = userService.isEmailAvailable(email);
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, available ? "Email disponible" : "El email ya está registrado", available, 1L));
+    }
+
+    @Operation(
+        summary = "Obtener varios usuarios por ID",
+        description = "Retorna los datos públicos (ID, nombre, apellido, email y rol) de los usuarios indicados en una sola consulta, " +
+                     "sin cargar ni enviar la contraseña. Pensado para las pantallas de pedidos y reportes que muestran el nombre " +
+                     "de varios clientes por página. Los IDs inexistentes se omiten. Incluye un ETag: si se envía If-None-Match " +
+                     "con el mismo valor y los usuarios no cambiaron, responde 304 sin cuerpo. " +
+                     "Requiere autenticación JWT con rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Usuarios encontrados (puede ser una lista vacía)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Usuarios encontrados\", \"data\": [{\"id\": 1, \"firstName\": \"Juan\", \"lastName\": \"Pérez\", \"email\": \"juan@example.com\", \"role\": \"CLIENTE\"}], \"count\": 1}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "304",
+            description = "Los usuarios no cambiaron desde el ETag indicado en If-None-Match",
+            content = @Content
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "No se indicaron IDs o se pidieron demasiados",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": false, \"statusCode\": 400, \"message\": \"Se pueden consultar como máximo 200 usuarios por petición\", \"data\": null, \"count\": 0}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Acceso denegado: se requiere un token JWT con rol ADMIN",
+            content = @Content
+        )
+    })
+    @Parameter(name = "ids", description = "IDs de usuario separados por coma", required = true, example = "1,2,3")
+    @GetMapping("/users")
+    public ResponseEntity<ApiResponse<List<UserView>>> getUsersByIds(@RequestParam List<Long> ids, WebRequest webRequest) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, 400, "Debe indicar al menos un ID", null, 0L));
+        }
+        if (ids.size() > maxBatchIds) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, 400, "Se pueden consultar como máximo " + maxBatchIds + " usuarios por petición", null, 0L));
+        }
+        List<UserView> users = userService.findViewsByIds(ids);
+        String etag = usersEtag(users);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(new ApiResponse<>(true, HttpStatus.OK.value(), "Usuarios encontrados", users, (long) users.size()));
+    }
+
+    // ETag según el contenido: cambia si cambia cualquiera de los usuarios devueltos
+    private static String usersEtag(List<UserView> users) {
+        StringBuilder content = new StringBuilder();
+        for (UserView user : users) {
+            content.append(user.getId()).append('|').append(user.getFirstName()).append('|').append(user.getLastName())
+                    .append('|').append(user.getEmail()).append('|').append(user.getRole()).append('\n');
+        }
+        return "\"users-" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
     @Operation(
         summary = "Obtener información de un usuario específico",
         description = "Consulta los datos completos de un usuario de PcOneStop por su ID. Incluye información personal (nombre, apellido, email) y rol. " +
@@ -549,6 +768,8 @@ public class UserController {
             User updatedUser = userService.updatePassword(id, newPassword);
             return ResponseEntity.ok(new ApiResponse<>(
                     true, HttpStatus.OK.value(), "Contraseña actualizada", updatedUser, 1L));
+        } catch (HashingRejectedException e) {
+            return hashingBusy(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, 500, e.getMessage(), null, 0L));
@@ -596,4 +817,25 @@ public class UserController {
                     .body(new ApiResponse<>(false, 500, e.getMessage(), null, 0L));
         }
     }
-}
\ No newline at end of file
+
+    // Rehash transparente: si el hash guardado usa otro algoritmo o un costo menor al configurado, se recalcula.
+    // Un error aquí no impide el login (se reintentará en el próximo)
+    private void upgradeHashIfNeeded(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            userService.upgradePasswordHash(user, rawPassword);
+            logger.info("=== HASH DE CONTRASEÑA ACTUALIZADO - ID: {} ===", user.getId());
+        } catch (Exception e) {
+            logger.warn("No se pudo actualizar el hash de la contraseña del usuario {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    // 503 con Retry-After: el pool de hashing está saturado y el cliente debe reintentar más tarde
+    private <T> ResponseEntity<ApiResponse<T>> hashingBusy(HashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ApiResponse<>(false, 503, e.getMessage(), null, 0L));
+    }
+}
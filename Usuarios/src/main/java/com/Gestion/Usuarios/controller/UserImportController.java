@@ -0,0 +1,78 @@
+package com.Gestion.Usuarios.controller;
+
+import com.Gestion.Usuarios.dto.ApiResponse;
+import com.Gestion.Usuarios.dto.UserImportResult;
+import com.Gestion.Usuarios.service.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/users")
+@Tag(name = "Administración de usuarios PcOneStop", description = "Operaciones de administración sobre las cuentas de usuario")
+public class UserImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportController.class);
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Operation(
+        summary = "Importación masiva de usuarios",
+        description = "Permite a los administradores migrar listas de clientes con miles de cuentas en una sola petición. " +
+                     "El cuerpo se procesa en streaming como NDJSON (un usuario JSON por línea, Content-Type application/x-ndjson) " +
+                     "con los campos firstName, lastName, email, password (texto plano, mínimo 8 caracteres) y role (CLIENTE por defecto). " +
+                     "Cada fila se valida con las mismas reglas que el registro. Los hashes de las contraseñas se calculan en paralelo " +
+                     "con todos los núcleos y las filas se insertan en lotes. Las filas con error (datos inválidos, email ya registrado " +
+                     "o repetido en el archivo) se reportan sin detener la carga. Requiere autenticación JWT con rol ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Importación procesada (revisar failed y errors para las filas rechazadas)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"ok\": true, \"statusCode\": 200, \"message\": \"Importación finalizada\", \"data\": {\"processed\": 3, \"inserted\": 2, \"failed\": 1, \"elapsedMs\": 310, \"errors\": [{\"line\": 2, \"message\": \"El email ya está registrado\"}]}, \"count\": 2}")
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "No autenticado: token JWT faltante o inválido",
+            content = @Content(mediaType = "application/json")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Acceso denegado: se requiere rol ADMIN para importar usuarios",
+            content = @Content(mediaType = "application/json")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "500",
+            description = "Error al leer el cuerpo de la petición",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<UserImportResult>> importUsers(HttpServletRequest request) {
+        logger.info("=== INICIO IMPORTACIÓN MASIVA DE USUARIOS ===");
+        try {
+            // Se lee directamente el stream del request, sin cargar el archivo completo en memoria
+            UserImportResult result = userImportService.importUsers(request.getInputStream());
+            return ResponseEntity.ok(new ApiResponse<>(true, 200, "Importación finalizada", result, result.getInserted()));
+        } catch (IOException e) {
+            logger.error("ERROR al leer el archivo de importación: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, 500, "Error al leer el archivo: " + e.getMessage(), null, 0L));
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.Gestion.Usuarios.dto;
 
-import com.Gestion.Usuarios.model.User;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,12 +8,18 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Schema(description = "Respuesta de login/registro que incluye el usuario y el token JWT")
+@Schema(description = "Respuesta de login/registro que incluye el usuario, el token JWT de acceso y el refresh token")
 public class LoginResponse {
-    @Schema(description = "Datos del usuario autenticado")
-    private User user;
+    @Schema(description = "Datos del usuario autenticado (sin contraseña)")
+    private UserView user;
     
-    @Schema(description = "Token JWT para autenticación en peticiones posteriores", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
+    @Schema(description = "Token JWT de acceso (corta duración) para autenticación en peticiones posteriores", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
     private String token;
+
+    @Schema(description = "Refresh token opaco para obtener un nuevo token de acceso en /refresh (se reemplaza en cada uso)", example = "q5Qk0v8W3nq1yXH4b2GJk7tH1d9m0Zp6cS4r2aLwE8U")
+    private String refreshToken;
+
+    @Schema(description = "Segundos de validez del token de acceso", example = "900")
+    private Long expiresIn;
 }
 
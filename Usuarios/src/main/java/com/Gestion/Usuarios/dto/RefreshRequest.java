@@ -0,0 +1,15 @@
+package com.Gestion.Usuarios.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Refresh token recibido en el login, el registro o la última renovación")
+public class RefreshRequest {
+    @Schema(description = "Refresh token opaco", example = "q5Qk0v8W3nq1yXH4b2GJk7tH1d9m0Zp6cS4r2aLwE8U")
+    private String refreshToken;
+}
@@ -0,0 +1,21 @@
+package com.Gestion.Usuarios.dto;
+
+import com.Gestion.Usuarios.model.TokenVersionChange;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Cambios de versión de tokens posteriores a un número de secuencia")
+public class TokenVersionPage {
+    @Schema(description = "Cambios en orden de secuencia")
+    private List<TokenVersionChange> changes;
+
+    @Schema(description = "Valor de after para la siguiente consulta (el último seq entregado, o el mismo after si no hubo cambios)", example = "42")
+    private Long nextAfter;
+}
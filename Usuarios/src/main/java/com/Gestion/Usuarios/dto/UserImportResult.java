@@ -0,0 +1,41 @@
+package com.Gestion.Usuarios.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resultado de una importación masiva de usuarios")
+public class UserImportResult {
+    @Schema(description = "Filas procesadas (sin contar líneas vacías)", example = "5000")
+    private long processed;
+
+    @Schema(description = "Usuarios nuevos insertados", example = "4980")
+    private long inserted;
+
+    @Schema(description = "Filas con error (no se guardaron)", example = "20")
+    private long failed;
+
+    @Schema(description = "Duración de la importación en milisegundos", example = "41000")
+    private long elapsedMs;
+
+    @Schema(description = "Detalle de las filas con error (se reportan como máximo las primeras app.users.import.max-reported-errors)")
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Error en una fila del archivo")
+    public static class RowError {
+        @Schema(description = "Número de línea en el archivo (base 1)", example = "42")
+        private long line;
+
+        @Schema(description = "Motivo del error", example = "El email ya está registrado")
+        private String message;
+    }
+}
@@ -0,0 +1,20 @@
+package com.Gestion.Usuarios.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Página de usuarios (sin contraseña) ordenados por ID, con el cursor para pedir la siguiente")
+public class UserPage {
+    @Schema(description = "Usuarios de la página")
+    private List<UserView> users;
+
+    @Schema(description = "Valor de afterId para la siguiente página (null si no hay más usuarios)", example = "150")
+    private Long nextAfterId;
+}
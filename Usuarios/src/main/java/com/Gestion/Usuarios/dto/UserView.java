@@ -0,0 +1,68 @@
+package com.Gestion.Usuarios.dto;
+
+import com.Gestion.Usuarios.model.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Proyección de usuario sin contraseña: la consulta solo selecciona estas columnas,
+ * así el hash nunca se carga ni se serializa
+ */
+@Schema(description = "Datos públicos de un usuario (sin contraseña)")
+public interface UserView {
+
+    @Schema(example = "1")
+    Long getId();
+
+    @Schema(example = "Juan")
+    String getFirstName();
+
+    @Schema(example = "Pérez")
+    String getLastName();
+
+    @Schema(example = "juan.perez@example.com")
+    String getEmail();
+
+    @Schema(example = "CLIENTE")
+    String getRole();
+
+    // Para comparar con el claim tokenVersion al validar la sesión; no se expone en las respuestas
+    @JsonIgnore
+    @Schema(hidden = true)
+    int getTokenVersion();
+
+    // Vista a partir de una entidad ya cargada (login, registro): nunca expone la contraseña
+    static UserView of(User user) {
+        return new UserView() {
+            @Override
+            public Long getId() {
+                return user.getId();
+            }
+
+            @Override
+            public String getFirstName() {
+                return user.getFirstName();
+            }
+
+            @Override
+            public String getLastName() {
+                return user.getLastName();
+            }
+
+            @Override
+            public String getEmail() {
+                return user.getEmail();
+            }
+
+            @Override
+            public String getRole() {
+                return user.getRole();
+            }
+
+            @Override
+            public int getTokenVersion() {
+                return user.getTokenVersion();
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.Gestion.Usuarios.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_hash", columnList = "token_hash", unique = true),
+    @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+    @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Refresh token opaco. Solo se guarda su hash SHA-256; cada uso lo reemplaza por uno nuevo de la misma familia")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    // Todos los tokens obtenidos por rotación desde un mismo login comparten la familia
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Fecha en que se usó o revocó (null mientras es el token vigente de la familia)
+    private Instant revokedAt;
+}
@@ -0,0 +1,27 @@
+package com.Gestion.Usuarios.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    // jti del access token revocado
+    @Id
+    @Column(length = 36)
+    private String tokenId;
+
+    // Vencimiento del access token: después de esta fecha la fila ya no hace falta
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
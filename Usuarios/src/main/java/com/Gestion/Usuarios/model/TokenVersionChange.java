@@ -0,0 +1,41 @@
+package com.Gestion.Usuarios.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "token_version_changes", indexes = {
+    @Index(name = "idx_token_version_changes_changed_at", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cambio de la versión de tokens de un usuario (solo se agregan filas, nunca se modifican)")
+public class TokenVersionChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Número de secuencia del cambio (creciente); se usa como cursor para reanudar", example = "42")
+    private Long seq;
+
+    @Column(nullable = false)
+    @Schema(description = "ID del usuario", example = "1")
+    private Long userId;
+
+    @Column(nullable = false)
+    @Schema(description = "Versión vigente: los tokens con una versión menor ya no son válidos", example = "3")
+    private int tokenVersion;
+
+    @Column(nullable = false)
+    @Schema(description = "true si el usuario fue eliminado: ningún token suyo es válido", example = "false")
+    private boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    @Schema(description = "Fecha del cambio")
+    private Instant changedAt;
+}
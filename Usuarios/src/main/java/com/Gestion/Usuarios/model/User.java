@@ -1,5 +1,7 @@
 package com.Gestion.Usuarios.model;
 
+import com.Gestion.Usuarios.util.SearchText;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -10,7 +12,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = User.EMAIL_NORMALIZED_INDEX, columnList = "email_normalized", unique = true),
+    @Index(name = "idx_users_name_normalized", columnList = "name_normalized")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = User.EMAIL_UNIQUE_KEY, columnNames = "email")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +25,14 @@ import lombok.NoArgsConstructor;
 @Schema(description = "Usuario de la plataforma PcOneStop. Para registro se requieren todos los campos excepto id. Para login solo se requieren email y password.")
 public class User {
 
+    // Nombres de las claves únicas del email: un INSERT rechazado por una de ellas es un email ya registrado
+    public static final String EMAIL_NORMALIZED_INDEX = "idx_users_email_normalized";
+    public static final String EMAIL_UNIQUE_KEY = "uk_users_email";
+
+    // Longitudes máximas: las columnas son VARCHAR(255) y name_normalized guarda "nombre apellido"
+    public static final int MAX_NAME_LENGTH = 100;
+    public static final int MAX_EMAIL_LENGTH = 254;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Schema(description = "ID autogenerado (no se envía en el request)", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
@@ -25,19 +40,22 @@ public class User {
 
     @Column(nullable = false)
     @NotBlank(message = "El nombre no puede estar vacío")
+    @Size(max = MAX_NAME_LENGTH, message = "El nombre no puede superar los 100 caracteres")
     @JsonProperty("firstName")
     @Schema(description = "Nombre del usuario (obligatorio para registro)", example = "Juan")
     private String firstName;
 
     @Column(nullable = false)
     @NotBlank(message = "El apellido no puede estar vacío")
+    @Size(max = MAX_NAME_LENGTH, message = "El apellido no puede superar los 100 caracteres")
     @JsonProperty("lastName")
     @Schema(description = "Apellido del usuario (obligatorio para registro)", example = "Pérez")
     private String lastName;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     @NotBlank(message = "El email es obligatorio")
     @Email(message = "El formato del correo no es válido")
+    @Size(max = MAX_EMAIL_LENGTH, message = "El email no puede superar los 254 caracteres")
     @JsonProperty("email")
     @Schema(description = "Correo electrónico único. Formato válido requerido (ej: usuario@dominio.com). Obligatorio para registro y login.", example = "juan.perez@example.com")
     private String email;
@@ -54,4 +72,31 @@ public class User {
     @JsonProperty("role")
     @Schema(description = "Rol del usuario. Valores válidos: CLIENTE (para comprar componentes) o ADMIN (para gestionar el sistema). Obligatorio solo para registro.", example = "CLIENTE", allowableValues = {"CLIENTE", "ADMIN"})
     private String role; // ADMIN, CLIENTE
-}
\ No newline at end of file
+
+    // Email en minúsculas (único: dos cuentas no pueden diferir solo en mayúsculas) y "nombre apellido" en minúsculas
+    // y sin tildes, indexados para el registro y la búsqueda por prefijo del listado
+    @JsonIgnore
+    @Schema(hidden = true)
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
+    @JsonIgnore
+    @Schema(hidden = true)
+    @Column(name = "name_normalized")
+    private String nameNormalized;
+
+    // Versión de los tokens del usuario: al cambiar la contraseña se incrementa y los tokens con una versión
+    // anterior dejan de ser válidos en todos los servicios (ver TokenVersions)
+    @JsonIgnore
+    @Schema(hidden = true)
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
+    // También la usa la importación masiva, que inserta por JDBC sin pasar por JPA
+    @PrePersist
+    @PreUpdate
+    public void normalize() {
+        this.emailNormalized = SearchText.normalizeEmail(email);
+        this.nameNormalized = SearchText.normalize(firstName + " " + lastName);
+    }
+}
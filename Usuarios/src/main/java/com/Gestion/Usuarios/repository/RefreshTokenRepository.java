@@ -0,0 +1,34 @@
+package com.Gestion.Usuarios.repository;
+
+import com.Gestion.Usuarios.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    RefreshToken findByTokenHash(String tokenHash);
+
+    // Marca el token como usado solo si seguía vigente (dos rotaciones simultáneas no pueden usar el mismo token)
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.id = :id AND t.revokedAt IS NULL")
+    int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+    // Marca como usados todos los tokens vigentes de una familia (logout o reutilización detectada)
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.userId = :userId AND t.revokedAt IS NULL")
+    int revokeAllForUser(@Param("userId") Long userId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :before")
+    int deleteExpired(@Param("before") Instant before);
+}
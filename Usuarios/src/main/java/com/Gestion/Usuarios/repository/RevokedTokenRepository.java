@@ -0,0 +1,21 @@
+package com.Gestion.Usuarios.repository;
+
+import com.Gestion.Usuarios.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :before")
+    int deleteExpired(@Param("before") Instant before);
+}
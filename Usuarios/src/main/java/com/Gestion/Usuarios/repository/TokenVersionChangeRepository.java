@@ -0,0 +1,22 @@
+package com.Gestion.Usuarios.repository;
+
+import com.Gestion.Usuarios.model.TokenVersionChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TokenVersionChangeRepository extends JpaRepository<TokenVersionChange, Long> {
+
+    List<TokenVersionChange> findBySeqGreaterThanAndChangedAtBeforeOrderBySeqAsc(Long after, Instant horizon, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TokenVersionChange c WHERE c.changedAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
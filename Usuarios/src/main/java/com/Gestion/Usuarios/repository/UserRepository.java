@@ -1,11 +1,34 @@
 package com.Gestion.Usuarios.repository;
 
 
+import com.Gestion.Usuarios.dto.UserView;
 import com.Gestion.Usuarios.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
-}
\ No newline at end of file
+
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    // Solo id, nombres, email y rol (sin la contraseña)
+    Optional<UserView> findViewById(Long id);
+
+    // Equivalente a findAllById (un solo IN) pero con la proyección sin contraseña
+    List<UserView> findViewsByIdInOrderByIdAsc(Collection<Long> ids);
+
+    List<UserView> findViewsByOrderByIdAsc();
+
+    // Paginación por cursor (ID mayor a afterId), opcionalmente filtrada por prefijo de las columnas normalizadas
+    List<UserView> findViewsByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<UserView> findViewsByNameNormalizedStartingWithAndIdGreaterThanOrderByIdAsc(String prefix, Long afterId, Pageable pageable);
+
+    List<UserView> findViewsByEmailNormalizedStartingWithAndIdGreaterThanOrderByIdAsc(String prefix, Long afterId, Pageable pageable);
+}
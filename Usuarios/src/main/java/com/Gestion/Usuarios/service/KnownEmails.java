@@ -0,0 +1,118 @@
+package com.Gestion.Usuarios.service;
+
+import com.Gestion.Usuarios.repository.UserRepository;
+import com.Gestion.Usuarios.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filtro de Bloom con los emails registrados (normalizados), para responder si un email está
+ * disponible sin consultar la base de datos: si el filtro dice que no está, seguro está libre.
+ * Solo cuando dice "puede estar" (registrado o falso positivo) se confirma con una consulta.
+ *
+ * Se construye al iniciar y recibe cada registro confirmado. Las cuentas eliminadas siguen en el
+ * filtro y solo cuestan una consulta de confirmación; al superar la capacidad se reconstruye
+ * (mientras tanto las consultas van a la base de datos).
+ * Es solo una ayuda para el formulario: el registro se decide por el índice único.
+ *
+ * Métricas: auth.email.availability (por origen de la respuesta: filter o database).
+ */
+@Component
+public class KnownEmails {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnownEmails.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.auth.known-emails.expected-emails:1000000}")
+    private long expectedEmails;
+
+    @Value("${app.auth.known-emails.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // Filtro en construcción: los registros que llegan mientras se lee la tabla se agregan también aquí
+    private volatile BloomFilter building;
+    private final AtomicLong insertions = new AtomicLong();
+    private final Counter answeredByFilter;
+    private final Counter answeredByDatabase;
+
+    @Autowired
+    public KnownEmails(MeterRegistry meterRegistry) {
+        this.answeredByFilter = Counter.builder("auth.email.availability").tag("source", "filter").register(meterRegistry);
+        this.answeredByDatabase = Counter.builder("auth.email.availability").tag("source", "database").register(meterRegistry);
+    }
+
+    /**
+     * @return true si no hay una cuenta con el email normalizado
+     */
+    public boolean isAvailable(String emailNormalized) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(emailNormalized)) {
+            answeredByFilter.increment();
+            return true;
+        }
+        answeredByDatabase.increment();
+        return !userRepository.existsByEmailNormalized(emailNormalized);
+    }
+
+    /**
+     * Agrega un email recién registrado (después del commit)
+     */
+    public void add(String emailNormalized) {
+        BloomFilter pending = building;
+        if (pending != null) {
+            pending.put(emailNormalized);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(emailNormalized);
+            if (insertions.incrementAndGet() > expectedEmails) {
+                // Con más elementos que la capacidad los falsos positivos crecen: se vuelve a leer la tabla
+                filter = null;
+                logger.info("=== FILTRO DE EMAILS LLENO, SE RECONSTRUIRÁ ===");
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (filter != null) {
+            return;
+        }
+        long total = Math.max(expectedEmails, userRepository.count() * 2);
+        BloomFilter rebuilt = new BloomFilter(total, falsePositiveRate);
+        building = rebuilt;
+        insertions.set(0);
+        jdbcTemplate.query("SELECT email_normalized FROM users WHERE email_normalized IS NOT NULL", rs -> {
+            rebuilt.put(rs.getString(1));
+            insertions.incrementAndGet();
+        });
+        expectedEmails = total;
+        filter = rebuilt;
+        building = null;
+        logger.info("=== FILTRO DE EMAILS REGISTRADOS CARGADO: {} EMAILS ===", insertions.get());
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.known-emails.rebuild-check-ms:60000}")
+    public void rebuildIfNeeded() {
+        if (filter == null) {
+            load();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.Gestion.Usuarios.service;
+
+import com.Gestion.Usuarios.util.SlidingWindowRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Límite de intentos de login por IP y por email, en memoria. Se consulta antes de buscar al usuario
+ * y de verificar la contraseña, así un ataque de credential stuffing no consume un hash BCrypt por
+ * intento una vez superado el límite. El límite por IP frena a un origen que prueba muchas cuentas;
+ * el límite por email frena a muchos orígenes probando la misma cuenta.
+ *
+ * Métricas: auth.login.throttled (por motivo: ip o email) y auth.login.throttle.keys.
+ */
+@Component
+public class LoginThrottle {
+
+    /**
+     * Resultado de la consulta: si se permite el intento y, si no, el motivo y los segundos a esperar
+     */
+    public record Decision(boolean allowed, String reason, long retryAfterSeconds) {
+
+        static final Decision ALLOWED = new Decision(true, null, 0L);
+    }
+
+    private final SlidingWindowRateLimiter byIp;
+    private final SlidingWindowRateLimiter byEmail;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    @Autowired
+    public LoginThrottle(@Value("${app.auth.login-throttle.ip.max-attempts:20}") int ipMaxAttempts,
+                         @Value("${app.auth.login-throttle.email.max-attempts:5}") int emailMaxAttempts,
+                         @Value("${app.auth.login-throttle.window-seconds:60}") long windowSeconds,
+                         @Value("${app.auth.login-throttle.max-keys:100000}") int maxKeys,
+                         @Value("${app.auth.login-throttle.stripes:32}") int stripes,
+                         MeterRegistry meterRegistry) {
+        long windowMillis = windowSeconds * 1000L;
+        this.byIp = new SlidingWindowRateLimiter(ipMaxAttempts, windowMillis, maxKeys, stripes);
+        this.byEmail = new SlidingWindowRateLimiter(emailMaxAttempts, windowMillis, maxKeys, stripes);
+        this.ipRejected = Counter.builder("auth.login.throttled").tag("reason", "ip").register(meterRegistry);
+        this.emailRejected = Counter.builder("auth.login.throttled").tag("reason", "email").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", byIp, SlidingWindowRateLimiter::size).tag("scope", "ip").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", byEmail, SlidingWindowRateLimiter::size).tag("scope", "email").register(meterRegistry);
+    }
+
+    /**
+     * Registra el intento de login; primero se cuenta contra la IP y, si pasa, contra el email
+     */
+    public Decision tryAcquire(String ip, String email) {
+        long waitMillis = byIp.tryAcquire(ip);
+        if (waitMillis > 0) {
+            ipRejected.increment();
+            return new Decision(false, "ip", toSeconds(waitMillis));
+        }
+        waitMillis = byEmail.tryAcquire(emailKey(email));
+        if (waitMillis > 0) {
+            emailRejected.increment();
+            return new Decision(false, "email", toSeconds(waitMillis));
+        }
+        return Decision.ALLOWED;
+    }
+
+    /**
+     * Tras un login exitoso se olvidan los intentos de la cuenta (los de la IP se mantienen)
+     */
+    public void onSuccess(String email) {
+        byEmail.reset(emailKey(email));
+    }
+
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1L, (millis + 999) / 1000);
+    }
+}
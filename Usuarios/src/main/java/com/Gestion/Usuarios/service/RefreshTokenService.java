@@ -0,0 +1,114 @@
+package com.Gestion.Usuarios.service;
+
+import com.Gestion.Usuarios.model.RefreshToken;
+import com.Gestion.Usuarios.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos y rotativos. El cliente recibe un valor aleatorio; la tabla solo guarda su
+ * hash SHA-256. Cada uso entrega un token nuevo de la misma familia y marca el anterior como usado:
+ * si un token ya usado se presenta otra vez (fue copiado), se revoca la familia completa.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.auth.refresh.expiration-days:14}")
+    private long expirationDays;
+
+    /**
+     * Resultado de una rotación: el usuario dueño del token y el nuevo refresh token
+     */
+    public record Rotation(Long userId, String refreshToken) {
+    }
+
+    /**
+     * Emite el primer refresh token de una nueva familia (login o registro)
+     */
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Canjea un refresh token por uno nuevo; retorna null si no existe, venció, fue revocado o ya se usó
+     */
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = rawToken != null ? refreshTokenRepository.findByTokenHash(hash(rawToken)) : null;
+        Instant now = Instant.now();
+        if (current == null || current.getExpiresAt().isBefore(now)) {
+            return null;
+        }
+        if (current.getRevokedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            // Reutilización de un token ya rotado: alguien más tiene una copia
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            logger.warn("=== REUTILIZACIÓN DE REFRESH TOKEN - USUARIO {}: {} TOKENS DE LA FAMILIA REVOCADOS ===",
+                    current.getUserId(), revoked);
+            return null;
+        }
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+
+    /**
+     * Revoca la familia del refresh token (logout)
+     */
+    public void revoke(String rawToken) {
+        RefreshToken current = rawToken != null ? refreshTokenRepository.findByTokenHash(hash(rawToken)) : null;
+        if (current != null) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), Instant.now());
+        }
+    }
+
+    /**
+     * Revoca todos los refresh tokens del usuario (cambio de contraseña o eliminación de la cuenta)
+     */
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId, Instant.now());
+    }
+
+    @Scheduled(cron = "${app.auth.refresh.purge-cron:0 15 4 * * *}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        logger.info("=== REFRESH TOKENS VENCIDOS BORRADOS: {} ===", deleted);
+    }
+
+    private String issue(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant expiresAt = Instant.now().plus(Duration.ofDays(expirationDays));
+        refreshTokenRepository.save(new RefreshToken(null, userId, hash(rawToken), familyId, expiresAt, null));
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
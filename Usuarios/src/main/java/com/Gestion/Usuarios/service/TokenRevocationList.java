@@ -0,0 +1,105 @@
+package com.Gestion.Usuarios.service;
+
+import com.Gestion.Usuarios.model.RevokedToken;
+import com.Gestion.Usuarios.repository.RevokedTokenRepository;
+import com.Gestion.Usuarios.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de access tokens revocados (logout) antes de su vencimiento.
+ * Se guarda en revoked_tokens y se mantiene en memoria: un filtro de Bloom descarta en O(1) los
+ * tokens que seguro no están revocados (casi todos) y el conjunto exacto resuelve los posibles
+ * falsos positivos. Así la verificación en cada petición nunca consulta la base de datos.
+ * Al iniciar se reconstruye desde la tabla, y periódicamente se descartan los ya vencidos.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.auth.revocation.expected-tokens:100000}")
+    private long expectedTokens;
+
+    @Value("${app.auth.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // jti -> vencimiento del token (epoch ms)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    /**
+     * Revoca el access token hasta su vencimiento (después ya no es válido de todos modos)
+     */
+    @Transactional
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt));
+        synchronized (this) {
+            revoked.put(tokenId, expiresAt.toEpochMilli());
+            filter.put(tokenId);
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revoked.containsKey(tokenId);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(Instant.now())) {
+            revoked.put(token.getTokenId(), token.getExpiresAt().toEpochMilli());
+        }
+        rebuild();
+        logger.info("=== LISTA DE REVOCACIÓN CARGADA: {} TOKENS ===", revoked.size());
+    }
+
+    /**
+     * Borra los tokens revocados que ya vencieron y reconstruye el filtro sin ellos
+     */
+    @Scheduled(fixedDelayString = "${app.auth.revocation.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        revoked.values().removeIf(expiresAt -> expiresAt < now.toEpochMilli());
+        rebuild();
+        logger.info("=== LISTA DE REVOCACIÓN DEPURADA: {} VENCIDOS, {} VIGENTES ===", deleted, revoked.size());
+    }
+
+    private synchronized void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2L), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+}
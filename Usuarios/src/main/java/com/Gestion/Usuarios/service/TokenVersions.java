@@ -0,0 +1,80 @@
+package com.Gestion.Usuarios.service;
+
+import com.Gestion.Usuarios.dto.TokenVersionPage;
+import com.Gestion.Usuarios.model.TokenVersionChange;
+import com.Gestion.Usuarios.repository.TokenVersionChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Log de cambios de la versión de tokens de los usuarios (token_version_changes).
+ * Cambiar la contraseña incrementa users.token_version y eliminar un usuario lo marca como borrado;
+ * en ambos casos se agrega una fila dentro de la misma transacción. Pagos e Inventario leen el log
+ * por número de secuencia y rechazan en memoria los tokens con una versión anterior, sin consultar
+ * a este servicio en cada petición.
+ *
+ * Igual que el log de cambios de productos de Inventario, las lecturas solo entregan cambios con más
+ * de app.auth.token-versions.settle-ms de antigüedad (un seq menor puede confirmarse después de uno mayor).
+ * Un cambio solo importa mientras sigan vigentes los tokens emitidos antes de él, así que se borra
+ * pasada la retención, que debe ser mayor a jwt.expiration.
+ */
+@Component
+public class TokenVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersions.class);
+
+    @Autowired
+    private TokenVersionChangeRepository changeRepository;
+
+    @Value("${app.auth.token-versions.settle-ms:1000}")
+    private long settleMillis;
+
+    @Value("${app.auth.token-versions.retention-ms:3600000}")
+    private long retentionMillis;
+
+    /**
+     * Registra la nueva versión del usuario; debe llamarse dentro de la transacción que la modifica
+     */
+    public void recordVersion(Long userId, int tokenVersion) {
+        changeRepository.save(new TokenVersionChange(null, userId, tokenVersion, false, Instant.now()));
+    }
+
+    /**
+     * Registra que el usuario fue eliminado; debe llamarse dentro de la transacción que lo elimina
+     */
+    public void recordDeleted(Long userId) {
+        changeRepository.save(new TokenVersionChange(null, userId, Integer.MAX_VALUE, true, Instant.now()));
+    }
+
+    /**
+     * Cambios con seq mayor a after (como máximo limit), en orden de secuencia
+     */
+    public TokenVersionPage readAfter(long after, int limit) {
+        Instant horizon = Instant.now().minusMillis(settleMillis);
+        List<TokenVersionChange> changes = changeRepository
+                .findBySeqGreaterThanAndChangedAtBeforeOrderBySeqAsc(after, horizon, PageRequest.of(0, limit));
+        long nextAfter = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSeq();
+        return new TokenVersionPage(changes, nextAfter);
+    }
+
+    /**
+     * Borra los cambios más antiguos que la retención: los tokens emitidos antes de ellos ya vencieron
+     */
+    @Scheduled(fixedDelayString = "${app.auth.token-versions.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = changeRepository.deleteOlderThan(Instant.now().minusMillis(retentionMillis));
+        if (deleted > 0) {
+            logger.info("=== VERSIONES DE TOKENS DEPURADAS: {} CAMBIOS ===", deleted);
+        }
+    }
+}
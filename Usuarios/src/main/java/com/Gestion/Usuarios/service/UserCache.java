@@ -0,0 +1,50 @@
+package com.Gestion.Usuarios.service;
+
+import com.Gestion.Usuarios.dto.UserView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Caché de usuarios sin contraseña (UserView) por ID, usada al validar la sesión.
+ * Limitada por tamaño y con expiración por tiempo; UserService la invalida después de cada
+ * cambio del usuario (contraseña, rol, eliminación). Las lecturas concurrentes de un mismo ID
+ * que no está en caché se agrupan en una sola consulta.
+ * Las tasas de acierto se publican en /actuator/metrics/cache.gets.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<Long, UserView> users;
+
+    @Autowired
+    public UserCache(@Value("${app.cache.users.max-size:10000}") long maxSize,
+                     @Value("${app.cache.users.ttl-seconds:300}") long ttlSeconds,
+                     MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    /**
+     * Obtiene un usuario de la caché o lo carga con el loader
+     * @return el usuario, o null si el loader no lo encuentra (los inexistentes no se guardan)
+     */
+    public UserView get(Long id, Function<Long, UserView> loader) {
+        return users.get(id, loader);
+    }
+
+    public void invalidate(Long id) {
+        users.invalidate(id);
+    }
+}
@@ -0,0 +1,318 @@
+package com.Gestion.Usuarios.service;
+
+import com.Gestion.Usuarios.dto.UserImportResult;
+import com.Gestion.Usuarios.model.User;
+import com.Gestion.Usuarios.util.HashingRejectedException;
+import com.Gestion.Usuarios.util.TransactionHooks;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Importación masiva de usuarios desde NDJSON (un usuario JSON por línea, con la contraseña en texto plano).
+ * El archivo se lee línea a línea en lotes de app.users.import.batch-size filas. Por cada lote:
+ * se descartan los emails ya registrados con una sola consulta (antes de gastar un hash en ellos),
+ * se calculan los hashes en paralelo y se insertan las filas con un batch JDBC en su propia transacción.
+ * Si el batch falla, sus filas se reintentan una a una para reportar solo las que realmente fallan.
+ *
+ * Los hashes pasan por el pool acotado de login y registro (BoundedPasswordEncoder), así el total de
+ * núcleos ocupados en hashing nunca supera el de ese pool. La importación solo usa una fracción de él
+ * (app.users.import.parallelism, por defecto un cuarto de los núcleos) y, si la cola está llena, espera
+ * y reintenta en vez de fallar: los logins tienen prioridad.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    // Si otro registro tomó el email entre la consulta y el insert, ON DUPLICATE KEY deja la fila existente sin
+    // anular el lote. No se usa INSERT IGNORE: también convierte en advertencias los datos demasiado largos y los
+    // demás errores del modo estricto, y esas filas se guardarían truncadas
+    private static final String INSERT_SQL = "INSERT INTO users (first_name, last_name, email, password, role, email_normalized, name_normalized, token_version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0) ON DUPLICATE KEY UPDATE id = id";
+    private static final Set<String> ROLES = Set.of("CLIENTE", "ADMIN");
+    // Filas por tarea del fork-join: con hashes de decenas de ms, repartir de a pocas filas equilibra bien los hilos
+    private static final int HASH_TASK_ROWS = 4;
+    // Espera entre reintentos cuando la cola de hashing está llena y máximo de intentos por contraseña (unos 10 s)
+    private static final long HASH_RETRY_MS = 50;
+    private static final int HASH_MAX_ATTEMPTS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private KnownEmails knownEmails;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.users.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.users.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private final ForkJoinPool hashingPool;
+
+    public UserImportService(@Value("${app.users.import.parallelism:0}") int parallelism) {
+        this.hashingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 4));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    public UserImportResult importUsers(InputStream input) throws IOException {
+        long start = System.currentTimeMillis();
+        UserImportResult result = new UserImportResult();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // Emails vistos en el archivo, para reportar repetidos dentro de la misma importación
+        Set<String> seen = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<Row> batch = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setProcessed(result.getProcessed() + 1);
+                try {
+                    User user = objectMapper.readValue(line, User.class);
+                    String error = validate(user);
+                    if (error != null) {
+                        addError(result, lineNumber, error);
+                        continue;
+                    }
+                    if (!seen.add(user.getEmailNormalized())) {
+                        addError(result, lineNumber, "El email está repetido en el archivo");
+                        continue;
+                    }
+                    batch.add(new Row(lineNumber, user));
+                } catch (Exception e) {
+                    addError(result, lineNumber, "Fila inválida: " + e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    writeBatch(transactionTemplate, batch, result);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(transactionTemplate, batch, result);
+            }
+        }
+
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        logger.info("=== IMPORTACIÓN DE USUARIOS FINALIZADA: {} filas, {} insertadas, {} con error en {} ms ===",
+                result.getProcessed(), result.getInserted(), result.getFailed(), result.getElapsedMs());
+        return result;
+    }
+
+    // Mismas reglas que el registro individual (anotaciones de User); sin rol se importa como CLIENTE
+    private String validate(User user) {
+        if (user.getRole() == null || user.getRole().isBlank()) {
+            user.setRole("CLIENTE");
+        }
+        user.setRole(user.getRole().trim().toUpperCase(Locale.ROOT));
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (!ROLES.contains(user.getRole())) {
+            return "Rol inválido: " + user.getRole() + " (valores válidos: CLIENTE, ADMIN)";
+        }
+        user.setFirstName(user.getFirstName().trim());
+        user.setLastName(user.getLastName().trim());
+        user.setEmail(user.getEmail().trim());
+        user.normalize();
+        return null;
+    }
+
+    private void writeBatch(TransactionTemplate transactionTemplate, List<Row> batch, UserImportResult result) {
+        // Una sola consulta para los emails del lote que ya tienen cuenta: no se les calcula el hash
+        Set<String> existing = existingEmails(batch);
+        List<Row> pending = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            if (existing.contains(row.user().getEmailNormalized())) {
+                addError(result, row.line(), "El email ya está registrado");
+            } else {
+                pending.add(row);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            hashingPool.invoke(new HashTask(pending, 0, pending.size(), passwordEncoder));
+        } catch (Exception e) {
+            logger.error("Error al calcular los hashes del lote de importación de usuarios: {}", e.getMessage(), e);
+            for (Row row : pending) {
+                addError(result, row.line(), "Error al calcular el hash: " + e.getMessage());
+            }
+            return;
+        }
+        insert(transactionTemplate, pending, result);
+    }
+
+    // Inserta filas ya hasheadas; si el batch falla, reintenta cada fila en su propia transacción
+    private void insert(TransactionTemplate transactionTemplate, List<Row> pending, UserImportResult result) {
+        try {
+            List<Object[]> args = new ArrayList<>(pending.size());
+            for (Row row : pending) {
+                User user = row.user();
+                args.add(new Object[]{user.getFirstName(), user.getLastName(), user.getEmail(), user.getPassword(),
+                        user.getRole(), user.getEmailNormalized(), user.getNameNormalized()});
+            }
+            Set<String> inserted = transactionTemplate.execute(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, args);
+                Set<String> ours = insertedEmails(pending);
+                TransactionHooks.afterCommit(() -> ours.forEach(knownEmails::add));
+                return ours;
+            });
+            for (Row row : pending) {
+                if (inserted.contains(row.user().getEmailNormalized())) {
+                    result.setInserted(result.getInserted() + 1);
+                } else {
+                    addError(result, row.line(), "El email ya está registrado");
+                }
+            }
+        } catch (Exception e) {
+            if (pending.size() == 1) {
+                logger.error("Error al guardar la fila {} de la importación de usuarios: {}", pending.get(0).line(), e.getMessage(), e);
+                addError(result, pending.get(0).line(), "Error al guardar la fila: " + e.getMessage());
+                return;
+            }
+            // El lote completo se revirtió: se reintenta fila por fila para reportar solo las que fallan
+            logger.warn("=== LOTE DE IMPORTACIÓN DE USUARIOS REVERTIDO ({} filas), reintentando fila por fila: {} ===",
+                    pending.size(), e.getMessage());
+            for (Row row : pending) {
+                insert(transactionTemplate, List.of(row), result);
+            }
+        }
+    }
+
+    private Set<String> existingEmails(List<Row> batch) {
+        List<String> emails = batch.stream().map(row -> row.user().getEmailNormalized()).toList();
+        String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email_normalized FROM users WHERE email_normalized IN (" + placeholders + ")", String.class, emails.toArray()));
+    }
+
+    /**
+     * Emails del lote que quedaron con el hash recién calculado. El conteo de filas de ON DUPLICATE KEY UPDATE
+     * depende del driver (con useAffectedRows=false un duplicado también cuenta 1), pero cada hash lleva su
+     * propia sal: si la fila guarda el nuestro, la insertó este lote.
+     */
+    private Set<String> insertedEmails(List<Row> pending) {
+        List<String> emails = pending.stream().map(row -> row.user().getEmailNormalized()).toList();
+        String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        Map<String, String> stored = new HashMap<>(emails.size() * 2);
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT email_normalized, password FROM users WHERE email_normalized IN (" + placeholders + ")", emails.toArray())) {
+            stored.put((String) row.get("email_normalized"), (String) row.get("password"));
+        }
+        Set<String> inserted = new HashSet<>(pending.size() * 2);
+        for (Row row : pending) {
+            if (row.user().getPassword().equals(stored.get(row.user().getEmailNormalized()))) {
+                inserted.add(row.user().getEmailNormalized());
+            }
+        }
+        return inserted;
+    }
+
+    private void addError(UserImportResult result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new UserImportResult.RowError(line, message));
+        }
+    }
+
+    private record Row(long line, User user) {
+    }
+
+    // Divide el lote por la mitad hasta HASH_TASK_ROWS filas; cada hoja reemplaza la contraseña por su hash
+    private static final class HashTask extends RecursiveAction {
+        private final List<Row> rows;
+        private final int from;
+        private final int to;
+        private final PasswordEncoder encoder;
+
+        private HashTask(List<Row> rows, int from, int to, PasswordEncoder encoder) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.encoder = encoder;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= HASH_TASK_ROWS) {
+                for (int i = from; i < to; i++) {
+                    User user = rows.get(i).user();
+                    user.setPassword(encode(user.getPassword()));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new HashTask(rows, from, middle, encoder), new HashTask(rows, middle, to, encoder));
+        }
+
+        // Con la cola del pool acotado llena se espera y se reintenta: la importación cede el lugar a los logins
+        private String encode(String rawPassword) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return encoder.encode(rawPassword);
+                } catch (HashingRejectedException e) {
+                    if (attempt >= HASH_MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                    try {
+                        Thread.sleep(HASH_RETRY_MS);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Importación interrumpida mientras esperaba el pool de hashing", interrupted);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -2,13 +2,23 @@ package com.Gestion.Usuarios.service;
 
 
 
+import com.Gestion.Usuarios.dto.UserPage;
+import com.Gestion.Usuarios.dto.UserView;
 import com.Gestion.Usuarios.model.User;
 import com.Gestion.Usuarios.repository.UserRepository;
+import com.Gestion.Usuarios.util.EmailAlreadyRegisteredException;
+import com.Gestion.Usuarios.util.SearchText;
+import com.Gestion.Usuarios.util.TransactionHooks;
 import jakarta.transaction.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -22,14 +32,53 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private KnownEmails knownEmails;
+
+    @Autowired
+    private TokenVersions tokenVersions;
+
+    /**
+     * Guarda el usuario con un solo INSERT (el ID es IDENTITY, así que se ejecuta al llamar a save).
+     * Un email repetido no se busca antes: lo rechaza el índice único del email normalizado, lo que
+     * además evita la carrera entre dos registros simultáneos con el mismo email.
+     * @throws EmailAlreadyRegisteredException si ya existe una cuenta con ese email
+     */
     public User save(User user) {
         // Aquí podrías encriptar la contraseña antes de guardar
        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Solo un email repetido es un error del usuario; cualquier otra restricción (por ejemplo un campo
+            // demasiado largo) se propaga tal cual
+            if (isDuplicateEmail(e)) {
+                throw new EmailAlreadyRegisteredException("El email ya está registrado", e);
+            }
+            throw e;
+        }
+        TransactionHooks.afterCommit(() -> knownEmails.add(saved.getEmailNormalized()));
+        // Si se guardó un usuario existente (por ejemplo con otro rol), la caché no debe seguir mostrando el anterior
+        invalidateAfterCommit(saved.getId());
+        return saved;
     }
 
     
 
+    /**
+     * Indica si el email está libre; la mayoría de los emails nuevos se responden con el filtro en memoria
+     */
+    public boolean isEmailAvailable(String email) {
+        return knownEmails.isAvailable(SearchText.normalizeEmail(email));
+    }
+
     public User findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -38,6 +87,45 @@ public class UserService {
         return userRepository.findAll();
     }
     
+    /**
+     * Usuario sin contraseña, desde la caché; null si no existe
+     */
+    public UserView findViewById(Long id) {
+        return userCache.get(id, key -> userRepository.findViewById(key).orElse(null));
+    }
+
+    /**
+     * Usuarios sin contraseña con los IDs indicados, en una sola consulta (los inexistentes se omiten)
+     */
+    public List<UserView> findViewsByIds(Collection<Long> ids) {
+        return userRepository.findViewsByIdInOrderByIdAsc(new HashSet<>(ids));
+    }
+
+    public List<UserView> findAllViews() {
+        return userRepository.findViewsByOrderByIdAsc();
+    }
+
+    /**
+     * Página de usuarios con ID mayor a afterId (paginación por cursor, sin OFFSET).
+     * Si se indica email o name, filtra por prefijo sobre las columnas normalizadas (minúsculas, sin tildes).
+     */
+    public UserPage findPage(Long afterId, int size, String name, String email) {
+        long after = afterId != null ? afterId : 0L;
+        PageRequest page = PageRequest.of(0, size);
+        String emailPrefix = SearchText.normalizeEmail(email);
+        String namePrefix = SearchText.normalize(name);
+        List<UserView> users;
+        if (emailPrefix != null && !emailPrefix.isEmpty()) {
+            users = userRepository.findViewsByEmailNormalizedStartingWithAndIdGreaterThanOrderByIdAsc(emailPrefix, after, page);
+        } else if (namePrefix != null && !namePrefix.isEmpty()) {
+            users = userRepository.findViewsByNameNormalizedStartingWithAndIdGreaterThanOrderByIdAsc(namePrefix, after, page);
+        } else {
+            users = userRepository.findViewsByIdGreaterThanOrderByIdAsc(after, page);
+        }
+        Long nextAfterId = users.size() < size ? null : users.get(users.size() - 1).getId();
+        return new UserPage(users, nextAfterId);
+    }
+
     public User findById(Long id) {
         return userRepository.findById(id).orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
     }
@@ -45,10 +133,41 @@ public class UserService {
     public User updatePassword(Long id, String newPass) {
         User u = findById(id);
         u.setPassword(passwordEncoder.encode(newPass)); // Encriptar aquí también
+        // Las sesiones abiertas con la contraseña anterior deben volver a iniciar sesión, y sus access tokens
+        // dejan de valer también en Pagos e Inventario
+        refreshTokenService.revokeAllForUser(id);
+        u.setTokenVersion(u.getTokenVersion() + 1);
+        tokenVersions.recordVersion(id, u.getTokenVersion());
+        invalidateAfterCommit(id);
         return userRepository.save(u);
     }
 
+    /**
+     * Vuelve a calcular el hash con el algoritmo y costo actuales, usando la contraseña recién verificada en el login
+     */
+    public User upgradePasswordHash(User user, String rawPassword) {
+        user.setPassword(passwordEncoder.encode(rawPassword));
+        return userRepository.save(user);
+    }
+
     public void deleteUser(Long id) {
+        refreshTokenService.revokeAllForUser(id);
         userRepository.deleteById(id);
+        tokenVersions.recordDeleted(id);
+        invalidateAfterCommit(id);
+    }
+
+    // MySQL nombra la clave violada: "Duplicate entry '...' for key 'users.idx_users_email_normalized'"
+    static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.contains("Duplicate entry")
+                && (message.contains(User.EMAIL_NORMALIZED_INDEX) || message.contains(User.EMAIL_UNIQUE_KEY));
+    }
+
+    // Se invalida al confirmar: una lectura durante la transacción no debe dejar en caché el valor anterior
+    private void invalidateAfterCommit(Long id) {
+        if (id != null) {
+            TransactionHooks.afterCommit(() -> userCache.invalidate(id));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.Gestion.Usuarios.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de cadenas: responde "seguro que no está" o "puede estar" con memoria fija.
+ * Las k posiciones se derivan de dos hashes de 64 bits (doble hashing). Es seguro para lecturas
+ * y escrituras concurrentes; no permite quitar elementos (se reconstruye desde cero).
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions cantidad de elementos esperada
+     * @param falsePositiveRate tasa de falsos positivos deseada con esa cantidad (por ejemplo 0.01)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, m);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+    }
+
+    public void put(String value) {
+        long[] hashes = hashes(value);
+        for (int i = 0; i < hashCount; i++) {
+            long index = index(hashes, i);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long[] hashes = hashes(value);
+        for (int i = 0; i < hashCount; i++) {
+            long index = index(hashes, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(long[] hashes, int i) {
+        return Math.floorMod(hashes[0] + i * hashes[1], bitCount);
+    }
+
+    // FNV-1a de 64 bits y una segunda mezcla del mismo valor (finalizador de MurmurHash3)
+    private static long[] hashes(String value) {
+        long h1 = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h1 ^= b;
+            h1 *= 0x100000001b3L;
+        }
+        long h2 = h1;
+        h2 ^= h2 >>> 33;
+        h2 *= 0xff51afd7ed558ccdL;
+        h2 ^= h2 >>> 33;
+        h2 *= 0xc4ceb9fe1a85ec53L;
+        h2 ^= h2 >>> 33;
+        // El segundo hash debe ser impar para recorrer todas las posiciones
+        return new long[]{h1, h2 | 1L};
+    }
+}
@@ -0,0 +1,116 @@
+package com.Gestion.Usuarios.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * PasswordEncoder que ejecuta el hashing y la verificación de contraseñas en un pool propio del
+ * tamaño de los núcleos, con una cola acotada. Así una ráfaga de logins no ocupa todos los núcleos
+ * ni los hilos de Tomcat: los endpoints livianos (/validate) siguen respondiendo, y cuando la cola
+ * está llena la petición se rechaza de inmediato con HashingRejectedException (503 + Retry-After).
+ *
+ * Métricas: auth.hashing.queue.depth, auth.hashing.active, auth.hashing.latency (por operación)
+ * y auth.hashing.rejected.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = Timer.builder("auth.hashing.latency").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.hashing.latency").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected").register(meterRegistry);
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        logger.info("=== POOL DE HASHING DE CONTRASEÑAS: {} HILOS, COLA DE {} ===", poolSize, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> timed(encodeTimer, () -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean result = submit(() -> timed(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword)));
+        return Boolean.TRUE.equals(result);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // No calcula hashes: se resuelve en el hilo de la petición
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Solo mide el cálculo en el hilo del pool (la espera en cola se ve en auth.hashing.queue.depth)
+    private static <T> T timed(Timer timer, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingRejectedException("Servicio de autenticación saturado, reintente en unos segundos");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error al calcular el hash de la contraseña", e.getCause());
+        }
+    }
+}
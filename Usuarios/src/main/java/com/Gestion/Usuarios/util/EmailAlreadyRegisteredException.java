@@ -0,0 +1,11 @@
+package com.Gestion.Usuarios.util;
+
+/**
+ * El INSERT del usuario violó el índice único del email normalizado (ya existe una cuenta con ese email)
+ */
+public class EmailAlreadyRegisteredException extends RuntimeException {
+
+    public EmailAlreadyRegisteredException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.Gestion.Usuarios.util;
+
+/**
+ * La cola de hashing de contraseñas está llena: la petición se rechaza (503) en vez de esperar
+ */
+public class HashingRejectedException extends RuntimeException {
+
+    public HashingRejectedException(String message) {
+        super(message);
+    }
+}
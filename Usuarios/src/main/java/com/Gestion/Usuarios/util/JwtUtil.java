@@ -11,6 +11,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -19,23 +20,25 @@ public class JwtUtil {
     @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationThatShouldBeAtLeast256BitsLong}")
     private String secret;
 
-    @Value("${jwt.expiration:86400000}") // 24 horas por defecto
+    @Value("${jwt.expiration:900000}") // 15 minutos por defecto (se renueva con el refresh token)
     private Long expiration;
 
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
 
-    public String generateToken(String email, String role, Long userId) {
+    public String generateToken(String email, String role, Long userId, int tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
         claims.put("userId", userId);
+        claims.put("tokenVersion", tokenVersion);
         return createToken(claims, email);
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
@@ -55,6 +58,23 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("userId", Long.class));
     }
 
+    // Versión de tokens del usuario al emitir el token (0 para tokens emitidos antes de existir el claim)
+    public int extractTokenVersion(String token) {
+        return extractClaim(token, claims -> {
+            Integer version = claims.get("tokenVersion", Integer.class);
+            return version != null ? version : 0;
+        });
+    }
+
+    // ID único del token (jti), usado para revocarlo antes de su vencimiento
+    public String extractTokenId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
+    public long getExpirationSeconds() {
+        return expiration / 1000;
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
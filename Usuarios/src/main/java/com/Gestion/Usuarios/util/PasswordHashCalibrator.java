@@ -0,0 +1,65 @@
+package com.Gestion.Usuarios.util;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Benchmark de calibración: mide en la máquina donde corre el servicio cuánto tarda un hash con
+ * cada costo y elige el mayor costo que no supera la latencia objetivo. Como cada paso de costo
+ * aumenta el tiempo, la medición se detiene en el primer costo que se pasa del objetivo.
+ */
+public final class PasswordHashCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibracionPassword123";
+    private static final int SAMPLES = 3;
+
+    private PasswordHashCalibrator() {
+    }
+
+    /**
+     * Mayor strength de BCrypt (entre min y max) cuyo hash tarda como máximo targetMillis
+     */
+    public static int bcryptStrength(int min, int max, long targetMillis) {
+        return pickCost(min, max, targetMillis * 1_000_000L, strength -> medianNanos(new BCryptPasswordEncoder(strength)));
+    }
+
+    /**
+     * Mayor cantidad de iteraciones de Argon2 (con la memoria y paralelismo dados) cuyo hash tarda como máximo targetMillis
+     */
+    public static int argon2Iterations(int memoryKib, int parallelism, int min, int max, long targetMillis) {
+        IntFunction<PasswordEncoder> encoder = iterations -> new Argon2PasswordEncoder(16, 32, parallelism, memoryKib, iterations);
+        return pickCost(min, max, targetMillis * 1_000_000L, iterations -> medianNanos(encoder.apply(iterations)));
+    }
+
+    /**
+     * Recorre los costos desde min y retorna el último que no supera targetNanos (nunca menos que min)
+     */
+    static int pickCost(int min, int max, long targetNanos, IntToLongFunction measureNanos) {
+        int chosen = min;
+        for (int cost = min; cost <= max; cost++) {
+            if (measureNanos.applyAsLong(cost) > targetNanos) {
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    private static long medianNanos(PasswordEncoder encoder) {
+        // Un hash previo para que la medición no incluya la carga de clases ni la compilación JIT
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] times = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,34 @@
+package com.Gestion.Usuarios.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para búsquedas por prefijo: minúsculas, sin tildes y con los espacios
+ * repetidos colapsados. Se aplica igual a las columnas normalizadas de users y a lo que se busca.
+ * El email solo se pasa a minúsculas, porque su columna normalizada también es la clave única.
+ */
+public final class SearchText {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private SearchText() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(withoutAccents.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Email en minúsculas y sin espacios alrededor (las tildes se conservan: son parte de la dirección)
+     */
+    public static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
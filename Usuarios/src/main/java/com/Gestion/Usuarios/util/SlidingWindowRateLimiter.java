@@ -0,0 +1,121 @@
+package com.Gestion.Usuarios.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de tasa por clave con ventana deslizante aproximada: guarda el conteo de la ventana
+ * actual y el de la anterior, y estima los intentos del último intervalo ponderando la anterior
+ * por la fracción que todavía se solapa. Usa dos enteros por clave en vez de una marca por intento.
+ *
+ * Las claves se reparten en franjas (stripes), cada una con su propio lock, para que peticiones de
+ * claves distintas no compitan entre sí. Cada franja es un LinkedHashMap en orden de acceso con
+ * tamaño máximo: al superarlo se descarta la clave usada hace más tiempo (LRU), así la memoria
+ * queda acotada aunque lleguen millones de IPs o emails distintos.
+ */
+public class SlidingWindowRateLimiter {
+
+    private final int limit;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+
+    public SlidingWindowRateLimiter(int limit, long windowMillis, int maxKeys, int stripeCount) {
+        this(limit, windowMillis, maxKeys, stripeCount, System::currentTimeMillis);
+    }
+
+    public SlidingWindowRateLimiter(int limit, long windowMillis, int maxKeys, int stripeCount, LongSupplier clock) {
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+        this.stripes = new Stripe[stripeCount];
+        int perStripe = Math.max(1, maxKeys / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Registra un intento para la clave si está dentro del límite
+     * @return 0 si el intento se permite, o los milisegundos aproximados hasta que se vuelva a permitir
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Window window = stripe.get(key);
+            if (window == null) {
+                window = new Window(now);
+                stripe.put(key, window);
+            }
+            window.roll(now, windowMillis);
+            double overlap = 1.0 - (double) (now - window.start) / windowMillis;
+            if (window.previous * overlap + window.current + 1 > limit) {
+                return Math.max(1L, window.start + windowMillis - now);
+            }
+            window.current++;
+            return 0L;
+        }
+    }
+
+    /**
+     * Olvida los intentos de la clave (por ejemplo tras un login exitoso)
+     */
+    public void reset(String key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[(hash & 0x7fffffff) % stripes.length];
+    }
+
+    private static final class Window {
+        private long start;
+        private int current;
+        private int previous;
+
+        private Window(long start) {
+            this.start = start;
+        }
+
+        // Avanza a la ventana que contiene now; si pasó más de una ventana completa, la anterior queda en 0
+        private void roll(long now, long windowMillis) {
+            long elapsed = (now - start) / windowMillis;
+            if (elapsed > 0) {
+                previous = elapsed == 1 ? current : 0;
+                current = 0;
+                start += elapsed * windowMillis;
+            }
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Window> {
+        private final int maxEntries;
+
+        private Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.Gestion.Usuarios.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+public class PasswordEncoderConfigTest {
+
+    // Parámetros de Argon2 livianos para que la prueba sea rápida
+    private static final int MEMORY_KIB = 1024;
+
+    @Test
+    public void testHashSinPrefijo_VerificaComoBCryptYRequiereRehash() {
+        // DADO: un hash BCrypt guardado antes de usar prefijos
+        DelegatingPasswordEncoder encoder = PasswordEncoderConfig.delegating("bcrypt", 4, MEMORY_KIB, 1, 1);
+        String legacy = new BCryptPasswordEncoder(4).encode("miPassword123");
+
+        // ENTONCES: la contraseña se verifica y el hash se marca para recalcular
+        assertTrue(encoder.matches("miPassword123", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    public void testCostoMenorAlObjetivo_RequiereRehash() {
+        // DADO: un hash con strength 4 cuando el objetivo es 5
+        String debil = PasswordEncoderConfig.delegating("bcrypt", 4, MEMORY_KIB, 1, 1).encode("miPassword123");
+        DelegatingPasswordEncoder encoder = PasswordEncoderConfig.delegating("bcrypt", 5, MEMORY_KIB, 1, 1);
+
+        // ENTONCES: se verifica, se marca para recalcular y el nuevo hash ya cumple el objetivo
+        assertTrue(encoder.matches("miPassword123", debil));
+        assertTrue(encoder.upgradeEncoding(debil));
+        String nuevo = encoder.encode("miPassword123");
+        assertTrue(nuevo.startsWith("{bcrypt}$2a$05$"));
+        assertFalse(encoder.upgradeEncoding(nuevo));
+    }
+
+    @Test
+    public void testCambioAArgon2_MigraHashesBCrypt() {
+        // DADO: un hash BCrypt y el algoritmo configurado en argon2
+        String bcrypt = PasswordEncoderConfig.delegating("bcrypt", 4, MEMORY_KIB, 1, 1).encode("miPassword123");
+        DelegatingPasswordEncoder encoder = PasswordEncoderConfig.delegating("argon2", 4, MEMORY_KIB, 1, 1);
+
+        // ENTONCES: el hash BCrypt sigue siendo válido pero se recalcula con Argon2
+        assertTrue(encoder.matches("miPassword123", bcrypt));
+        assertTrue(encoder.upgradeEncoding(bcrypt));
+        String argon2 = encoder.encode("miPassword123");
+        assertTrue(argon2.startsWith("{argon2}"));
+        assertTrue(encoder.matches("miPassword123", argon2));
+        assertFalse(encoder.upgradeEncoding(argon2));
+    }
+}
@@ -0,0 +1,156 @@
+package com.Gestion.Usuarios.config;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.Gestion.Usuarios.controller.UserController;
+import com.Gestion.Usuarios.dto.UserPage;
+import com.Gestion.Usuarios.dto.UserView;
+import com.Gestion.Usuarios.service.LoginThrottle;
+import com.Gestion.Usuarios.service.RefreshTokenService;
+import com.Gestion.Usuarios.service.TokenRevocationList;
+import com.Gestion.Usuarios.service.UserService;
+import com.Gestion.Usuarios.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+/**
+ * Reglas de acceso de SecurityConfig sobre las rutas de /api/v1/auth que exponen datos de otros usuarios
+ * y sobre las métricas de actuator
+ */
+@WebMvcTest(UserController.class)
+@Import(SecurityConfig.class)
+public class SecurityConfigTest {
+
+    private static final String ADMIN_TOKEN = "token-admin";
+    private static final String CLIENTE_TOKEN = "token-cliente";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockitoBean
+    private TokenRevocationList revocationList;
+
+    @MockitoBean
+    private LoginThrottle loginThrottle;
+
+    // ==================== GET /api/v1/auth/page ====================
+
+    @Test
+    public void testPage_AnonimoEsRechazado() throws Exception {
+        // DADO / CUANDO: una petición sin token
+        mockMvc.perform(get("/api/v1/auth/page").param("email", "juan"))
+                // ENTONCES: se rechaza sin llegar al servicio
+                .andExpect(status().isForbidden());
+        verify(userService, never()).findPage(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void testPage_ClienteEsRechazado() throws Exception {
+        // DADO: un token válido de un cliente
+        autenticar(CLIENTE_TOKEN, 2L, "CLIENTE");
+
+        // CUANDO / ENTONCES: se rechaza por no ser ADMIN
+        mockMvc.perform(get("/api/v1/auth/page").header("Authorization", "Bearer " + CLIENTE_TOKEN))
+                .andExpect(status().isForbidden());
+        verify(userService, never()).findPage(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void testPage_AdminPuedeListar() throws Exception {
+        // DADO: un token válido de un administrador
+        autenticar(ADMIN_TOKEN, 1L, "ADMIN");
+        when(userService.findPage(any(), anyInt(), any(), any())).thenReturn(new UserPage(List.of(), null));
+
+        // CUANDO / ENTONCES: obtiene la página
+        mockMvc.perform(get("/api/v1/auth/page").header("Authorization", "Bearer " + ADMIN_TOKEN))
+                .andExpect(status().isOk());
+    }
+
+    // ==================== GET /api/v1/auth/users ====================
+
+    @Test
+    public void testUsersPorId_AnonimoEsRechazado() throws Exception {
+        // DADO / CUANDO: una petición sin token que intenta recorrer IDs
+        mockMvc.perform(get("/api/v1/auth/users").param("ids", "1,2,3"))
+                // ENTONCES: se rechaza sin llegar al servicio
+                .andExpect(status().isForbidden());
+        verify(userService, never()).findViewsByIds(any());
+    }
+
+    @Test
+    public void testUsersPorId_ClienteEsRechazado() throws Exception {
+        // DADO: un token válido de un cliente
+        autenticar(CLIENTE_TOKEN, 2L, "CLIENTE");
+
+        // CUANDO / ENTONCES: se rechaza por no ser ADMIN
+        mockMvc.perform(get("/api/v1/auth/users").param("ids", "1,2,3").header("Authorization", "Bearer " + CLIENTE_TOKEN))
+                .andExpect(status().isForbidden());
+        verify(userService, never()).findViewsByIds(any());
+    }
+
+    @Test
+    public void testUsersPorId_AdminPuedeConsultar() throws Exception {
+        // DADO: un token válido de un administrador
+        autenticar(ADMIN_TOKEN, 1L, "ADMIN");
+        when(userService.findViewsByIds(any())).thenReturn(List.of());
+
+        // CUANDO / ENTONCES: obtiene los usuarios
+        mockMvc.perform(get("/api/v1/auth/users").param("ids", "1,2,3").header("Authorization", "Bearer " + ADMIN_TOKEN))
+                .andExpect(status().isOk());
+    }
+
+    // ==================== /actuator ====================
+
+    @Test
+    public void testActuatorMetrics_AnonimoEsRechazado() throws Exception {
+        // DADO / CUANDO / ENTONCES: las métricas de autenticación no son públicas
+        mockMvc.perform(get("/actuator/metrics/auth.login.throttled"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testActuatorHealth_SigueSiendoPublico() throws Exception {
+        // DADO / CUANDO: el health check sin token
+        mockMvc.perform(get("/actuator/health"))
+                // ENTONCES: la seguridad lo deja pasar (en este slice no hay endpoints de actuator, así que es 404)
+                .andExpect(result -> assertNotEquals(403, result.getResponse().getStatus()));
+    }
+
+    // Simula un token válido, no revocado y con la versión vigente del usuario
+    private void autenticar(String token, Long userId, String role) {
+        UserView user = mock(UserView.class);
+        when(user.getTokenVersion()).thenReturn(0);
+        when(jwtUtil.extractEmail(token)).thenReturn("usuario" + userId + "@example.com");
+        when(jwtUtil.validateToken(token)).thenReturn(true);
+        when(jwtUtil.extractTokenId(token)).thenReturn("jti-" + userId);
+        when(jwtUtil.extractUserId(token)).thenReturn(userId);
+        when(jwtUtil.extractTokenVersion(token)).thenReturn(0);
+        when(jwtUtil.extractRole(token)).thenReturn(role);
+        when(userService.findViewById(userId)).thenReturn(user);
+    }
+}
@@ -0,0 +1,88 @@
+package com.Gestion.Usuarios.controller;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.Gestion.Usuarios.dto.UserView;
+import com.Gestion.Usuarios.model.User;
+import com.Gestion.Usuarios.service.RefreshTokenService;
+import com.Gestion.Usuarios.service.UserService;
+import com.Gestion.Usuarios.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenControllerTest {
+
+    @InjectMocks
+    private TokenController tokenController;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(tokenController).build();
+    }
+
+    // ==================== TESTS PARA POST /refresh ====================
+
+    @Test
+    public void testRefresh_RespuestaNoIncluyeLaContrasena() throws Exception {
+        // DADO: un refresh token válido de un usuario con contraseña guardada
+        User juan = new User();
+        juan.setId(1L);
+        juan.setFirstName("Juan");
+        juan.setLastName("Pérez");
+        juan.setEmail("juan@example.com");
+        juan.setRole("CLIENTE");
+        juan.setPassword("$2a$10$hashQueNoDebeSalir");
+        when(refreshTokenService.rotate("refresh-1")).thenReturn(new RefreshTokenService.Rotation(1L, "refresh-2"));
+        when(userService.findViewById(1L)).thenReturn(UserView.of(juan));
+        when(jwtUtil.generateToken("juan@example.com", "CLIENTE", 1L, 0)).thenReturn("access-2");
+        when(jwtUtil.getExpirationSeconds()).thenReturn(900L);
+
+        // CUANDO: se renueva el token
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"refresh-1\"}"))
+                // ENTONCES: se retornan los tokens nuevos y los datos públicos, sin el hash
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").value("access-2"))
+                .andExpect(jsonPath("$.data.refreshToken").value("refresh-2"))
+                .andExpect(jsonPath("$.data.user.email").value("juan@example.com"))
+                .andExpect(jsonPath("$.data.user.password").doesNotExist())
+                .andExpect(jsonPath("$.data.user.tokenVersion").doesNotExist());
+    }
+
+    @Test
+    public void testRefresh_UsuarioEliminadoRevocaLaSesion() throws Exception {
+        // DADO: un refresh token válido de un usuario que ya no existe
+        when(refreshTokenService.rotate("refresh-1")).thenReturn(new RefreshTokenService.Rotation(9L, "refresh-2"));
+        when(userService.findViewById(9L)).thenReturn(null);
+
+        // CUANDO / ENTONCES: se rechaza y se revocan sus refresh tokens
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"refresh-1\"}"))
+                .andExpect(status().isUnauthorized());
+        verify(refreshTokenService).revokeAllForUser(9L);
+    }
+}
@@ -0,0 +1,87 @@
+package com.Gestion.Usuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.Gestion.Usuarios.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+
+@ExtendWith(MockitoExtension.class)
+public class KnownEmailsTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private KnownEmails knownEmails;
+
+    @BeforeEach
+    public void setUp() {
+        knownEmails = new KnownEmails(meterRegistry);
+        ReflectionTestUtils.setField(knownEmails, "userRepository", userRepository);
+        ReflectionTestUtils.setField(knownEmails, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(knownEmails, "expectedEmails", 1000L);
+        ReflectionTestUtils.setField(knownEmails, "falsePositiveRate", 0.01);
+    }
+
+    @Test
+    public void testIsAvailable_EmailNuevoSeRespondeSinConsultar() throws Exception {
+        // DADO: un email registrado en la tabla
+        loadWith("juan@example.com");
+
+        // CUANDO: se consulta un email que nunca se registró
+        boolean disponible = knownEmails.isAvailable("ana@example.com");
+
+        // ENTONCES: el filtro responde sin consultar la base de datos
+        assertTrue(disponible);
+        verify(userRepository, never()).existsByEmailNormalized(anyString());
+        assertEquals(1.0, meterRegistry.get("auth.email.availability").tag("source", "filter").counter().count());
+    }
+
+    @Test
+    public void testIsAvailable_EmailRegistradoSeConfirmaEnLaBaseDeDatos() throws Exception {
+        // DADO: un email cargado al iniciar y otro registrado después
+        loadWith("juan@example.com");
+        knownEmails.add("ana@example.com");
+        when(userRepository.existsByEmailNormalized(anyString())).thenReturn(true);
+
+        // CUANDO / ENTONCES: ambos se confirman con la consulta y no están disponibles
+        assertFalse(knownEmails.isAvailable("juan@example.com"));
+        assertFalse(knownEmails.isAvailable("ana@example.com"));
+        verify(userRepository, times(2)).existsByEmailNormalized(anyString());
+    }
+
+    @Test
+    public void testIsAvailable_SinFiltroCargadoConsultaLaBaseDeDatos() {
+        // DADO: el filtro todavía no se cargó
+        when(userRepository.existsByEmailNormalized("ana@example.com")).thenReturn(false);
+
+        // CUANDO / ENTONCES
+        assertTrue(knownEmails.isAvailable("ana@example.com"));
+        verify(userRepository).existsByEmailNormalized("ana@example.com");
+    }
+
+    private void loadWith(String email) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(email);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        knownEmails.load();
+    }
+}
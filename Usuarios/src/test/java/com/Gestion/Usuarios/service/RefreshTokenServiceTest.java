@@ -0,0 +1,94 @@
+package com.Gestion.Usuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.Gestion.Usuarios.model.RefreshToken;
+import com.Gestion.Usuarios.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "expirationDays", 14L);
+    }
+
+    @Test
+    public void testIssue_GuardaSoloElHash() {
+        // CUANDO: se emite un refresh token
+        String raw = refreshTokenService.issue(1L);
+
+        // ENTONCES: la tabla guarda el hash SHA-256, nunca el valor entregado
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(RefreshTokenService.hash(raw), captor.getValue().getTokenHash());
+        assertNotEquals(raw, captor.getValue().getTokenHash());
+        assertEquals(1L, captor.getValue().getUserId());
+    }
+
+    @Test
+    public void testRotate_EntregaUnTokenNuevoDeLaMismaFamilia() {
+        // DADO: un refresh token vigente
+        RefreshToken vigente = token("fam-1", null);
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(vigente);
+        when(refreshTokenRepository.markUsed(eq(10L), any(Instant.class))).thenReturn(1);
+
+        // CUANDO: se rota
+        RefreshTokenService.Rotation rotacion = refreshTokenService.rotate("raw");
+
+        // ENTONCES: se entrega otro token para el mismo usuario y familia
+        assertNotNull(rotacion);
+        assertEquals(1L, rotacion.userId());
+        assertNotEquals("raw", rotacion.refreshToken());
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals("fam-1", captor.getValue().getFamilyId());
+    }
+
+    @Test
+    public void testRotate_ReutilizacionRevocaLaFamilia() {
+        // DADO: un refresh token que ya fue usado
+        RefreshToken usado = token("fam-1", Instant.now().minusSeconds(30));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(usado);
+
+        // CUANDO: se presenta otra vez
+        RefreshTokenService.Rotation rotacion = refreshTokenService.rotate("raw");
+
+        // ENTONCES: se rechaza y se revoca toda la familia
+        assertNull(rotacion);
+        verify(refreshTokenRepository).revokeFamily(eq("fam-1"), any(Instant.class));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    public void testRotate_TokenDesconocidoSeRechaza() {
+        // CUANDO: se presenta un token que no existe
+        RefreshTokenService.Rotation rotacion = refreshTokenService.rotate("desconocido");
+
+        // ENTONCES: se rechaza sin revocar nada
+        assertNull(rotacion);
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    private static RefreshToken token(String familyId, Instant revokedAt) {
+        return new RefreshToken(10L, 1L, "hash", familyId, Instant.now().plus(Duration.ofDays(1)), revokedAt);
+    }
+}
@@ -0,0 +1,73 @@
+package com.Gestion.Usuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.Gestion.Usuarios.model.RevokedToken;
+import com.Gestion.Usuarios.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationListTest {
+
+    @InjectMocks
+    private TokenRevocationList revocationList;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(revocationList, "expectedTokens", 1000L);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.01);
+        revocationList.init();
+    }
+
+    @Test
+    public void testRevoke_TokenQuedaRevocadoEnMemoria() {
+        // CUANDO: se revoca un token que vence en 10 minutos
+        revocationList.revoke("jti-1", Instant.now().plus(Duration.ofMinutes(10)));
+
+        // ENTONCES: se guarda en la tabla y se rechaza sin consultar la base de datos
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertTrue(revocationList.isRevoked("jti-1"));
+        assertFalse(revocationList.isRevoked("jti-2"));
+        verifyNoMoreInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    public void testRevoke_TokenVencidoNoSeGuarda() {
+        // CUANDO: se revoca un token que ya venció
+        revocationList.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        // ENTONCES: no hace falta guardarlo
+        verifyNoInteractions(revokedTokenRepository);
+        assertFalse(revocationList.isRevoked("jti-1"));
+    }
+
+    @Test
+    public void testLoad_ReconstruyeDesdeLaTabla() {
+        // DADO: dos tokens revocados vigentes en la tabla
+        Instant vence = Instant.now().plus(Duration.ofMinutes(5));
+        when(revokedTokenRepository.findByExpiresAtAfter(any(Instant.class)))
+                .thenReturn(List.of(new RevokedToken("jti-a", vence), new RevokedToken("jti-b", vence)));
+
+        // CUANDO: se carga al iniciar
+        revocationList.load();
+
+        // ENTONCES: ambos quedan revocados
+        assertTrue(revocationList.isRevoked("jti-a"));
+        assertTrue(revocationList.isRevoked("jti-b"));
+        assertEquals(2, revocationList.size());
+    }
+}
@@ -0,0 +1,225 @@
+package com.Gestion.Usuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.Gestion.Usuarios.dto.UserImportResult;
+import com.Gestion.Usuarios.util.HashingRejectedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private KnownEmails knownEmails;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserImportService importService;
+
+    @BeforeEach
+    public void setUp() {
+        importService = new UserImportService(2);
+        ReflectionTestUtils.setField(importService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(importService, "knownEmails", knownEmails);
+        ReflectionTestUtils.setField(importService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(importService, "passwordEncoder", fakeEncoder());
+        ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(importService, "batchSize", 500);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 1000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportUsers_InsertaValidosYReportaErroresPorFila() throws Exception {
+        // DADO: un archivo con 2 usuarios válidos, uno ya registrado, un email inválido y un email repetido
+        String ndjson = String.join("\n",
+                "{\"firstName\":\"Juan\",\"lastName\":\"Pérez\",\"email\":\"Juan@Example.com\",\"password\":\"miPassword123\",\"role\":\"cliente\"}",
+                "{\"firstName\":\"Ana\",\"lastName\":\"Gómez\",\"email\":\"ana@example.com\",\"password\":\"otraClave123\"}",
+                "{\"firstName\":\"Luis\",\"lastName\":\"Soto\",\"email\":\"no-es-email\",\"password\":\"clave12345\"}",
+                "",
+                "{\"firstName\":\"Juan\",\"lastName\":\"Otro\",\"email\":\"juan@example.com\",\"password\":\"miPassword123\"}",
+                "{\"firstName\":\"Pedro\",\"lastName\":\"Díaz\",\"email\":\"pedro@example.com\",\"password\":\"clavePedro1\"}");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of("ana@example.com"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+        when(jdbcTemplate.queryForList(startsWith("SELECT email_normalized, password"), any(Object[].class))).thenReturn(List.of(
+                stored("juan@example.com", "HASH:miPassword123"),
+                stored("pedro@example.com", "HASH:clavePedro1")));
+
+        // CUANDO: se importa
+        UserImportResult result = importService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // ENTONCES: se insertan 2 en un solo batch, con la contraseña hasheada y el rol normalizado
+        assertEquals(5, result.getProcessed());
+        assertEquals(2, result.getInserted());
+        assertEquals(3, result.getFailed());
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        Object[] juan = captor.getValue().get(0);
+        assertEquals("HASH:miPassword123", juan[3]);
+        assertEquals("CLIENTE", juan[4]);
+        assertEquals("juan@example.com", juan[5]);
+        assertEquals("pedro@example.com", captor.getValue().get(1)[5]);
+
+        // Y cada fila rechazada se informa con su línea
+        Map<Long, String> errores = result.getErrors().stream()
+                .collect(Collectors.toMap(UserImportResult.RowError::getLine, UserImportResult.RowError::getMessage));
+        assertEquals("El email ya está registrado", errores.get(2L));
+        assertEquals("El formato del correo no es válido", errores.get(3L));
+        assertEquals("El email está repetido en el archivo", errores.get(5L));
+        verify(knownEmails).add("juan@example.com");
+        verify(knownEmails).add("pedro@example.com");
+    }
+
+    @Test
+    public void testImportUsers_EmailTomadoDuranteLaImportacionSeReporta() throws Exception {
+        // DADO: otro registro tomó el email entre la consulta y el INSERT, así que la fila guarda otro hash
+        String ndjson = "{\"firstName\":\"Juan\",\"lastName\":\"Pérez\",\"email\":\"juan@example.com\",\"password\":\"miPassword123\"}";
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of());
+        // ON DUPLICATE KEY UPDATE con useAffectedRows=false informa 1 también para el duplicado
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        when(jdbcTemplate.queryForList(startsWith("SELECT email_normalized, password"), any(Object[].class)))
+                .thenReturn(List.of(stored("juan@example.com", "HASH:deOtroRegistro")));
+
+        // CUANDO: se importa
+        UserImportResult result = importService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // ENTONCES: la fila se informa como email registrado y no se agrega al filtro
+        assertEquals(0, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals("El email ya está registrado", result.getErrors().get(0).getMessage());
+        verifyNoInteractions(knownEmails);
+    }
+
+    @Test
+    public void testImportUsers_CamposDemasiadoLargosSeRechazanSinGuardar() throws Exception {
+        // DADO: un nombre de 101 caracteres y un email de más de 254
+        String nombreLargo = "N".repeat(101);
+        String emailLargo = "a".repeat(250) + "@example.com";
+        String ndjson = String.join("\n",
+                "{\"firstName\":\"" + nombreLargo + "\",\"lastName\":\"Pérez\",\"email\":\"juan@example.com\",\"password\":\"miPassword123\"}",
+                "{\"firstName\":\"Ana\",\"lastName\":\"Gómez\",\"email\":\"" + emailLargo + "\",\"password\":\"otraClave123\"}");
+
+        // CUANDO: se importa
+        UserImportResult result = importService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // ENTONCES: ambas filas se rechazan en la validación, sin llegar a la base de datos (no se truncan)
+        assertEquals(0, result.getInserted());
+        assertEquals(2, result.getFailed());
+        assertEquals("El nombre no puede superar los 100 caracteres", result.getErrors().get(0).getMessage());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    public void testImportUsers_LoteFallidoSeReintentaFilaPorFila() throws Exception {
+        // DADO: un lote de 3 usuarios donde el INSERT del segundo falla en la base de datos
+        String ndjson = String.join("\n",
+                "{\"firstName\":\"Juan\",\"lastName\":\"Pérez\",\"email\":\"juan@example.com\",\"password\":\"miPassword123\"}",
+                "{\"firstName\":\"Malo\",\"lastName\":\"Gómez\",\"email\":\"malo@example.com\",\"password\":\"otraClave123\"}",
+                "{\"firstName\":\"Pedro\",\"lastName\":\"Díaz\",\"email\":\"pedro@example.com\",\"password\":\"clavePedro1\"}");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            if (args.stream().anyMatch(row -> "malo@example.com".equals(row[5]))) {
+                throw new IllegalStateException("Data truncation: first_name");
+            }
+            return new int[args.size()];
+        });
+        when(jdbcTemplate.queryForList(startsWith("SELECT email_normalized, password"), any(Object[].class))).thenReturn(List.of(
+                stored("juan@example.com", "HASH:miPassword123"),
+                stored("pedro@example.com", "HASH:clavePedro1")));
+
+        // CUANDO: se importa
+        UserImportResult result = importService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // ENTONCES: el lote se reintenta fila por fila (sin volver a hashear) y solo la línea 2 se reporta
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals(2L, result.getErrors().get(0).getLine());
+        assertTrue(result.getErrors().get(0).getMessage().contains("Data truncation"));
+        verify(jdbcTemplate, times(4)).batchUpdate(anyString(), anyList());
+        verify(knownEmails).add("juan@example.com");
+        verify(knownEmails).add("pedro@example.com");
+    }
+
+    @Test
+    public void testImportUsers_UsaElEncoderAcotadoYEsperaSiLaColaEstaLlena() throws Exception {
+        // DADO: el pool acotado rechaza el primer hash por cola llena
+        AtomicInteger intentos = new AtomicInteger();
+        PasswordEncoder acotado = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (intentos.incrementAndGet() == 1) {
+                    throw new HashingRejectedException("Servicio de autenticación saturado, reintente en unos segundos");
+                }
+                return "HASH:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+        ReflectionTestUtils.setField(importService, "passwordEncoder", acotado);
+        String ndjson = "{\"firstName\":\"Juan\",\"lastName\":\"Pérez\",\"email\":\"juan@example.com\",\"password\":\"miPassword123\"}";
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        when(jdbcTemplate.queryForList(startsWith("SELECT email_normalized, password"), any(Object[].class)))
+                .thenReturn(List.of(stored("juan@example.com", "HASH:miPassword123")));
+
+        // CUANDO: se importa
+        UserImportResult result = importService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // ENTONCES: el hash se reintenta en el mismo encoder y la fila se inserta
+        assertEquals(2, intentos.get());
+        assertEquals(1, result.getInserted());
+        assertEquals(0, result.getFailed());
+    }
+
+    private static Map<String, Object> stored(String emailNormalized, String password) {
+        return Map.of("email_normalized", emailNormalized, "password", password);
+    }
+
+    private static PasswordEncoder fakeEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return "HASH:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
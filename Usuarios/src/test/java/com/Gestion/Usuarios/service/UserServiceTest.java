@@ -3,18 +3,27 @@ package com.Gestion.Usuarios.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.Gestion.Usuarios.dto.UserPage;
+import com.Gestion.Usuarios.dto.UserView;
 import com.Gestion.Usuarios.model.User;
 import com.Gestion.Usuarios.repository.UserRepository;
+import com.Gestion.Usuarios.util.EmailAlreadyRegisteredException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
@@ -28,6 +37,18 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private KnownEmails knownEmails;
+
+    @Mock
+    private TokenVersions tokenVersions;
+
     // ==================== TESTS PARA save() ====================
 
     @Test
@@ -48,6 +69,47 @@ public class UserServiceTest {
         verify(userRepository).save(user);
     }
 
+    @Test
+    public void testSave_EmailDuplicado_LoRechazaElIndiceUnico() {
+        // DADO: el INSERT viola el índice único del email
+        User user = new User();
+        user.setEmail("Juan@Example.com");
+        user.setPassword("miPassword123");
+        when(passwordEncoder.encode("miPassword123")).thenReturn("HASH");
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException("Duplicate entry 'juan@example.com' for key 'users.idx_users_email_normalized'")));
+
+        // CUANDO / ENTONCES: se informa como email ya registrado, sin haber consultado antes por email
+        EmailAlreadyRegisteredException ex = assertThrows(EmailAlreadyRegisteredException.class, () -> userService.save(user));
+        assertEquals("El email ya está registrado", ex.getMessage());
+        verify(userRepository, never()).findByEmail(anyString());
+        verifyNoInteractions(knownEmails);
+    }
+
+    @Test
+    public void testSave_OtraRestriccionNoSeInformaComoEmailDuplicado() {
+        // DADO: el INSERT falla porque el nombre es demasiado largo para la columna
+        User user = new User();
+        user.setEmail("juan@example.com");
+        user.setPassword("miPassword123");
+        when(passwordEncoder.encode("miPassword123")).thenReturn("HASH");
+        DataIntegrityViolationException error = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Data truncation: Data too long for column 'first_name' at row 1"));
+        when(userRepository.save(any(User.class))).thenThrow(error);
+
+        // CUANDO / ENTONCES: se propaga el error original, sin decir que el email ya existe
+        assertSame(error, assertThrows(DataIntegrityViolationException.class, () -> userService.save(user)));
+    }
+
+    @Test
+    public void testIsEmailAvailable_ConsultaConElEmailNormalizado() {
+        // DADO: el filtro responde que el email normalizado está libre
+        when(knownEmails.isAvailable("juan@example.com")).thenReturn(true);
+
+        // CUANDO / ENTONCES
+        assertTrue(userService.isEmailAvailable("  Juan@Example.com "));
+    }
+
     // ==================== TESTS PARA findByEmail() ====================
 
     @Test
@@ -137,6 +199,77 @@ public class UserServiceTest {
         assertTrue(ex.getMessage().contains("Usuario no encontrado"));
     }
 
+    // ==================== TESTS PARA findViewById() ====================
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindViewById_CargaDesdeLaCacheSinPassword() {
+        // DADO: un usuario que no está en caché
+        UserView view = mock(UserView.class);
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(view));
+        when(userCache.get(eq(1L), any())).thenAnswer(i -> ((Function<Long, UserView>) i.getArgument(1)).apply(1L));
+
+        // CUANDO: se busca la proyección
+        UserView resultado = userService.findViewById(1L);
+
+        // ENTONCES: se carga con la consulta sin contraseña, no con la entidad completa
+        assertSame(view, resultado);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testFindViewsByIds_UnaSolaConsultaSinRepetidos() {
+        // DADO: IDs repetidos en la petición
+        UserView juan = mock(UserView.class);
+        UserView ana = mock(UserView.class);
+        when(userRepository.findViewsByIdInOrderByIdAsc(Set.of(1L, 2L))).thenReturn(List.of(juan, ana));
+
+        // CUANDO: se buscan los usuarios
+        List<UserView> resultado = userService.findViewsByIds(List.of(2L, 1L, 2L));
+
+        // ENTONCES: una consulta con los IDs distintos, sin cargar entidades
+        assertEquals(List.of(juan, ana), resultado);
+        verify(userRepository, never()).findAllById(any());
+    }
+
+    // ==================== TESTS PARA findPage() ====================
+
+    @Test
+    public void testFindPage_PaginaCompletaRetornaCursor() {
+        // DADO: dos usuarios después del ID 10
+        UserView a = view(11L);
+        UserView b = view(12L);
+        when(userRepository.findViewsByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(a, b));
+
+        // CUANDO: se pide una página de 2
+        UserPage pagina = userService.findPage(10L, 2, null, null);
+
+        // ENTONCES: la página está llena y el cursor apunta al último
+        assertEquals(2, pagina.getUsers().size());
+        assertEquals(12L, pagina.getNextAfterId());
+    }
+
+    @Test
+    public void testFindPage_BuscaPorPrefijoNormalizado() {
+        // DADO: una búsqueda con mayúsculas, tildes y espacios extra
+        UserView jose = view(3L);
+        when(userRepository.findViewsByNameNormalizedStartingWithAndIdGreaterThanOrderByIdAsc(eq("jose p"), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(jose));
+
+        // CUANDO: se busca por nombre en la primera página
+        UserPage pagina = userService.findPage(null, 50, "  José   P", null);
+
+        // ENTONCES: se usa el prefijo normalizado y no hay página siguiente
+        assertEquals(1, pagina.getUsers().size());
+        assertNull(pagina.getNextAfterId());
+    }
+
+    private static UserView view(Long id) {
+        UserView view = mock(UserView.class);
+        lenient().when(view.getId()).thenReturn(id);
+        return view;
+    }
+
     // ==================== TESTS PARA updatePassword() ====================
 
     @Test
@@ -155,6 +288,46 @@ public class UserServiceTest {
         // ENTONCES: el password está encriptado con el nuevo valor
         assertEquals("NUEVO_HASH", resultado.getPassword());
         verify(userRepository).save(existente);
+        verify(refreshTokenService).revokeAllForUser(1L);
+        verify(userCache).invalidate(1L);
+    }
+
+    @Test
+    public void testUpdatePassword_IncrementaLaVersionDeTokens() {
+        // DADO: un usuario cuyos tokens tienen la versión 2
+        User existente = new User();
+        existente.setId(1L);
+        existente.setTokenVersion(2);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existente));
+        when(passwordEncoder.encode("nuevaClave")).thenReturn("NUEVO_HASH");
+        when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        // CUANDO: cambia la contraseña
+        User resultado = userService.updatePassword(1L, "nuevaClave");
+
+        // ENTONCES: la versión sube y el cambio queda en el log que leen los demás servicios
+        assertEquals(3, resultado.getTokenVersion());
+        verify(tokenVersions).recordVersion(1L, 3);
+    }
+
+    // ==================== TESTS PARA upgradePasswordHash() ====================
+
+    @Test
+    public void testUpgradePasswordHash_RecalculaConLaPasswordVerificada() {
+        // DADO: un usuario con un hash de costo antiguo
+        User existente = new User();
+        existente.setId(1L);
+        existente.setPassword("HASH_ANTIGUO");
+        when(passwordEncoder.encode("miPassword123")).thenReturn("{bcrypt}HASH_NUEVO");
+        when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        // CUANDO: se actualiza el hash tras un login exitoso
+        User resultado = userService.upgradePasswordHash(existente, "miPassword123");
+
+        // ENTONCES: se guarda el nuevo hash
+        assertEquals("{bcrypt}HASH_NUEVO", resultado.getPassword());
+        verify(userRepository).save(existente);
+        verifyNoInteractions(tokenVersions);
     }
 
     // ==================== TESTS PARA deleteUser() ====================
@@ -166,5 +339,8 @@ public class UserServiceTest {
 
         // ENTONCES: se llama al repositorio
         verify(userRepository).deleteById(1L);
+        verify(refreshTokenService).revokeAllForUser(1L);
+        verify(userCache).invalidate(1L);
+        verify(tokenVersions).recordDeleted(1L);
     }
 }
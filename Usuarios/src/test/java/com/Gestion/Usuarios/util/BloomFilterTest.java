@@ -0,0 +1,35 @@
+package com.Gestion.Usuarios.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testSinFalsosNegativosYPocosFalsosPositivos() {
+        // DADO: un filtro para 10.000 elementos con 1% de falsos positivos
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        String[] agregados = new String[10_000];
+        for (int i = 0; i < agregados.length; i++) {
+            agregados[i] = UUID.randomUUID().toString();
+            filter.put(agregados[i]);
+        }
+
+        // ENTONCES: todos los agregados se encuentran
+        for (String valor : agregados) {
+            assertTrue(filter.mightContain(valor));
+        }
+
+        // Y los falsos positivos sobre valores nuevos quedan cerca de la tasa pedida
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 300, "Falsos positivos: " + falsosPositivos);
+    }
+}
@@ -0,0 +1,98 @@
+package com.Gestion.Usuarios.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+    private ExecutorService callers;
+
+    @AfterEach
+    public void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+        if (callers != null) {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEncodeYMatches_EnElPoolDedicado() {
+        // DADO: un encoder BCrypt de costo bajo ejecutado en el pool
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, meterRegistry);
+
+        // CUANDO: se calcula un hash y se verifica
+        String hash = encoder.encode("miPassword123");
+
+        // ENTONCES: el hash es válido y la latencia queda registrada por operación
+        assertTrue(encoder.matches("miPassword123", hash));
+        assertFalse(encoder.matches("otraPassword", hash));
+        assertEquals(1, meterRegistry.get("auth.hashing.latency").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.hashing.latency").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    public void testColaLlena_RechazaSinEsperar() throws Exception {
+        // DADO: un pool de 1 hilo y cola de 1, con el hilo ocupado y la cola llena
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, meterRegistry);
+        callers = Executors.newFixedThreadPool(2);
+        callers.submit(() -> encoder.encode("uno"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> encoder.encode("dos"));
+        waitForQueueDepth(1);
+
+        // CUANDO / ENTONCES: la siguiente petición se rechaza y se cuenta como rechazada
+        assertThrows(HashingRejectedException.class, () -> encoder.matches("tres", "HASH"));
+        assertEquals(1.0, meterRegistry.get("auth.hashing.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("auth.hashing.queue.depth").gauge().value());
+
+        // Al liberar el hilo, el pool vuelve a aceptar trabajo
+        release.countDown();
+        waitForQueueDepth(0);
+        assertEquals("HASH:cuatro", encoder.encode("cuatro"));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (encoder.queueDepth() != depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, encoder.queueDepth());
+    }
+
+    // Encoder que se bloquea hasta que se libera el latch, para simular hashes lentos
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "HASH:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
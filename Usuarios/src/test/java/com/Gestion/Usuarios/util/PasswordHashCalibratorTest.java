@@ -0,0 +1,36 @@
+package com.Gestion.Usuarios.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PasswordHashCalibratorTest {
+
+    @Test
+    public void testPickCost_MayorCostoDentroDelObjetivo() {
+        // DADO: un hash que tarda 10 ms con costo 10 y se duplica con cada paso
+        List<Integer> medidos = new ArrayList<>();
+
+        // CUANDO: se calibra con un objetivo de 50 ms
+        int costo = PasswordHashCalibrator.pickCost(10, 16, 50_000_000L, cost -> {
+            medidos.add(cost);
+            return 10_000_000L << (cost - 10);
+        });
+
+        // ENTONCES: se elige 12 (40 ms) y se deja de medir en el primer costo que se pasa (13, 80 ms)
+        assertEquals(12, costo);
+        assertEquals(List.of(10, 11, 12, 13), medidos);
+    }
+
+    @Test
+    public void testPickCost_NuncaBajaDelMinimo() {
+        // CUANDO: la máquina es más lenta que el objetivo incluso con el costo mínimo
+        int costo = PasswordHashCalibrator.pickCost(10, 16, 1_000_000L, cost -> 500_000_000L);
+
+        // ENTONCES: se usa el costo mínimo configurado
+        assertEquals(10, costo);
+    }
+}
@@ -0,0 +1,76 @@
+package com.Gestion.Usuarios.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SlidingWindowRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Test
+    public void testTryAcquire_RechazaAlSuperarElLimite() {
+        // DADO: un límite de 3 intentos por minuto
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, 60_000L, 100, 4, now::get);
+
+        // CUANDO / ENTONCES: los 3 primeros pasan y el cuarto se rechaza con el tiempo de espera
+        assertEquals(0L, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0L, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0L, limiter.tryAcquire("1.2.3.4"));
+        now.addAndGet(10_000L);
+        assertEquals(50_000L, limiter.tryAcquire("1.2.3.4"));
+
+        // Otra clave no se ve afectada
+        assertEquals(0L, limiter.tryAcquire("5.6.7.8"));
+    }
+
+    @Test
+    public void testTryAcquire_LaVentanaAnteriorPesaSegunElSolapamiento() {
+        // DADO: 4 intentos (el límite) en la primera ventana
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(4, 60_000L, 100, 4, now::get);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0L, limiter.tryAcquire("juan@example.com"));
+        }
+
+        // CUANDO: pasa un cuarto de la ventana siguiente, la anterior aún cuenta 3 (75% de 4)
+        now.addAndGet(75_000L);
+
+        // ENTONCES: se permite un intento más y el siguiente se rechaza
+        assertEquals(0L, limiter.tryAcquire("juan@example.com"));
+        assertTrue(limiter.tryAcquire("juan@example.com") > 0);
+
+        // Y pasadas dos ventanas completas, el conteo vuelve a cero
+        now.addAndGet(120_000L);
+        assertEquals(0L, limiter.tryAcquire("juan@example.com"));
+    }
+
+    @Test
+    public void testReset_OlvidaLosIntentos() {
+        // DADO: una clave en el límite
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(1, 60_000L, 100, 4, now::get);
+        limiter.tryAcquire("juan@example.com");
+        assertTrue(limiter.tryAcquire("juan@example.com") > 0);
+
+        // CUANDO: se reinicia (login exitoso)
+        limiter.reset("juan@example.com");
+
+        // ENTONCES: vuelve a permitirse
+        assertEquals(0L, limiter.tryAcquire("juan@example.com"));
+    }
+
+    @Test
+    public void testMemoriaAcotada_DescartaLasClavesMenosRecientes() {
+        // DADO: capacidad para 8 claves en total (2 por franja)
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(5, 60_000L, 8, 4, now::get);
+
+        // CUANDO: llegan 1000 IPs distintas
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        // ENTONCES: nunca se guardan más claves que la capacidad
+        assertTrue(limiter.size() <= 8, "Claves guardadas: " + limiter.size());
+    }
+}